@@ -2,8 +2,11 @@ import java.util.ArrayList;
 import java.util.List;
 
 import controller.AnyTimeStrat;
+import controller.BestFitStrat;
+import controller.CachingStrat;
 import controller.LenientStrat;
 import controller.NUPlannerController;
+import controller.RacingStrat;
 import controller.SchedulingStrategy;
 import controller.WorkHoursStrat;
 import model.Day;
@@ -27,17 +30,14 @@ public final class PlannerRunner {
     SchedulingStrategy strat = null;
     if (args.length > 0) {
       switch (args[0]) {
-        case "anytime":
-          strat = new AnyTimeStrat();
+        case "race":
+          strat = new RacingStrat(RacingStrat.Mode.FIRST_FEASIBLE, racers(args));
           break;
-        case "workhours":
-          strat = new WorkHoursStrat();
-          break;
-        case "lenient":
-          strat = new LenientStrat();
+        case "racebest":
+          strat = new RacingStrat(RacingStrat.Mode.BEST_SCORED, racers(args));
           break;
         default:
-          throw new IllegalArgumentException("Unknown Scheduling Strategy");
+          strat = strategyFor(args[0]);
       }
     }else {
       throw new IllegalArgumentException("Strategy Required");
@@ -51,6 +51,46 @@ public final class PlannerRunner {
             Day.Thursday, 500, Day.Saturday, 2000, List.of());
     testModel.createEvent("Lucia", "Also working on OOD", "Meserve", true,
             Day.Sunday, 500, Day.Sunday, 900, List.of("Ben", "Nico"));
-    new NUPlannerController(testModel, strat, new MainScheduleFrameView(testModel));
+    new NUPlannerController(testModel, new CachingStrat(strat),
+            new MainScheduleFrameView(testModel));
+  }
+
+  /**
+   * Finds the strategy with the given command line name.
+   *
+   * @param name the name of the strategy
+   * @return the strategy
+   */
+  private static SchedulingStrategy strategyFor(String name) {
+    switch (name) {
+      case "anytime":
+        return new AnyTimeStrat();
+      case "workhours":
+        return new WorkHoursStrat();
+      case "lenient":
+        return new LenientStrat();
+      case "bestfit":
+        return new BestFitStrat();
+      default:
+        throw new IllegalArgumentException("Unknown Scheduling Strategy");
+    }
+  }
+
+  /**
+   * Finds the strategies named after the race argument, or every strategy if none are named.
+   *
+   * @param args arguments for the main method.
+   * @return the strategies to race
+   */
+  private static List<SchedulingStrategy> racers(String[] args) {
+    List<SchedulingStrategy> racers = new ArrayList<>();
+    for (int index = 1; index < args.length; index++) {
+      racers.add(strategyFor(args[index]));
+    }
+    if (racers.isEmpty()) {
+      racers = List.of(new AnyTimeStrat(), new WorkHoursStrat(), new LenientStrat(),
+              new BestFitStrat());
+    }
+    return racers;
   }
 }
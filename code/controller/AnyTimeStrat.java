@@ -1,38 +1,24 @@
 package controller;
 
-import java.util.List;
-
-import model.Day;
-import model.Event;
-import model.IEvent;
-import model.IUser;
-import model.PlannerModel;
-import model.User;
-
 /**
  * This is the strategy for an event that gets scheduled at the first available spot.
  */
-public class AnyTimeStrat implements SchedulingStrategy {
-  @Override
-  public IEvent chooseTime(PlannerModel model, IUser host, String name,
-                           boolean isOnline, String location,
-                           List<String> attendees, int duration) {
-    java.util.List<Day> daysOrder = java.util.List.of(Day.Sunday,
-            Day.Monday, Day.Tuesday, Day.Wednesday, Day.Thursday,
-            Day.Friday, Day.Saturday);
-    int daysAdded = duration / 2400;
-    for (int day = 0; day < (daysOrder.size() - daysAdded); day++) {
-      duration = duration % 2400;
-      for (int time = 0; time < (2400 - duration); time += duration) {
-        try {
-          return model.createEvent(host.toString(), name, location,
-                  isOnline, daysOrder.get(day), time, daysOrder.get(day + daysAdded),
-                  time + duration, attendees);
-        } catch (IllegalArgumentException ignored) {
-        }
-      }
-    }
-    throw new IllegalArgumentException("Given Duration cannot fit in schedule");
+public class AnyTimeStrat extends WindowStrat {
+
+  /**
+   * Constructs the strategy with a default AvailabilityEngine.
+   */
+  public AnyTimeStrat() {
+    this(new AvailabilityEngine());
   }
 
+  /**
+   * Constructs the strategy with the given engine, which allows the parallel threshold
+   * to be tuned.
+   *
+   * @param engine the engine that checks the participants of each slot
+   */
+  public AnyTimeStrat(AvailabilityEngine engine) {
+    super(SchedulingWindow.ANY_TIME, engine);
+  }
 }
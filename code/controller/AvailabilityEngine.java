@@ -0,0 +1,219 @@
+package controller;
+
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+import model.IUser;
+import model.TimeSlot;
+
+/**
+ * The AvailabilityEngine checks whether every participant of a possible event is free during
+ * a candidate slot. This is the check that dominates scheduling when an event has hundreds of
+ * invitees, so once the number of participants reaches the parallel threshold the schedules
+ * are split across a fork-join pool. As soon as any participant is found to be busy the
+ * remaining checks are abandoned. Smaller events are checked on the calling thread, where the
+ * cost of forking would outweigh the work.
+ *
+ * <p>When schedules are loaded from storage on first use, checking a participant can block on
+ * I/O, which would hold a fork-join worker. An engine made with {@link #onVirtualThreads(int)}
+ * instead checks each participant on its own virtual thread, so a blocked load holds only
+ * that thread.</p>
+ */
+public final class AvailabilityEngine {
+
+  /**
+   * The number of participants at which checks start being split across the pool.
+   */
+  public static final int DEFAULT_PARALLEL_THRESHOLD = 64;
+
+  // The number of schedules a single fork-join task checks before it splits further
+  private static final int SPLIT_SIZE = 16;
+
+  private final int parallelThreshold;
+  // The pool parallel checks are split across, or null to check on virtual threads
+  private final ForkJoinPool pool;
+
+  /**
+   * Constructs an engine with the default threshold that runs on the common pool.
+   */
+  public AvailabilityEngine() {
+    this(DEFAULT_PARALLEL_THRESHOLD, ForkJoinPool.commonPool());
+  }
+
+  /**
+   * Constructs an engine with the given threshold that runs on the given pool.
+   *
+   * @param parallelThreshold the number of participants at which checks are run in parallel
+   * @param pool              the pool that parallel checks are run on
+   * @throws IllegalArgumentException if the threshold is not positive
+   */
+  public AvailabilityEngine(int parallelThreshold, ForkJoinPool pool) {
+    this.parallelThreshold = checkThreshold(parallelThreshold);
+    this.pool = Objects.requireNonNull(pool);
+  }
+
+  private AvailabilityEngine(int parallelThreshold) {
+    this.parallelThreshold = checkThreshold(parallelThreshold);
+    this.pool = null;
+  }
+
+  private static int checkThreshold(int parallelThreshold) {
+    if (parallelThreshold <= 0) {
+      throw new IllegalArgumentException("Parallel threshold must be positive");
+    }
+    return parallelThreshold;
+  }
+
+  /**
+   * Constructs an engine with the given threshold that checks each participant of a large
+   * event on its own virtual thread, for schedules that may block on I/O when read.
+   *
+   * @param parallelThreshold the number of participants at which checks are run in parallel
+   * @return the engine
+   * @throws IllegalArgumentException if the threshold is not positive
+   */
+  public static AvailabilityEngine onVirtualThreads(int parallelThreshold) {
+    return new AvailabilityEngine(parallelThreshold);
+  }
+
+  /**
+   * Determines whether every participant is free during the given slot.
+   *
+   * @param participants the users that would attend the event
+   * @param slot         the slot being checked
+   * @return true if nobody has a conflicting event
+   */
+  public boolean isFree(List<IUser> participants, TimeSlot slot) {
+    if (participants.size() < this.parallelThreshold) {
+      for (IUser u : participants) {
+        if (slot.conflictsWith(u)) {
+          return false;
+        }
+      }
+      return true;
+    }
+    AtomicBoolean busy = new AtomicBoolean(false);
+    if (this.pool == null) {
+      return this.isFreeOnVirtualThreads(participants, slot, busy);
+    }
+    this.pool.invoke(new CheckTask(participants, 0, participants.size(), slot, busy));
+    return !busy.get();
+  }
+
+  /**
+   * Checks each participant on its own virtual thread, starting no more checks once one of
+   * them is found to be busy.
+   *
+   * @param participants the users that would attend the event
+   * @param slot         the slot being checked
+   * @param busy         the flag raised when a participant is busy
+   * @return true if nobody has a conflicting event
+   */
+  private boolean isFreeOnVirtualThreads(List<IUser> participants, TimeSlot slot,
+                                         AtomicBoolean busy) {
+    AtomicReference<RuntimeException> failure = new AtomicReference<>();
+    try (ExecutorService tasks = Executors.newVirtualThreadPerTaskExecutor()) {
+      for (IUser u : participants) {
+        if (busy.get()) {
+          break;
+        }
+        tasks.execute(() -> {
+          try {
+            if (!busy.get() && slot.conflictsWith(u)) {
+              busy.set(true);
+            }
+          } catch (RuntimeException e) {
+            // A schedule that cannot be read cannot be said to be free
+            failure.compareAndSet(null, e);
+            busy.set(true);
+          }
+        });
+      }
+    }
+    if (failure.get() != null) {
+      throw failure.get();
+    }
+    return !busy.get();
+  }
+
+  /**
+   * Finds the first of the given slots during which every participant is free.
+   *
+   * @param participants the users that would attend the event
+   * @param candidates   the slots in the order they should be tried
+   * @return the first free slot or null if there is none
+   */
+  public TimeSlot firstFree(List<IUser> participants, List<TimeSlot> candidates) {
+    return this.firstFree(participants, candidates, SearchBudget.unbounded());
+  }
+
+  /**
+   * Finds the first of the given slots during which every participant is free, giving up
+   * when the budget runs out.
+   *
+   * @param participants the users that would attend the event
+   * @param candidates   the slots in the order they should be tried
+   * @param budget       the budget of the search
+   * @return the first free slot or null if there is none
+   * @throws SearchTimeoutException if the budget runs out before a free slot is found
+   */
+  public TimeSlot firstFree(List<IUser> participants, List<TimeSlot> candidates,
+                            SearchBudget budget) {
+    for (TimeSlot slot : candidates) {
+      if (budget.shouldStop()) {
+        throw budget.timedOut();
+      }
+      if (this.isFree(participants, slot)) {
+        return slot;
+      }
+    }
+    return null;
+  }
+
+  /**
+   * A fork-join task that checks a range of the participants. Every task shares a flag
+   * that is raised by whichever task first finds a busy participant, and all tasks stop
+   * checking once it has been raised.
+   */
+  private static final class CheckTask extends RecursiveAction {
+    private static final long serialVersionUID = 1L;
+
+    private final List<IUser> participants;
+    private final int from;
+    private final int to;
+    private final TimeSlot slot;
+    private final AtomicBoolean busy;
+
+    CheckTask(List<IUser> participants, int from, int to, TimeSlot slot, AtomicBoolean busy) {
+      this.participants = participants;
+      this.from = from;
+      this.to = to;
+      this.slot = slot;
+      this.busy = busy;
+    }
+
+    @Override
+    protected void compute() {
+      if (this.busy.get()) {
+        return;
+      }
+      if (this.to - this.from <= SPLIT_SIZE) {
+        for (int index = this.from; index < this.to && !this.busy.get(); index++) {
+          if (this.slot.conflictsWith(this.participants.get(index))) {
+            this.busy.set(true);
+          }
+        }
+      } else {
+        int middle = (this.from + this.to) >>> 1;
+        invokeAll(new CheckTask(this.participants, this.from, middle, this.slot, this.busy),
+                new CheckTask(this.participants, middle, this.to, this.slot, this.busy));
+      }
+    }
+  }
+}
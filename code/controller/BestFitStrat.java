@@ -0,0 +1,243 @@
+package controller;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+import model.Day;
+import model.IUser;
+import model.PlannerModel;
+import model.TimeSlot;
+import model.Utils;
+
+/**
+ * This is the strategy that schedules an event where it fits most tightly into everyone's
+ * free time. Scheduling at the first available spot tends to chop calendars into small gaps
+ * that are too short to be used, so instead every candidate slot is scored by how much of the
+ * surrounding free gap it leaves over on each participant's calendar, and the slot with the
+ * least left over wins. Ties go to the earliest slot.
+ *
+ * <p>Each participant's week is loaded into a FreeGapTree, and the trees are walked from one
+ * gap everyone shares to the next, skipping every busy stretch in logarithmic time per
+ * participant rather than trying each slot of the week. Only the best slots asked for are kept
+ * while the window is scored, and if the SearchBudget runs out the best slot scored so far is
+ * used.</p>
+ */
+public class BestFitStrat implements SchedulingStrategy {
+  private final SchedulingWindow window;
+
+  /**
+   * Constructs the strategy so that it may use any time of the week.
+   */
+  public BestFitStrat() {
+    this(SchedulingWindow.ANY_TIME);
+  }
+
+  /**
+   * Constructs the strategy so that it only uses the given window.
+   *
+   * @param window the part of the week events may be placed in
+   */
+  public BestFitStrat(SchedulingWindow window) {
+    this.window = Objects.requireNonNull(window);
+  }
+
+  @Override
+  public SlotProposal propose(PlannerModel model, IUser host, List<String> attendees,
+                              int duration, SearchBudget budget) {
+    TopSlots best = new TopSlots(1);
+    if (!this.search(model, host, attendees, duration, best, budget)) {
+      if (best.isEmpty()) {
+        throw budget.timedOut();
+      }
+      budget.recordEarlyExit(true);
+    }
+    if (best.isEmpty()) {
+      throw new IllegalArgumentException("Given Duration cannot fit in schedule");
+    }
+    return new SlotProposal(best.observeSlots().get(0), attendees);
+  }
+
+  @Override
+  public List<SlotProposal> candidates(PlannerModel model, IUser host, List<String> attendees,
+                                       int duration, int k, SearchBudget budget) {
+    TopSlots best = new TopSlots(k);
+    if (!this.search(model, host, attendees, duration, best, budget)) {
+      budget.recordEarlyExit(!best.isEmpty());
+    }
+    List<SlotProposal> options = new ArrayList<>();
+    for (TimeSlot slot : best.observeSlots()) {
+      options.add(new SlotProposal(slot, attendees));
+    }
+    return options;
+  }
+
+  @Override
+  public SchedulingWindow observeWindow() {
+    return this.window;
+  }
+
+  /**
+   * Searches the window for the best slots for the host and attendees.
+   *
+   * @param model     a PlannerModel
+   * @param host      the host of the possible event
+   * @param attendees a list of String usernames
+   * @param duration  an int
+   * @param best      the best slots found so far
+   * @param budget    the budget of the search
+   * @return true if the whole window was searched, or false if the budget ran out
+   */
+  private boolean search(PlannerModel model, IUser host, List<String> attendees,
+                         int duration, TopSlots best, SearchBudget budget) {
+    List<IUser> participants = new ArrayList<>();
+    participants.add(host);
+    for (String attendee : attendees) {
+      participants.add(Utils.findUser(attendee, model.getListOfUser()));
+    }
+    List<FreeGapTree> trees = new ArrayList<>();
+    for (IUser participant : participants) {
+      trees.add(new FreeGapTree(participant));
+    }
+    return this.scoreCandidates(participants, trees, duration, best, budget);
+  }
+
+  /**
+   * Determines whether every participant is free during the given slot by the same rule
+   * the model uses.
+   *
+   * @param participants the users that would attend the event
+   * @param slot         the slot being checked
+   * @return true if nobody has a conflicting event
+   */
+  private static boolean isFree(List<IUser> participants, TimeSlot slot) {
+    for (IUser participant : participants) {
+      if (slot.conflictsWith(participant)) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Scores every slot of the window, in chronological order, that is free for every
+   * participant and offers it to the given slots. Slots start every RESOLUTION minutes and,
+   * like the other strategies, an event lasting days ends that many days of the window after
+   * it starts.
+   *
+   * <p>Rather than trying every slot, the trees are asked for the next gap that everyone
+   * shares and that the event fits in, and only the slots inside those gaps are scored. Every
+   * participant's own gap is looked up once per shared gap, after which scoring a slot inside
+   * it takes constant time.</p>
+   *
+   * @param participants the users that would attend the event
+   * @param trees        the free gaps of every participant
+   * @param duration     the duration of the event
+   * @param best         the best slots found so far
+   * @param budget       the budget of the search
+   * @return true if every slot was scored, or false if the budget ran out
+   */
+  private boolean scoreCandidates(List<IUser> participants, List<FreeGapTree> trees,
+                                  int duration, TopSlots best, SearchBudget budget) {
+    if (duration <= 0) {
+      throw new IllegalArgumentException("Duration must be positive");
+    }
+    List<Day> days = this.window.observeDays();
+    int daysAdded = duration / 2400;
+    int remainder = toMinutes(duration % 2400);
+    int dayStart = toMinutes(this.window.observeDayStart());
+    int dayEnd = toMinutes(this.window.observeDayEnd());
+    // An event lasting whole days only has one place to start on each day
+    int step = remainder > 0 ? FreeGapTree.RESOLUTION : dayEnd - dayStart;
+    if (dayStart + remainder >= dayEnd) {
+      return true;
+    }
+    // The latest time a slot can start on a day and still end before the window closes
+    int lastTime = dayStart + ((dayEnd - remainder - 1 - dayStart) / step) * step;
+    for (int day = 0; day < (days.size() - daysAdded); day++) {
+      int startOfDay = days.get(day).ordinal() * 1440;
+      int length = days.get(day + daysAdded).ordinal() * 1440 - startOfDay + remainder;
+      int lastCell = (startOfDay + lastTime) / FreeGapTree.RESOLUTION;
+      int cell = (startOfDay + dayStart) / FreeGapTree.RESOLUTION;
+      while (cell <= lastCell) {
+        if (budget.shouldStop()) {
+          return false;
+        }
+        int gap = sharedGap(trees, cell, FreeGapTree.ceilCell(length));
+        if (gap < 0 || gap > lastCell) {
+          break;
+        }
+        // The gap ends where the first participant becomes busy, and each participant's
+        // own gap around it sets how much is left over on either side of a slot
+        int gapEnd = Integer.MAX_VALUE;
+        long leftOver = 0;
+        for (FreeGapTree tree : trees) {
+          int after = tree.freeAfter(gap);
+          gapEnd = Math.min(gapEnd, gap + after);
+          leftOver += tree.freeBefore(gap) + after;
+        }
+        int time = Math.max(0, gap * FreeGapTree.RESOLUTION - startOfDay - dayStart);
+        time = dayStart + ((time + step - 1) / step) * step;
+        for (; time <= lastTime; time += step) {
+          int start = startOfDay + time;
+          int end = start + length;
+          int from = start / FreeGapTree.RESOLUTION;
+          int to = FreeGapTree.ceilCell(end);
+          if (to > gapEnd) {
+            break;
+          }
+          // Each participant has the slot's cells fewer left over than the whole gap
+          long score = leftOver - (long) trees.size() * (to - from);
+          if (!best.accepts(score)) {
+            continue;
+          }
+          TimeSlot slot = TimeSlot.ofMinutes(start, end);
+          // The trees only see whole cells, so a slot is confirmed against the schedules
+          if (isFree(participants, slot)) {
+            best.offer(slot, score);
+          }
+        }
+        cell = gapEnd + 1;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Finds the first cell at or after the given cell where every participant is free for the
+   * given number of cells.
+   *
+   * @param trees  the free gaps of every participant
+   * @param from   the first cell the gap may start at
+   * @param length the number of free cells needed
+   * @return the cell the shared gap starts at, or -1 if there is none
+   */
+  private static int sharedGap(List<FreeGapTree> trees, int from, int length) {
+    int gap = from;
+    boolean moved = true;
+    while (moved) {
+      moved = false;
+      for (FreeGapTree tree : trees) {
+        int next = tree.nextGap(gap, length);
+        if (next < 0) {
+          return -1;
+        }
+        if (next > gap) {
+          gap = next;
+          moved = true;
+        }
+      }
+    }
+    return gap;
+  }
+
+  /**
+   * Converts a time or duration such as 130 into minutes.
+   *
+   * @param time an int
+   * @return the number of minutes
+   */
+  private static int toMinutes(int time) {
+    return (time / 100) * 60 + time % 100;
+  }
+}
@@ -0,0 +1,99 @@
+package controller;
+
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+import model.Day;
+import model.IEvent;
+import model.IUser;
+import model.TimeSlot;
+
+/**
+ * A BusyTimeline is the combined busy time of a group of participants, every event on any of
+ * their schedules merged into one sorted list of disjoint busy intervals. Slots are checked
+ * against it in a single forward pass, so slots must be asked about in chronological order.
+ *
+ * <p>Intervals are kept in the extended time a User uses to compare events, and an event is
+ * busy for exactly the slots the model would say it conflicts with.</p>
+ *
+ * @implNote This is package protected because it is only used by the strategies in this package.
+ */
+final class BusyTimeline {
+  private final int[] starts;
+  private final int[] ends;
+  private int position;
+
+  /**
+   * Builds the combined busy time of the given participants.
+   *
+   * @param participants the users whose schedules are combined
+   */
+  BusyTimeline(List<IUser> participants) {
+    // Events shared by several participants only need to be counted once
+    Map<IEvent, Boolean> seen = new IdentityHashMap<>();
+    List<int[]> intervals = new ArrayList<>();
+    for (IUser participant : participants) {
+      for (IEvent e : participant.observeSchedule()) {
+        if (seen.put(e, Boolean.TRUE) == null) {
+          int start = extendedTime(e.observeStartDayOfEvent(), e.observeStartTimeOfEvent());
+          int end = extendedTime(e.observeEndDayOfEvent(), e.observeEndTimeOfEvent());
+          if (start > end) {
+            end = end + 10080;
+          }
+          // An event that still ends before it starts only conflicts with slots holding its start
+          intervals.add(new int[]{start, Math.max(end, start + 1)});
+        }
+      }
+    }
+    intervals.sort((one, two) -> Integer.compare(one[0], two[0]));
+    List<int[]> merged = new ArrayList<>();
+    for (int[] interval : intervals) {
+      int[] last = merged.isEmpty() ? null : merged.get(merged.size() - 1);
+      if (last != null && interval[0] <= last[1]) {
+        last[1] = Math.max(last[1], interval[1]);
+      } else {
+        merged.add(interval);
+      }
+    }
+    this.starts = new int[merged.size()];
+    this.ends = new int[merged.size()];
+    for (int index = 0; index < merged.size(); index++) {
+      this.starts[index] = merged.get(index)[0];
+      this.ends[index] = merged.get(index)[1];
+    }
+    this.position = 0;
+  }
+
+  /**
+   * Determines whether every participant is free during the given slot. Each slot must start
+   * no earlier than the slot asked about before it.
+   *
+   * @param slot the slot being checked
+   * @return true if nobody has a conflicting event
+   */
+  boolean isFree(TimeSlot slot) {
+    int start = extendedTime(slot.observeStartDay(), slot.observeStartTime());
+    int end = extendedTime(slot.observeEndDay(), slot.observeEndTime());
+    if (start > end) {
+      end = end + 10080;
+    }
+    while (this.position < this.ends.length && this.ends[this.position] <= start) {
+      this.position++;
+    }
+    return this.position == this.starts.length
+            || this.starts[this.position] >= Math.max(end, start + 1);
+  }
+
+  /**
+   * Converts the day and time into a time from Sunday at 0000.
+   *
+   * @param day  a Day
+   * @param time an int
+   * @return the extended time
+   */
+  private static int extendedTime(Day day, int time) {
+    return day.ordinal() * 2400 + time;
+  }
+}
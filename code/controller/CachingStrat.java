@@ -0,0 +1,56 @@
+package controller;
+
+import java.util.List;
+import java.util.Objects;
+
+import model.IUser;
+import model.PlannerModel;
+
+/**
+ * This is a strategy that puts a ProposalCache in front of another strategy. Asking it to
+ * schedule the same attendees for the same duration again, while none of their schedules have
+ * changed, reuses the answer the other strategy gave the first time instead of searching
+ * again. This is common when a user keeps retrying "Schedule Event" while changing the name.
+ */
+public class CachingStrat implements SchedulingStrategy {
+  private final SchedulingStrategy strategy;
+  private final ProposalCache cache;
+
+  /**
+   * Constructs a caching strategy in front of the given strategy with its own cache.
+   *
+   * @param strategy the strategy whose answers are cached
+   */
+  public CachingStrat(SchedulingStrategy strategy) {
+    this(strategy, new ProposalCache(ProposalCache.DEFAULT_CAPACITY));
+  }
+
+  /**
+   * Constructs a caching strategy in front of the given strategy using the given cache, which
+   * may be shared with other caching strategies.
+   *
+   * @param strategy the strategy whose answers are cached
+   * @param cache    the cache the answers are kept in
+   */
+  public CachingStrat(SchedulingStrategy strategy, ProposalCache cache) {
+    this.strategy = Objects.requireNonNull(strategy);
+    this.cache = Objects.requireNonNull(cache);
+  }
+
+  @Override
+  public SlotProposal propose(PlannerModel model, IUser host, List<String> attendees,
+                              int duration, SearchBudget budget) {
+    return this.cache.propose(this.strategy, model, host, attendees, duration, budget);
+  }
+
+  @Override
+  public List<SlotProposal> candidates(PlannerModel model, IUser host, List<String> attendees,
+                                       int duration, int k, SearchBudget budget) {
+    return this.strategy.candidates(model, host, attendees, duration, k, budget);
+  }
+
+  @Override
+  public SchedulingWindow observeWindow() {
+    return this.strategy.observeWindow();
+  }
+}
@@ -0,0 +1,270 @@
+package controller;
+
+import model.IEvent;
+import model.IUser;
+import model.TimeSlot;
+
+/**
+ * A FreeGapTree is a segment tree over one user's week. The week is divided into cells of
+ * RESOLUTION minutes and every node of the tree stores, for the cells it covers, the length of
+ * the free run at its start, the free run at its end and the longest free run anywhere inside
+ * it. This lets a strategy ask whether a range is free, how much free time surrounds it, how
+ * long the longest gap in a range is and where the next gap of a given length starts, each in
+ * logarithmic time.
+ *
+ * @implNote This is package protected because it is only used by the strategies in this package.
+ */
+final class FreeGapTree {
+
+  /**
+   * The number of minutes each cell of the tree covers.
+   */
+  static final int RESOLUTION = 5;
+
+  /**
+   * The number of cells in a week.
+   */
+  static final int WEEK = TimeSlot.MINUTES_IN_WEEK / RESOLUTION;
+
+  private final int size;
+  private final int[] prefix;
+  private final int[] suffix;
+  private final int[] longest;
+
+  /**
+   * Builds the tree for the schedule of the given user. A cell is busy if any event on the
+   * schedule overlaps any part of it.
+   *
+   * @param user the user whose free time the tree stores
+   */
+  FreeGapTree(IUser user) {
+    this.size = Integer.highestOneBit(WEEK - 1) << 1;
+    boolean[] busy = new boolean[this.size];
+    // Cells past the end of the week are busy so that no gap runs off the end of the week
+    for (int cell = WEEK; cell < this.size; cell++) {
+      busy[cell] = true;
+    }
+    for (IEvent e : user.observeSchedule()) {
+      int start = TimeSlot.minuteOfWeek(e.observeStartDayOfEvent(),
+              e.observeStartTimeOfEvent()) / RESOLUTION;
+      int end = ceilCell(TimeSlot.minuteOfWeek(e.observeEndDayOfEvent(),
+              e.observeEndTimeOfEvent()));
+      if (start < end) {
+        markBusy(busy, start, end);
+      } else {
+        // The event wraps around from the end of the week to the start of the next
+        markBusy(busy, start, WEEK);
+        markBusy(busy, 0, end);
+      }
+    }
+    this.prefix = new int[2 * this.size];
+    this.suffix = new int[2 * this.size];
+    this.longest = new int[2 * this.size];
+    for (int cell = 0; cell < this.size; cell++) {
+      int free = busy[cell] ? 0 : 1;
+      this.prefix[this.size + cell] = free;
+      this.suffix[this.size + cell] = free;
+      this.longest[this.size + cell] = free;
+    }
+    for (int node = this.size - 1; node > 0; node--) {
+      this.pull(node);
+    }
+  }
+
+  /**
+   * Converts a minute of the week into the first cell that starts at or after it.
+   *
+   * @param minute a minute of the week
+   * @return a cell
+   */
+  static int ceilCell(int minute) {
+    return (minute + RESOLUTION - 1) / RESOLUTION;
+  }
+
+  /**
+   * Marks the given range of cells as busy.
+   *
+   * @param busy the busy cells
+   * @param from the first cell of the range
+   * @param to   the cell after the last cell of the range
+   */
+  private static void markBusy(boolean[] busy, int from, int to) {
+    for (int cell = from; cell < to && cell < WEEK; cell++) {
+      busy[cell] = true;
+    }
+  }
+
+  /**
+   * Recomputes the given node out of its two children.
+   *
+   * @param node the index of the node
+   */
+  private void pull(int node) {
+    int left = 2 * node;
+    int right = left + 1;
+    int half = this.lengthOf(left);
+    this.prefix[node] = this.prefix[left] == half
+            ? half + this.prefix[right] : this.prefix[left];
+    this.suffix[node] = this.suffix[right] == half
+            ? half + this.suffix[left] : this.suffix[right];
+    this.longest[node] = Math.max(Math.max(this.longest[left], this.longest[right]),
+            this.suffix[left] + this.prefix[right]);
+  }
+
+  /**
+   * Finds the number of cells the given node covers.
+   *
+   * @param node the index of the node
+   * @return the number of cells
+   */
+  private int lengthOf(int node) {
+    return this.size / Integer.highestOneBit(node);
+  }
+
+  /**
+   * Determines whether every cell in the given range is free.
+   *
+   * @param from the first cell of the range
+   * @param to   the cell after the last cell of the range
+   * @return true if the range is free
+   */
+  boolean isFree(int from, int to) {
+    return this.prefixRun(1, 0, this.size, from, to) == to - from;
+  }
+
+  /**
+   * Finds the number of free cells directly before the given cell.
+   *
+   * @param cell a cell
+   * @return the length of the free run ending at the cell
+   */
+  int freeBefore(int cell) {
+    return this.suffixRun(1, 0, this.size, 0, cell);
+  }
+
+  /**
+   * Finds the number of free cells starting at the given cell.
+   *
+   * @param cell a cell
+   * @return the length of the free run starting at the cell
+   */
+  int freeAfter(int cell) {
+    return this.prefixRun(1, 0, this.size, cell, WEEK);
+  }
+
+  /**
+   * Finds the longest run of free cells inside the given range.
+   *
+   * @param from the first cell of the range
+   * @param to   the cell after the last cell of the range
+   * @return the length of the longest free run
+   */
+  int longestGap(int from, int to) {
+    return this.longestRun(1, 0, this.size, from, to);
+  }
+
+  /**
+   * Finds the first cell at or after the given cell where a free run of at least the given
+   * length starts.
+   *
+   * @param from   the first cell the run may start at
+   * @param length the number of free cells needed
+   * @return the cell the run starts at, or -1 if there is none
+   */
+  int nextGap(int from, int length) {
+    // The free cells found so far directly before the node being looked at
+    int[] carry = new int[1];
+    return this.nextGap(1, 0, this.size, from, length, carry);
+  }
+
+  /**
+   * Finds the first run of at least the given length that starts at or after the given cell
+   * and ends in the part of the tree covered by the given node, taking in the free run that
+   * ends directly before the node.
+   */
+  private int nextGap(int node, int nodeFrom, int nodeTo, int from, int length, int[] carry) {
+    if (nodeTo <= from) {
+      return -1;
+    }
+    if (nodeFrom >= from) {
+      if (carry[0] + this.prefix[node] >= length) {
+        return nodeFrom - carry[0];
+      }
+      if (this.longest[node] < length) {
+        int nodeLength = nodeTo - nodeFrom;
+        carry[0] = this.suffix[node] == nodeLength ? carry[0] + nodeLength : this.suffix[node];
+        return -1;
+      }
+    }
+    // Either the run is inside this node or the node is only partly after the first cell
+    int middle = (nodeFrom + nodeTo) >>> 1;
+    int found = this.nextGap(2 * node, nodeFrom, middle, from, length, carry);
+    if (found >= 0) {
+      return found;
+    }
+    return this.nextGap(2 * node + 1, middle, nodeTo, from, length, carry);
+  }
+
+  /**
+   * Finds the length of the free run at the start of the part of the range covered by
+   * the given node.
+   */
+  private int prefixRun(int node, int nodeFrom, int nodeTo, int from, int to) {
+    int low = Math.max(nodeFrom, from);
+    int high = Math.min(nodeTo, to);
+    if (low >= high) {
+      return 0;
+    }
+    if (low == nodeFrom && high == nodeTo) {
+      return this.prefix[node];
+    }
+    int middle = (nodeFrom + nodeTo) >>> 1;
+    int left = this.prefixRun(2 * node, nodeFrom, middle, from, to);
+    int leftLength = Math.max(0, Math.min(middle, to) - Math.max(nodeFrom, from));
+    if (left == leftLength) {
+      return left + this.prefixRun(2 * node + 1, middle, nodeTo, from, to);
+    }
+    return left;
+  }
+
+  /**
+   * Finds the length of the free run at the end of the part of the range covered by
+   * the given node.
+   */
+  private int suffixRun(int node, int nodeFrom, int nodeTo, int from, int to) {
+    int low = Math.max(nodeFrom, from);
+    int high = Math.min(nodeTo, to);
+    if (low >= high) {
+      return 0;
+    }
+    if (low == nodeFrom && high == nodeTo) {
+      return this.suffix[node];
+    }
+    int middle = (nodeFrom + nodeTo) >>> 1;
+    int right = this.suffixRun(2 * node + 1, middle, nodeTo, from, to);
+    int rightLength = Math.max(0, Math.min(nodeTo, to) - Math.max(middle, from));
+    if (right == rightLength) {
+      return right + this.suffixRun(2 * node, nodeFrom, middle, from, to);
+    }
+    return right;
+  }
+
+  /**
+   * Finds the longest free run in the part of the range covered by the given node.
+   */
+  private int longestRun(int node, int nodeFrom, int nodeTo, int from, int to) {
+    int low = Math.max(nodeFrom, from);
+    int high = Math.min(nodeTo, to);
+    if (low >= high) {
+      return 0;
+    }
+    if (low == nodeFrom && high == nodeTo) {
+      return this.longest[node];
+    }
+    int middle = (nodeFrom + nodeTo) >>> 1;
+    int across = this.suffixRun(2 * node, nodeFrom, middle, from, to)
+            + this.prefixRun(2 * node + 1, middle, nodeTo, from, to);
+    return Math.max(across, Math.max(this.longestRun(2 * node, nodeFrom, middle, from, to),
+            this.longestRun(2 * node + 1, middle, nodeTo, from, to)));
+  }
+}
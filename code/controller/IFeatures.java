@@ -68,11 +68,38 @@ public interface IFeatures {
   void uploadSchedule(String path);
 
   /**
-   * The higher level call to save a schedule to a given path
+   * The higher level call to add every schedule in a directory to the system at once
+   * @param directory the path of the directory of files with the new schedules
+   */
+  void importSchedules(String directory);
+
+  /**
+   * The higher level call to add every schedule in a compressed archive to the system at once
+   * @param file the path of the archive
+   */
+  void importArchive(String file);
+
+  /**
+   * The higher level call to write every schedule to a single compressed archive
+   * @param file the path of the archive
+   */
+  void exportArchive(String file);
+
+  /**
+   * The higher level call to save a schedule to a given path. The schedules are written in the
+   * background, and the view is told how the save went.
    * @param path of where the file will be saved
    */
   void saveSchedule(String path);
 
+  /**
+   * The higher level call to keep the system up to date with a directory of schedule files
+   * that are edited elsewhere, in place of any directory watched before. Each file that
+   * changes is reloaded, and the view is refreshed once for each batch of changes.
+   * @param directory the path of the directory of schedule files
+   */
+  void watchDirectory(String directory);
+
   /**
    * THe higher level call to schedule an event with the given strategy.
    * @param host of the event
@@ -86,6 +113,17 @@ public interface IFeatures {
                      boolean isOnline, String location,
                      List<String> attendees, int duration);
 
+  /**
+   * The higher level call for the best times the strategy could schedule an event at, so
+   * the user can pick one. Nothing is scheduled.
+   * @param host of the event
+   * @param attendees the attendees of the event
+   * @param duration the duration of the event
+   * @param count the most times to suggest
+   * @return the suggested times best first, which is empty if none can be found
+   */
+  List<SlotProposal> suggestTimes(String host, List<String> attendees, int duration, int count);
+
 
   /**
    * This method is a high level call from the user to switch the view to a host view
@@ -3,32 +3,70 @@ package controller;
 import java.util.ArrayList;
 import java.util.List;
 
-import model.IEvent;
 import model.IUser;
 import model.PlannerModel;
-import model.User;
 
 /**
  * THis is the strategy in which an event is scheduled at the first time that fits in work hours
  * while also ensuring that at least one invited user can attend.
  */
 public class LenientStrat implements SchedulingStrategy {
+  private final WorkHoursStrat workHours;
+
+  /**
+   * Constructs the strategy with a default AvailabilityEngine.
+   */
+  public LenientStrat() {
+    this(new AvailabilityEngine());
+  }
+
+  /**
+   * Constructs the strategy with the given engine, which allows the parallel threshold
+   * to be tuned.
+   *
+   * @param engine the engine that checks the participants of each slot
+   */
+  public LenientStrat(AvailabilityEngine engine) {
+    this.workHours = new WorkHoursStrat(engine);
+  }
+
   @Override
-  public IEvent chooseTime(PlannerModel model, IUser host, String name,
-                           boolean isOnline, String location,
-                           List<String> attendees, int duration) {
+  public SlotProposal propose(PlannerModel model, IUser host, List<String> attendees,
+                              int duration, SearchBudget budget) {
     List<String> invitees = new ArrayList<>(attendees);
-    if(invitees.isEmpty()){
-      return new WorkHoursStrat().chooseTime(model, host, name,
-              isOnline, location, attendees, duration);
+    if (invitees.isEmpty()) {
+      return this.workHours.propose(model, host, invitees, duration, budget);
     }
+    // Invitees are left out from the back of the list until the rest can make it
     while (!invitees.isEmpty()) {
       try {
-        attendees.remove(invitees);
-        return new WorkHoursStrat().chooseTime(model, host, name,
-                isOnline, location, attendees, duration);
-      } catch (IllegalArgumentException ignored) {}
+        return this.workHours.propose(model, host, invitees, duration, budget);
+      } catch (SearchTimeoutException e) {
+        // Running out of time says nothing about whether the invitees can make it
+        throw e;
+      } catch (IllegalArgumentException ignored) {
+        invitees.remove(invitees.size() - 1);
+      }
     }
     throw new IllegalArgumentException("Given Duration cannot fit in schedule");
   }
+
+  @Override
+  public List<SlotProposal> candidates(PlannerModel model, IUser host, List<String> attendees,
+                                       int duration, int k, SearchBudget budget) {
+    List<String> invitees = new ArrayList<>(attendees);
+    List<SlotProposal> options = this.workHours.candidates(model, host, invitees, duration, k,
+            budget);
+    // The options are for the longest front part of the list that can make it at all
+    while (options.isEmpty() && !invitees.isEmpty() && !budget.shouldStop()) {
+      invitees.remove(invitees.size() - 1);
+      options = this.workHours.candidates(model, host, invitees, duration, k, budget);
+    }
+    return options;
+  }
+
+  @Override
+  public SchedulingWindow observeWindow() {
+    return SchedulingWindow.WORK_HOURS;
+  }
 }
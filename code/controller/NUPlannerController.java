@@ -1,13 +1,21 @@
 package controller;
 
+import java.io.IOException;
+import java.nio.file.Path;
 import java.util.List;
 import java.util.Objects;
 
+import javax.swing.SwingUtilities;
+
+import model.BackgroundSaver;
 import model.Day;
 import model.Event;
 import model.IEvent;
 import model.IUser;
+import model.MergeReport;
 import model.PlannerModel;
+import model.ScheduleWatcher;
+import model.TransferReport;
 import model.User;
 import model.Utils;
 import view.EventView;
@@ -17,13 +25,30 @@ import view.PlannerView;
  * This is the controller for an NU planner system. This class implements both the
  * overhead controller interface while also implementing an action listener to
  * perform actions after picking up an action in the view. This controller takes
- * in a model, a strategy, and a view.
+ * in a model, a strategy, and a view. Strategies are given a SearchBudget so that
+ * scheduling can never hold up the view for longer than a fixed time, and schedules are
+ * saved in the background, reporting back to the view on its own thread.
  */
 public class NUPlannerController implements IFeatures {
+
+  /**
+   * The time in milliseconds a strategy may search when scheduling an event.
+   */
+  public static final long SCHEDULE_MILLIS = 2000;
+
+  /**
+   * The time in milliseconds a strategy may search when suggesting times, which happens
+   * while the user is typing.
+   */
+  public static final long SUGGEST_MILLIS = 250;
+
   private final PlannerModel model;
   private final PlannerView view;
   private IUser host;
   private final SchedulingStrategy strat;
+  private final SchedulingMetrics metrics = new SchedulingMetrics();
+  private final BackgroundSaver saver;
+  private ScheduleWatcher watcher;
 
   /**
    * Constructs a NUPlannerController, which takes in inputs from the PlannerView, modifies
@@ -37,6 +62,7 @@ public class NUPlannerController implements IFeatures {
     this.model = Objects.requireNonNull(model);
     this.strat = Objects.requireNonNull(strat);
     this.view = Objects.requireNonNull(view);
+    this.saver = new BackgroundSaver(model, SwingUtilities::invokeLater);
     // Defaults host to first user in database
     this.host = model.getListOfUser().get(0);
     this.view.addFeatures(this);
@@ -58,6 +84,7 @@ public class NUPlannerController implements IFeatures {
     this.strat = Objects.requireNonNull(strat);
     this.view = Objects.requireNonNull(view);
     this.host = Objects.requireNonNull(host);
+    this.saver = new BackgroundSaver(model, SwingUtilities::invokeLater);
     this.view.addFeatures(this);
   }
 
@@ -110,17 +137,91 @@ public class NUPlannerController implements IFeatures {
   @Override
   public void uploadSchedule(String path) {
     try{
-      model.addUser(Utils.readXML(path, model.getListOfUser()));
+      MergeReport report = model.addUser(Utils.readXML(path, model.getListOfUser()));
       view.reMakeView(host.toString(), this);
+      view.showStatus(report.toString());
     } catch (IllegalArgumentException | NullPointerException er) {
       view.showError(er.getMessage());
     }
   }
 
+  @Override
+  public void importSchedules(String directory) {
+    try {
+      TransferReport report = model.importSchedules(directory);
+      view.reMakeView(host.toString(), this);
+      if (!report.isComplete()) {
+        view.showError(report.toString());
+      }
+    } catch (IllegalArgumentException er) {
+      view.showError(er.getMessage());
+    }
+  }
+
+  @Override
+  public void importArchive(String file) {
+    try {
+      TransferReport report = model.importArchive(file);
+      view.reMakeView(host.toString(), this);
+      if (!report.isComplete()) {
+        view.showError(report.toString());
+      }
+    } catch (IllegalArgumentException er) {
+      view.showError(er.getMessage());
+    }
+  }
+
+  @Override
+  public void exportArchive(String file) {
+    try {
+      view.showStatus(model.exportArchive(file).toString());
+    } catch (IllegalArgumentException er) {
+      view.showError(er.getMessage());
+    }
+  }
+
   @Override
   public void saveSchedule(String path) {
-    for (IUser u : model.getListOfUser()) {
-      Utils.writeToFile(u, path);
+    try {
+      this.saver.save(path, new BackgroundSaver.Listener() {
+        @Override
+        public void progress(int saved, int total) {
+          view.showStatus(String.format("Saved %d of %d schedule(s)", saved, total));
+        }
+
+        @Override
+        public void finished(TransferReport report) {
+          if (report.isComplete()) {
+            view.showStatus(report.toString());
+          } else {
+            view.showError("Could not save schedules: " + report);
+          }
+        }
+      });
+    } catch (RuntimeException er) {
+      view.showError("Could not save schedules: " + er.getMessage());
+    }
+  }
+
+  @Override
+  public void watchDirectory(String directory) {
+    try {
+      if (this.watcher != null) {
+        this.watcher.close();
+        this.watcher = null;
+      }
+      this.watcher = new ScheduleWatcher(this.model, Path.of(directory),
+          SwingUtilities::invokeLater, report -> {
+            view.reMakeView(host.toString(), this);
+            if (report.isComplete()) {
+              view.showStatus("Reloaded " + report);
+            } else {
+              view.showError("Could not reload schedules: " + report);
+            }
+          });
+      view.showStatus("Watching " + directory);
+    } catch (IOException | RuntimeException er) {
+      view.showError("Cannot watch " + directory + ": " + er.getMessage());
     }
   }
 
@@ -129,18 +230,40 @@ public class NUPlannerController implements IFeatures {
                             String location, List<String> attendees, int duration) {
     try {
       this.strat.chooseTime(this.model, Utils.findUser(host, this.model.getListOfUser()),
-              eventName, isOnline, location, attendees, duration);
+              eventName, isOnline, location, attendees, duration,
+              new SearchBudget(SCHEDULE_MILLIS, this.metrics));
       view.reMakeView(this.host.toString(), this);
     } catch (IllegalArgumentException er){
       view.showError(er.getMessage());
     }
   }
 
+  @Override
+  public List<SlotProposal> suggestTimes(String host, List<String> attendees,
+                                         int duration, int count) {
+    try {
+      return this.strat.candidates(this.model, Utils.findUser(host, this.model.getListOfUser()),
+              attendees, duration, count, new SearchBudget(SUGGEST_MILLIS, this.metrics));
+    } catch (IllegalArgumentException er) {
+      // Suggestions are refreshed while the user is still typing, so there is nothing to report
+      return List.of();
+    }
+  }
+
   @Override
   public void switchHostView() {
     this.view.HostView();
     this.view.reMakeView(this.host.toString(), this);
   }
 
+  /**
+   * Observes the counts of scheduling searches that ran out of time.
+   *
+   * @return the SchedulingMetrics
+   */
+  public SchedulingMetrics observeMetrics() {
+    return this.metrics;
+  }
+
 
 }
@@ -0,0 +1,281 @@
+package controller;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+import model.IUser;
+import model.PlannerModel;
+import model.TimeSlot;
+
+/**
+ * A ProposalCache remembers the proposals strategies have made so that asking the same
+ * question again does not rerun the search. A question is identified by the strategy, its
+ * window, the host, the attendees regardless of order, the duration and the version of every
+ * participant's schedule. Participants are the users themselves rather than their names, so a
+ * question about another planner, or about a user that was replaced when schedules were
+ * reloaded, is never mistaken for one asked before. Any change to a participant's schedule
+ * changes its version, so an answer is only ever reused while it is still the answer the
+ * strategy would give. Answers
+ * that could not fit are remembered as well. The least recently used answers are dropped
+ * once the cache is full. A search whose budget ran out may not have given the strategy's
+ * real answer, so nothing is remembered from it.
+ *
+ * <p>The attendees are found through an index of where each name is in the list of users of
+ * the planner last asked about, so asking again costs a hash lookup for each attendee rather
+ * than a walk over every user. The index is only rebuilt when a name is not where it was, such
+ * as when users were added or another planner is asked about.</p>
+ *
+ * <p>A single cache may be shared by several strategies.</p>
+ */
+public final class ProposalCache {
+
+  /**
+   * The number of answers a cache holds unless told otherwise.
+   */
+  public static final int DEFAULT_CAPACITY = 256;
+
+  private final Map<Key, Answer> answers;
+
+  // Where each name first is in the list of users that was indexed last
+  private final Map<String, Integer> positions;
+  private List<IUser> indexed;
+
+  /**
+   * Constructs a cache that holds up to the given number of answers.
+   *
+   * @param capacity the number of answers to hold
+   * @throws IllegalArgumentException if the capacity is not positive
+   */
+  public ProposalCache(int capacity) {
+    if (capacity <= 0) {
+      throw new IllegalArgumentException("Capacity must be positive");
+    }
+    this.answers = new LinkedHashMap<>(16, 0.75f, true) {
+      @Override
+      protected boolean removeEldestEntry(Map.Entry<Key, Answer> eldest) {
+        return size() > capacity;
+      }
+    };
+    this.positions = new HashMap<>();
+  }
+
+  /**
+   * Finds the proposal the given strategy makes for the given question, reusing the
+   * remembered answer if there is one.
+   *
+   * @param strategy  the strategy answering the question
+   * @param model     a PlannerModel
+   * @param host      the host of the possible event
+   * @param attendees a list of String usernames
+   * @param duration  an int
+   * @param budget    the budget of the search if it has to be run
+   * @return the proposed slot and attendees
+   * @throws SearchTimeoutException   if the budget runs out before any place is found
+   * @throws IllegalArgumentException if the event cannot fit in the schedule
+   */
+  SlotProposal propose(SchedulingStrategy strategy, PlannerModel model, IUser host,
+                       List<String> attendees, int duration, SearchBudget budget) {
+    Key key = new Key(strategy, host, resolve(model, attendees), duration);
+    Answer answer;
+    synchronized (this.answers) {
+      answer = this.answers.get(key);
+    }
+    if (answer == null) {
+      try {
+        SlotProposal proposal = strategy.propose(model, host, attendees, duration, budget);
+        answer = new Answer(proposal.observeSlot(), proposal.observeAttendees(), null);
+      } catch (SearchTimeoutException e) {
+        throw e;
+      } catch (IllegalArgumentException e) {
+        answer = new Answer(null, List.of(), e.getMessage());
+      }
+      if (budget.shouldStop()) {
+        return answer.toProposal(attendees);
+      }
+      synchronized (this.answers) {
+        this.answers.put(key, answer);
+      }
+    }
+    return answer.toProposal(attendees);
+  }
+
+  /**
+   * Finds the users with the given names through the index of the users of the model.
+   *
+   * @param model     a PlannerModel
+   * @param attendees a list of String usernames
+   * @return the users in order of their names
+   * @throws IllegalArgumentException if an attendee is not a user of the model
+   */
+  private IUser[] resolve(PlannerModel model, List<String> attendees) {
+    String[] names = attendees.toArray(new String[0]);
+    Arrays.sort(names);
+    List<IUser> users = model.getListOfUser();
+    IUser[] found = new IUser[names.length];
+    synchronized (this.positions) {
+      if (users != this.indexed) {
+        this.index(users);
+      }
+      for (int index = 0; index < names.length; index++) {
+        found[index] = this.find(users, names[index]);
+        if (found[index] == null) {
+          // Users may have been added or moved since the index was built
+          this.index(users);
+          found[index] = this.find(users, names[index]);
+        }
+        if (found[index] == null) {
+          throw new IllegalArgumentException("User not found");
+        }
+      }
+    }
+    return found;
+  }
+
+  /**
+   * Indexes where each name first is in the given list of users, which is the user the model
+   * finds for it.
+   *
+   * @param users the users of the model
+   */
+  private void index(List<IUser> users) {
+    this.indexed = users;
+    this.positions.clear();
+    for (int index = 0; index < users.size(); index++) {
+      this.positions.putIfAbsent(users.get(index).toString(), index);
+    }
+  }
+
+  /**
+   * Finds the user with the given name where the index says it is.
+   *
+   * @param users the users of the model
+   * @param name  the username
+   * @return the user, or null if the name is not there
+   */
+  private IUser find(List<IUser> users, String name) {
+    Integer position = this.positions.get(name);
+    if (position == null || position >= users.size()) {
+      return null;
+    }
+    IUser user = users.get(position);
+    return user.toString().equals(name) ? user : null;
+  }
+
+  /**
+   * Observes the number of answers currently held.
+   *
+   * @return the number of answers
+   */
+  public int size() {
+    synchronized (this.answers) {
+      return this.answers.size();
+    }
+  }
+
+  /**
+   * The identity of a question asked of a strategy. Users are compared by identity, and the
+   * hash is computed once since every lookup needs it.
+   */
+  private static final class Key {
+    private final SchedulingStrategy strategy;
+    private final SchedulingWindow window;
+    // The host followed by the attendees in order of their names
+    private final IUser[] participants;
+    private final int duration;
+    private final long[] versions;
+    private final int hash;
+
+    Key(SchedulingStrategy strategy, IUser host, IUser[] attendees, int duration) {
+      this.strategy = Objects.requireNonNull(strategy);
+      this.window = strategy.observeWindow();
+      this.participants = new IUser[attendees.length + 1];
+      this.participants[0] = Objects.requireNonNull(host);
+      System.arraycopy(attendees, 0, this.participants, 1, attendees.length);
+      this.duration = duration;
+      this.versions = new long[this.participants.length];
+      int hash = Objects.hash(System.identityHashCode(strategy), this.window, this.duration);
+      for (int index = 0; index < this.participants.length; index++) {
+        this.versions[index] = this.participants[index].observeVersion();
+        hash = 31 * hash + System.identityHashCode(this.participants[index]);
+      }
+      this.hash = 31 * hash + Arrays.hashCode(this.versions);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (!(o instanceof Key)) {
+        return false;
+      }
+      Key other = (Key) o;
+      if (this.hash != other.hash
+              || this.strategy != other.strategy
+              || this.duration != other.duration
+              || this.participants.length != other.participants.length
+              || !this.window.equals(other.window)
+              || !Arrays.equals(this.versions, other.versions)) {
+        return false;
+      }
+      for (int index = 0; index < this.participants.length; index++) {
+        if (this.participants[index] != other.participants[index]) {
+          return false;
+        }
+      }
+      return true;
+    }
+
+    @Override
+    public int hashCode() {
+      return this.hash;
+    }
+  }
+
+  /**
+   * A remembered answer, either a slot and the attendees who were kept or the reason no slot
+   * could be found.
+   */
+  private static final class Answer {
+    private final TimeSlot slot;
+    private final List<String> kept;
+    private final String failure;
+
+    Answer(TimeSlot slot, List<String> kept, String failure) {
+      this.slot = slot;
+      this.kept = kept;
+      this.failure = failure;
+    }
+
+    /**
+     * Rebuilds the proposal for the given attendees, which may be listed in a different
+     * order than when the answer was found.
+     *
+     * @param attendees the attendees as they were asked for
+     * @return the proposal
+     * @throws IllegalArgumentException if the answer was that the event cannot fit
+     */
+    SlotProposal toProposal(List<String> attendees) {
+      if (this.slot == null) {
+        throw new IllegalArgumentException(this.failure);
+      }
+      if (this.kept.size() == attendees.size()) {
+        return new SlotProposal(this.slot, attendees);
+      }
+      Map<String, Integer> remaining = new HashMap<>();
+      for (String name : this.kept) {
+        remaining.merge(name, 1, Integer::sum);
+      }
+      List<String> invitees = new ArrayList<>();
+      for (String name : attendees) {
+        if (remaining.getOrDefault(name, 0) > 0) {
+          remaining.merge(name, -1, Integer::sum);
+          invitees.add(name);
+        }
+      }
+      return new SlotProposal(this.slot, invitees);
+    }
+  }
+}
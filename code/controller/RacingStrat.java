@@ -0,0 +1,330 @@
+package controller;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import model.IUser;
+import model.PlannerModel;
+import model.TimeSlot;
+import model.Utils;
+
+/**
+ * This is the strategy that runs several other strategies at the same time and takes either
+ * the first answer any of them finds or the best answer all of them find. Each strategy
+ * searches on its own virtual thread with its own share of the SearchBudget, and once the race
+ * is decided the strategies still searching are cancelled. Cancelling a loser is part of the
+ * race rather than a search that ran out of time, so it is not counted in SchedulingMetrics.
+ *
+ * <p>Answers are compared by how many of the requested attendees they keep, then by how much
+ * free time they leave stranded around the slot on every participant's calendar, the same
+ * measure the best fit strategy uses, and then by the order the strategies were given in.</p>
+ *
+ * <p>The strategies only read the model and the thread that asked for an answer waits until
+ * the race is decided and every cancelled strategy has stopped, so every strategy sees the
+ * same schedules as long as the model is only changed from that thread, as it is by the
+ * controller.</p>
+ */
+public class RacingStrat implements SchedulingStrategy {
+
+  /**
+   * The ways a race can be decided.
+   */
+  public enum Mode {
+    /**
+     * The first strategy to find a slot wins.
+     */
+    FIRST_FEASIBLE,
+    /**
+     * Every strategy is given the chance to finish and the best slot wins.
+     */
+    BEST_SCORED
+  }
+
+  private final Mode mode;
+  private final List<SchedulingStrategy> strategies;
+  private final ExecutorService executor;
+
+  /**
+   * Constructs a race between the given strategies that runs each strategy on its own
+   * virtual thread.
+   *
+   * @param mode       how the race is decided
+   * @param strategies the strategies to race, in order of preference
+   * @throws IllegalArgumentException if no strategies are given
+   */
+  public RacingStrat(Mode mode, List<SchedulingStrategy> strategies) {
+    this(mode, strategies, Executors.newVirtualThreadPerTaskExecutor());
+  }
+
+  /**
+   * Constructs a race between the given strategies that runs on the given executor.
+   *
+   * @param mode       how the race is decided
+   * @param strategies the strategies to race, in order of preference
+   * @param executor   the executor the strategies are run on
+   * @throws IllegalArgumentException if no strategies are given
+   */
+  public RacingStrat(Mode mode, List<SchedulingStrategy> strategies, ExecutorService executor) {
+    if (strategies.isEmpty()) {
+      throw new IllegalArgumentException("At least one strategy is required");
+    }
+    this.mode = Objects.requireNonNull(mode);
+    this.strategies = List.copyOf(strategies);
+    this.executor = Objects.requireNonNull(executor);
+  }
+
+  @Override
+  public SlotProposal propose(PlannerModel model, IUser host, List<String> attendees,
+                              int duration, SearchBudget budget) {
+    List<Result<SlotProposal>> results = this.race(budget, (strategy, share) ->
+            strategy.propose(model, host, attendees, duration, share));
+    List<Ranked> ranked = new ArrayList<>();
+    RuntimeException failure = null;
+    for (Result<SlotProposal> result : results) {
+      if (result.answer != null) {
+        ranked.add(new Ranked(result.answer, result.order));
+      } else if (failure == null || failure instanceof SearchTimeoutException) {
+        // A strategy that could not fit the event says more than one that ran out of time
+        failure = result.failure;
+      }
+    }
+    if (ranked.isEmpty()) {
+      throw failure;
+    }
+    return this.rank(model, host, ranked).get(0);
+  }
+
+  @Override
+  public List<SlotProposal> candidates(PlannerModel model, IUser host, List<String> attendees,
+                                       int duration, int k, SearchBudget budget) {
+    if (k <= 0) {
+      throw new IllegalArgumentException("Number of candidates must be positive");
+    }
+    List<Result<List<SlotProposal>>> results = this.race(budget, (strategy, share) -> {
+      List<SlotProposal> options = strategy.candidates(model, host, attendees, duration, k,
+              share);
+      // An empty list is not an answer, so it must not win a race for the first answer
+      if (options.isEmpty()) {
+        throw new IllegalArgumentException("Given Duration cannot fit in schedule");
+      }
+      return options;
+    });
+    // The same slot may be offered by several strategies, so only its best offer is kept
+    Map<TimeSlot, Ranked> offers = new LinkedHashMap<>();
+    for (Result<List<SlotProposal>> result : results) {
+      if (result.answer != null) {
+        for (SlotProposal option : result.answer) {
+          Ranked offer = new Ranked(option, result.order);
+          Ranked kept = offers.get(option.observeSlot());
+          if (kept == null || offer.attendees() > kept.attendees()) {
+            offers.put(option.observeSlot(), offer);
+          }
+        }
+      }
+    }
+    List<SlotProposal> options = this.rank(model, host, new ArrayList<>(offers.values()));
+    return options.subList(0, Math.min(k, options.size()));
+  }
+
+  @Override
+  public SchedulingWindow observeWindow() {
+    return SchedulingWindow.ANY_TIME;
+  }
+
+  /**
+   * Observes how this race is decided.
+   *
+   * @return the Mode
+   */
+  public Mode observeMode() {
+    return this.mode;
+  }
+
+  /**
+   * Runs every strategy on the executor and collects their results as they finish. In the
+   * FIRST_FEASIBLE mode the race ends with the first answer, and the strategies still
+   * searching are withdrawn. The race only returns once every strategy has stopped, so none
+   * is still reading the model when the caller goes on to change it.
+   *
+   * @param budget the budget of the whole race
+   * @param search the search each strategy runs given its share of the budget
+   * @param <T>    the type of answer the search gives
+   * @return the results that were collected, in the order they finished
+   */
+  private <T> List<Result<T>> race(SearchBudget budget, Search<T> search) {
+    CompletionService<Result<T>> service = new ExecutorCompletionService<>(this.executor);
+    List<SearchBudget> shares = new ArrayList<>();
+    List<Future<Result<T>>> running = new ArrayList<>();
+    for (int order = 0; order < this.strategies.size(); order++) {
+      SchedulingStrategy strategy = this.strategies.get(order);
+      SearchBudget share = new SearchBudget(budget);
+      int position = order;
+      shares.add(share);
+      running.add(service.submit(() -> {
+        try {
+          return new Result<>(search.run(strategy, share), null, position);
+        } catch (IllegalArgumentException e) {
+          return new Result<>(null, e, position);
+        }
+      }));
+    }
+    List<Result<T>> results = new ArrayList<>();
+    try {
+      while (results.size() < running.size()) {
+        Result<T> result = service.take().get();
+        results.add(result);
+        if (this.mode == Mode.FIRST_FEASIBLE && result.answer != null) {
+          break;
+        }
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new SearchTimeoutException("Scheduling was interrupted");
+    } catch (ExecutionException e) {
+      // Only unexpected errors get past the strategy, so they are passed on as they are
+      throw e.getCause() instanceof RuntimeException
+              ? (RuntimeException) e.getCause() : new IllegalStateException(e.getCause());
+    } finally {
+      for (SearchBudget share : shares) {
+        share.withdraw();
+      }
+      awaitAll(running);
+    }
+    return results;
+  }
+
+  /**
+   * Waits for every search of a race to stop, which they do at their next check once their
+   * budgets are withdrawn. An interrupt is kept for the caller rather than ending the wait.
+   *
+   * @param running the searches
+   * @param <T>     the type of answer the searches give
+   */
+  private static <T> void awaitAll(List<Future<Result<T>>> running) {
+    boolean interrupted = false;
+    for (Future<Result<T>> search : running) {
+      while (true) {
+        try {
+          search.get();
+          break;
+        } catch (InterruptedException e) {
+          interrupted = true;
+        } catch (ExecutionException e) {
+          // The race has already been decided, so the search's own error no longer matters
+          break;
+        }
+      }
+    }
+    if (interrupted) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  /**
+   * Sorts the answers from best to worst.
+   *
+   * @param model  a PlannerModel
+   * @param host   the host of the possible event
+   * @param ranked the answers and which strategy gave them
+   * @return the proposals from best to worst
+   */
+  private List<SlotProposal> rank(PlannerModel model, IUser host, List<Ranked> ranked) {
+    Map<IUser, FreeGapTree> trees = new IdentityHashMap<>();
+    for (Ranked answer : ranked) {
+      answer.score = leftOver(trees, model, host, answer.proposal);
+    }
+    ranked.sort(Comparator.comparingInt(Ranked::attendees).reversed()
+            .thenComparingLong(answer -> answer.score)
+            .thenComparingInt(answer -> answer.order));
+    List<SlotProposal> proposals = new ArrayList<>();
+    for (Ranked answer : ranked) {
+      proposals.add(answer.proposal);
+    }
+    return proposals;
+  }
+
+  /**
+   * Measures the free time the proposal would leave on either side of its slot, summed over
+   * every participant, in cells of FreeGapTree.RESOLUTION minutes.
+   *
+   * @param trees    the free gaps of the participants measured so far
+   * @param model    a PlannerModel
+   * @param host     the host of the possible event
+   * @param proposal the proposal being measured
+   * @return the free time left over
+   */
+  private static long leftOver(Map<IUser, FreeGapTree> trees, PlannerModel model, IUser host,
+                               SlotProposal proposal) {
+    TimeSlot slot = proposal.observeSlot();
+    int from = TimeSlot.minuteOfWeek(slot.observeStartDay(), slot.observeStartTime())
+            / FreeGapTree.RESOLUTION;
+    int to = Math.min(FreeGapTree.WEEK, FreeGapTree.ceilCell(
+            TimeSlot.minuteOfWeek(slot.observeEndDay(), slot.observeEndTime())));
+    List<IUser> participants = new ArrayList<>();
+    participants.add(host);
+    for (String attendee : proposal.observeAttendees()) {
+      participants.add(Utils.findUser(attendee, model.getListOfUser()));
+    }
+    long leftOver = 0;
+    for (IUser participant : participants) {
+      FreeGapTree tree = trees.computeIfAbsent(participant, FreeGapTree::new);
+      leftOver += tree.freeBefore(from) + tree.freeAfter(to);
+    }
+    return leftOver;
+  }
+
+  /**
+   * The search a strategy runs during a race.
+   *
+   * @param <T> the type of answer the search gives
+   */
+  private interface Search<T> {
+    T run(SchedulingStrategy strategy, SearchBudget share);
+  }
+
+  /**
+   * What a strategy gave in a race, either an answer or the reason it had none.
+   *
+   * @param <T> the type of answer
+   */
+  private static final class Result<T> {
+    private final T answer;
+    private final IllegalArgumentException failure;
+    private final int order;
+
+    Result(T answer, IllegalArgumentException failure, int order) {
+      this.answer = answer;
+      this.failure = failure;
+      this.order = order;
+    }
+  }
+
+  /**
+   * A proposal being ranked against the others.
+   */
+  private static final class Ranked {
+    private final SlotProposal proposal;
+    private final int order;
+    private long score;
+
+    Ranked(SlotProposal proposal, int order) {
+      this.proposal = proposal;
+      this.order = order;
+    }
+
+    int attendees() {
+      return this.proposal.observeAttendees().size();
+    }
+  }
+}
@@ -0,0 +1,83 @@
+package controller;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * SchedulingMetrics counts the searches strategies have ended early because their
+ * SearchBudget ran out or was cancelled. A search that ran out of time but had already found
+ * a slot still gives that slot, so it is counted separately from a search that found nothing.
+ * The counts may be updated by several searches at once.
+ */
+public final class SchedulingMetrics {
+  private final LongAdder partial;
+  private final LongAdder timedOut;
+  private final LongAdder cancelled;
+
+  /**
+   * Constructs metrics with every count at zero.
+   */
+  public SchedulingMetrics() {
+    this.partial = new LongAdder();
+    this.timedOut = new LongAdder();
+    this.cancelled = new LongAdder();
+  }
+
+  /**
+   * Records a search that ended early.
+   *
+   * @param budget the budget of the search
+   * @param found  whether the search had found a slot to give before it ended
+   */
+  void recordEarlyExit(SearchBudget budget, boolean found) {
+    if (budget.isCancelled()) {
+      this.cancelled.increment();
+    } else if (found) {
+      this.partial.increment();
+    } else {
+      this.timedOut.increment();
+    }
+  }
+
+  /**
+   * Observes the number of searches that ran out of time but gave the best slot they had
+   * found so far.
+   *
+   * @return the number of searches
+   */
+  public long observePartial() {
+    return this.partial.sum();
+  }
+
+  /**
+   * Observes the number of searches that ran out of time without finding a slot.
+   *
+   * @return the number of searches
+   */
+  public long observeTimedOut() {
+    return this.timedOut.sum();
+  }
+
+  /**
+   * Observes the number of searches that were cancelled.
+   *
+   * @return the number of searches
+   */
+  public long observeCancelled() {
+    return this.cancelled.sum();
+  }
+
+  /**
+   * Observes the number of searches that ended early for any reason.
+   *
+   * @return the number of searches
+   */
+  public long observeEarlyExits() {
+    return this.observePartial() + this.observeTimedOut() + this.observeCancelled();
+  }
+
+  @Override
+  public String toString() {
+    return "partial: " + this.observePartial() + ", timed out: " + this.observeTimedOut()
+            + ", cancelled: " + this.observeCancelled();
+  }
+}
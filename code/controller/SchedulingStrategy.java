@@ -2,11 +2,9 @@ package controller;
 
 import java.util.List;
 
-import model.Event;
 import model.IEvent;
 import model.IUser;
 import model.PlannerModel;
-import model.User;
 
 /**
  * This is the interface for all different scheduling strategies which all implement
@@ -26,7 +24,108 @@ public interface SchedulingStrategy {
    * @param duration  an int
    * @return an Event
    */
-  IEvent chooseTime(PlannerModel model, IUser host, String name,
-                    boolean isOnline, String location,
-                    List<String> attendees, int duration);
+  default IEvent chooseTime(PlannerModel model, IUser host, String name,
+                            boolean isOnline, String location,
+                            List<String> attendees, int duration) {
+    return this.chooseTime(model, host, name, isOnline, location, attendees, duration,
+            SearchBudget.unbounded());
+  }
+
+  /**
+   * This method creates the event that satisfies the strategy where the possible event can
+   * fit, searching only as long as the budget allows. If the budget runs out the event is
+   * created at the best place found so far.
+   *
+   * @param model     a PlannerModel
+   * @param host      a User and the host of the possible event
+   * @param name      a User and the host of the possible event
+   * @param isOnline  a boolean to represent if the event is available online
+   * @param location  a String
+   * @param attendees a list of String usernames
+   * @param duration  an int
+   * @param budget    the budget of the search
+   * @return an Event
+   * @throws SearchTimeoutException if the budget runs out before any place is found
+   */
+  default IEvent chooseTime(PlannerModel model, IUser host, String name,
+                            boolean isOnline, String location,
+                            List<String> attendees, int duration, SearchBudget budget) {
+    return this.propose(model, host, attendees, duration, budget)
+            .commit(model, host, name, isOnline, location);
+  }
+
+  /**
+   * This method finds where the strategy would place an event without creating it. Nothing
+   * in the model is changed.
+   *
+   * @param model     a PlannerModel
+   * @param host      a User and the host of the possible event
+   * @param attendees a list of String usernames
+   * @param duration  an int
+   * @return the proposed slot and attendees
+   * @throws IllegalArgumentException if the event cannot fit in the schedule
+   */
+  default SlotProposal propose(PlannerModel model, IUser host,
+                               List<String> attendees, int duration) {
+    return this.propose(model, host, attendees, duration, SearchBudget.unbounded());
+  }
+
+  /**
+   * This method finds where the strategy would place an event without creating it, searching
+   * only as long as the budget allows. If the budget runs out the best place found so far is
+   * given. Nothing in the model is changed.
+   *
+   * @param model     a PlannerModel
+   * @param host      a User and the host of the possible event
+   * @param attendees a list of String usernames
+   * @param duration  an int
+   * @param budget    the budget of the search
+   * @return the proposed slot and attendees
+   * @throws SearchTimeoutException   if the budget runs out before any place is found
+   * @throws IllegalArgumentException if the event cannot fit in the schedule
+   */
+  SlotProposal propose(PlannerModel model, IUser host, List<String> attendees, int duration,
+                       SearchBudget budget);
+
+  /**
+   * This method finds the best places the strategy would put an event, best first, so that
+   * the user can pick one. The first option is the one propose would give. Nothing in the
+   * model is changed, and fewer than k options are returned if there are not that many.
+   *
+   * @param model     a PlannerModel
+   * @param host      a User and the host of the possible event
+   * @param attendees a list of String usernames
+   * @param duration  an int
+   * @param k         the most options to return
+   * @return the options, which is empty if the event cannot fit in the schedule
+   * @throws IllegalArgumentException if k is not positive
+   */
+  default List<SlotProposal> candidates(PlannerModel model, IUser host,
+                                        List<String> attendees, int duration, int k) {
+    return this.candidates(model, host, attendees, duration, k, SearchBudget.unbounded());
+  }
+
+  /**
+   * This method finds the best places the strategy would put an event, best first, searching
+   * only as long as the budget allows. If the budget runs out the best options found so far
+   * are given, which may be none. Nothing in the model is changed.
+   *
+   * @param model     a PlannerModel
+   * @param host      a User and the host of the possible event
+   * @param attendees a list of String usernames
+   * @param duration  an int
+   * @param k         the most options to return
+   * @param budget    the budget of the search
+   * @return the options, which is empty if the event cannot fit in the schedule
+   * @throws IllegalArgumentException if k is not positive
+   */
+  List<SlotProposal> candidates(PlannerModel model, IUser host, List<String> attendees,
+                                int duration, int k, SearchBudget budget);
+
+  /**
+   * Observes the part of the week this strategy places events in.
+   *
+   * @return a SchedulingWindow
+   */
+  SchedulingWindow observeWindow();
 }
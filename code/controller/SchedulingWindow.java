@@ -0,0 +1,112 @@
+package controller;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+import model.Day;
+import model.TimeSlot;
+
+/**
+ * A SchedulingWindow is the part of the week a strategy is allowed to place events in. It is
+ * made up of the days that may be used and the hours of each of those days. The any time
+ * strategy uses the whole week while the work hours strategy only uses 0900 to 1700 on
+ * weekdays.
+ */
+public final class SchedulingWindow {
+
+  /**
+   * Every day of the week at any hour.
+   */
+  public static final SchedulingWindow ANY_TIME = new SchedulingWindow(List.of(Day.Sunday,
+          Day.Monday, Day.Tuesday, Day.Wednesday, Day.Thursday, Day.Friday, Day.Saturday),
+          0, 2400);
+
+  /**
+   * Monday through Friday from 0900 to 1700.
+   */
+  public static final SchedulingWindow WORK_HOURS = new SchedulingWindow(List.of(Day.Monday,
+          Day.Tuesday, Day.Wednesday, Day.Thursday, Day.Friday), 900, 1700);
+
+  private final List<Day> days;
+  private final int dayStart;
+  private final int dayEnd;
+
+  /**
+   * Constructs a window out of the given days in chronological order and the hours of
+   * each day.
+   *
+   * @param days     the days events may be placed on
+   * @param dayStart the earliest time an event may start each day
+   * @param dayEnd   the time each day's window closes
+   * @throws IllegalArgumentException if the hours are not a valid range
+   */
+  public SchedulingWindow(List<Day> days, int dayStart, int dayEnd) {
+    this.days = List.copyOf(Objects.requireNonNull(days));
+    if (dayStart < 0 || dayEnd > 2400 || dayStart >= dayEnd) {
+      throw new IllegalArgumentException("Invalid hours for a scheduling window");
+    }
+    this.dayStart = dayStart;
+    this.dayEnd = dayEnd;
+  }
+
+  /**
+   * Lists the slots a strategy tries, in the order it tries them, for an event of the given
+   * duration. Slots start at the beginning of each day's window and step forward by the
+   * duration, and an event lasting days ends that many days after it starts.
+   *
+   * @param duration the duration of the event
+   * @return the candidate slots in chronological order
+   * @throws IllegalArgumentException if the duration is not positive
+   */
+  List<TimeSlot> candidates(int duration) {
+    if (duration <= 0) {
+      throw new IllegalArgumentException("Duration must be positive");
+    }
+    int daysAdded = duration / 2400;
+    int remainder = duration % 2400;
+    // An event lasting whole days only has one place to start on each day
+    int step = remainder > 0 ? remainder : this.dayEnd - this.dayStart;
+    List<TimeSlot> slots = new ArrayList<>();
+    for (int day = 0; day < (this.days.size() - daysAdded); day++) {
+      for (int time = this.dayStart; time < (this.dayEnd - remainder); time += step) {
+        slots.add(new TimeSlot(this.days.get(day), time, this.days.get(day + daysAdded),
+                time + remainder));
+      }
+    }
+    return slots;
+  }
+
+  /**
+   * The following methods observe the days and hours of this window.
+   *
+   * @return the given field found in its name.
+   */
+  List<Day> observeDays() {
+    return this.days;
+  }
+
+  int observeDayStart() {
+    return this.dayStart;
+  }
+
+  int observeDayEnd() {
+    return this.dayEnd;
+  }
+
+  @Override
+  public boolean equals(Object o) {
+    if (!(o instanceof SchedulingWindow)) {
+      return false;
+    }
+    SchedulingWindow other = (SchedulingWindow) o;
+    return this.days.equals(other.days)
+            && this.dayStart == other.dayStart
+            && this.dayEnd == other.dayEnd;
+  }
+
+  @Override
+  public int hashCode() {
+    return Objects.hash(this.days, this.dayStart, this.dayEnd);
+  }
+}
@@ -0,0 +1,151 @@
+package controller;
+
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * A SearchBudget bounds how long a strategy may search for a slot. It has a deadline and can
+ * be cancelled from another thread, and strategies check it as they go. When it runs out a
+ * strategy gives the best slot it has found so far, or throws a SearchTimeoutException if it
+ * has found none. Every search that ends early is recorded in the budget's SchedulingMetrics,
+ * except one that was withdrawn because its answer was no longer needed.
+ *
+ * <p>A budget is meant for a single search.</p>
+ */
+public final class SearchBudget {
+  private final long start;
+  private final long limit;
+  private final boolean bounded;
+  private final AtomicBoolean cancelled;
+  private final AtomicBoolean withdrawn;
+  private final SchedulingMetrics metrics;
+  private final SearchBudget parent;
+
+  /**
+   * Constructs a budget that runs out the given number of milliseconds from now.
+   *
+   * @param millis  the time the search may take
+   * @param metrics the metrics early exits are recorded in
+   * @throws IllegalArgumentException if the time is negative
+   */
+  public SearchBudget(long millis, SchedulingMetrics metrics) {
+    this(millis, true, metrics);
+  }
+
+  private SearchBudget(long millis, boolean bounded, SchedulingMetrics metrics) {
+    if (millis < 0) {
+      throw new IllegalArgumentException("Search time cannot be negative");
+    }
+    this.start = System.nanoTime();
+    this.limit = millis * 1_000_000;
+    this.bounded = bounded;
+    this.cancelled = new AtomicBoolean(false);
+    this.withdrawn = new AtomicBoolean(false);
+    this.metrics = Objects.requireNonNull(metrics);
+    this.parent = null;
+  }
+
+  /**
+   * Constructs a budget for part of a search. It runs out with the given budget and is
+   * cancelled along with it, but may also be cancelled on its own.
+   *
+   * @param parent the budget of the whole search
+   */
+  SearchBudget(SearchBudget parent) {
+    this.start = parent.start;
+    this.limit = parent.limit;
+    this.bounded = parent.bounded;
+    this.cancelled = new AtomicBoolean(false);
+    this.withdrawn = new AtomicBoolean(false);
+    this.metrics = parent.metrics;
+    this.parent = parent;
+  }
+
+  /**
+   * Constructs a budget that never runs out, though it may still be cancelled.
+   *
+   * @return a SearchBudget
+   */
+  public static SearchBudget unbounded() {
+    return new SearchBudget(0, false, new SchedulingMetrics());
+  }
+
+  /**
+   * Cancels the search, which stops at its next check.
+   */
+  public void cancel() {
+    this.cancelled.set(true);
+  }
+
+  /**
+   * Cancels the search because its answer is no longer needed, such as when another search
+   * has already answered, so that stopping is not recorded as an early exit.
+   */
+  void withdraw() {
+    // Set first so a search that sees the cancellation also sees why
+    this.withdrawn.set(true);
+    this.cancelled.set(true);
+  }
+
+  /**
+   * Determines whether the search has been cancelled.
+   *
+   * @return true if it was cancelled
+   */
+  public boolean isCancelled() {
+    return this.cancelled.get() || (this.parent != null && this.parent.isCancelled());
+  }
+
+  /**
+   * Determines whether the deadline has passed.
+   *
+   * @return true if the search is out of time
+   */
+  public boolean isExpired() {
+    return this.bounded && System.nanoTime() - this.start >= this.limit;
+  }
+
+  /**
+   * Determines whether the search should stop, either because it was cancelled or because
+   * it is out of time.
+   *
+   * @return true if the search should stop
+   */
+  public boolean shouldStop() {
+    return this.isCancelled() || this.isExpired();
+  }
+
+  /**
+   * Observes the metrics early exits are recorded in.
+   *
+   * @return the SchedulingMetrics
+   */
+  public SchedulingMetrics observeMetrics() {
+    return this.metrics;
+  }
+
+  /**
+   * Records that a search stopped early.
+   *
+   * @param found whether the search had found a slot to give
+   */
+  void recordEarlyExit(boolean found) {
+    if (!this.withdrawn.get()) {
+      this.metrics.recordEarlyExit(this, found);
+    }
+  }
+
+  /**
+   * Records that a search stopped early without a slot and builds the exception to throw.
+   *
+   * @return the exception describing why the search ended
+   */
+  SearchTimeoutException timedOut() {
+    this.recordEarlyExit(false);
+    if (this.isCancelled()) {
+      return new SearchTimeoutException("Scheduling was cancelled");
+    }
+    return new SearchTimeoutException("No time was found within "
+            + (this.limit / 1_000_000) + " ms");
+  }
+}
@@ -0,0 +1,19 @@
+package controller;
+
+/**
+ * A SearchTimeoutException is thrown by a strategy whose SearchBudget ran out, or was
+ * cancelled, before it found anywhere to place the event. It is an IllegalArgumentException
+ * so that it is reported to the user the same way as an event that cannot fit.
+ */
+public class SearchTimeoutException extends IllegalArgumentException {
+  private static final long serialVersionUID = 1L;
+
+  /**
+   * Constructs the exception with the given message.
+   *
+   * @param message the reason the search ended
+   */
+  public SearchTimeoutException(String message) {
+    super(message);
+  }
+}
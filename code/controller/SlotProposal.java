@@ -0,0 +1,85 @@
+package controller;
+
+import java.util.List;
+import java.util.Objects;
+
+import model.IEvent;
+import model.IUser;
+import model.PlannerModel;
+import model.TimeSlot;
+
+/**
+ * A SlotProposal is the answer a strategy gives before anything is created, the slot it
+ * picked and the attendees who would be invited. Some strategies, like the lenient strategy,
+ * leave out attendees who cannot make it, so the attendees may be fewer than requested.
+ */
+public final class SlotProposal {
+  private final TimeSlot slot;
+  private final List<String> attendees;
+
+  /**
+   * Constructs a proposal for the given slot and attendees.
+   *
+   * @param slot      the proposed slot
+   * @param attendees the usernames that would be invited, not including the host
+   */
+  public SlotProposal(TimeSlot slot, List<String> attendees) {
+    this.slot = Objects.requireNonNull(slot);
+    this.attendees = List.copyOf(Objects.requireNonNull(attendees));
+  }
+
+  /**
+   * Observes the proposed slot.
+   *
+   * @return a TimeSlot
+   */
+  public TimeSlot observeSlot() {
+    return this.slot;
+  }
+
+  /**
+   * Observes the usernames that would be invited.
+   *
+   * @return a list of usernames, not including the host
+   */
+  public List<String> observeAttendees() {
+    return this.attendees;
+  }
+
+  /**
+   * Creates the event this proposal describes in the given model.
+   *
+   * @param model    the model the event is created in
+   * @param host     the host of the event
+   * @param name     the name of the event
+   * @param isOnline whether the event is online
+   * @param location the location of the event
+   * @return the created event
+   * @throws IllegalArgumentException if the model rejects the event
+   */
+  public IEvent commit(PlannerModel model, IUser host, String name,
+                       boolean isOnline, String location) {
+    return model.createEvent(host.toString(), name, location, isOnline,
+            this.slot.observeStartDay(), this.slot.observeStartTime(),
+            this.slot.observeEndDay(), this.slot.observeEndTime(), this.attendees);
+  }
+
+  @Override
+  public String toString() {
+    return this.slot.toString();
+  }
+
+  @Override
+  public boolean equals(Object o) {
+    if (!(o instanceof SlotProposal)) {
+      return false;
+    }
+    SlotProposal other = (SlotProposal) o;
+    return this.slot.equals(other.slot) && this.attendees.equals(other.attendees);
+  }
+
+  @Override
+  public int hashCode() {
+    return Objects.hash(this.slot, this.attendees);
+  }
+}
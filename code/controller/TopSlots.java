@@ -0,0 +1,117 @@
+package controller;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.PriorityQueue;
+
+import model.TimeSlot;
+
+/**
+ * TopSlots keeps the k best slots offered to it while slots stream past, where a lower score
+ * is better and ties go to the slot offered first. Only k slots are ever held, in a heap with
+ * the worst of them on top, so a long search never builds up a list of every free slot.
+ *
+ * @implNote This is package protected because it is only used by the strategies in this package.
+ */
+final class TopSlots {
+  private final int capacity;
+  private final PriorityQueue<Entry> heap;
+  private long offered;
+
+  /**
+   * Constructs an empty collection that keeps the given number of slots.
+   *
+   * @param capacity the number of slots to keep
+   * @throws IllegalArgumentException if the capacity is not positive
+   */
+  TopSlots(int capacity) {
+    if (capacity <= 0) {
+      throw new IllegalArgumentException("Number of candidates must be positive");
+    }
+    this.capacity = capacity;
+    // The worst entry is on top so it is the one pushed out
+    this.heap = new PriorityQueue<>(capacity, (one, two) -> two.compareTo(one));
+    this.offered = 0;
+  }
+
+  /**
+   * Determines whether a slot with the given score would be kept, so that any expensive
+   * checks can be skipped for slots that would not be.
+   *
+   * @param score the score of a slot
+   * @return true if a slot with that score would be kept
+   */
+  boolean accepts(long score) {
+    return this.heap.size() < this.capacity || score < this.heap.peek().score;
+  }
+
+  /**
+   * Offers a slot, which is kept if it is among the best k slots offered so far.
+   *
+   * @param slot  the slot
+   * @param score the score of the slot
+   */
+  void offer(TimeSlot slot, long score) {
+    if (!this.accepts(score)) {
+      return;
+    }
+    this.heap.add(new Entry(slot, score, this.offered++));
+    if (this.heap.size() > this.capacity) {
+      this.heap.poll();
+    }
+  }
+
+  /**
+   * Determines whether k slots are held.
+   *
+   * @return true if no more room is left
+   */
+  boolean isFull() {
+    return this.heap.size() == this.capacity;
+  }
+
+  /**
+   * Determines whether no slot has been kept yet.
+   *
+   * @return true if nothing is held
+   */
+  boolean isEmpty() {
+    return this.heap.isEmpty();
+  }
+
+  /**
+   * Observes the slots that were kept, best first.
+   *
+   * @return the slots
+   */
+  List<TimeSlot> observeSlots() {
+    List<Entry> entries = new ArrayList<>(this.heap);
+    entries.sort(Entry::compareTo);
+    List<TimeSlot> slots = new ArrayList<>();
+    for (Entry entry : entries) {
+      slots.add(entry.slot);
+    }
+    return slots;
+  }
+
+  /**
+   * A kept slot along with its score and when it was offered.
+   */
+  private static final class Entry implements Comparable<Entry> {
+    private final TimeSlot slot;
+    private final long score;
+    private final long order;
+
+    Entry(TimeSlot slot, long score, long order) {
+      this.slot = slot;
+      this.score = score;
+      this.order = order;
+    }
+
+    @Override
+    public int compareTo(Entry other) {
+      int byScore = Long.compare(this.score, other.score);
+      return byScore != 0 ? byScore : Long.compare(this.order, other.order);
+    }
+  }
+}
@@ -0,0 +1,102 @@
+package controller;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+import model.IUser;
+import model.PlannerModel;
+import model.TimeSlot;
+import model.Utils;
+
+/**
+ * This is the base for strategies that schedule an event at the first slot of a
+ * SchedulingWindow where the host and every attendee are free. Slots are checked with an
+ * AvailabilityEngine before the event is created, so no invites are sent for a slot that
+ * would be rejected.
+ *
+ * <p>Options for the user to pick from are the first few free slots, found in one pass over
+ * the combined busy time of every participant. Both searches stop when their SearchBudget
+ * runs out, and since slots are found in order there is never a better slot to fall back on
+ * than the ones already found.</p>
+ *
+ * @implNote This is package protected because only the strategies in this package share
+ *           this implementation.
+ */
+abstract class WindowStrat implements SchedulingStrategy {
+  private final SchedulingWindow window;
+  private final AvailabilityEngine engine;
+
+  /**
+   * Constructs a strategy that searches the given window using the given engine.
+   *
+   * @param window the part of the week events may be placed in
+   * @param engine the engine that checks the participants of each slot
+   */
+  WindowStrat(SchedulingWindow window, AvailabilityEngine engine) {
+    this.window = Objects.requireNonNull(window);
+    this.engine = Objects.requireNonNull(engine);
+  }
+
+  @Override
+  public SlotProposal propose(PlannerModel model, IUser host, List<String> attendees,
+                              int duration, SearchBudget budget) {
+    List<IUser> participants = participants(model, host, attendees);
+    TimeSlot slot = this.engine.firstFree(participants, this.window.candidates(duration),
+            budget);
+    if (slot == null) {
+      throw new IllegalArgumentException("Given Duration cannot fit in schedule");
+    }
+    return new SlotProposal(slot, attendees);
+  }
+
+  @Override
+  public List<SlotProposal> candidates(PlannerModel model, IUser host, List<String> attendees,
+                                       int duration, int k, SearchBudget budget) {
+    TopSlots best = new TopSlots(k);
+    BusyTimeline busy = new BusyTimeline(participants(model, host, attendees));
+    long order = 0;
+    for (TimeSlot slot : this.window.candidates(duration)) {
+      // Earlier slots are better, so nothing after the first k free slots can be kept
+      if (best.isFull()) {
+        break;
+      }
+      if (budget.shouldStop()) {
+        budget.recordEarlyExit(!best.isEmpty());
+        break;
+      }
+      if (busy.isFree(slot)) {
+        best.offer(slot, order);
+      }
+      order++;
+    }
+    List<SlotProposal> options = new ArrayList<>();
+    for (TimeSlot slot : best.observeSlots()) {
+      options.add(new SlotProposal(slot, attendees));
+    }
+    return options;
+  }
+
+  @Override
+  public SchedulingWindow observeWindow() {
+    return this.window;
+  }
+
+  /**
+   * Finds the host and every attendee of a possible event.
+   *
+   * @param model     a PlannerModel
+   * @param host      the host of the possible event
+   * @param attendees a list of String usernames
+   * @return the host followed by the attendees
+   */
+  private static List<IUser> participants(PlannerModel model, IUser host,
+                                          List<String> attendees) {
+    List<IUser> participants = new ArrayList<>();
+    participants.add(host);
+    for (String attendee : attendees) {
+      participants.add(Utils.findUser(attendee, model.getListOfUser()));
+    }
+    return participants;
+  }
+}
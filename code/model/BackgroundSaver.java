@@ -0,0 +1,265 @@
+package model;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A BackgroundSaver saves the schedules of a planner to a directory on a thread of its own, so
+ * whoever asks for the save, such as the view, is never held up by the files being written.
+ *
+ * <p>Asking for a save copies each schedule that changed since it was last saved there, so the
+ * files hold the schedules as they were at that moment, however they change while the files
+ * are written. The copy is written a short delay later, and the schedules copied by any save
+ * asked for in the meantime are added to the same write, a later copy of a schedule replacing
+ * an earlier one. A save to a different directory replaces a save that has not started.</p>
+ *
+ * <p>Progress and the outcome of each write are reported to listeners through the executor
+ * given to the saver, such as the event queue of the view. A schedule that could not be
+ * written is copied again by the next save. The thread stops while there is nothing to save,
+ * and finishes any save that was asked for before the program can exit.</p>
+ */
+public final class BackgroundSaver {
+
+  /**
+   * The time in milliseconds a save waits for more saves to add to its write.
+   */
+  public static final long DELAY_MILLIS = 200;
+
+  /**
+   * A Listener is told how a save is progressing and how it turned out.
+   */
+  public interface Listener {
+
+    /**
+     * Reports that some of the schedules of a save have been written.
+     *
+     * @param saved the number of schedules written so far
+     * @param total the number of schedules being written
+     */
+    void progress(int saved, int total);
+
+    /**
+     * Reports that a save has finished.
+     *
+     * @param report the schedules that were written and the ones that could not be
+     */
+    void finished(TransferReport report);
+  }
+
+  /**
+   * The copy of a schedule waiting to be written, with the user it was copied from and the
+   * version it was copied at.
+   */
+  private static final class Copy {
+    private final IUser user;
+    private final long version;
+    private final IUser schedule;
+
+    private Copy(IUser user, long version, IUser schedule) {
+      this.user = user;
+      this.version = version;
+      this.schedule = schedule;
+    }
+  }
+
+  /**
+   * A write of the copies asked for by one or more saves to the same directory.
+   */
+  private static final class Write {
+    private final String path;
+    private final Map<String, Copy> copies = new LinkedHashMap<>();
+    private final List<Listener> listeners = new ArrayList<>();
+
+    private Write(String path) {
+      this.path = path;
+    }
+  }
+
+  private final PlannerModel model;
+  private final long delay;
+  private final Executor callbacks;
+  private final ScheduledThreadPoolExecutor writer;
+  // The version of each schedule when it was last copied for path, guarded by this
+  private final Map<IUser, Long> copiedVersions;
+  private String path;
+  // The write that has not started yet, guarded by this
+  private Write pending;
+  private int running;
+
+  /**
+   * Constructs a saver of the given planner that waits DELAY_MILLIS for saves to add to a
+   * write.
+   *
+   * @param model     the planner
+   * @param callbacks runs the calls to listeners
+   */
+  public BackgroundSaver(PlannerModel model, Executor callbacks) {
+    this(model, DELAY_MILLIS, callbacks);
+  }
+
+  /**
+   * Constructs a saver of the given planner.
+   *
+   * @param model       the planner
+   * @param delayMillis the time in milliseconds a save waits for more saves to add to its write
+   * @param callbacks   runs the calls to listeners
+   * @throws IllegalArgumentException if the delay is negative
+   */
+  public BackgroundSaver(PlannerModel model, long delayMillis, Executor callbacks) {
+    if (delayMillis < 0) {
+      throw new IllegalArgumentException("Delay cannot be negative");
+    }
+    this.model = Objects.requireNonNull(model);
+    this.delay = delayMillis;
+    this.callbacks = Objects.requireNonNull(callbacks);
+    this.writer = new ScheduledThreadPoolExecutor(1, task -> new Thread(task, "schedule-save"));
+    this.writer.setKeepAliveTime(1, TimeUnit.SECONDS);
+    this.writer.allowCoreThreadTimeOut(true);
+    this.copiedVersions = new IdentityHashMap<>();
+  }
+
+  /**
+   * Copies every schedule that changed since it was last saved to the given directory and
+   * writes the copies there in the background. This has to be called on the thread that
+   * changes the planner.
+   *
+   * @param path     the directory, which is the working directory if it is empty
+   * @param listener told how the save is progressing and how it turned out
+   */
+  public synchronized void save(String path, Listener listener) {
+    Objects.requireNonNull(listener);
+    if (!path.equals(this.path)) {
+      this.copiedVersions.clear();
+      this.path = path;
+    }
+    Write write = this.pending;
+    if (write != null && !write.path.equals(path)) {
+      // The write is replaced, and its listeners hear about the write that replaced it
+      Write replaced = write;
+      write = new Write(path);
+      write.listeners.addAll(replaced.listeners);
+      this.pending = write;
+    } else if (write == null) {
+      write = new Write(path);
+      this.pending = write;
+      this.writer.schedule(this::write, this.delay, TimeUnit.MILLISECONDS);
+    }
+    write.listeners.add(listener);
+
+    Map<String, IUser> invitees = new HashMap<>();
+    for (IUser user : this.model.getListOfUser()) {
+      Long copied = this.copiedVersions.get(user);
+      if (copied == null || copied != user.observeVersion()) {
+        write.copies.put(user.toString(),
+                new Copy(user, user.observeVersion(), copy(user, invitees)));
+        this.copiedVersions.put(user, user.observeVersion());
+      }
+    }
+  }
+
+  /**
+   * Copies a user's schedule. Each invitee is copied only as far as the username, which is all
+   * that is written of them.
+   *
+   * @param user     the user
+   * @param invitees the copies of invitees made so far by username
+   * @return the copy
+   */
+  private static IUser copy(IUser user, Map<String, IUser> invitees) {
+    List<IEvent> events = new ArrayList<>();
+    for (IEvent event : user.observeSchedule()) {
+      List<IUser> attendees = new ArrayList<>();
+      for (IUser attendee : event.observeInvitedUsers()) {
+        attendees.add(invitees.computeIfAbsent(attendee.toString(),
+            name -> new User(name, List.of())));
+      }
+      events.add(new Event(event.observeName(), event.observeLocation(),
+              event.observeOnline(), event.observeStartDayOfEvent(),
+              event.observeStartTimeOfEvent(), event.observeEndDayOfEvent(),
+              event.observeEndTimeOfEvent(), attendees));
+    }
+    User copy = new User(user.toString(), List.of());
+    copy.setSchedule(events);
+    return copy;
+  }
+
+  /**
+   * Writes the pending copies, reporting each one written.
+   */
+  private void write() {
+    Write write;
+    synchronized (this) {
+      // A write that replaced another runs when the one it replaced was due
+      write = this.pending;
+      this.pending = null;
+      this.running++;
+    }
+    try {
+      TransferReport report = new TransferReport();
+      int total = write.copies.size();
+      int saved = 0;
+      for (Copy copy : write.copies.values()) {
+        try {
+          Utils.writeToFile(copy.schedule, write.path);
+          report.recordSuccess(copy.schedule.observeSchedule().size());
+        } catch (RuntimeException e) {
+          report.recordFailure(copy.schedule.toString(),
+                  e.getCause() != null ? e.getCause().getMessage() : e.getMessage());
+          this.forget(write.path, copy);
+        }
+        int progress = ++saved;
+        for (Listener listener : write.listeners) {
+          this.callbacks.execute(() -> listener.progress(progress, total));
+        }
+      }
+      for (Listener listener : write.listeners) {
+        this.callbacks.execute(() -> listener.finished(report));
+      }
+    } finally {
+      synchronized (this) {
+        this.running--;
+        this.notifyAll();
+      }
+    }
+  }
+
+  /**
+   * Forgets that a schedule was copied for a directory, unless it has been copied again since,
+   * so the next save copies it again.
+   *
+   * @param path the directory
+   * @param copy the copy that could not be written
+   */
+  private synchronized void forget(String path, Copy copy) {
+    if (path.equals(this.path)) {
+      this.copiedVersions.remove(copy.user, copy.version);
+    }
+  }
+
+  /**
+   * Waits until every save asked for so far has been written.
+   *
+   * @param timeoutMillis the longest time in milliseconds to wait
+   * @return true if every save was written, false if the time ran out
+   * @throws InterruptedException if the thread is interrupted while waiting
+   */
+  public synchronized boolean awaitIdle(long timeoutMillis) throws InterruptedException {
+    long end = System.currentTimeMillis() + timeoutMillis;
+    while (this.pending != null || this.running > 0) {
+      long left = end - System.currentTimeMillis();
+      if (left <= 0) {
+        return false;
+      }
+      this.wait(left);
+    }
+    return true;
+  }
+}
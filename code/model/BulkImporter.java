@@ -0,0 +1,556 @@
+package model;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import javax.xml.stream.XMLStreamException;
+
+/**
+ * The BulkImporter loads many schedule files into a planner at once, so the files do not have
+ * to be uploaded one at a time in an order where every invitee is loaded before the events
+ * that name them.
+ *
+ * <p>The import runs in two passes. The first parses every file on a pool of worker threads
+ * and registers the owner of every file that could be read. Since every owner now exists, the
+ * second pass can resolve the invitees of every event regardless of which file they came from.
+ * An event that appears in several files is built once and shared by every participant, as it
+ * would be had it been created in the planner, and an event a user already has is not added
+ * to them again. Each file is then added whole or not at all, and a file that cannot be read,
+ * names an unknown invitee or conflicts with a schedule is recorded in the TransferReport
+ * rather than stopping the import. Every file is checked before the owners that are not in
+ * the planner yet are registered, and only the owners named by the files that are added are
+ * registered, so a file that is left out does not leave its owner behind.</p>
+ *
+ * <p>Only the first pass runs on the pool, so the planner is only changed from the thread
+ * that started the import.</p>
+ */
+public final class BulkImporter {
+  private final int threads;
+
+  /**
+   * Constructs an importer that parses with one thread for each processor.
+   */
+  public BulkImporter() {
+    this(Runtime.getRuntime().availableProcessors());
+  }
+
+  /**
+   * Constructs an importer that parses with the given number of threads.
+   *
+   * @param threads the number of threads that parse files
+   * @throws IllegalArgumentException if the number of threads is not positive
+   */
+  public BulkImporter(int threads) {
+    if (threads < 1) {
+      throw new IllegalArgumentException("Number of threads must be positive");
+    }
+    this.threads = threads;
+  }
+
+  /**
+   * Imports every schedule file in the given directory, in order of their names. Hidden files
+   * and subdirectories are skipped.
+   *
+   * @param model     the planner the schedules are added to
+   * @param directory the directory of schedule files
+   * @return the report of the import
+   * @throws IllegalArgumentException if the directory cannot be listed
+   */
+  public TransferReport importDirectory(PlannerModel model, Path directory) {
+    List<Path> files;
+    try (Stream<Path> listing = Files.list(directory)) {
+      files = listing.filter(Files::isRegularFile)
+              .filter(file -> !file.getFileName().toString().startsWith("."))
+              .sorted()
+              .collect(Collectors.toList());
+    } catch (IOException e) {
+      throw new IllegalArgumentException("Cannot read the directory " + directory);
+    }
+    return this.importFiles(model, files);
+  }
+
+  /**
+   * Imports the given schedule files. Where files disagree, the file earlier in the list is
+   * added first.
+   *
+   * @param model the planner the schedules are added to
+   * @param files the schedule files
+   * @return the report of the import
+   */
+  public TransferReport importFiles(PlannerModel model, List<Path> files) {
+    TransferReport report = new TransferReport();
+    Map<String, ScheduleRecord> parsed = new LinkedHashMap<>();
+    for (Map.Entry<Path, ScheduleRecord> file : this.parse(files, report).entrySet()) {
+      parsed.put(file.getKey().toString(), file.getValue());
+    }
+    merge(model, parsed, report);
+    return report;
+  }
+
+  /**
+   * Adds schedules that have been read to the planner, which is the second pass of an import.
+   * Schedules are checked against the owners that are not in the planner yet before they are
+   * registered, and then added once they are.
+   *
+   * @param model  the planner the schedules are added to
+   * @param parsed the schedules by the name of where each was read from, earlier ones first
+   * @param report the report successes and failures are recorded in
+   */
+  static void merge(PlannerModel model, Map<String, ScheduleRecord> parsed,
+                    TransferReport report) {
+    List<String> owners = new ArrayList<>();
+    for (ScheduleRecord record : parsed.values()) {
+      owners.add(record.observeOwner());
+    }
+    Merge merge = new Merge(model.getListOfUser());
+    Set<String> unknown = merge.unknown(owners);
+    if (unknown.isEmpty()) {
+      addSchedules(merge, parsed, report);
+      merge.commit(model);
+      return;
+    }
+
+    // Every owner is known to the check before any event is built, so invitees may be in any
+    // file, but only the owners the files that pass name are registered
+    Map<String, ScheduleRecord> accepted =
+            addSchedules(new Merge(withUsers(model, unknown)), parsed, report);
+    Set<String> named = new HashSet<>();
+    for (ScheduleRecord record : accepted.values()) {
+      named.add(record.observeOwner());
+      for (EventRecord event : record.observeEvents()) {
+        named.addAll(event.observeUsers());
+      }
+    }
+    register(model, unknown, named);
+    addSchedules(merge, accepted, new TransferReport());
+    merge.commit(model);
+  }
+
+  /**
+   * Adds each of the given schedules that can be added, recording which were.
+   *
+   * @param merge  the schedules being built
+   * @param parsed the schedules by the name of where each was read from, earlier ones first
+   * @param report the report successes and failures are recorded in
+   * @return the schedules that were added, by the name of where each was read from
+   */
+  private static Map<String, ScheduleRecord> addSchedules(Merge merge,
+                                                          Map<String, ScheduleRecord> parsed,
+                                                          TransferReport report) {
+    Map<String, ScheduleRecord> accepted = new LinkedHashMap<>();
+    for (Map.Entry<String, ScheduleRecord> entry : parsed.entrySet()) {
+      try {
+        merge.add(entry.getValue());
+        report.recordSuccess(entry.getValue().observeEvents().size());
+        accepted.put(entry.getKey(), entry.getValue());
+      } catch (IllegalArgumentException e) {
+        report.recordFailure(entry.getKey(), e.getMessage());
+      }
+    }
+    return accepted;
+  }
+
+  /**
+   * Adds events that have been read together to the planner, registering the users named by
+   * the events that are added that do not exist yet. The events are added at once, checking
+   * each schedule they are added to once, unless a schedule would have conflicts, in which
+   * case the events of each host are added on their own.
+   *
+   * @param model  the planner the events are added to
+   * @param source the name of where the events were read from
+   * @param events the events, earlier ones first
+   * @param report the report successes and failures are recorded in
+   */
+  static void merge(PlannerModel model, String source, List<EventRecord> events,
+                    TransferReport report) {
+    merge(model, new Merge(model.getListOfUser()), source, events, report);
+  }
+
+  /**
+   * Adds events that have been read together to the planner as merge does, with a merge of
+   * the planner kept from earlier events, which is committed.
+   *
+   * @param model  the planner the events are added to
+   * @param merge  a merge of the planner's users with nothing waiting to be committed
+   * @param source the name of where the events were read from
+   * @param events the events, earlier ones first
+   * @param report the report successes and failures are recorded in
+   */
+  static void merge(PlannerModel model, Merge merge, String source, List<EventRecord> events,
+                    TransferReport report) {
+    List<String> names = new ArrayList<>();
+    for (EventRecord event : events) {
+      names.addAll(event.observeUsers());
+    }
+    Set<String> unknown = merge.unknown(names);
+    if (unknown.isEmpty()) {
+      addEvents(merge, source, events, report);
+      merge.commit(model);
+      return;
+    }
+
+    // The events are checked before anyone is registered, so the users of the events that
+    // are left out are not left behind
+    List<EventRecord> accepted =
+            addEvents(new Merge(withUsers(model, unknown)), source, events, report);
+    Set<String> named = new HashSet<>();
+    for (EventRecord event : accepted) {
+      named.addAll(event.observeUsers());
+    }
+    register(model, unknown, named);
+    addEvents(merge, source, accepted, new TransferReport());
+    merge.commit(model);
+  }
+
+  /**
+   * Adds the given events at once or, if a schedule would have conflicts, the events of each
+   * host that can be added on their own, recording which were.
+   *
+   * @param merge  the schedules being built
+   * @param source the name of where the events were read from
+   * @param events the events, earlier ones first
+   * @param report the report successes and failures are recorded in
+   * @return the events that were added, earlier ones first
+   */
+  private static List<EventRecord> addEvents(Merge merge, String source,
+                                             List<EventRecord> events, TransferReport report) {
+    Map<String, List<EventRecord>> hosts = new LinkedHashMap<>();
+    for (EventRecord event : events) {
+      hosts.computeIfAbsent(event.observeUsers().get(0), host -> new ArrayList<>()).add(event);
+    }
+    try {
+      merge.add(null, events);
+      for (List<EventRecord> hosted : hosts.values()) {
+        report.recordSuccess(hosted.size());
+      }
+      return events;
+    } catch (IllegalArgumentException conflicts) {
+      List<EventRecord> accepted = new ArrayList<>();
+      for (Map.Entry<String, List<EventRecord>> hosted : hosts.entrySet()) {
+        try {
+          merge.add(null, hosted.getValue());
+          report.recordSuccess(hosted.getValue().size());
+          accepted.addAll(hosted.getValue());
+        } catch (IllegalArgumentException e) {
+          report.recordFailure(source + " (" + hosted.getKey() + ")", e.getMessage());
+        }
+      }
+      return accepted;
+    }
+  }
+
+  /**
+   * Lists the users of the planner along with users that are not registered yet, so that
+   * schedules can be checked before anyone is registered.
+   *
+   * @param model the planner
+   * @param names the usernames that are not in the planner
+   * @return the users to check schedules against
+   */
+  private static List<IUser> withUsers(PlannerModel model, Set<String> names) {
+    List<IUser> users = new ArrayList<>(model.getListOfUser());
+    for (String name : names) {
+      users.add(new User(name, List.of()));
+    }
+    return users;
+  }
+
+  /**
+   * Registers the users that are not in the planner and are named by what was added.
+   *
+   * @param model   the planner
+   * @param unknown the usernames that are not in the planner, in the order they are registered
+   * @param named   the usernames named by what was added
+   */
+  private static void register(PlannerModel model, Set<String> unknown, Set<String> named) {
+    for (String name : unknown) {
+      if (named.contains(name)) {
+        model.addUser(name);
+      }
+    }
+  }
+
+  /**
+   * Parses the given files on a pool of worker threads, recording each file that cannot be
+   * read.
+   *
+   * @param files  the schedule files
+   * @param report the report failures are recorded in
+   * @return the schedule read from each file that could be read, in the order of the files
+   */
+  private Map<Path, ScheduleRecord> parse(List<Path> files, TransferReport report) {
+    Map<Path, ScheduleRecord> parsed = new LinkedHashMap<>();
+    if (files.isEmpty()) {
+      return parsed;
+    }
+    ExecutorService pool = Executors.newFixedThreadPool(Math.min(this.threads, files.size()),
+        task -> {
+          Thread thread = new Thread(task, "schedule-import");
+          thread.setDaemon(true);
+          return thread;
+        });
+    try {
+      List<Future<ScheduleRecord>> reads = new ArrayList<>();
+      for (Path file : files) {
+        reads.add(pool.submit(() -> XmlScheduleReader.read(file)));
+      }
+      for (int i = 0; i < files.size(); i++) {
+        try {
+          parsed.put(files.get(i), reads.get(i).get());
+        } catch (ExecutionException e) {
+          report.recordFailure(files.get(i).toString(), describe(e.getCause()));
+        }
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IllegalStateException("Import was interrupted");
+    } finally {
+      pool.shutdownNow();
+    }
+    return parsed;
+  }
+
+  /**
+   * Describes why a file could not be read.
+   *
+   * @param cause what the reader threw
+   * @return the reason the file failed
+   */
+  static String describe(Throwable cause) {
+    if (cause instanceof XMLStreamException) {
+      return "Not a well formed XML file: " + cause.getMessage();
+    } else if (cause instanceof IOException) {
+      return "Cannot read the file: " + cause.getMessage();
+    } else if (cause instanceof IllegalArgumentException) {
+      return cause.getMessage();
+    } else if (cause instanceof RuntimeException) {
+      throw (RuntimeException) cause;
+    }
+    throw new IllegalStateException(cause);
+  }
+
+  /**
+   * The schedules being built by the second pass, which are only given to the users once
+   * every file has been added. A merge can be kept across several commits, as a feed keeps
+   * one for a whole ingest, so the schedules it has looked at are only looked at again once
+   * they are told to be forgotten.
+   *
+   * <p>An event of the planner that is the same as one being added invites the same users and
+   * is on their schedules, so only the schedules of the users the events being added name are
+   * looked at, each the first time one of its users is named.</p>
+   */
+  static final class Merge {
+    private final List<IUser> database;
+    // The users of the database by username, kept up with the users appended to it
+    private final Map<String, IUser> users;
+    private int indexed;
+    // Every event on a schedule looked at or in the files added so far, by how it is written
+    // in a file
+    private final Map<EventRecord, IEvent> events;
+    private final Map<String, List<IEvent>> schedules;
+    // The events added to each user since the last commit
+    private final Map<String, List<IEvent>> additions;
+    // How each schedule looked at is written, by username
+    private final Map<String, Set<EventRecord>> held;
+
+    Merge(List<IUser> database) {
+      this.database = database;
+      this.users = new HashMap<>();
+      this.events = new HashMap<>();
+      this.schedules = new LinkedHashMap<>();
+      this.additions = new LinkedHashMap<>();
+      this.held = new HashMap<>();
+    }
+
+    /**
+     * Finds the given users that are not in the planner, in the order they are first given.
+     *
+     * @param names the usernames
+     * @return the usernames that are not in the planner
+     */
+    Set<String> unknown(List<String> names) {
+      Set<String> unknown = new LinkedHashSet<>();
+      for (String name : names) {
+        if (this.user(name) == null) {
+          unknown.add(name);
+        }
+      }
+      return unknown;
+    }
+
+    /**
+     * Finds a user of the database.
+     *
+     * @param name the username
+     * @return the user, or null if there is none
+     */
+    private IUser user(String name) {
+      // Users are only ever appended, so only the ones added since are new
+      for (; this.indexed < this.database.size(); this.indexed++) {
+        IUser user = this.database.get(this.indexed);
+        this.users.putIfAbsent(user.toString(), user);
+      }
+      return this.users.get(name);
+    }
+
+    /**
+     * Finds how the schedule of a user is written, looking at it if it has not been yet.
+     *
+     * @param name the username of a user of the database
+     * @return the records of the events on the schedule
+     */
+    private Set<EventRecord> heldBy(String name) {
+      Set<EventRecord> records = this.held.get(name);
+      if (records == null) {
+        records = new HashSet<>();
+        for (IEvent event : this.scheduleOf(name)) {
+          EventRecord record = EventRecord.of(event);
+          this.events.putIfAbsent(record, event);
+          records.add(record);
+        }
+        this.held.put(name, records);
+      }
+      return records;
+    }
+
+    /**
+     * Adds every event of the given schedule to the owner and every invitee that does not
+     * have it yet, or nothing if any of them would be left with conflicts.
+     *
+     * @param record the schedule of a file
+     * @throws IllegalArgumentException if an invitee other than a host does not exist or a
+     *                                  schedule would have conflicts
+     */
+    void add(ScheduleRecord record) {
+      this.add(record.observeOwner(), record.observeEvents());
+    }
+
+    /**
+     * Adds every given event to the owner, if there is one, and every invitee that does not
+     * have it yet, or nothing if any of them would be left with conflicts.
+     *
+     * @param owner  the user the events were read for, or null if they belong to no one else
+     * @param events the events
+     * @throws IllegalArgumentException if an invitee other than a host does not exist or a
+     *                                  schedule would have conflicts
+     */
+    void add(String owner, List<EventRecord> events) {
+      if (owner != null && this.user(owner) != null) {
+        this.heldBy(owner);
+      }
+      Map<String, List<IEvent>> additions = new LinkedHashMap<>();
+      Map<String, Set<EventRecord>> added = new HashMap<>();
+      Map<EventRecord, IEvent> built = new HashMap<>();
+      for (EventRecord eventRecord : events) {
+        for (String name : eventRecord.observeUsers()) {
+          if (this.user(name) != null) {
+            this.heldBy(name);
+          }
+        }
+        IEvent event = this.events.get(eventRecord);
+        if (event == null) {
+          event = built.get(eventRecord);
+        }
+        if (event == null) {
+          event = eventRecord.toEvent(this.database);
+          built.put(eventRecord, event);
+        }
+        Set<String> participants = new HashSet<>();
+        if (owner != null) {
+          participants.add(owner);
+        }
+        for (IUser invitee : event.observeInvitedUsers()) {
+          participants.add(invitee.toString());
+        }
+        for (String participant : participants) {
+          if (!this.heldBy(participant).contains(eventRecord)
+                  && added.computeIfAbsent(participant, name -> new HashSet<>())
+                  .add(eventRecord)) {
+            additions.computeIfAbsent(participant, name -> new ArrayList<>()).add(event);
+          }
+        }
+      }
+
+      // Every schedule is checked before any of them change, so the file is added whole
+      Map<String, List<IEvent>> checked = new LinkedHashMap<>();
+      for (Map.Entry<String, List<IEvent>> addition : additions.entrySet()) {
+        List<IEvent> schedule = new ArrayList<>(this.scheduleOf(addition.getKey()));
+        schedule.addAll(addition.getValue());
+        try {
+          checked.put(addition.getKey(),
+                  new User(addition.getKey(), schedule).observeSchedule());
+        } catch (IllegalArgumentException e) {
+          throw new IllegalArgumentException("The schedule of " + addition.getKey()
+                  + " would have conflicts");
+        }
+      }
+      this.schedules.putAll(checked);
+      this.events.putAll(built);
+      for (Map.Entry<String, Set<EventRecord>> records : added.entrySet()) {
+        this.held.get(records.getKey()).addAll(records.getValue());
+      }
+      for (Map.Entry<String, List<IEvent>> addition : additions.entrySet()) {
+        this.additions.computeIfAbsent(addition.getKey(), name -> new ArrayList<>())
+                .addAll(addition.getValue());
+      }
+    }
+
+    /**
+     * Finds the schedule of the given user as it stands with the files added so far.
+     *
+     * @param name the username
+     * @return the schedule
+     */
+    private List<IEvent> scheduleOf(String name) {
+      List<IEvent> schedule = this.schedules.get(name);
+      return schedule == null ? this.user(name).observeSchedule() : schedule;
+    }
+
+    /**
+     * Forgets what is known of an event that is about to be changed or removed other than by
+     * this merge, so the schedules it is on are looked at again the next time they are named.
+     *
+     * @param event the event
+     * @param user  the username of a user whose schedule it is about to change on
+     */
+    void forget(IEvent event, String user) {
+      this.events.remove(EventRecord.of(event), event);
+      this.held.remove(user);
+      for (IUser invitee : event.observeInvitedUsers()) {
+        this.held.remove(invitee.toString());
+      }
+    }
+
+    /**
+     * Adds the events added since the last commit to the users in the planner, in one
+     * change of each of their schedules.
+     *
+     * @param model the planner
+     * @throws IllegalArgumentException if a user does not exist or a schedule would have
+     *                                  conflicts
+     */
+    void commit(PlannerModel model) {
+      Map<String, List<IEvent>> additions = new LinkedHashMap<>(this.additions);
+      this.additions.clear();
+      this.schedules.clear();
+      if (!additions.isEmpty()) {
+        model.addEvents(additions);
+      }
+    }
+  }
+}
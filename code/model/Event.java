@@ -67,6 +67,30 @@ public final class Event implements IEvent {
     }
   }
 
+  /**
+   * Constructor for an event read back from where it was stored, whose host is given rather
+   * than taken to be the first invited user. Unlike setHost, no invited user is told that the
+   * event changed, since it is only being restored.
+   *
+   * @param name         of the event and cannot be null
+   * @param location     of the event and cannot be null
+   * @param online       boolean for whether the event is online or not
+   * @param startDay     start day event
+   * @param startTime    start time of the event
+   * @param endDay       end day of the event
+   * @param endTime      end time of the event
+   * @param invitedUsers users that are a part of the event
+   * @param host         the host of the event, or null to keep the first invited user
+   */
+  Event(String name, String location, boolean online,
+        Day startDay, int startTime, Day endDay,
+        int endTime, List<IUser> invitedUsers, IUser host) {
+    this(name, location, online, startDay, startTime, endDay, endTime, invitedUsers);
+    if (host != null) {
+      this.host = host;
+    }
+  }
+
 
   /**
    * Getter for the name.
@@ -157,6 +181,7 @@ public final class Event implements IEvent {
     if (attendees == null) {
       throw new IllegalArgumentException("Given List cannot be null");
     }
+    this.notifyInvitees();
     this.updateUsers(this.invitedUsers, attendees);
     this.invitedUsers = attendees;
   }
@@ -173,7 +198,7 @@ public final class Event implements IEvent {
   private void updateUsers(List<IUser> old, List<IUser> update) {
     for (IUser u : old) {
       if (!update.contains(u)) {
-        u.observeSchedule().remove(this);
+        u.removeEvent(this);
       }
     }
     for (IUser u : update) {
@@ -205,7 +230,16 @@ public final class Event implements IEvent {
    */
   public void removeAll() {
     for (IUser attendee : this.invitedUsers) {
-      attendee.observeSchedule().remove(this);
+      attendee.removeEvent(this);
+    }
+  }
+
+  /**
+   * Tells every user in the list of invitees that this event is about to change.
+   */
+  private void notifyInvitees() {
+    for (IUser attendee : this.invitedUsers) {
+      attendee.markChanged();
     }
   }
 
@@ -225,6 +259,7 @@ public final class Event implements IEvent {
    * @param name a String
    */
   public void setName(String name) {
+    this.notifyInvitees();
     this.name = Objects.requireNonNull(name);
   }
 
@@ -234,6 +269,7 @@ public final class Event implements IEvent {
    * @param location a String
    */
   public void setLocation(String location) {
+    this.notifyInvitees();
     this.location = Objects.requireNonNull(location);
   }
 
@@ -243,6 +279,7 @@ public final class Event implements IEvent {
    * @param online a boolean
    */
   public void setOnline(boolean online) {
+    this.notifyInvitees();
     this.online = online;
   }
 
@@ -252,6 +289,7 @@ public final class Event implements IEvent {
    * @param startDay a Day
    */
   public void setStartDay(Day startDay) {
+    this.notifyInvitees();
     this.startDay = Objects.requireNonNull(startDay);
   }
 
@@ -261,6 +299,7 @@ public final class Event implements IEvent {
    * @param time an int
    */
   public void setStartTime(int time) {
+    this.notifyInvitees();
     if (time >= 0 && time < 2400) {
       this.startTime = time;
     } else {
@@ -274,6 +313,7 @@ public final class Event implements IEvent {
    * @param endDay a Day
    */
   public void setEndDay(Day endDay) {
+    this.notifyInvitees();
     this.endDay = Objects.requireNonNull(endDay);
   }
 
@@ -283,6 +323,7 @@ public final class Event implements IEvent {
    * @param time an int
    */
   public void setEndTime(int time) {
+    this.notifyInvitees();
     if (time >= 0 && time < 2400) {
       this.endTime = time;
     } else {
@@ -296,6 +337,7 @@ public final class Event implements IEvent {
    * @param newHost a User
    */
   public void setHost(IUser newHost) {
+    this.notifyInvitees();
     this.host = newHost;
   }
 
@@ -0,0 +1,88 @@
+package model;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * An EventCanonicalizer resolves each event read from a schedule file to the instance of the
+ * same event already in the planner, so an event that is in the files of several of its users
+ * is one event shared by all of their schedules, as it would be had it been created in the
+ * planner, rather than a copy on each schedule.
+ *
+ * <p>Schedule files hold no identifier of an event, so two events are the same event when
+ * everything that is written of them is the same, which is what an EventRecord holds. The
+ * events of the planner are looked up when the canonicalizer is constructed, since an event
+ * can change after it is added, and the first instance of an event given to the
+ * canonicalizer that the planner does not have becomes the instance of that event.</p>
+ *
+ * <p>An event of the planner that is the same as one being read invites the same users, and
+ * is on their schedules, so only the schedules of the users the events being read invite are
+ * looked up. Reading one schedule into a large planner then takes time in the size of the
+ * schedules it shares events with rather than the whole planner, and loads no other lazily
+ * loaded schedule.</p>
+ */
+final class EventCanonicalizer {
+  private final Map<EventRecord, IEvent> events;
+
+  /**
+   * Constructs a canonicalizer of the given events, from the schedules of the owner and every
+   * user the events invite.
+   *
+   * @param database a List of User
+   * @param owner    the username of the user the events were read for
+   * @param incoming the events that will be resolved
+   */
+  EventCanonicalizer(List<IUser> database, String owner, List<IEvent> incoming) {
+    Set<String> involved = new HashSet<>();
+    involved.add(owner);
+    for (IEvent event : incoming) {
+      for (IUser invitee : event.observeInvitedUsers()) {
+        involved.add(invitee.toString());
+      }
+    }
+    this.events = new HashMap<>();
+    for (IUser user : database) {
+      if (involved.contains(user.toString())) {
+        for (IEvent event : user.observeSchedule()) {
+          this.events.putIfAbsent(EventRecord.of(event), event);
+        }
+      }
+    }
+  }
+
+  /**
+   * Resolves an event to the instance of it in the planner, or to the first instance given
+   * if the planner does not have it.
+   *
+   * @param event the event
+   * @return the instance of the event
+   */
+  IEvent resolve(IEvent event) {
+    IEvent canonical = this.events.putIfAbsent(EventRecord.of(event), event);
+    return canonical == null ? event : canonical;
+  }
+
+  /**
+   * Resolves each event of a schedule, dropping any that is in the schedule more than once.
+   *
+   * @param schedule the schedule
+   * @return the instances of the events, in the order of the schedule
+   */
+  List<IEvent> resolveAll(List<IEvent> schedule) {
+    List<IEvent> resolved = new ArrayList<>(schedule.size());
+    Set<IEvent> seen = Collections.newSetFromMap(new IdentityHashMap<>());
+    for (IEvent event : schedule) {
+      IEvent canonical = this.resolve(event);
+      if (seen.add(canonical)) {
+        resolved.add(canonical);
+      }
+    }
+    return resolved;
+  }
+}
@@ -0,0 +1,183 @@
+package model;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * An EventRecord is an event exactly as it was read from a schedule file, before any of its
+ * users have been looked up. Invitees are kept as usernames, the first being the host, so a
+ * record can be read without a database and turned into an Event once the users it names
+ * are known.
+ */
+public final class EventRecord {
+  private final String name;
+  private final String place;
+  private final boolean online;
+  private final Day startDay;
+  private final int start;
+  private final Day endDay;
+  private final int end;
+  private final List<String> users;
+
+  /**
+   * Constructs a record of an event.
+   *
+   * @param name     the name of the event
+   * @param place    the location of the event
+   * @param online   whether the event is online
+   * @param startDay the starting day of the event
+   * @param start    the start time of the event
+   * @param endDay   the end day of the event
+   * @param end      the end time of the event
+   * @param users    the usernames of the invitees, starting with the host
+   */
+  public EventRecord(String name, String place, boolean online, Day startDay, int start,
+                     Day endDay, int end, List<String> users) {
+    this.name = Objects.requireNonNull(name);
+    this.place = Objects.requireNonNull(place);
+    this.online = online;
+    this.startDay = Objects.requireNonNull(startDay);
+    this.start = start;
+    this.endDay = Objects.requireNonNull(endDay);
+    this.end = end;
+    this.users = List.copyOf(users);
+  }
+
+  /**
+   * Constructs a record of the given event as it would be written to a schedule file.
+   *
+   * @param event an Event
+   * @return the record of the event
+   */
+  static EventRecord of(IEvent event) {
+    List<String> users = new ArrayList<>();
+    for (IUser user : event.observeInvitedUsers()) {
+      users.add(user.toString());
+    }
+    return new EventRecord(event.observeName(), event.observeLocation(), event.observeOnline(),
+            event.observeStartDayOfEvent(), event.observeStartTimeOfEvent(),
+            event.observeEndDayOfEvent(), event.observeEndTimeOfEvent(), users);
+  }
+
+  /**
+   * Observes the name of the event.
+   *
+   * @return the name
+   */
+  public String observeName() {
+    return this.name;
+  }
+
+  /**
+   * Observes the location of the event.
+   *
+   * @return the location
+   */
+  public String observePlace() {
+    return this.place;
+  }
+
+  /**
+   * Observes whether the event is online.
+   *
+   * @return true if it is online
+   */
+  public boolean observeOnline() {
+    return this.online;
+  }
+
+  /**
+   * Observes the starting day of the event.
+   *
+   * @return a Day
+   */
+  public Day observeStartDay() {
+    return this.startDay;
+  }
+
+  /**
+   * Observes the start time of the event.
+   *
+   * @return the start time
+   */
+  public int observeStart() {
+    return this.start;
+  }
+
+  /**
+   * Observes the end day of the event.
+   *
+   * @return a Day
+   */
+  public Day observeEndDay() {
+    return this.endDay;
+  }
+
+  /**
+   * Observes the end time of the event.
+   *
+   * @return the end time
+   */
+  public int observeEnd() {
+    return this.end;
+  }
+
+  /**
+   * Observes the usernames of the invitees, starting with the host.
+   *
+   * @return the usernames
+   */
+  public List<String> observeUsers() {
+    return this.users;
+  }
+
+  /**
+   * Builds the event this record describes with invitees from the given database. The host
+   * may be missing from the database, since the file being read may belong to a user that
+   * does not exist yet, in which case the event is built without them.
+   *
+   * @param database a List of User
+   * @return an Event
+   * @throws IllegalArgumentException if an invitee other than the host does not exist
+   */
+  Event toEvent(List<IUser> database) {
+    List<IUser> invitees = new ArrayList<>();
+    for (int i = 0; i < this.users.size(); i++) {
+      try {
+        invitees.add(Utils.findUser(this.users.get(i), database));
+      } catch (IllegalArgumentException ignored) {
+        // The uploaded XML file belongs to a user that does not yet exist in the database
+        if (i > 0) {
+          throw new IllegalArgumentException("A user in the list of " +
+                  "invitees that is not the host " +
+                  "does not exist in the database.");
+        }
+      }
+    }
+    return new Event(this.name, this.place, this.online, this.startDay,
+            this.start, this.endDay, this.end, invitees);
+  }
+
+  @Override
+  public boolean equals(Object o) {
+    if (!(o instanceof EventRecord)) {
+      return false;
+    }
+    EventRecord r = (EventRecord) o;
+    return this.name.equals(r.name)
+            && this.place.equals(r.place)
+            && this.online == r.online
+            && this.startDay == r.startDay
+            && this.start == r.start
+            && this.endDay == r.endDay
+            && this.end == r.end
+            && this.users.equals(r.users);
+  }
+
+  @Override
+  public int hashCode() {
+    return Objects.hash(this.name, this.place, this.online, this.startDay, this.start,
+            this.endDay, this.end, this.users);
+  }
+}
@@ -0,0 +1,69 @@
+package model;
+
+/**
+ * An FsyncPolicy decides when the records of a journal are forced to the disk, trading how
+ * many of the latest changes a crash of the machine may lose against how long each change
+ * waits for the disk.
+ */
+public final class FsyncPolicy {
+  private final boolean eachWrite;
+  private final long intervalMillis;
+
+  private FsyncPolicy(boolean eachWrite, long intervalMillis) {
+    this.eachWrite = eachWrite;
+    this.intervalMillis = intervalMillis;
+  }
+
+  /**
+   * Forces every change to the disk before the change returns. Changes made at the same time
+   * on several threads share one force, so they wait for the disk together.
+   *
+   * @return the policy
+   */
+  public static FsyncPolicy always() {
+    return new FsyncPolicy(true, 0);
+  }
+
+  /**
+   * Forces changes to the disk together every given number of milliseconds, so a crash of
+   * the machine loses at most the changes of the last interval.
+   *
+   * @param millis the time between forces
+   * @return the policy
+   * @throws IllegalArgumentException if the time is not positive
+   */
+  public static FsyncPolicy every(long millis) {
+    if (millis <= 0) {
+      throw new IllegalArgumentException("Interval must be positive");
+    }
+    return new FsyncPolicy(false, millis);
+  }
+
+  /**
+   * Hands every change to the operating system without forcing it, which survives the
+   * planner crashing but not the machine.
+   *
+   * @return the policy
+   */
+  public static FsyncPolicy never() {
+    return new FsyncPolicy(false, 0);
+  }
+
+  /**
+   * Determines whether every change is forced before it returns.
+   *
+   * @return true if every change is forced
+   */
+  boolean forcesEachWrite() {
+    return this.eachWrite;
+  }
+
+  /**
+   * Observes the time between forces of changes written in the meantime.
+   *
+   * @return the time in milliseconds, or 0 if changes are not forced on a timer
+   */
+  long observeIntervalMillis() {
+    return this.intervalMillis;
+  }
+}
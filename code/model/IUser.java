@@ -17,4 +17,35 @@ public interface IUser {
   int hashCode();
 
   void addEvent(IEvent event);
+
+  /**
+   * Adds each of the given events that this user does not have yet and that does not
+   * conflict with their schedule, sorting the events once rather than checking the whole
+   * schedule for each of them.
+   *
+   * @param events the events to add
+   * @return the report of which events were added, duplicates or left out for conflicts
+   */
+  MergeReport addEvents(List<IEvent> events);
+
+  /**
+   * Removes the given event from this user's schedule if it is on it.
+   *
+   * @param event the event to remove
+   */
+  void removeEvent(IEvent event);
+
+  /**
+   * Records that an event on this user's schedule is being changed in place, such as when
+   * it is moved or renamed, so that the change is reflected in the version of the schedule.
+   */
+  void markChanged();
+
+  /**
+   * Observes the version of this user's schedule. The version is different after every
+   * change to the schedule, so two equal versions mean the schedule has not changed.
+   *
+   * @return the version of the schedule
+   */
+  long observeVersion();
 }
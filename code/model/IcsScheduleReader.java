@@ -0,0 +1,447 @@
+package model;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.DayOfWeek;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+
+/**
+ * The IcsScheduleReader adds the events of an iCalendar (.ics) file to a planner, such as one
+ * written by the IcsScheduleWriter or by a calendar program. Each VEVENT becomes an event on
+ * the days of the week and at the times it starts and ends, the ORGANIZER becoming the host
+ * and each ATTENDEE an invitee, and any user it names that the planner does not have yet is
+ * added to it.
+ *
+ * <p>Reading is a pipeline: the thread that reads the file only splits it into chunks of
+ * CHUNK_EVENTS VEVENTs, handing each chunk to a pool of threads that parse them while the next
+ * ones are split off, with no more than a few chunks for each parsing thread waiting at once.
+ * The events are then added to the planner together, checking the schedule of each user they
+ * are added to once for conflicts. If any schedule would have conflicts the events of each
+ * host are added on their own instead, so only the hosts whose events conflict are left out.
+ * An event that cannot be parsed and a host whose events cannot be added are recorded in the
+ * TransferReport rather than stopping the others.</p>
+ */
+public final class IcsScheduleReader {
+
+  /**
+   * The most VEVENTs parsed by one task.
+   */
+  public static final int CHUNK_EVENTS = 256;
+
+  // The chunks that may wait to be parsed for each parsing thread
+  private static final int CHUNKS_PER_PARSER = 2;
+
+  private static final DateTimeFormatter DATE_TIME =
+          DateTimeFormatter.ofPattern("yyyyMMdd'T'HHmmss");
+  private static final DateTimeFormatter DATE = DateTimeFormatter.ofPattern("yyyyMMdd");
+
+  /**
+   * The VEVENTs of a chunk and what each of them was parsed into.
+   */
+  private static final class Chunk {
+    // The number of VEVENTs in the file before this chunk
+    private final int first;
+    private final List<List<String>> events = new ArrayList<>();
+    private EventRecord[] records;
+    private String[] failures;
+
+    private Chunk(int first) {
+      this.first = first;
+    }
+
+    /**
+     * Parses every VEVENT of this chunk.
+     *
+     * @return this chunk
+     */
+    private Chunk parse() {
+      this.records = new EventRecord[this.events.size()];
+      this.failures = new String[this.events.size()];
+      for (int i = 0; i < this.events.size(); i++) {
+        try {
+          this.records[i] = IcsScheduleReader.parse(this.events.get(i));
+        } catch (IllegalArgumentException e) {
+          this.failures[i] = e.getMessage();
+        }
+      }
+      return this;
+    }
+  }
+
+  private IcsScheduleReader() {
+  }
+
+  /**
+   * Adds the events of the calendar file at the given path to the given planner, parsing with
+   * one thread for each processor.
+   *
+   * @param model the planner the events are added to
+   * @param file  the path of the calendar
+   * @return the report of the import
+   * @throws IOException if the file cannot be read or is not a calendar
+   */
+  public static TransferReport read(PlannerModel model, Path file) throws IOException {
+    try (Reader in = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+      return read(model, in, file.toString(), Runtime.getRuntime().availableProcessors());
+    }
+  }
+
+  /**
+   * Adds the events of the calendar read from the given reader, which is left open, to the
+   * given planner. Where events conflict, the one earlier in the calendar is added.
+   *
+   * @param model   the planner the events are added to
+   * @param in      the reader
+   * @param source  the name of where the calendar is read from, which failures are recorded
+   *                under
+   * @param parsers the number of threads that parse events
+   * @return the report of the import
+   * @throws IOException              if the calendar cannot be read or is not a calendar
+   * @throws IllegalArgumentException if the number of threads is not positive
+   */
+  public static TransferReport read(PlannerModel model, Reader in, String source, int parsers)
+          throws IOException {
+    if (parsers < 1) {
+      throw new IllegalArgumentException("Number of threads must be positive");
+    }
+    TransferReport report = new TransferReport();
+    List<Future<Chunk>> reads = new ArrayList<>();
+    Semaphore waiting = new Semaphore(parsers * CHUNKS_PER_PARSER);
+    ExecutorService pool = Executors.newFixedThreadPool(parsers, task -> {
+      Thread thread = new Thread(task, "calendar-parse");
+      thread.setDaemon(true);
+      return thread;
+    });
+    try {
+      BufferedReader lines = in instanceof BufferedReader
+              ? (BufferedReader) in : new BufferedReader(in, 1 << 16);
+      String line = unfold(lines);
+      if (line == null || !line.equalsIgnoreCase("BEGIN:VCALENDAR")) {
+        throw new IOException("Not an iCalendar file");
+      }
+      int count = 0;
+      Chunk chunk = new Chunk(0);
+      List<String> event = null;
+      int depth = 0;
+      for (line = unfold(lines); line != null; line = unfold(lines)) {
+        if (event == null) {
+          if (line.equalsIgnoreCase("BEGIN:VEVENT")) {
+            event = new ArrayList<>();
+          }
+          continue;
+        }
+        // The lines of a component inside the event, such as an alarm, are skipped
+        if (line.regionMatches(true, 0, "BEGIN:", 0, 6)) {
+          depth++;
+        } else if (depth > 0 && line.regionMatches(true, 0, "END:", 0, 4)) {
+          depth--;
+        } else if (depth == 0 && line.equalsIgnoreCase("END:VEVENT")) {
+          chunk.events.add(event);
+          event = null;
+          count++;
+          if (chunk.events.size() == CHUNK_EVENTS) {
+            reads.add(submit(pool, waiting, chunk));
+            chunk = new Chunk(count);
+          }
+        } else if (depth == 0) {
+          event.add(line);
+        }
+      }
+      if (!chunk.events.isEmpty()) {
+        reads.add(submit(pool, waiting, chunk));
+      }
+
+      List<EventRecord> records = new ArrayList<>();
+      for (Future<Chunk> read : reads) {
+        Chunk parsed;
+        try {
+          parsed = read.get();
+        } catch (ExecutionException e) {
+          throw new IllegalStateException(e.getCause());
+        }
+        for (int i = 0; i < parsed.records.length; i++) {
+          if (parsed.records[i] != null) {
+            records.add(parsed.records[i]);
+          } else {
+            report.recordFailure(source + " event " + (parsed.first + i + 1),
+                    parsed.failures[i]);
+          }
+        }
+      }
+      BulkImporter.merge(model, source, records, report);
+      return report;
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IllegalStateException("Import was interrupted");
+    } finally {
+      pool.shutdownNow();
+    }
+  }
+
+  /**
+   * Hands a chunk to the pool once fewer than the limit of chunks are waiting.
+   *
+   * @param pool    the pool
+   * @param waiting the permits for a chunk to wait
+   * @param chunk   the chunk
+   * @return the chunk once it has been parsed
+   * @throws InterruptedException if the thread is interrupted while waiting for a permit
+   */
+  private static Future<Chunk> submit(ExecutorService pool, Semaphore waiting, Chunk chunk)
+          throws InterruptedException {
+    waiting.acquire();
+    return pool.submit(() -> {
+      try {
+        return chunk.parse();
+      } finally {
+        waiting.release();
+      }
+    });
+  }
+
+  /**
+   * Reads the next content line, joining the lines it was folded onto, and skipping blank
+   * lines.
+   *
+   * @param lines the lines of the calendar, reset to just after the content line
+   * @return the content line, or null at the end of the calendar
+   * @throws IOException if the calendar cannot be read
+   */
+  private static String unfold(BufferedReader lines) throws IOException {
+    String line = lines.readLine();
+    while (line != null && line.isEmpty()) {
+      line = lines.readLine();
+    }
+    if (line == null) {
+      return null;
+    }
+    StringBuilder content = new StringBuilder(line);
+    while (true) {
+      lines.mark(1);
+      int next = lines.read();
+      if (next != ' ' && next != '\t') {
+        if (next != -1) {
+          lines.reset();
+        }
+        return content.toString();
+      }
+      content.append(lines.readLine());
+    }
+  }
+
+  /**
+   * Parses the content lines of a VEVENT.
+   *
+   * @param lines the content lines between BEGIN:VEVENT and END:VEVENT
+   * @return the record of the event
+   * @throws IllegalArgumentException if the VEVENT does not describe an event of the planner
+   */
+  static EventRecord parse(List<String> lines) {
+    String name = "";
+    String place = "";
+    boolean online = false;
+    LocalDateTime start = null;
+    LocalDateTime end = null;
+    String duration = null;
+    String host = null;
+    List<String> attendees = new ArrayList<>();
+    for (String line : lines) {
+      int colon = valueStart(line);
+      if (colon < 0) {
+        throw new IllegalArgumentException("Not a content line: " + line);
+      }
+      String head = line.substring(0, colon);
+      String value = line.substring(colon + 1);
+      int semicolon = head.indexOf(';');
+      String property = (semicolon < 0 ? head : head.substring(0, semicolon)).toUpperCase();
+      String parameters = semicolon < 0 ? "" : head.substring(semicolon);
+      switch (property) {
+        case "SUMMARY":
+          name = unescape(value);
+          break;
+        case "LOCATION":
+          place = unescape(value);
+          break;
+        case "X-NUPLANNER-ONLINE":
+          online = value.equalsIgnoreCase("TRUE");
+          break;
+        case "DTSTART":
+          start = dateTime(value);
+          break;
+        case "DTEND":
+          end = dateTime(value);
+          break;
+        case "DURATION":
+          duration = value;
+          break;
+        case "ORGANIZER":
+          host = username(parameters, value);
+          break;
+        case "ATTENDEE":
+          attendees.add(username(parameters, value));
+          break;
+        default:
+          // Properties the planner has no place for are skipped
+      }
+    }
+    if (start == null) {
+      throw new IllegalArgumentException("Event has no start");
+    }
+    if (end == null && duration != null) {
+      end = start.plus(duration(duration));
+    }
+    if (end == null) {
+      throw new IllegalArgumentException("Event has no end");
+    }
+    if (!end.isAfter(start) || end.isAfter(start.plusWeeks(1))) {
+      throw new IllegalArgumentException("Event must end within a week of its start");
+    }
+    if (host == null) {
+      throw new IllegalArgumentException("Event has no organizer");
+    }
+
+    List<String> users = new ArrayList<>();
+    users.add(host);
+    for (String attendee : attendees) {
+      if (!users.contains(attendee)) {
+        users.add(attendee);
+      }
+    }
+    return new EventRecord(name, place, online, day(start.getDayOfWeek()),
+            start.getHour() * 100 + start.getMinute(), day(end.getDayOfWeek()),
+            end.getHour() * 100 + end.getMinute(), users);
+  }
+
+  /**
+   * Finds where the value of a content line starts, which is after the first colon that is
+   * not inside a quoted parameter.
+   *
+   * @param line the content line
+   * @return the index of the colon, or -1 if there is none
+   */
+  private static int valueStart(String line) {
+    boolean quoted = false;
+    for (int i = 0; i < line.length(); i++) {
+      char c = line.charAt(i);
+      if (c == '"') {
+        quoted = !quoted;
+      } else if (c == ':' && !quoted) {
+        return i;
+      }
+    }
+    return -1;
+  }
+
+  /**
+   * Parses a date or date-time as the local time it names. A time in UTC or with a time zone
+   * is taken as it is written, since events of the planner have no time zone.
+   *
+   * @param value the date or date-time
+   * @return the date-time, which is the start of the day for a date
+   * @throws IllegalArgumentException if the value is not a date or date-time
+   */
+  private static LocalDateTime dateTime(String value) {
+    String local = value.endsWith("Z") || value.endsWith("z")
+            ? value.substring(0, value.length() - 1) : value;
+    try {
+      if (local.length() == 8) {
+        return LocalDate.parse(local, DATE).atStartOfDay();
+      }
+      return LocalDateTime.parse(local, DATE_TIME);
+    } catch (DateTimeParseException e) {
+      throw new IllegalArgumentException("Not a date-time: " + value);
+    }
+  }
+
+  /**
+   * Parses a duration, which may be given in weeks.
+   *
+   * @param value the duration
+   * @return the duration
+   * @throws IllegalArgumentException if the value is not a duration
+   */
+  private static Duration duration(String value) {
+    try {
+      String upper = value.toUpperCase();
+      if (upper.endsWith("W")) {
+        int weeks = Integer.parseInt(upper.substring(upper.indexOf('P') + 1, upper.length() - 1));
+        return Duration.ofDays(7L * weeks);
+      }
+      return Duration.parse(upper);
+    } catch (NumberFormatException | DateTimeParseException e) {
+      throw new IllegalArgumentException("Not a duration: " + value);
+    }
+  }
+
+  /**
+   * Converts a day of the week to the Day of the planner.
+   *
+   * @param day the day of the week
+   * @return the Day
+   */
+  private static Day day(DayOfWeek day) {
+    // Days of the planner start on Sunday and days of the week on Monday
+    return Day.values()[day.getValue() % 7];
+  }
+
+  /**
+   * Finds the username of an ORGANIZER or ATTENDEE. An address written by the
+   * IcsScheduleWriter names the user, and any other is named by its common name if it has
+   * one, or else by its address without the mailto: scheme.
+   *
+   * @param parameters the parameters of the property, each after a semicolon
+   * @param value      the address
+   * @return the username
+   */
+  private static String username(String parameters, String value) {
+    if (value.regionMatches(true, 0, IcsScheduleWriter.ADDRESS, 0,
+            IcsScheduleWriter.ADDRESS.length())) {
+      return URLDecoder.decode(value.substring(IcsScheduleWriter.ADDRESS.length())
+              .replace("+", "%2B"), StandardCharsets.UTF_8);
+    }
+    for (String parameter : parameters.split(";")) {
+      if (parameter.regionMatches(true, 0, "CN=", 0, 3)) {
+        String name = parameter.substring(3);
+        return name.startsWith("\"") && name.endsWith("\"") && name.length() > 1
+                ? name.substring(1, name.length() - 1) : name;
+      }
+    }
+    return value.regionMatches(true, 0, "mailto:", 0, 7) ? value.substring(7) : value;
+  }
+
+  /**
+   * Reverses the escaping of a text value.
+   *
+   * @param value the escaped text
+   * @return the text
+   */
+  private static String unescape(String value) {
+    StringBuilder text = new StringBuilder(value.length());
+    for (int i = 0; i < value.length(); i++) {
+      char c = value.charAt(i);
+      if (c == '\\' && i + 1 < value.length()) {
+        char next = value.charAt(++i);
+        text.append(next == 'n' || next == 'N' ? '\n' : next);
+      } else {
+        text.append(c);
+      }
+    }
+    return text.toString();
+  }
+}
@@ -0,0 +1,234 @@
+package model;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.Writer;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * The IcsScheduleWriter writes schedules as an iCalendar (.ics) file, so they can be opened by
+ * calendar programs. Each event is written as a VEVENT that repeats every week, starting in
+ * the week of REFERENCE_SUNDAY, since the events of a planner belong to no week in particular.
+ * The host is written as the ORGANIZER and every invitee as an ATTENDEE, named by a
+ * urn:nuplanner: address that the IcsScheduleReader turns back into the username.
+ *
+ * <p>Events are written straight to the writer one at a time, so writing takes the same memory
+ * however many events there are. An event on the schedules of several users is written once,
+ * with the first of its users being written, who is its host whenever the host is among
+ * them.</p>
+ */
+public final class IcsScheduleWriter {
+
+  /**
+   * The Sunday that starts the week every event is written in.
+   */
+  public static final LocalDate REFERENCE_SUNDAY = LocalDate.of(2024, 1, 7);
+
+  /**
+   * The prefix of the address each user is written with.
+   */
+  public static final String ADDRESS = "urn:nuplanner:";
+
+  private static final String CRLF = "\r\n";
+
+  // The octets of a line before it is folded onto the next one
+  private static final int LINE_OCTETS = 75;
+
+  private IcsScheduleWriter() {
+  }
+
+  /**
+   * Writes the schedules of the given users to a new calendar file at the given path,
+   * replacing any file there.
+   *
+   * @param users the users
+   * @param file  the path of the calendar
+   * @return the number of events written
+   * @throws IOException if the file cannot be written
+   */
+  public static int write(List<IUser> users, Path file) throws IOException {
+    try (Writer out = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+      return write(users, out);
+    }
+  }
+
+  /**
+   * Writes the schedule of the given user as a calendar to the given writer, which is left
+   * open.
+   *
+   * @param user a User
+   * @param out  the writer
+   * @return the number of events written
+   * @throws IOException if the calendar cannot be written
+   */
+  public static int write(IUser user, Writer out) throws IOException {
+    return write(List.of(user), out);
+  }
+
+  /**
+   * Writes the schedules of the given users as one calendar to the given writer, which is left
+   * open, writing each event once however many of the users have it.
+   *
+   * @param users the users
+   * @param out   the writer
+   * @return the number of events written
+   * @throws IOException if the calendar cannot be written
+   */
+  public static int write(List<IUser> users, Writer out) throws IOException {
+    Set<String> names = new HashSet<>();
+    for (IUser user : users) {
+      names.add(user.toString());
+    }
+    Writer buffered = out instanceof BufferedWriter ? out : new BufferedWriter(out, 1 << 16);
+    line(buffered, "BEGIN:VCALENDAR");
+    line(buffered, "VERSION:2.0");
+    line(buffered, "PRODID:-//NUPlanner//Planner System//EN");
+    int written = 0;
+    for (IUser user : users) {
+      for (IEvent event : user.observeSchedule()) {
+        if (writtenBy(event, names).equals(user.toString())) {
+          event(buffered, event);
+          written++;
+        }
+      }
+    }
+    line(buffered, "END:VCALENDAR");
+    buffered.flush();
+    return written;
+  }
+
+  /**
+   * Finds the user an event is written with, which is its first invitee being written.
+   *
+   * @param event the event
+   * @param names the usernames of the users being written
+   * @return the username
+   */
+  private static String writtenBy(IEvent event, Set<String> names) {
+    for (IUser invitee : event.observeInvitedUsers()) {
+      if (names.contains(invitee.toString())) {
+        return invitee.toString();
+      }
+    }
+    return "";
+  }
+
+  /**
+   * Writes an event as a VEVENT. An event that ends earlier in the week than it starts ends in
+   * the week after.
+   *
+   * @param out   the writer
+   * @param event the event
+   * @throws IOException if the event cannot be written
+   */
+  private static void event(Writer out, IEvent event) throws IOException {
+    String host = event.observeHost().toString();
+    int start = event.observeStartDayOfEvent().ordinal() * 2400
+            + event.observeStartTimeOfEvent();
+    int end = event.observeEndDayOfEvent().ordinal() * 2400 + event.observeEndTimeOfEvent();
+    String stamp = dateTime(0, 0);
+
+    line(out, "BEGIN:VEVENT");
+    line(out, "UID:" + UUID.nameUUIDFromBytes((host + '\n' + event.observeName() + '\n'
+            + start).getBytes(StandardCharsets.UTF_8)) + "@nuplanner");
+    line(out, "DTSTAMP:" + stamp);
+    line(out, "DTSTART:" + dateTime(event.observeStartDayOfEvent().ordinal(),
+            event.observeStartTimeOfEvent()));
+    line(out, "DTEND:" + dateTime(event.observeEndDayOfEvent().ordinal() + (end <= start ? 7 : 0),
+            event.observeEndTimeOfEvent()));
+    line(out, "RRULE:FREQ=WEEKLY");
+    line(out, "SUMMARY:" + text(event.observeName()));
+    line(out, "LOCATION:" + text(event.observeLocation()));
+    line(out, "X-NUPLANNER-ONLINE:" + (event.observeOnline() ? "TRUE" : "FALSE"));
+    line(out, "ORGANIZER" + user(host));
+    for (IUser invitee : event.observeInvitedUsers()) {
+      line(out, "ATTENDEE" + user(invitee.toString()));
+    }
+    line(out, "END:VEVENT");
+  }
+
+  /**
+   * Formats a time in the week of REFERENCE_SUNDAY, or a later week, as a local date-time.
+   *
+   * @param days the days since REFERENCE_SUNDAY
+   * @param time the time of day in the form of hhmm
+   * @return the date-time
+   */
+  private static String dateTime(int days, int time) {
+    LocalDate date = REFERENCE_SUNDAY.plusDays(days);
+    return String.format("%04d%02d%02dT%04d00", date.getYear(), date.getMonthValue(),
+            date.getDayOfMonth(), time);
+  }
+
+  /**
+   * Formats the parameters and address a user is written with.
+   *
+   * @param name the username
+   * @return the user after the property name
+   */
+  private static String user(String name) {
+    return ";CN=\"" + name.replace("\"", "'") + "\":" + ADDRESS
+            + URLEncoder.encode(name, StandardCharsets.UTF_8).replace("+", "%20");
+  }
+
+  /**
+   * Escapes the characters of a text value that have a meaning in a calendar.
+   *
+   * @param value the text
+   * @return the escaped text
+   */
+  private static String text(String value) {
+    StringBuilder escaped = new StringBuilder(value.length());
+    for (int i = 0; i < value.length(); i++) {
+      char c = value.charAt(i);
+      switch (c) {
+        case '\\':
+        case ';':
+        case ',':
+          escaped.append('\\').append(c);
+          break;
+        case '\n':
+          escaped.append("\\n");
+          break;
+        case '\r':
+          break;
+        default:
+          escaped.append(c);
+      }
+    }
+    return escaped.toString();
+  }
+
+  /**
+   * Writes a content line, folding it onto the lines after it wherever it would be longer
+   * than LINE_OCTETS octets, without splitting a character.
+   *
+   * @param out  the writer
+   * @param line the content line
+   * @throws IOException if the line cannot be written
+   */
+  private static void line(Writer out, String line) throws IOException {
+    int octets = 0;
+    for (int i = 0; i < line.length(); ) {
+      int codePoint = line.codePointAt(i);
+      int width = codePoint < 0x80 ? 1 : codePoint < 0x800 ? 2 : codePoint < 0x10000 ? 3 : 4;
+      if (octets + width > LINE_OCTETS) {
+        out.write(CRLF);
+        out.write(' ');
+        octets = 1;
+      }
+      out.write(line, i, Character.charCount(codePoint));
+      octets += width;
+      i += Character.charCount(codePoint);
+    }
+    out.write(CRLF);
+  }
+}
@@ -0,0 +1,633 @@
+package model;
+
+import java.io.IOException;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * The JdbcPlannerRepository keeps the planner in an SQL database through JDBC, meant for an
+ * embedded database kept in a file such as H2 or SQLite, whose driver only has to be on the
+ * class path. Users, events, the attendees of each event and the events on each schedule are
+ * kept in their own tables, indexed for the queries the repository makes, so a single
+ * schedule or part of the week can be loaded without reading the rest.
+ *
+ * <p>Each event is given a row once, however many schedules it is on, and the repository
+ * remembers which row holds each event it has loaded or saved, so saving one user's changed
+ * schedule rewrites the events on it in place for every user that shares them. Every write
+ * is sent in batches and committed in a single transaction.</p>
+ *
+ * <p>The repository shares one connection and its maps of rows, so its methods and the loads
+ * of its lazy users are made one at a time, as lazy users may be loaded from several threads
+ * at once.</p>
+ *
+ * <p>Every start and end is kept as a key counted in hhmm from Sunday at 0000, with an event
+ * that runs into the next week ending a week later, so the database can find the events in a
+ * part of the week by comparing keys.</p>
+ */
+public final class JdbcPlannerRepository implements PlannerRepository {
+
+  // The length of a week in keys
+  private static final int WEEK_KEYS = 7 * 2400;
+
+  private static final String[] SCHEMA = {
+      "CREATE TABLE IF NOT EXISTS planner_users (id INTEGER PRIMARY KEY, "
+          + "name VARCHAR(4096) NOT NULL UNIQUE)",
+      "CREATE TABLE IF NOT EXISTS planner_events (id BIGINT PRIMARY KEY, "
+          + "name VARCHAR(4096) NOT NULL, location VARCHAR(4096) NOT NULL, "
+          + "online BOOLEAN NOT NULL, start_day SMALLINT NOT NULL, "
+          + "start_time SMALLINT NOT NULL, end_day SMALLINT NOT NULL, "
+          + "end_time SMALLINT NOT NULL, start_key INTEGER NOT NULL, "
+          + "end_key INTEGER NOT NULL, host_id INTEGER)",
+      "CREATE INDEX IF NOT EXISTS planner_events_span ON planner_events (start_key, end_key)",
+      "CREATE TABLE IF NOT EXISTS planner_attendees (event_id BIGINT NOT NULL, "
+          + "seq INTEGER NOT NULL, user_id INTEGER NOT NULL, PRIMARY KEY (event_id, seq))",
+      "CREATE INDEX IF NOT EXISTS planner_attendees_user ON planner_attendees (user_id)",
+      "CREATE TABLE IF NOT EXISTS planner_schedules (user_id INTEGER NOT NULL, "
+          + "seq INTEGER NOT NULL, event_id BIGINT NOT NULL, PRIMARY KEY (user_id, seq))",
+      "CREATE INDEX IF NOT EXISTS planner_schedules_event ON planner_schedules (event_id)"
+  };
+
+  // The events on a user's schedule with their attendees, one row for each attendee
+  private static final String SCHEDULE_QUERY = "SELECT e.id, e.name, e.location, e.online, "
+      + "e.start_day, e.start_time, e.end_day, e.end_time, au.name "
+      + "FROM planner_users o "
+      + "JOIN planner_schedules s ON s.user_id = o.id "
+      + "JOIN planner_events e ON e.id = s.event_id "
+      + "LEFT JOIN planner_attendees a ON a.event_id = e.id "
+      + "LEFT JOIN planner_users au ON au.id = a.user_id "
+      + "WHERE o.name = ? ";
+
+  private static final String SCHEDULE_ORDER = "ORDER BY s.seq, a.seq";
+
+  private final Connection connection;
+  private final Map<String, Integer> userIds;
+  private final Map<IEvent, Long> eventIds;
+  private final Map<Long, IEvent> eventsById;
+  private int nextUser;
+  private long nextEvent;
+
+  /**
+   * Opens the database at the given JDBC URL, creating the tables it needs if they do not
+   * exist yet.
+   *
+   * @param url the JDBC URL, such as jdbc:h2:file:/path/to/planner
+   * @throws IOException if the database cannot be opened
+   */
+  public JdbcPlannerRepository(String url) throws IOException {
+    this(connect(url));
+  }
+
+  /**
+   * Keeps the planner in the database of the given connection, creating the tables it needs
+   * if they do not exist yet. The connection is closed along with the repository.
+   *
+   * @param connection a connection to the database
+   * @throws IOException if the tables cannot be created
+   */
+  public JdbcPlannerRepository(Connection connection) throws IOException {
+    this.connection = Objects.requireNonNull(connection);
+    this.userIds = new HashMap<>();
+    this.eventIds = new IdentityHashMap<>();
+    this.eventsById = new HashMap<>();
+    try (Statement statement = connection.createStatement()) {
+      for (String table : SCHEMA) {
+        statement.execute(table);
+      }
+      try (ResultSet users = statement.executeQuery("SELECT id, name FROM planner_users")) {
+        while (users.next()) {
+          this.userIds.put(users.getString(2), users.getInt(1));
+          this.nextUser = Math.max(this.nextUser, users.getInt(1) + 1);
+        }
+      }
+      try (ResultSet last = statement.executeQuery("SELECT MAX(id) FROM planner_events")) {
+        this.nextEvent = last.next() ? last.getLong(1) + 1 : 1;
+      }
+      connection.setAutoCommit(false);
+      connection.commit();
+    } catch (SQLException e) {
+      throw new IOException(e);
+    }
+  }
+
+  /**
+   * Connects to the database at the given JDBC URL.
+   *
+   * @param url the JDBC URL
+   * @return the connection
+   * @throws IOException if there is no driver for the URL or the database cannot be opened
+   */
+  private static Connection connect(String url) throws IOException {
+    try {
+      return DriverManager.getConnection(url);
+    } catch (SQLException e) {
+      throw new IOException(e);
+    }
+  }
+
+  @Override
+  public synchronized NuPlanner load() throws IOException {
+    try (Statement statement = this.connection.createStatement()) {
+      Map<Integer, IUser> users = new HashMap<>();
+      List<IUser> database = new ArrayList<>();
+      try (ResultSet rows = statement.executeQuery(
+              "SELECT id, name FROM planner_users ORDER BY id")) {
+        while (rows.next()) {
+          IUser user = new User(rows.getString(2), List.of());
+          users.put(rows.getInt(1), user);
+          database.add(user);
+        }
+      }
+
+      Map<Long, List<IUser>> attendees = new HashMap<>();
+      try (ResultSet rows = statement.executeQuery(
+              "SELECT event_id, user_id FROM planner_attendees ORDER BY event_id, seq")) {
+        while (rows.next()) {
+          attendees.computeIfAbsent(rows.getLong(1), id -> new ArrayList<>())
+                  .add(users.get(rows.getInt(2)));
+        }
+      }
+
+      Map<Long, IEvent> events = new HashMap<>();
+      try (ResultSet rows = statement.executeQuery("SELECT id, name, location, online, "
+              + "start_day, start_time, end_day, end_time, host_id FROM planner_events")) {
+        while (rows.next()) {
+          Event event = new Event(rows.getString(2), rows.getString(3), rows.getBoolean(4),
+                  Day.values()[rows.getInt(5)], rows.getInt(6), Day.values()[rows.getInt(7)],
+                  rows.getInt(8), attendees.getOrDefault(rows.getLong(1), new ArrayList<>()));
+          int host = rows.getInt(9);
+          if (!rows.wasNull() && users.containsKey(host)) {
+            event.setHost(users.get(host));
+          }
+          events.put(rows.getLong(1), event);
+        }
+      }
+
+      Map<IUser, List<IEvent>> schedules = new IdentityHashMap<>();
+      try (ResultSet rows = statement.executeQuery(
+              "SELECT user_id, event_id FROM planner_schedules ORDER BY user_id, seq")) {
+        while (rows.next()) {
+          schedules.computeIfAbsent(users.get(rows.getInt(1)), user -> new ArrayList<>())
+                  .add(events.get(rows.getLong(2)));
+        }
+      }
+      this.connection.commit();
+
+      // The schedules were valid and in order when they were saved, so they are not checked
+      for (Map.Entry<IUser, List<IEvent>> schedule : schedules.entrySet()) {
+        schedule.getKey().setSchedule(schedule.getValue());
+      }
+      for (Map.Entry<Long, IEvent> event : events.entrySet()) {
+        this.remember(event.getValue(), event.getKey());
+      }
+      NuPlanner planner = new NuPlanner(database);
+      planner.markSaved(this);
+      return planner;
+    } catch (SQLException e) {
+      throw this.rollback(e);
+    }
+  }
+
+  /**
+   * Each lazy user loads its schedule with a single query. An event already loaded or saved
+   * for another user, found by the id of its row, is given to the user as it is, so it stays
+   * shared and keeps any changes made to it since.
+   */
+  @Override
+  public NuPlanner loadLazily() throws IOException {
+    Map<String, IUser> users = new HashMap<>();
+    List<IUser> database = new ArrayList<>();
+    LazyUser.Loader loader = new LazyUser.Loader() {
+      @Override
+      public List<IEvent> load(String user) throws IOException {
+        return loadEvents(user, users, database);
+      }
+
+      @Override
+      public void release(IEvent event) {
+        synchronized (JdbcPlannerRepository.this) {
+          Long id = eventIds.remove(event);
+          if (id != null) {
+            eventsById.remove(id);
+          }
+        }
+      }
+    };
+    for (String name : this.loadUsernames()) {
+      IUser user = new LazyUser(name, loader);
+      users.put(name, user);
+      database.add(user);
+    }
+    NuPlanner planner = new NuPlanner(database);
+    planner.markSaved(this);
+    return planner;
+  }
+
+  /**
+   * Loads the stored schedule of a lazy user.
+   *
+   * @param user     the username
+   * @param users    the users that were stored when the planner was loaded, by username
+   * @param database the users of the planner, including any added since it was loaded
+   * @return the events in the order of the schedule
+   * @throws IOException if the schedule cannot be read
+   */
+  private synchronized List<IEvent> loadEvents(String user, Map<String, IUser> users,
+                                               List<IUser> database) throws IOException {
+    Map<Long, EventRecord> records;
+    try (PreparedStatement query = this.connection.prepareStatement(
+            SCHEDULE_QUERY + SCHEDULE_ORDER)) {
+      query.setString(1, user);
+      records = this.records(query);
+    } catch (SQLException e) {
+      throw this.rollback(e);
+    }
+    List<IEvent> schedule = new ArrayList<>();
+    for (Map.Entry<Long, EventRecord> record : records.entrySet()) {
+      IEvent event = this.eventsById.get(record.getKey());
+      if (event == null) {
+        List<IUser> attendees = new ArrayList<>();
+        for (String name : record.getValue().observeUsers()) {
+          IUser attendee = users.get(name);
+          attendees.add(attendee != null ? attendee : Utils.findUser(name, database));
+        }
+        EventRecord fields = record.getValue();
+        event = new Event(fields.observeName(), fields.observePlace(), fields.observeOnline(),
+                fields.observeStartDay(), fields.observeStart(), fields.observeEndDay(),
+                fields.observeEnd(), attendees);
+        this.remember(event, record.getKey());
+      }
+      schedule.add(event);
+    }
+    return schedule;
+  }
+
+  @Override
+  public void save(List<IUser> users) throws IOException {
+    // Lazy users are loaded before the lock is taken, as their loads take it too
+    List<List<IEvent>> schedules = new ArrayList<>();
+    for (IUser user : users) {
+      schedules.add(user.observeSchedule());
+    }
+    this.write(users, schedules);
+  }
+
+  /**
+   * Writes the given schedules of the given users in one transaction.
+   *
+   * @param users     the users to save
+   * @param schedules the schedule of each of the users, in the same order
+   * @throws IOException if the schedules cannot be written
+   */
+  private synchronized void write(List<IUser> users, List<List<IEvent>> schedules)
+          throws IOException {
+    List<String> added = new ArrayList<>();
+    try {
+      // Every user named by the schedules needs a row before anything refers to it
+      Set<String> named = new LinkedHashSet<>();
+      Map<IEvent, Long> events = new IdentityHashMap<>();
+      for (IUser user : users) {
+        named.add(user.toString());
+      }
+      for (List<IEvent> schedule : schedules) {
+        for (IEvent event : schedule) {
+          events.put(event, null);
+          for (IUser attendee : event.observeInvitedUsers()) {
+            named.add(attendee.toString());
+          }
+          if (event.observeHost() != null) {
+            named.add(event.observeHost().toString());
+          }
+        }
+      }
+      this.insertUsers(named, added);
+
+      // The events that were on these schedules, which may be left on none
+      List<Long> previous = new ArrayList<>();
+      try (PreparedStatement held = this.connection.prepareStatement(
+              "SELECT event_id FROM planner_schedules WHERE user_id = ?")) {
+        for (IUser user : users) {
+          held.setInt(1, this.userIds.get(user.toString()));
+          try (ResultSet rows = held.executeQuery()) {
+            while (rows.next()) {
+              previous.add(rows.getLong(1));
+            }
+          }
+        }
+      }
+      try (PreparedStatement clear = this.connection.prepareStatement(
+              "DELETE FROM planner_schedules WHERE user_id = ?")) {
+        for (IUser user : users) {
+          clear.setInt(1, this.userIds.get(user.toString()));
+          clear.addBatch();
+        }
+        clear.executeBatch();
+      }
+
+      // Events already stored are replaced in place, so other schedules keep them
+      Map<IEvent, Long> ids = new IdentityHashMap<>();
+      List<Long> replaced = new ArrayList<>();
+      for (IEvent event : events.keySet()) {
+        Long id = this.eventIds.get(event);
+        if (id == null) {
+          id = this.nextEvent++;
+        } else {
+          replaced.add(id);
+        }
+        ids.put(event, id);
+      }
+      this.deleteEvents(replaced, false);
+      this.insertEvents(ids);
+
+      try (PreparedStatement insert = this.connection.prepareStatement(
+              "INSERT INTO planner_schedules (user_id, seq, event_id) VALUES (?, ?, ?)")) {
+        for (int i = 0; i < users.size(); i++) {
+          int seq = 0;
+          for (IEvent event : schedules.get(i)) {
+            insert.setInt(1, this.userIds.get(users.get(i).toString()));
+            insert.setInt(2, seq++);
+            insert.setLong(3, ids.get(event));
+            insert.addBatch();
+          }
+        }
+        insert.executeBatch();
+      }
+      this.deleteEvents(previous, true);
+      this.connection.commit();
+      for (Map.Entry<IEvent, Long> id : ids.entrySet()) {
+        this.remember(id.getKey(), id.getValue());
+      }
+    } catch (SQLException e) {
+      // The rows of the new users were rolled back with the rest
+      for (String name : added) {
+        this.userIds.remove(name);
+      }
+      throw this.rollback(e);
+    }
+  }
+
+  /**
+   * Gives each of the given users a row if they do not have one yet.
+   *
+   * @param users the usernames
+   * @param added the usernames given a row are added to this list
+   * @throws SQLException if the rows cannot be written
+   */
+  private void insertUsers(Set<String> users, List<String> added) throws SQLException {
+    try (PreparedStatement insert = this.connection.prepareStatement(
+            "INSERT INTO planner_users (id, name) VALUES (?, ?)")) {
+      boolean any = false;
+      for (String user : users) {
+        if (!this.userIds.containsKey(user)) {
+          this.userIds.put(user, this.nextUser);
+          added.add(user);
+          insert.setInt(1, this.nextUser++);
+          insert.setString(2, user);
+          insert.addBatch();
+          any = true;
+        }
+      }
+      if (any) {
+        insert.executeBatch();
+      }
+    }
+  }
+
+  /**
+   * Writes a row for each of the given events and their attendees.
+   *
+   * @param ids the events and the row each is written to
+   * @throws SQLException if the rows cannot be written
+   */
+  private void insertEvents(Map<IEvent, Long> ids) throws SQLException {
+    try (PreparedStatement events = this.connection.prepareStatement(
+            "INSERT INTO planner_events (id, name, location, online, start_day, start_time, "
+                    + "end_day, end_time, start_key, end_key, host_id) "
+                    + "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)");
+         PreparedStatement attendees = this.connection.prepareStatement(
+                 "INSERT INTO planner_attendees (event_id, seq, user_id) VALUES (?, ?, ?)")) {
+      for (Map.Entry<IEvent, Long> entry : ids.entrySet()) {
+        IEvent event = entry.getKey();
+        int start = key(event.observeStartDayOfEvent(), event.observeStartTimeOfEvent());
+        int end = key(event.observeEndDayOfEvent(), event.observeEndTimeOfEvent());
+        if (end <= start) {
+          end += WEEK_KEYS;
+        }
+        events.setLong(1, entry.getValue());
+        events.setString(2, event.observeName());
+        events.setString(3, event.observeLocation());
+        events.setBoolean(4, event.observeOnline());
+        events.setInt(5, event.observeStartDayOfEvent().ordinal());
+        events.setInt(6, event.observeStartTimeOfEvent());
+        events.setInt(7, event.observeEndDayOfEvent().ordinal());
+        events.setInt(8, event.observeEndTimeOfEvent());
+        events.setInt(9, start);
+        events.setInt(10, end);
+        if (event.observeHost() == null) {
+          events.setNull(11, Types.INTEGER);
+        } else {
+          events.setInt(11, this.userIds.get(event.observeHost().toString()));
+        }
+        events.addBatch();
+        int seq = 0;
+        for (IUser attendee : event.observeInvitedUsers()) {
+          attendees.setLong(1, entry.getValue());
+          attendees.setInt(2, seq++);
+          attendees.setInt(3, this.userIds.get(attendee.toString()));
+          attendees.addBatch();
+        }
+      }
+      events.executeBatch();
+      attendees.executeBatch();
+    }
+  }
+
+  /**
+   * Deletes the rows of the given events and their attendees.
+   *
+   * @param ids        the rows of the events
+   * @param unreferred whether to only delete events that are on no schedule
+   * @throws SQLException if the rows cannot be deleted
+   */
+  private void deleteEvents(List<Long> ids, boolean unreferred) throws SQLException {
+    if (ids.isEmpty()) {
+      return;
+    }
+    String unused = unreferred
+            ? " AND NOT EXISTS (SELECT 1 FROM planner_schedules WHERE event_id = ?)" : "";
+    try (PreparedStatement attendees = this.connection.prepareStatement(
+            "DELETE FROM planner_attendees WHERE event_id = ?" + unused);
+         PreparedStatement events = this.connection.prepareStatement(
+                 "DELETE FROM planner_events WHERE id = ?" + unused)) {
+      for (long id : ids) {
+        for (PreparedStatement delete : List.of(attendees, events)) {
+          delete.setLong(1, id);
+          if (unreferred) {
+            delete.setLong(2, id);
+          }
+          delete.addBatch();
+        }
+      }
+      attendees.executeBatch();
+      events.executeBatch();
+    }
+  }
+
+  @Override
+  public synchronized List<String> loadUsernames() throws IOException {
+    List<String> names = new ArrayList<>();
+    try (Statement statement = this.connection.createStatement();
+         ResultSet rows = statement.executeQuery("SELECT name FROM planner_users ORDER BY id")) {
+      while (rows.next()) {
+        names.add(rows.getString(1));
+      }
+      this.connection.commit();
+      return names;
+    } catch (SQLException e) {
+      throw this.rollback(e);
+    }
+  }
+
+  @Override
+  public synchronized ScheduleRecord loadSchedule(String user) throws IOException {
+    try (PreparedStatement query = this.connection.prepareStatement(
+            SCHEDULE_QUERY + SCHEDULE_ORDER)) {
+      query.setString(1, user);
+      return new ScheduleRecord(user, new ArrayList<>(this.records(query).values()));
+    } catch (SQLException e) {
+      throw this.rollback(e);
+    }
+  }
+
+  @Override
+  public synchronized List<EventRecord> eventsBetween(String user, Day fromDay, int fromTime,
+                                                      Day toDay, int toTime) throws IOException {
+    int from = key(fromDay, fromTime);
+    int to = key(toDay, toTime);
+    if (to <= from) {
+      throw new IllegalArgumentException("The part of the week must end after it starts");
+    }
+    // An event that runs into the next week overlaps from its start, or from Sunday
+    try (PreparedStatement query = this.connection.prepareStatement(SCHEDULE_QUERY
+            + "AND ((e.start_key < ? AND e.end_key > ?) OR e.end_key > ?) "
+            + SCHEDULE_ORDER)) {
+      query.setString(1, user);
+      query.setInt(2, to);
+      query.setInt(3, from);
+      query.setInt(4, from + WEEK_KEYS);
+      return new ArrayList<>(this.records(query).values());
+    } catch (SQLException e) {
+      throw this.rollback(e);
+    }
+  }
+
+  /**
+   * Reads the events found by a query on SCHEDULE_QUERY, whose rows come one for each
+   * attendee of each event in turn.
+   *
+   * @param query the query
+   * @return the events by the id of their row, in the order they were found
+   * @throws SQLException if the query fails
+   */
+  private Map<Long, EventRecord> records(PreparedStatement query) throws SQLException {
+    Map<Long, EventRecord> records = new LinkedHashMap<>();
+    try (ResultSet rows = query.executeQuery()) {
+      long current = -1;
+      Object[] fields = null;
+      List<String> attendees = new ArrayList<>();
+      while (rows.next()) {
+        if (rows.getLong(1) != current) {
+          if (fields != null) {
+            records.put(current, record(fields, attendees));
+          }
+          current = rows.getLong(1);
+          fields = new Object[] {rows.getString(2), rows.getString(3), rows.getBoolean(4),
+              Day.values()[rows.getInt(5)], rows.getInt(6), Day.values()[rows.getInt(7)],
+              rows.getInt(8)};
+          attendees = new ArrayList<>();
+        }
+        String attendee = rows.getString(9);
+        if (attendee != null) {
+          attendees.add(attendee);
+        }
+      }
+      if (fields != null) {
+        records.put(current, record(fields, attendees));
+      }
+    }
+    this.connection.commit();
+    return records;
+  }
+
+  /**
+   * Builds the record of an event read by records.
+   *
+   * @param fields    the fields of the event, in the order of SCHEDULE_QUERY
+   * @param attendees the usernames of the attendees
+   * @return the record
+   */
+  private static EventRecord record(Object[] fields, List<String> attendees) {
+    return new EventRecord((String) fields[0], (String) fields[1], (Boolean) fields[2],
+            (Day) fields[3], (Integer) fields[4], (Day) fields[5], (Integer) fields[6],
+            attendees);
+  }
+
+  /**
+   * Remembers that the given event is kept in the row with the given id.
+   *
+   * @param event the event
+   * @param id    the id of its row
+   */
+  private void remember(IEvent event, long id) {
+    this.eventIds.put(event, id);
+    this.eventsById.put(id, event);
+  }
+
+  /**
+   * Undoes the transaction that failed with the given error.
+   *
+   * @param e the error
+   * @return the error to throw
+   */
+  private IOException rollback(SQLException e) {
+    try {
+      this.connection.rollback();
+    } catch (SQLException suppressed) {
+      e.addSuppressed(suppressed);
+    }
+    return new IOException(e);
+  }
+
+  /**
+   * Finds the key of the given time of the week.
+   *
+   * @param day  the day
+   * @param time the time in hhmm
+   * @return the key
+   */
+  private static int key(Day day, int time) {
+    return day.ordinal() * 2400 + time;
+  }
+
+  @Override
+  public synchronized void close() throws IOException {
+    try {
+      this.connection.close();
+    } catch (SQLException e) {
+      throw new IOException(e);
+    }
+  }
+}
@@ -0,0 +1,330 @@
+package model;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+/**
+ * A Journal is an append-only log of records kept in numbered segment files in a directory.
+ * Each record is framed by its length and a CRC32 of its bytes, so a record torn by a crash is
+ * found when the journal is read back. Once a segment grows past a set size the journal moves
+ * on to the next one, so older segments can be deleted whole once they are no longer needed.
+ *
+ * <p>Records are collected in memory as they are appended and written to the segment by
+ * whichever thread next needs them on disk, so records appended at the same time by several
+ * threads are written, and forced, together.</p>
+ */
+final class Journal implements Closeable {
+  private static final String PREFIX = "journal-";
+  private static final String SUFFIX = ".log";
+  private static final int FRAME_BYTES = 8;
+
+  private final Path directory;
+  private final FsyncPolicy policy;
+  private final long segmentBytes;
+  private final ScheduledExecutorService flusher;
+
+  // Guarded by this, the records appended but not yet written
+  private final ByteArrayOutputStream pending;
+  private long appended;
+
+  // Guarded by writeLock, the segment being written
+  private final Object writeLock;
+  private FileChannel channel;
+  private long segment;
+  private long segmentSize;
+  private volatile long written;
+  private volatile long forced;
+  private volatile IOException failure;
+
+  /**
+   * Constructs a journal that appends to a new segment with the given number.
+   *
+   * @param directory    the directory of the segments
+   * @param segment      the number of the first segment to write
+   * @param policy       when records are forced to the disk
+   * @param segmentBytes the size past which the journal moves on to a new segment
+   * @throws IOException if the segment cannot be created
+   */
+  Journal(Path directory, long segment, FsyncPolicy policy, long segmentBytes)
+          throws IOException {
+    this.directory = directory;
+    this.policy = policy;
+    this.segmentBytes = segmentBytes;
+    this.pending = new ByteArrayOutputStream();
+    this.writeLock = new Object();
+    this.segment = segment;
+    this.channel = openSegment(directory, segment);
+    if (policy.observeIntervalMillis() > 0) {
+      this.flusher = Executors.newSingleThreadScheduledExecutor(task -> {
+        Thread thread = new Thread(task, "journal-flush");
+        thread.setDaemon(true);
+        return thread;
+      });
+      this.flusher.scheduleWithFixedDelay(this::flushQuietly, policy.observeIntervalMillis(),
+              policy.observeIntervalMillis(), TimeUnit.MILLISECONDS);
+    } else {
+      this.flusher = null;
+    }
+  }
+
+  /**
+   * Appends a record, returning once it is as durable as the FsyncPolicy requires.
+   *
+   * @param payload the bytes of the record
+   * @throws IOException if the record cannot be written, or an earlier write in the
+   *                     background failed
+   */
+  void append(byte[] payload) throws IOException {
+    IOException earlier = this.failure;
+    if (earlier != null) {
+      throw earlier;
+    }
+    CRC32 crc = new CRC32();
+    crc.update(payload);
+    long sequence;
+    synchronized (this) {
+      this.pending.write(ByteBuffer.allocate(FRAME_BYTES).putInt(payload.length)
+              .putInt((int) crc.getValue()).array());
+      this.pending.write(payload);
+      sequence = ++this.appended;
+    }
+    this.sync(sequence, this.policy.forcesEachWrite());
+  }
+
+  /**
+   * Makes sure every record up to the given one is written, and forced if asked. A thread
+   * that finds its record already written by another thread returns without writing.
+   *
+   * @param sequence the number of the record
+   * @param force    whether the record must be forced to the disk
+   * @throws IOException if the records cannot be written
+   */
+  private void sync(long sequence, boolean force) throws IOException {
+    if ((force ? this.forced : this.written) >= sequence) {
+      return;
+    }
+    synchronized (this.writeLock) {
+      if ((force ? this.forced : this.written) >= sequence) {
+        return;
+      }
+      this.drainLocked(force);
+      if (this.segmentSize >= this.segmentBytes) {
+        this.rotateLocked();
+      }
+    }
+  }
+
+  /**
+   * Writes every pending record to the segment.
+   *
+   * @param force whether to force the segment to the disk afterwards
+   * @throws IOException if the records cannot be written
+   */
+  private void drainLocked(boolean force) throws IOException {
+    byte[] bytes;
+    long upTo;
+    synchronized (this) {
+      bytes = this.pending.toByteArray();
+      this.pending.reset();
+      upTo = this.appended;
+    }
+    ByteBuffer buffer = ByteBuffer.wrap(bytes);
+    while (buffer.hasRemaining()) {
+      this.channel.write(buffer);
+    }
+    this.segmentSize += bytes.length;
+    this.written = upTo;
+    if (force) {
+      this.channel.force(false);
+      this.forced = upTo;
+    }
+  }
+
+  /**
+   * Forces the current segment and moves on to the next one.
+   *
+   * @throws IOException if the segments cannot be forced or created
+   */
+  private void rotateLocked() throws IOException {
+    this.drainLocked(true);
+    this.channel.close();
+    this.segment++;
+    this.channel = openSegment(this.directory, this.segment);
+    this.segmentSize = 0;
+  }
+
+  /**
+   * Writes and forces every record appended so far and moves on to a new segment, so the
+   * segments before it hold exactly the records appended until now.
+   *
+   * @return the number of the new segment
+   * @throws IOException if the segments cannot be written
+   */
+  long rotate() throws IOException {
+    synchronized (this.writeLock) {
+      this.rotateLocked();
+      return this.segment;
+    }
+  }
+
+  /**
+   * Observes the number of the segment being written.
+   *
+   * @return the number of the segment
+   */
+  long observeSegment() {
+    synchronized (this.writeLock) {
+      return this.segment;
+    }
+  }
+
+  /**
+   * Deletes every segment before the one with the given number.
+   *
+   * @param segment the number of the first segment to keep
+   * @throws IOException if the directory cannot be listed
+   */
+  void deleteBefore(long segment) throws IOException {
+    for (Path file : segments(this.directory)) {
+      if (numberOf(file) < segment) {
+        Files.deleteIfExists(file);
+      }
+    }
+  }
+
+  /**
+   * Writes and forces the records appended in the meantime, as the interval policy does.
+   */
+  private void flushQuietly() {
+    try {
+      long sequence;
+      synchronized (this) {
+        sequence = this.appended;
+      }
+      this.sync(sequence, true);
+    } catch (IOException e) {
+      this.failure = e;
+    }
+  }
+
+  @Override
+  public void close() throws IOException {
+    if (this.flusher != null) {
+      this.flusher.shutdownNow();
+    }
+    synchronized (this.writeLock) {
+      if (this.channel.isOpen()) {
+        this.drainLocked(true);
+        this.channel.close();
+      }
+    }
+  }
+
+  /**
+   * Finds every segment in the given directory, in the order they were written.
+   *
+   * @param directory the directory of the segments
+   * @return the paths of the segments
+   * @throws IOException if the directory cannot be listed
+   */
+  static List<Path> segments(Path directory) throws IOException {
+    try (Stream<Path> listing = Files.list(directory)) {
+      return listing.filter(file -> numberOf(file) >= 0)
+              .sorted((one, two) -> Long.compare(numberOf(one), numberOf(two)))
+              .collect(Collectors.toList());
+    }
+  }
+
+  /**
+   * Finds the number of the given segment.
+   *
+   * @param file the path of a file
+   * @return the number of the segment, or -1 if the file is not a segment
+   */
+  static long numberOf(Path file) {
+    String name = file.getFileName().toString();
+    if (!name.startsWith(PREFIX) || !name.endsWith(SUFFIX)) {
+      return -1;
+    }
+    try {
+      return Long.parseLong(name.substring(PREFIX.length(), name.length() - SUFFIX.length()));
+    } catch (NumberFormatException e) {
+      return -1;
+    }
+  }
+
+  /**
+   * Reads every whole record of the given segment in order. A record cut short or damaged
+   * by a crash can only be at the end of the last segment, where it and anything after it
+   * are cut off.
+   *
+   * @param file    the path of the segment
+   * @param last    whether this is the last segment of the journal
+   * @param records what is done with each record
+   * @throws IOException              if the segment cannot be read
+   * @throws IllegalArgumentException if a segment other than the last is damaged
+   */
+  static void read(Path file, boolean last, Consumer<byte[]> records) throws IOException {
+    try (FileChannel segment = FileChannel.open(file, StandardOpenOption.READ,
+            StandardOpenOption.WRITE)) {
+      long size = segment.size();
+      long whole = 0;
+      DataInputStream in = new DataInputStream(new BufferedInputStream(
+              Channels.newInputStream(segment)));
+      while (size - whole >= FRAME_BYTES) {
+        int length = in.readInt();
+        int crc = in.readInt();
+        if (length < 0 || length > size - whole - FRAME_BYTES) {
+          break;
+        }
+        byte[] payload = new byte[length];
+        in.readFully(payload);
+        CRC32 check = new CRC32();
+        check.update(payload);
+        if ((int) check.getValue() != crc) {
+          break;
+        }
+        records.accept(payload);
+        whole += FRAME_BYTES + length;
+      }
+      if (whole < size) {
+        if (!last) {
+          throw new IllegalArgumentException("Journal segment " + file.getFileName()
+                  + " is damaged");
+        }
+        segment.truncate(whole);
+      }
+    }
+  }
+
+  /**
+   * Creates the segment with the given number.
+   *
+   * @param directory the directory of the segments
+   * @param segment   the number of the segment
+   * @return the channel the segment is written through
+   * @throws IOException if the segment cannot be created
+   */
+  private static FileChannel openSegment(Path directory, long segment) throws IOException {
+    return FileChannel.open(directory.resolve(String.format("%s%016d%s", PREFIX, segment,
+            SUFFIX)), StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+            StandardOpenOption.APPEND);
+  }
+}
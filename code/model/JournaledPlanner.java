@@ -0,0 +1,746 @@
+package model;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * A JournaledPlanner is a planner that keeps itself on disk as it changes, so a crash loses
+ * nothing that was not still waiting for the disk under its FsyncPolicy. It keeps its state in
+ * a directory as the latest PlannerSnapshot and a Journal of every change made since.
+ *
+ * <p>Every addUser, createEvent, modifyEvent, removeEvent and addEvents is written to the
+ * journal as a small binary record before it is applied to the planner. A change that fails
+ * part way fails the same way when the journal is replayed, so the planner read back is always
+ * the one that was left. Events are recorded by a user who has them and their start, which is
+ * unique on a schedule without conflicts, and events added by addEvents that no invitee has
+ * yet by how they are written in a file, once each however many users they are added to.
+ * Uploads and imports, which add whole schedules, and changes to an event no user has, are
+ * not recorded but saved in a new snapshot straight away.</p>
+ *
+ * <p>Once the journal has moved on to SEGMENTS_BEFORE_COMPACTION new segments, a snapshot of
+ * the planner is encoded and written in the background, after which the segments it covers
+ * are deleted, so the journal never grows far past the changes since the last snapshot. When
+ * the planner is opened the latest snapshot is read and the journal since it replayed.</p>
+ *
+ * <p>The planner is meant to be changed from one thread at a time, as it is by the
+ * controller.</p>
+ */
+public final class JournaledPlanner implements PlannerModel, Closeable {
+
+  /**
+   * The size past which the journal moves on to a new segment.
+   */
+  public static final long SEGMENT_BYTES = 1 << 20;
+
+  /**
+   * The number of new segments after which the journal is compacted into a snapshot.
+   */
+  public static final int SEGMENTS_BEFORE_COMPACTION = 4;
+
+  private static final String SNAPSHOT_PREFIX = "snapshot-";
+  private static final String SNAPSHOT_SUFFIX = ".snap";
+
+  private static final byte ADD_USER = 1;
+  private static final byte CREATE_EVENT = 2;
+  private static final byte MODIFY_EVENT = 3;
+  private static final byte REMOVE_EVENT = 4;
+  private static final byte ADD_EVENTS = 5;
+
+  private final Path directory;
+  private final NuPlanner planner;
+  private final Journal journal;
+  private final int compactAfter;
+  private final ExecutorService compactor;
+  // The segments before this one are covered by the latest snapshot
+  private long snapshotSegment;
+  private Future<?> compaction;
+
+  private JournaledPlanner(Path directory, NuPlanner planner, Journal journal,
+                           long snapshotSegment, int compactAfter) {
+    this.directory = directory;
+    this.planner = planner;
+    this.journal = journal;
+    this.snapshotSegment = snapshotSegment;
+    this.compactAfter = compactAfter;
+    this.compactor = Executors.newSingleThreadExecutor(task -> {
+      Thread thread = new Thread(task, "journal-compaction");
+      thread.setDaemon(true);
+      return thread;
+    });
+  }
+
+  /**
+   * Opens the planner kept in the given directory, or an empty planner if there is none yet.
+   *
+   * @param directory the directory of the snapshot and journal
+   * @param policy    when changes are forced to the disk
+   * @return the planner
+   * @throws IOException              if the directory cannot be read or written
+   * @throws IllegalArgumentException if the journal is damaged other than at its end
+   */
+  public static JournaledPlanner open(Path directory, FsyncPolicy policy) throws IOException {
+    return open(directory, policy, SEGMENT_BYTES, SEGMENTS_BEFORE_COMPACTION);
+  }
+
+  /**
+   * Opens the planner kept in the given directory, or an empty planner if there is none yet,
+   * with a journal of the given segment size and compaction.
+   *
+   * @param directory    the directory of the snapshot and journal
+   * @param policy       when changes are forced to the disk
+   * @param segmentBytes the size past which the journal moves on to a new segment
+   * @param compactAfter the number of new segments after which the journal is compacted
+   * @return the planner
+   * @throws IOException              if the directory cannot be read or written
+   * @throws IllegalArgumentException if the journal is damaged other than at its end, or
+   *                                  the sizes are not positive
+   */
+  public static JournaledPlanner open(Path directory, FsyncPolicy policy, long segmentBytes,
+                                      int compactAfter) throws IOException {
+    if (segmentBytes <= 0 || compactAfter <= 0) {
+      throw new IllegalArgumentException("Segment size and compaction must be positive");
+    }
+    Files.createDirectories(directory);
+
+    // The latest snapshot that can be read, or an empty planner if there is none
+    NuPlanner planner = null;
+    long covered = 0;
+    List<Path> snapshots = snapshots(directory);
+    for (int i = snapshots.size() - 1; i >= 0 && planner == null; i--) {
+      try {
+        PlannerSnapshot snapshot = PlannerSnapshot.open(snapshots.get(i));
+        // Checked now so a damaged snapshot is passed over rather than failing a later load
+        snapshot.verify();
+        planner = snapshot.toPlanner();
+        covered = numberOf(snapshots.get(i));
+      } catch (IllegalArgumentException damaged) {
+        // A snapshot cut short by a crash is skipped for the one before it
+      }
+    }
+    if (planner == null) {
+      planner = new NuPlanner(new ArrayList<>());
+    }
+
+    List<Path> segments = new ArrayList<>();
+    for (Path segment : Journal.segments(directory)) {
+      if (Journal.numberOf(segment) >= covered) {
+        segments.add(segment);
+      }
+    }
+    NuPlanner replayed = planner;
+    for (int i = 0; i < segments.size(); i++) {
+      Journal.read(segments.get(i), i == segments.size() - 1,
+          record -> replay(replayed, record));
+    }
+
+    long next = Math.max(covered, 1);
+    if (!segments.isEmpty()) {
+      next = Journal.numberOf(segments.get(segments.size() - 1)) + 1;
+    }
+    Journal journal = new Journal(directory, next, policy, segmentBytes);
+    return new JournaledPlanner(directory, planner, journal, covered, compactAfter);
+  }
+
+  @Override
+  public IUser addUser(String name) {
+    this.log(out -> {
+      out.writeByte(ADD_USER);
+      out.writeUTF(name);
+    });
+    try {
+      return this.planner.addUser(name);
+    } finally {
+      this.compactIfLong();
+    }
+  }
+
+  @Override
+  public IEvent createEvent(String user, String name, String location, boolean online,
+                            Day startDay, int startTime, Day endDay, int endTime,
+                            List<String> invitedUsers) {
+    this.log(out -> {
+      out.writeByte(CREATE_EVENT);
+      out.writeUTF(user);
+      writeFields(out, name, location, online, startDay, startTime, endDay, endTime,
+              invitedUsers);
+    });
+    try {
+      return this.planner.createEvent(user, name, location, online, startDay, startTime,
+              endDay, endTime, invitedUsers);
+    } finally {
+      this.compactIfLong();
+    }
+  }
+
+  @Override
+  public void modifyEvent(IEvent e, String name, String location, boolean online,
+                          Day startDay, int startTime, Day endDay, int endTime,
+                          List<String> invitedUsers, String host) {
+    IUser holder = this.holderOf(e, host);
+    if (holder == null) {
+      this.planner.modifyEvent(e, name, location, online, startDay, startTime, endDay,
+              endTime, invitedUsers, host);
+      this.checkpoint();
+      return;
+    }
+    this.log(out -> {
+      out.writeByte(MODIFY_EVENT);
+      writeLocator(out, holder, e);
+      writeFields(out, name, location, online, startDay, startTime, endDay, endTime,
+              invitedUsers);
+      out.writeUTF(host);
+    });
+    try {
+      this.planner.modifyEvent(e, name, location, online, startDay, startTime, endDay,
+              endTime, invitedUsers, host);
+    } finally {
+      this.compactIfLong();
+    }
+  }
+
+  @Override
+  public void removeEvent(String user, IEvent e) {
+    IUser holder = this.holderOf(e, user);
+    if (holder == null) {
+      this.planner.removeEvent(user, e);
+      this.checkpoint();
+      return;
+    }
+    this.log(out -> {
+      out.writeByte(REMOVE_EVENT);
+      out.writeUTF(user);
+      writeLocator(out, holder, e);
+    });
+    try {
+      this.planner.removeEvent(user, e);
+    } finally {
+      this.compactIfLong();
+    }
+  }
+
+  @Override
+  public MergeReport uploadSchedule(String path) {
+    try {
+      return this.planner.uploadSchedule(path);
+    } finally {
+      this.checkpoint();
+    }
+  }
+
+  @Override
+  public TransferReport importSchedules(String directory) {
+    try {
+      return this.planner.importSchedules(directory);
+    } finally {
+      this.checkpoint();
+    }
+  }
+
+  @Override
+  public MergeReport addUser(IUser user) {
+    try {
+      return this.planner.addUser(user);
+    } finally {
+      this.checkpoint();
+    }
+  }
+
+  @Override
+  public void addEvents(Map<String, List<IEvent>> additions) {
+    this.log(out -> {
+      out.writeByte(ADD_EVENTS);
+      writeAdditions(out, additions);
+    });
+    try {
+      this.planner.addEvents(additions);
+    } finally {
+      this.compactIfLong();
+    }
+  }
+
+  @Override
+  public TransferReport exportSchedules(String directory) {
+    return this.planner.exportSchedules(directory);
+  }
+
+  @Override
+  public TransferReport exportArchive(String file) {
+    return this.planner.exportArchive(file);
+  }
+
+  @Override
+  public TransferReport importArchive(String file) {
+    try {
+      return this.planner.importArchive(file);
+    } finally {
+      this.checkpoint();
+    }
+  }
+
+  @Override
+  public void saveSchedule() {
+    this.planner.saveSchedule();
+  }
+
+  @Override
+  public int saveSchedule(String path) {
+    return this.planner.saveSchedule(path);
+  }
+
+  @Override
+  public List<IEvent> selectSchedule(String user) {
+    return this.planner.selectSchedule(user);
+  }
+
+  @Override
+  public List<IEvent> eventsAtThisTime(String user, int time) {
+    return this.planner.eventsAtThisTime(user, time);
+  }
+
+  @Override
+  public List<IEvent> scheduleOnDay(String user, Day day) {
+    return this.planner.scheduleOnDay(user, day);
+  }
+
+  @Override
+  public List<IUser> getListOfUser() {
+    return this.planner.getListOfUser();
+  }
+
+  @Override
+  public List<IEvent> mainSchedule() {
+    return this.planner.mainSchedule();
+  }
+
+  @Override
+  public IEvent findEvent(String user, int time, Day day) {
+    return this.planner.findEvent(user, time, day);
+  }
+
+  /**
+   * Saves the planner in a new snapshot and deletes the journal before it, waiting until
+   * both are done.
+   *
+   * @throws UncheckedIOException if the snapshot cannot be written
+   */
+  public void checkpoint() {
+    this.compact(true);
+  }
+
+  /**
+   * Waits for any compaction in the background, then writes every change still waiting for
+   * the disk and closes the journal.
+   *
+   * @throws IOException if the journal cannot be written
+   */
+  @Override
+  public void close() throws IOException {
+    this.awaitCompaction();
+    this.compactor.shutdown();
+    this.journal.close();
+  }
+
+  /**
+   * Compacts the journal in the background once it has moved on to enough new segments.
+   */
+  private void compactIfLong() {
+    if (this.journal.observeSegment() - this.snapshotSegment >= this.compactAfter
+            && (this.compaction == null || this.compaction.isDone())) {
+      this.compact(false);
+    }
+  }
+
+  /**
+   * Encodes a snapshot of the planner as it is now and starts a new segment, then writes the
+   * snapshot and deletes the segments it covers. The snapshot is encoded on this thread, so
+   * it is taken between two changes, and only written on the compactor's.
+   *
+   * @param wait whether to wait for the snapshot to be written
+   * @throws UncheckedIOException if the journal cannot be written, or the snapshot cannot be
+   *                              written when waiting for it
+   */
+  private void compact(boolean wait) {
+    this.awaitCompaction();
+    long covered;
+    try {
+      covered = this.journal.rotate();
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+    ByteBuffer[] snapshot = PlannerSnapshot.encode(this.planner);
+    this.snapshotSegment = covered;
+    this.compaction = this.compactor.submit(() -> {
+      PlannerSnapshot.write(snapshot, this.directory.resolve(String.format("%s%016d%s",
+              SNAPSHOT_PREFIX, covered, SNAPSHOT_SUFFIX)));
+      for (Path older : snapshots(this.directory)) {
+        if (numberOf(older) < covered) {
+          Files.deleteIfExists(older);
+        }
+      }
+      this.journal.deleteBefore(covered);
+      return null;
+    });
+    if (wait) {
+      this.awaitCompaction();
+    }
+  }
+
+  /**
+   * Waits for the compaction in the background, if there is one. A compaction that failed
+   * leaves the journal it would have deleted in place, so nothing is lost.
+   *
+   * @throws UncheckedIOException if the compaction failed to write its snapshot
+   */
+  private void awaitCompaction() {
+    if (this.compaction == null) {
+      return;
+    }
+    try {
+      this.compaction.get();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    } catch (ExecutionException e) {
+      this.compaction = null;
+      if (e.getCause() instanceof IOException) {
+        throw new UncheckedIOException((IOException) e.getCause());
+      }
+      throw new IllegalStateException(e.getCause());
+    }
+  }
+
+  /**
+   * Appends a record to the journal.
+   *
+   * @param record writes the record
+   * @throws UncheckedIOException if the record cannot be written
+   */
+  private void log(Record record) {
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    try (DataOutputStream out = new DataOutputStream(bytes)) {
+      record.write(out);
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+    try {
+      this.journal.append(bytes.toByteArray());
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  /**
+   * Finds a user that has the given event on their schedule, preferring the given user.
+   *
+   * @param e    an Event
+   * @param user the username of the user to try first
+   * @return the user, or null if no user has the event
+   */
+  private IUser holderOf(IEvent e, String user) {
+    List<IUser> candidates = new ArrayList<>();
+    try {
+      candidates.add(Utils.findUser(user, this.planner.getListOfUser()));
+    } catch (IllegalArgumentException ignored) {
+      // The change will fail the same way in the planner
+    }
+    candidates.addAll(e.observeInvitedUsers());
+    candidates.addAll(this.planner.getListOfUser());
+    for (IUser candidate : candidates) {
+      for (IEvent event : candidate.observeSchedule()) {
+        if (event == e) {
+          return candidate;
+        }
+      }
+    }
+    return null;
+  }
+
+  /**
+   * Applies a record of the journal to the given planner. A change that failed when it was
+   * made fails again here, and is left as it was.
+   *
+   * @param planner the planner being read back
+   * @param record  the bytes of the record
+   */
+  private static void replay(NuPlanner planner, byte[] record) {
+    try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(record))) {
+      byte type = in.readByte();
+      if (type == ADD_USER) {
+        planner.addUser(in.readUTF());
+      } else if (type == CREATE_EVENT) {
+        String user = in.readUTF();
+        planner.createEvent(user, in.readUTF(), in.readUTF(), in.readBoolean(),
+                readDay(in), in.readShort(), readDay(in), in.readShort(), readUsers(in));
+      } else if (type == MODIFY_EVENT) {
+        IEvent e = readLocator(in, planner);
+        planner.modifyEvent(e, in.readUTF(), in.readUTF(), in.readBoolean(), readDay(in),
+                in.readShort(), readDay(in), in.readShort(), readUsers(in), in.readUTF());
+      } else if (type == REMOVE_EVENT) {
+        String user = in.readUTF();
+        planner.removeEvent(user, readLocator(in, planner));
+      } else if (type == ADD_EVENTS) {
+        planner.addEvents(readAdditions(in, planner));
+      } else {
+        throw new IllegalArgumentException("Unknown journal record " + type);
+      }
+    } catch (IllegalArgumentException | IllegalStateException failed) {
+      // The change failed the same way when it was made
+    } catch (IOException e) {
+      throw new IllegalArgumentException("Journal record is damaged");
+    }
+  }
+
+  /**
+   * Writes the fields of an event as they were given to the planner.
+   *
+   * @param out          the record
+   * @param name         of the event
+   * @param location     of the event
+   * @param online       whether the event is online or not
+   * @param startDay     of the event
+   * @param startTime    of the event
+   * @param endDay       of the event
+   * @param endTime      of the event
+   * @param invitedUsers of the event
+   * @throws IOException never, as records are written to memory
+   */
+  private static void writeFields(DataOutputStream out, String name, String location,
+                                  boolean online, Day startDay, int startTime, Day endDay,
+                                  int endTime, List<String> invitedUsers) throws IOException {
+    out.writeUTF(name);
+    out.writeUTF(location);
+    out.writeBoolean(online);
+    out.writeByte(startDay.ordinal());
+    out.writeShort(startTime);
+    out.writeByte(endDay.ordinal());
+    out.writeShort(endTime);
+    out.writeShort(invitedUsers.size());
+    for (String invitee : invitedUsers) {
+      out.writeUTF(invitee);
+    }
+  }
+
+  /**
+   * Writes where to find the given event again, a user who has it and its start.
+   *
+   * @param out    the record
+   * @param holder a user who has the event on their schedule
+   * @param e      the event
+   * @throws IOException never, as records are written to memory
+   */
+  private static void writeLocator(DataOutputStream out, IUser holder, IEvent e)
+          throws IOException {
+    out.writeUTF(holder.toString());
+    out.writeUTF(e.observeName());
+    out.writeByte(e.observeStartDayOfEvent().ordinal());
+    out.writeShort(e.observeStartTimeOfEvent());
+  }
+
+  /**
+   * Writes the events added to each user, each event once so that an event added to several
+   * users is shared again when it is read back. An event one of its invitees already has is
+   * written where to find it, and any other by its fields.
+   *
+   * @param out       the record
+   * @param additions the events added to each user, by username
+   * @throws IOException never, as records are written to memory
+   */
+  private static void writeAdditions(DataOutputStream out, Map<String, List<IEvent>> additions)
+          throws IOException {
+    Map<IEvent, Integer> numbers = new IdentityHashMap<>();
+    List<IEvent> events = new ArrayList<>();
+    for (List<IEvent> added : additions.values()) {
+      for (IEvent event : added) {
+        if (numbers.putIfAbsent(event, events.size()) == null) {
+          events.add(event);
+        }
+      }
+    }
+    out.writeInt(events.size());
+    for (IEvent event : events) {
+      IUser holder = inviteeHolding(event);
+      out.writeBoolean(holder != null);
+      if (holder != null) {
+        writeLocator(out, holder, event);
+      } else {
+        EventRecord record = EventRecord.of(event);
+        writeFields(out, record.observeName(), record.observePlace(), record.observeOnline(),
+                record.observeStartDay(), record.observeStart(), record.observeEndDay(),
+                record.observeEnd(), record.observeUsers());
+      }
+    }
+    out.writeInt(additions.size());
+    for (Map.Entry<String, List<IEvent>> added : additions.entrySet()) {
+      out.writeUTF(added.getKey());
+      out.writeInt(added.getValue().size());
+      for (IEvent event : added.getValue()) {
+        out.writeInt(numbers.get(event));
+      }
+    }
+  }
+
+  /**
+   * Finds an invitee of the given event that has it on their schedule.
+   *
+   * @param e an Event
+   * @return the invitee, or null if none of them has it
+   */
+  private static IUser inviteeHolding(IEvent e) {
+    for (IUser invitee : e.observeInvitedUsers()) {
+      for (IEvent event : invitee.observeSchedule()) {
+        if (event == e) {
+          return invitee;
+        }
+      }
+    }
+    return null;
+  }
+
+  /**
+   * Reads the events written by writeAdditions, finding or building them in the planner
+   * being read back.
+   *
+   * @param in      the record
+   * @param planner the planner being read back
+   * @return the events added to each user, by username
+   * @throws IOException              if the record is cut short
+   * @throws IllegalArgumentException if an event is not where it was or names a user that
+   *                                  does not exist
+   */
+  private static Map<String, List<IEvent>> readAdditions(DataInputStream in, NuPlanner planner)
+          throws IOException {
+    int count = in.readInt();
+    List<IEvent> events = new ArrayList<>(count);
+    for (int i = 0; i < count; i++) {
+      if (in.readBoolean()) {
+        events.add(readLocator(in, planner));
+      } else {
+        events.add(new EventRecord(in.readUTF(), in.readUTF(), in.readBoolean(), readDay(in),
+                in.readShort(), readDay(in), in.readShort(), readUsers(in))
+                .toEvent(planner.getListOfUser()));
+      }
+    }
+    Map<String, List<IEvent>> additions = new LinkedHashMap<>();
+    int users = in.readInt();
+    for (int i = 0; i < users; i++) {
+      String user = in.readUTF();
+      int added = in.readInt();
+      List<IEvent> schedule = new ArrayList<>(added);
+      for (int j = 0; j < added; j++) {
+        schedule.add(events.get(in.readInt()));
+      }
+      additions.put(user, schedule);
+    }
+    return additions;
+  }
+
+  /**
+   * Finds the event written by writeLocator in the planner being read back.
+   *
+   * @param in      the record
+   * @param planner the planner being read back
+   * @return the event
+   * @throws IOException              if the record is cut short
+   * @throws IllegalArgumentException if the event is not where it was
+   */
+  private static IEvent readLocator(DataInputStream in, NuPlanner planner) throws IOException {
+    String holder = in.readUTF();
+    String name = in.readUTF();
+    Day startDay = readDay(in);
+    int startTime = in.readShort();
+    for (IEvent event : planner.selectSchedule(holder)) {
+      if (event.observeStartDayOfEvent() == startDay
+              && event.observeStartTimeOfEvent() == startTime
+              && event.observeName().equals(name)) {
+        return event;
+      }
+    }
+    throw new IllegalArgumentException("Event is not on the schedule of " + holder);
+  }
+
+  /**
+   * Reads a day written as its position in the week.
+   *
+   * @param in the record
+   * @return the day
+   * @throws IOException if the record is cut short
+   */
+  private static Day readDay(DataInputStream in) throws IOException {
+    return Day.values()[in.readByte()];
+  }
+
+  /**
+   * Reads the usernames written by writeFields.
+   *
+   * @param in the record
+   * @return the usernames
+   * @throws IOException if the record is cut short
+   */
+  private static List<String> readUsers(DataInputStream in) throws IOException {
+    int count = in.readShort();
+    List<String> users = new ArrayList<>(count);
+    for (int i = 0; i < count; i++) {
+      users.add(in.readUTF());
+    }
+    return users;
+  }
+
+  /**
+   * Finds every snapshot in the given directory, oldest first.
+   *
+   * @param directory the directory of the snapshots
+   * @return the paths of the snapshots
+   * @throws IOException if the directory cannot be listed
+   */
+  private static List<Path> snapshots(Path directory) throws IOException {
+    try (Stream<Path> listing = Files.list(directory)) {
+      return listing.filter(file -> numberOf(file) >= 0)
+              .sorted((one, two) -> Long.compare(numberOf(one), numberOf(two)))
+              .collect(Collectors.toList());
+    }
+  }
+
+  /**
+   * Finds the number of the first segment not covered by the given snapshot.
+   *
+   * @param file the path of a file
+   * @return the number, or -1 if the file is not a snapshot
+   */
+  private static long numberOf(Path file) {
+    String name = file.getFileName().toString();
+    if (!name.startsWith(SNAPSHOT_PREFIX) || !name.endsWith(SNAPSHOT_SUFFIX)) {
+      return -1;
+    }
+    try {
+      return Long.parseLong(name.substring(SNAPSHOT_PREFIX.length(),
+              name.length() - SNAPSHOT_SUFFIX.length()));
+    } catch (NumberFormatException e) {
+      return -1;
+    }
+  }
+
+  /**
+   * Writes a record of a change.
+   */
+  private interface Record {
+    void write(DataOutputStream out) throws IOException;
+  }
+}
@@ -0,0 +1,239 @@
+package model;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.List;
+
+/**
+ * A LazyUser is a user whose schedule is left where it is stored until it is first used, so
+ * a planner of many users only holds the schedules of the users it works with. Looking at the
+ * schedule, checking it for conflicts or changing it loads it, after which the user behaves
+ * like any other.
+ *
+ * <p>Only the username is known before the schedule is loaded, so two lazy users are told
+ * apart by username without loading either of them, and the version of a schedule that has
+ * not been loaded is 0, as it cannot have changed.</p>
+ *
+ * <p>A loaded schedule can be unloaded again to free the memory it takes, keeping its version,
+ * so it must have been saved first. A user kept in a ScheduleCache tells the cache every time
+ * its schedule is used.</p>
+ *
+ * <p>A schedule may be looked at from several threads at once, as the AvailabilityEngine does
+ * for a large meeting, so loading and unloading are done under the lock of the user and a
+ * schedule is only ever loaded once. The cache is told of a use after the lock is let go, so
+ * a thread waiting on the cache never holds up a load.</p>
+ */
+final class LazyUser implements IUser {
+
+  /**
+   * A Loader reads the stored schedule of a user, giving an event that is on the schedules of
+   * several users as the same event to each of them.
+   */
+  interface Loader {
+
+    /**
+     * Loads the stored schedule of the given user.
+     *
+     * @param user the username
+     * @return the events in the order of the schedule
+     * @throws IOException if the schedule cannot be read
+     */
+    List<IEvent> load(String user) throws IOException;
+
+    /**
+     * Lets go of an event that was on an unloaded schedule and is on no loaded schedule, so
+     * it is loaded again the next time it is needed.
+     *
+     * @param event the event
+     */
+    default void release(IEvent event) {
+    }
+  }
+
+  private final String uid;
+  private final Loader loader;
+  // Guarded by this, as are base and offset
+  private User loaded;
+  // The version of the loaded schedule just after it was loaded
+  private long base;
+  // The version the schedule had when it was last unloaded
+  private long offset;
+  private ScheduleCache cache;
+
+  /**
+   * Constructs a user whose schedule is loaded by the given loader when it is first used.
+   *
+   * @param uid    the username
+   * @param loader the loader
+   */
+  LazyUser(String uid, Loader loader) {
+    this.uid = uid;
+    this.loader = loader;
+  }
+
+  /**
+   * Loads the schedule if it has not been loaded yet. The stored schedule was valid and in
+   * order when it was saved, so it is not checked again.
+   *
+   * @return the user with the loaded schedule
+   * @throws UncheckedIOException if the schedule cannot be read
+   */
+  private User load() {
+    boolean miss;
+    User user;
+    synchronized (this) {
+      miss = this.loaded == null;
+      if (miss) {
+        try {
+          User read = new User(this.uid, List.of());
+          read.setSchedule(this.loader.load(this.uid));
+          this.base = read.observeVersion();
+          this.loaded = read;
+        } catch (IOException e) {
+          throw new UncheckedIOException("Could not load the schedule of " + this.uid, e);
+        }
+      }
+      user = this.loaded;
+    }
+    if (this.cache != null) {
+      this.cache.used(this, miss);
+    }
+    return user;
+  }
+
+  /**
+   * Observes whether the schedule has been loaded.
+   *
+   * @return true if it has been loaded
+   */
+  synchronized boolean isLoaded() {
+    return this.loaded != null;
+  }
+
+  /**
+   * Observes the loaded schedule without loading it or telling the cache it was used.
+   *
+   * @return the schedule, which is empty if it is not loaded
+   */
+  synchronized List<IEvent> observeLoaded() {
+    return this.loaded == null ? List.of() : this.loaded.observeSchedule();
+  }
+
+  /**
+   * Keeps this user in the given cache, which is told every time the schedule is used.
+   *
+   * @param cache the cache
+   */
+  void cacheIn(ScheduleCache cache) {
+    this.cache = cache;
+  }
+
+  /**
+   * Unloads the schedule, letting go of each of its events that no other loaded schedule
+   * holds. Any change to the schedule that was not saved is lost.
+   */
+  void unload() {
+    List<IEvent> schedule;
+    synchronized (this) {
+      if (this.loaded == null) {
+        return;
+      }
+      this.offset = this.observeVersion();
+      schedule = this.loaded.observeSchedule();
+      this.loaded = null;
+    }
+    for (IEvent event : schedule) {
+      if (!this.heldElsewhere(event)) {
+        this.loader.release(event);
+      }
+    }
+  }
+
+  /**
+   * Determines whether an event is on the loaded schedule of an invitee other than this user.
+   *
+   * @param event the event
+   * @return true if another invitee holds it
+   */
+  private boolean heldElsewhere(IEvent event) {
+    for (IUser attendee : event.observeInvitedUsers()) {
+      List<IEvent> schedule;
+      if (attendee == this) {
+        continue;
+      } else if (attendee instanceof LazyUser) {
+        schedule = ((LazyUser) attendee).observeLoaded();
+      } else {
+        schedule = attendee.observeSchedule();
+      }
+      for (IEvent held : schedule) {
+        if (held == event) {
+          return true;
+        }
+      }
+    }
+    return false;
+  }
+
+  @Override
+  public List<IEvent> eventsOnDay(Day day) {
+    return this.load().eventsOnDay(day);
+  }
+
+  @Override
+  public String toString() {
+    return this.uid;
+  }
+
+  @Override
+  public List<IEvent> observeSchedule() {
+    return this.load().observeSchedule();
+  }
+
+  @Override
+  public void setSchedule(List<IEvent> schedule) {
+    this.load().setSchedule(schedule);
+  }
+
+  @Override
+  public void addEvent(IEvent event) {
+    this.load().addEvent(event);
+  }
+
+  @Override
+  public MergeReport addEvents(List<IEvent> events) {
+    return this.load().addEvents(events);
+  }
+
+  @Override
+  public void removeEvent(IEvent event) {
+    this.load().removeEvent(event);
+  }
+
+  @Override
+  public void markChanged() {
+    this.load().markChanged();
+  }
+
+  @Override
+  public synchronized long observeVersion() {
+    return this.loaded == null ? this.offset
+            : this.offset + this.loaded.observeVersion() - this.base;
+  }
+
+  @Override
+  public boolean equals(Object o) {
+    if (this == o) {
+      return true;
+    }
+    if (!(o instanceof LazyUser)) {
+      return false;
+    }
+    LazyUser u = (LazyUser) o;
+    return this.uid.equals(u.uid) && this.observeSchedule().equals(u.observeSchedule());
+  }
+
+  @Override
+  public int hashCode() {
+    return this.uid.hashCode();
+  }
+}
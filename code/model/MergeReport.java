@@ -0,0 +1,218 @@
+package model;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * A MergeReport tells which of the events merged into a schedule were new and added to it,
+ * which it already had and which were left out because they conflict with it.
+ *
+ * <p>A merge sorts the events being merged once, then walks them and the schedule together in
+ * order of when they start, so merging many events takes about as long as sorting them rather
+ * than checking the whole schedule again for every event. An event conflicts with the merge
+ * exactly when adding it to the schedule on its own would, and the schedule's own events win
+ * over any they conflict with, as do events earlier in the merge over later ones that start at
+ * the same time. An event the schedule already has, or one that is written the same as it, is
+ * a duplicate.</p>
+ */
+public final class MergeReport {
+
+  private static final Comparator<IEvent> BY_START = Comparator.comparingInt(MergeReport::start);
+
+  private final List<IEvent> added;
+  private final List<IEvent> duplicates;
+  private final List<IEvent> conflicts;
+  private final List<IEvent> merged;
+
+  private MergeReport(List<IEvent> added, List<IEvent> duplicates, List<IEvent> conflicts,
+                      List<IEvent> merged) {
+    this.added = Collections.unmodifiableList(added);
+    this.duplicates = Collections.unmodifiableList(duplicates);
+    this.conflicts = Collections.unmodifiableList(conflicts);
+    this.merged = merged;
+  }
+
+  /**
+   * Merges the given events into a schedule without changing it.
+   *
+   * @param schedule the schedule, which has no conflicts
+   * @param incoming the events to merge into it
+   * @return the report of the merge, with the schedule it would give
+   */
+  static MergeReport merge(List<IEvent> schedule, List<IEvent> incoming) {
+    List<IEvent> existing = new ArrayList<>(schedule);
+    existing.sort(BY_START);
+    List<IEvent> arriving = new ArrayList<>(incoming);
+    arriving.sort(BY_START);
+
+    Sweep sweep = new Sweep(existing.size() + arriving.size());
+    List<IEvent> added = new ArrayList<>();
+    List<IEvent> duplicates = new ArrayList<>();
+    List<IEvent> conflicts = new ArrayList<>();
+    int next = 0;
+    for (IEvent event : arriving) {
+      // The schedule's events go first, so an event starting with one of them is checked
+      // against it
+      while (next < existing.size() && start(existing.get(next)) <= start(event)) {
+        sweep.accept(existing.get(next++));
+      }
+      if (sweep.holds(event)) {
+        duplicates.add(event);
+      } else if (sweep.conflicts(event)
+              || next < existing.size() && start(existing.get(next)) < end(event)) {
+        conflicts.add(event);
+      } else {
+        sweep.accept(event);
+        added.add(event);
+      }
+    }
+    while (next < existing.size()) {
+      sweep.accept(existing.get(next++));
+    }
+    return new MergeReport(added, duplicates, conflicts, sweep.merged);
+  }
+
+  /**
+   * The events merged so far, in order of when they start.
+   */
+  private static final class Sweep {
+    private final List<IEvent> merged;
+    // The latest end of the events merged so far
+    private int reach = Integer.MIN_VALUE;
+    // The events merged so far that start when the last of them starts
+    private final List<IEvent> group = new ArrayList<>();
+    private int groupStart = Integer.MIN_VALUE;
+
+    private Sweep(int size) {
+      this.merged = new ArrayList<>(size);
+    }
+
+    /**
+     * Adds an event that starts no earlier than any merged so far.
+     *
+     * @param event the event
+     */
+    private void accept(IEvent event) {
+      if (start(event) != this.groupStart) {
+        this.group.clear();
+        this.groupStart = start(event);
+      }
+      this.group.add(event);
+      this.reach = Math.max(this.reach, end(event));
+      this.merged.add(event);
+    }
+
+    /**
+     * Determines whether an event, or one written the same, has been merged.
+     *
+     * @param event an event that starts no earlier than any merged so far
+     * @return true if it is a duplicate
+     */
+    private boolean holds(IEvent event) {
+      if (start(event) != this.groupStart) {
+        return false;
+      }
+      EventRecord record = null;
+      for (IEvent held : this.group) {
+        if (held == event) {
+          return true;
+        }
+        if (record == null) {
+          record = EventRecord.of(event);
+        }
+        if (record.equals(EventRecord.of(held))) {
+          return true;
+        }
+      }
+      return false;
+    }
+
+    /**
+     * Determines whether an event conflicts with any merged so far.
+     *
+     * @param event an event that starts no earlier than any merged so far
+     * @return true if it conflicts
+     */
+    private boolean conflicts(IEvent event) {
+      if (start(event) < this.reach) {
+        return true;
+      }
+      if (start(event) == this.groupStart) {
+        if (end(event) > start(event)) {
+          return true;
+        }
+        for (IEvent held : this.group) {
+          if (end(held) == end(event)) {
+            return true;
+          }
+        }
+      }
+      return false;
+    }
+  }
+
+  /**
+   * Finds when an event starts, counted from Sunday at 0000.
+   *
+   * @param event the event
+   * @return the start
+   */
+  private static int start(IEvent event) {
+    return event.observeStartDayOfEvent().ordinal() * 2400 + event.observeStartTimeOfEvent();
+  }
+
+  /**
+   * Finds when an event ends, counted the way a User counts it when checking for conflicts.
+   *
+   * @param event the event
+   * @return the end
+   */
+  private static int end(IEvent event) {
+    int end = event.observeEndDayOfEvent().ordinal() * 2400 + event.observeEndTimeOfEvent();
+    return start(event) > end ? end + 10080 : end;
+  }
+
+  /**
+   * Observes the events that were new and added.
+   *
+   * @return the events in order of when they start
+   */
+  public List<IEvent> observeAdded() {
+    return this.added;
+  }
+
+  /**
+   * Observes the events the schedule already had.
+   *
+   * @return the events in order of when they start
+   */
+  public List<IEvent> observeDuplicates() {
+    return this.duplicates;
+  }
+
+  /**
+   * Observes the events that were left out because they conflict.
+   *
+   * @return the events in order of when they start
+   */
+  public List<IEvent> observeConflicts() {
+    return this.conflicts;
+  }
+
+  /**
+   * Observes the schedule with the events that were added.
+   *
+   * @return the events in order of when they start
+   */
+  List<IEvent> observeMerged() {
+    return this.merged;
+  }
+
+  @Override
+  public String toString() {
+    return String.format("%d added, %d duplicate(s), %d conflict(s)", this.added.size(),
+            this.duplicates.size(), this.conflicts.size());
+  }
+}
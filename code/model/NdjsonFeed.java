@@ -0,0 +1,719 @@
+package model;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+/**
+ * An NdjsonFeed adds a feed of changes to a planner, one JSON object on each line, so a
+ * system that makes many changes can send them as they happen rather than as schedule files.
+ * A line adds an event, such as
+ * <pre>
+ * {"name":"Standup","location":"Snell","online":false,"startDay":"Monday","startTime":900,
+ *  "endDay":"Monday","endTime":930,"users":["Ben","Nico"]}
+ * </pre>
+ * whose first user is the host, or removes the event that starts at a time from a user's
+ * schedule, such as
+ * <pre>
+ * {"op":"remove","user":"Ben","name":"Standup","startDay":"Monday","startTime":900}
+ * </pre>
+ * which removes it from every invitee if the user is the host. Fields the feed does not know
+ * are skipped.
+ *
+ * <p>A thread of its own reads and parses the feed while the thread that started the ingest
+ * changes the planner, with no more than QUEUE_BATCHES batches of BATCH_LINES lines parsed
+ * ahead, so a feed is read no faster than the planner can take it. The events added by the
+ * lines of a batch are added together, as an import would add them, through one merge kept
+ * for the whole ingest, so each schedule they are added to is looked at once rather than once
+ * for every run of additions. A line that cannot be parsed or applied is recorded in the
+ * TransferReport under its offset rather than stopping the feed.</p>
+ *
+ * <p>The offset of the feed up to which every line has been applied is kept after each batch,
+ * so an ingest that stops part of the way, or a feed that is still being written, can be
+ * resumed from it. A last line without a line break is left for the ingest that resumes.</p>
+ */
+public final class NdjsonFeed {
+
+  /**
+   * The most lines in a batch.
+   */
+  public static final int BATCH_LINES = 1000;
+
+  /**
+   * The most batches parsed ahead of the planner.
+   */
+  public static final int QUEUE_BATCHES = 8;
+
+  private static final int BUFFER_SIZE = 1 << 16;
+
+  private final PlannerModel model;
+  private long offset;
+
+  /**
+   * A line of the feed, which is the event it adds, the event it removes or why it failed.
+   */
+  private static final class Line {
+    private final long offset;
+    private EventRecord add;
+    private String user;
+    private String name;
+    private Day startDay;
+    private int startTime;
+    private String failure;
+
+    private Line(long offset) {
+      this.offset = offset;
+    }
+  }
+
+  /**
+   * The lines parsed together, and the offset of the feed after them.
+   */
+  private static final class Batch {
+    private final List<Line> lines = new ArrayList<>();
+    private long end;
+    private boolean last;
+    private IOException error;
+  }
+
+  /**
+   * Constructs a feed into the given planner.
+   *
+   * @param model the planner
+   */
+  public NdjsonFeed(PlannerModel model) {
+    this.model = model;
+  }
+
+  /**
+   * Applies every line of the feed file at the given path from the given offset.
+   *
+   * @param feed   the path of the feed
+   * @param offset the offset to start from, which is the start of a line
+   * @return the report of the ingest
+   * @throws IOException if the feed cannot be read
+   */
+  public TransferReport ingest(Path feed, long offset) throws IOException {
+    try (FileChannel channel = FileChannel.open(feed, StandardOpenOption.READ)) {
+      channel.position(offset);
+      return this.ingest(Channels.newInputStream(channel), offset);
+    }
+  }
+
+  /**
+   * Applies every line read from the given stream, which is left open.
+   *
+   * @param in     the stream
+   * @param offset the offset of the feed the stream starts at, which is the start of a line
+   * @return the report of the ingest
+   * @throws IOException if the feed cannot be read
+   */
+  public TransferReport ingest(InputStream in, long offset) throws IOException {
+    this.offset = offset;
+    TransferReport report = new TransferReport();
+    BlockingQueue<Batch> queue = new ArrayBlockingQueue<>(QUEUE_BATCHES);
+    Thread reader = new Thread(() -> read(in, offset, queue), "feed-parse");
+    reader.setDaemon(true);
+    reader.start();
+    // One merge is kept for the whole ingest, so each schedule is looked at once
+    BulkImporter.Merge merge = new BulkImporter.Merge(this.model.getListOfUser());
+    try {
+      while (true) {
+        Batch batch = queue.take();
+        this.apply(batch, merge, report);
+        if (batch.error != null) {
+          throw batch.error;
+        }
+        if (batch.last) {
+          return report;
+        }
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IllegalStateException("Ingest was interrupted");
+    } finally {
+      reader.interrupt();
+    }
+  }
+
+  /**
+   * Observes the offset of the feed up to which every line has been applied.
+   *
+   * @return the offset to resume from
+   */
+  public long observeOffset() {
+    return this.offset;
+  }
+
+  /**
+   * Applies the lines of a batch in order, adding each run of events together.
+   *
+   * @param batch  the batch
+   * @param merge  the merge of the planner kept for the ingest
+   * @param report the report successes and failures are recorded in
+   */
+  private void apply(Batch batch, BulkImporter.Merge merge, TransferReport report) {
+    List<EventRecord> adds = new ArrayList<>();
+    long first = 0;
+    for (Line line : batch.lines) {
+      if (line.add != null) {
+        if (adds.isEmpty()) {
+          first = line.offset;
+        }
+        adds.add(line.add);
+        continue;
+      }
+      if (!adds.isEmpty()) {
+        BulkImporter.merge(this.model, merge, "offset " + first, adds, report);
+        adds.clear();
+      }
+      if (line.failure != null) {
+        report.recordFailure("offset " + line.offset, line.failure);
+      } else {
+        try {
+          this.remove(line, merge);
+        } catch (IllegalArgumentException | IllegalStateException e) {
+          report.recordFailure("offset " + line.offset, e.getMessage());
+        }
+      }
+    }
+    if (!adds.isEmpty()) {
+      BulkImporter.merge(this.model, merge, "offset " + first, adds, report);
+    }
+    this.offset = batch.end;
+  }
+
+  /**
+   * Removes the event a line names from the user's schedule.
+   *
+   * @param line  the line
+   * @param merge the merge of the planner kept for the ingest, which forgets the event
+   * @throws IllegalArgumentException if the user or the event does not exist
+   */
+  private void remove(Line line, BulkImporter.Merge merge) {
+    for (IEvent event : this.model.selectSchedule(line.user)) {
+      if (event.observeName().equals(line.name)
+              && event.observeStartDayOfEvent() == line.startDay
+              && event.observeStartTimeOfEvent() == line.startTime) {
+        merge.forget(event, line.user);
+        this.model.removeEvent(line.user, event);
+        return;
+      }
+    }
+    throw new IllegalArgumentException("Event not found");
+  }
+
+  /**
+   * Reads and parses the feed into batches, waiting while the queue is full.
+   *
+   * @param in     the stream
+   * @param offset the offset of the feed the stream starts at
+   * @param queue  the queue the batches are put in
+   */
+  private static void read(InputStream in, long offset, BlockingQueue<Batch> queue) {
+    Batch batch = new Batch();
+    batch.end = offset;
+    try {
+      byte[] buffer = new byte[BUFFER_SIZE];
+      // The feed offset of buffer[0], and the bytes in the buffer that have not been parsed
+      long position = offset;
+      int start = 0;
+      int limit = 0;
+      while (true) {
+        int newline = start;
+        while (newline < limit && buffer[newline] != '\n') {
+          newline++;
+        }
+        if (newline == limit) {
+          // No whole line is left, so the rest is kept and more of the feed is read
+          System.arraycopy(buffer, start, buffer, 0, limit - start);
+          position += start;
+          limit -= start;
+          start = 0;
+          if (limit == buffer.length) {
+            byte[] larger = new byte[buffer.length * 2];
+            System.arraycopy(buffer, 0, larger, 0, limit);
+            buffer = larger;
+          }
+          int read = in.read(buffer, limit, buffer.length - limit);
+          if (read < 0) {
+            break;
+          }
+          limit += read;
+          continue;
+        }
+
+        int end = newline > start && buffer[newline - 1] == '\r' ? newline - 1 : newline;
+        if (end > start) {
+          batch.lines.add(parse(buffer, start, end, position + start));
+        }
+        start = newline + 1;
+        batch.end = position + start;
+        if (batch.lines.size() == BATCH_LINES) {
+          queue.put(batch);
+          long next = batch.end;
+          batch = new Batch();
+          batch.end = next;
+        }
+      }
+    } catch (IOException e) {
+      batch.error = e;
+    } catch (InterruptedException e) {
+      // The ingest stopped, so nothing is waiting for the batches
+      return;
+    }
+    batch.last = true;
+    try {
+      queue.put(batch);
+    } catch (InterruptedException e) {
+      // The ingest stopped
+    }
+  }
+
+  /**
+   * Parses a line of the feed.
+   *
+   * @param bytes  the bytes of the feed
+   * @param from   the index of the first byte of the line
+   * @param to     the index after the last byte of the line
+   * @param offset the offset of the line in the feed
+   * @return the line, which has a failure if it could not be parsed
+   */
+  private static Line parse(byte[] bytes, int from, int to, long offset) {
+    Line line = new Line(offset);
+    try {
+      new Parser(bytes, from, to).line(line);
+    } catch (IllegalArgumentException e) {
+      line.failure = e.getMessage();
+      line.add = null;
+    }
+    return line;
+  }
+
+  /**
+   * A Parser reads the JSON object of one line straight from the bytes of the feed, only
+   * making strings of the values it keeps.
+   */
+  private static final class Parser {
+    private final byte[] bytes;
+    private final int start;
+    private final int end;
+    private int at;
+    private final StringBuilder text = new StringBuilder();
+
+    private Parser(byte[] bytes, int from, int to) {
+      this.bytes = bytes;
+      this.start = from;
+      this.at = from;
+      this.end = to;
+    }
+
+    /**
+     * Finds the column of the line being read, counted in bytes from 1.
+     *
+     * @return the column
+     */
+    private int column() {
+      return this.at - this.start + 1;
+    }
+
+    /**
+     * Parses the line into the given line.
+     *
+     * @param line the line
+     * @throws IllegalArgumentException if the line is not an object describing a change
+     */
+    private void line(Line line) {
+      String op = "add";
+      String name = null;
+      String location = "";
+      boolean online = false;
+      Day startDay = null;
+      int startTime = -1;
+      Day endDay = null;
+      int endTime = -1;
+      List<String> users = null;
+
+      this.expect('{');
+      if (!this.consume('}')) {
+        do {
+          String key = this.string();
+          this.expect(':');
+          switch (key) {
+            case "op":
+              op = this.string();
+              break;
+            case "name":
+              name = this.string();
+              break;
+            case "location":
+              location = this.string();
+              break;
+            case "online":
+              online = this.bool();
+              break;
+            case "startDay":
+              startDay = day(this.string());
+              break;
+            case "startTime":
+              startTime = this.integer();
+              break;
+            case "endDay":
+              endDay = day(this.string());
+              break;
+            case "endTime":
+              endTime = this.integer();
+              break;
+            case "user":
+              line.user = this.string();
+              break;
+            case "users":
+              users = this.strings();
+              break;
+            default:
+              this.skip();
+          }
+        } while (this.consume(','));
+        this.expect('}');
+      }
+      this.space();
+      if (this.at != this.end) {
+        throw new IllegalArgumentException("Text after the object");
+      }
+
+      if (name == null || startDay == null || startTime < 0) {
+        throw new IllegalArgumentException("A change needs a name, startDay and startTime");
+      }
+      if (op.equals("remove")) {
+        if (line.user == null) {
+          throw new IllegalArgumentException("A removal needs a user");
+        }
+        line.name = name;
+        line.startDay = startDay;
+        line.startTime = startTime;
+      } else if (op.equals("add")) {
+        if (endDay == null || endTime < 0 || users == null || users.isEmpty()) {
+          throw new IllegalArgumentException("An event needs an endDay, endTime and users");
+        }
+        line.add = new EventRecord(name, location, online, startDay, startTime, endDay,
+                endTime, users);
+      } else {
+        throw new IllegalArgumentException("Unknown op " + op);
+      }
+    }
+
+    /**
+     * Converts the name of a day to the Day.
+     *
+     * @param day the name
+     * @return the Day
+     * @throws IllegalArgumentException if there is no such day
+     */
+    private static Day day(String day) {
+      try {
+        return Day.valueOf(day);
+      } catch (IllegalArgumentException e) {
+        throw new IllegalArgumentException("Unknown day " + day);
+      }
+    }
+
+    /**
+     * Skips any white space.
+     */
+    private void space() {
+      while (this.at < this.end && (this.bytes[this.at] == ' ' || this.bytes[this.at] == '\t'
+              || this.bytes[this.at] == '\r' || this.bytes[this.at] == '\n')) {
+        this.at++;
+      }
+    }
+
+    /**
+     * Skips the given character, and any white space before it, if it is next.
+     *
+     * @param c the character
+     * @return true if it was next
+     */
+    private boolean consume(char c) {
+      this.space();
+      if (this.at < this.end && this.bytes[this.at] == c) {
+        this.at++;
+        return true;
+      }
+      return false;
+    }
+
+    /**
+     * Skips the given character, which has to be next apart from white space.
+     *
+     * @param c the character
+     * @throws IllegalArgumentException if it is not next
+     */
+    private void expect(char c) {
+      if (!this.consume(c)) {
+        throw new IllegalArgumentException("Expected " + c + " at column " + this.column());
+      }
+    }
+
+    /**
+     * Parses a string. A string without escapes is decoded straight from the bytes.
+     *
+     * @return the string
+     */
+    private String string() {
+      this.expect('"');
+      int from = this.at;
+      while (this.at < this.end && this.bytes[this.at] != '"' && this.bytes[this.at] != '\\') {
+        this.at++;
+      }
+      if (this.at < this.end && this.bytes[this.at] == '"') {
+        return new String(this.bytes, from, this.at++ - from, StandardCharsets.UTF_8);
+      }
+
+      this.text.setLength(0);
+      this.text.append(new String(this.bytes, from, this.at - from, StandardCharsets.UTF_8));
+      while (this.at < this.end && this.bytes[this.at] != '"') {
+        if (this.bytes[this.at] != '\\') {
+          int run = this.at;
+          while (this.at < this.end && this.bytes[this.at] != '"'
+                  && this.bytes[this.at] != '\\') {
+            this.at++;
+          }
+          this.text.append(new String(this.bytes, run, this.at - run, StandardCharsets.UTF_8));
+          continue;
+        }
+        if (++this.at >= this.end) {
+          break;
+        }
+        byte escaped = this.bytes[this.at++];
+        switch (escaped) {
+          case 'n':
+            this.text.append('\n');
+            break;
+          case 't':
+            this.text.append('\t');
+            break;
+          case 'r':
+            this.text.append('\r');
+            break;
+          case 'b':
+            this.text.append('\b');
+            break;
+          case 'f':
+            this.text.append('\f');
+            break;
+          case 'u':
+            if (this.at + 4 > this.end) {
+              throw new IllegalArgumentException("Unfinished escape");
+            }
+            try {
+              this.text.append((char) Integer.parseInt(
+                      new String(this.bytes, this.at, 4, StandardCharsets.US_ASCII), 16));
+            } catch (NumberFormatException e) {
+              throw new IllegalArgumentException("Bad escape");
+            }
+            this.at += 4;
+            break;
+          default:
+            this.text.append((char) escaped);
+        }
+      }
+      if (this.at >= this.end) {
+        throw new IllegalArgumentException("Unfinished string");
+      }
+      this.at++;
+      return this.text.toString();
+    }
+
+    /**
+     * Parses an array of strings.
+     *
+     * @return the strings
+     */
+    private List<String> strings() {
+      List<String> strings = new ArrayList<>();
+      this.expect('[');
+      if (!this.consume(']')) {
+        do {
+          strings.add(this.string());
+        } while (this.consume(','));
+        this.expect(']');
+      }
+      return strings;
+    }
+
+    /**
+     * Parses a whole number that is not negative.
+     *
+     * @return the number
+     */
+    private int integer() {
+      this.space();
+      int value = 0;
+      int from = this.at;
+      while (this.at < this.end && this.bytes[this.at] >= '0' && this.bytes[this.at] <= '9'
+              && this.at - from < 9) {
+        value = value * 10 + this.bytes[this.at++] - '0';
+      }
+      if (this.at == from) {
+        throw new IllegalArgumentException("Expected a whole number at column " + this.column());
+      }
+      return value;
+    }
+
+    /**
+     * Parses true or false.
+     *
+     * @return the value
+     */
+    private boolean bool() {
+      this.space();
+      if (this.word("true")) {
+        return true;
+      } else if (this.word("false")) {
+        return false;
+      }
+      throw new IllegalArgumentException("Expected true or false at column " + this.column());
+    }
+
+    /**
+     * Skips the given word if it is next.
+     *
+     * @param word the word
+     * @return true if it was next
+     */
+    private boolean word(String word) {
+      if (this.end - this.at < word.length()) {
+        return false;
+      }
+      for (int i = 0; i < word.length(); i++) {
+        if (this.bytes[this.at + i] != word.charAt(i)) {
+          return false;
+        }
+      }
+      this.at += word.length();
+      return true;
+    }
+
+    /**
+     * Skips a value of any kind.
+     */
+    private void skip() {
+      this.space();
+      if (this.at >= this.end) {
+        throw new IllegalArgumentException("Expected a value");
+      }
+      byte next = this.bytes[this.at];
+      if (next == '"') {
+        this.string();
+      } else if (next == '{' || next == '[') {
+        char close = next == '{' ? '}' : ']';
+        this.at++;
+        if (!this.consume(close)) {
+          do {
+            if (close == '}') {
+              this.string();
+              this.expect(':');
+            }
+            this.skip();
+          } while (this.consume(','));
+          this.expect(close);
+        }
+      } else if (!this.word("true") && !this.word("false") && !this.word("null")) {
+        int from = this.at;
+        while (this.at < this.end && "+-.eE0123456789".indexOf(this.bytes[this.at]) >= 0) {
+          this.at++;
+        }
+        if (this.at == from) {
+          throw new IllegalArgumentException("Expected a value at column " + this.column());
+        }
+      }
+    }
+  }
+
+  /**
+   * Writes every event of the planner as a line that adds it, streaming each schedule
+   * straight to the given stream, which is left open. An event on the schedules of several
+   * users is written once, with its host.
+   *
+   * @param model the planner
+   * @param out   the stream
+   * @return the number of events written
+   * @throws IOException if the feed cannot be written
+   */
+  public static int write(PlannerModel model, OutputStream out) throws IOException {
+    Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8),
+            BUFFER_SIZE);
+    int written = 0;
+    for (IUser user : model.getListOfUser()) {
+      for (IEvent event : user.observeSchedule()) {
+        if (!event.observeHost().toString().equals(user.toString())) {
+          continue;
+        }
+        writer.write("{\"name\":");
+        quote(writer, event.observeName());
+        writer.write(",\"location\":");
+        quote(writer, event.observeLocation());
+        writer.write(",\"online\":");
+        writer.write(event.observeOnline() ? "true" : "false");
+        writer.write(",\"startDay\":\"");
+        writer.write(event.observeStartDayOfEvent().name());
+        writer.write("\",\"startTime\":");
+        writer.write(Integer.toString(event.observeStartTimeOfEvent()));
+        writer.write(",\"endDay\":\"");
+        writer.write(event.observeEndDayOfEvent().name());
+        writer.write("\",\"endTime\":");
+        writer.write(Integer.toString(event.observeEndTimeOfEvent()));
+        writer.write(",\"users\":[");
+        boolean first = true;
+        for (IUser invitee : event.observeInvitedUsers()) {
+          if (!first) {
+            writer.write(',');
+          }
+          quote(writer, invitee.toString());
+          first = false;
+        }
+        writer.write("]}\n");
+        written++;
+      }
+    }
+    writer.flush();
+    return written;
+  }
+
+  /**
+   * Writes a string as a JSON string.
+   *
+   * @param writer the writer
+   * @param value  the string
+   * @throws IOException if the string cannot be written
+   */
+  private static void quote(Writer writer, String value) throws IOException {
+    writer.write('"');
+    for (int i = 0; i < value.length(); i++) {
+      char c = value.charAt(i);
+      if (c == '"' || c == '\\') {
+        writer.write('\\');
+        writer.write(c);
+      } else if (c == '\n') {
+        writer.write("\\n");
+      } else if (c < 0x20) {
+        writer.write(String.format("\\u%04x", (int) c));
+      } else {
+        writer.write(c);
+      }
+    }
+    writer.write('"');
+  }
+}
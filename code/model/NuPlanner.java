@@ -1,7 +1,13 @@
 package model;
 
+import java.io.IOException;
+import java.nio.file.Path;
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
 /**
  * Implements the planner model. The NUPlanner is a system where someone
@@ -9,12 +15,17 @@ import java.util.List;
  */
 public final class NuPlanner implements PlannerModel {
   private List<IUser> database;
+  // The version of each user's schedule when it was last saved to savedTo, which is either
+  // the path of a directory or a PlannerRepository
+  private final Map<IUser, Long> savedVersions;
+  private Object savedTo;
 
   /**
    * Constructs an NuPlanner with an empty database.
    */
   public NuPlanner() {
     this.database = new ArrayList<>();
+    this.savedVersions = new IdentityHashMap<>();
   }
 
   /**
@@ -26,18 +37,145 @@ public final class NuPlanner implements PlannerModel {
    */
   public NuPlanner(List<IUser> database) {
     this.database = database;
+    this.savedVersions = new IdentityHashMap<>();
   }
 
   @Override
-  public void uploadSchedule(String path) {
+  public MergeReport uploadSchedule(String path) {
     IUser user = Utils.readXML(path, this.database);
-    this.addUser(user);
+    return this.addUser(user);
+  }
+
+  @Override
+  public TransferReport importSchedules(String directory) {
+    return new BulkImporter().importDirectory(this, Path.of(directory));
+  }
+
+  @Override
+  public TransferReport exportSchedules(String directory) {
+    return new ParallelExporter().export(this.database, Path.of(directory));
+  }
+
+  @Override
+  public TransferReport exportArchive(String file) {
+    try {
+      return ScheduleArchive.write(this.database, Path.of(file));
+    } catch (IOException e) {
+      throw new IllegalArgumentException("Cannot write the archive " + file + ": "
+              + e.getMessage());
+    }
+  }
+
+  @Override
+  public TransferReport importArchive(String file) {
+    try {
+      return ScheduleArchive.read(this, Path.of(file));
+    } catch (IOException e) {
+      throw new IllegalArgumentException("Cannot read the archive " + file + ": "
+              + e.getMessage());
+    }
   }
 
   @Override
   public void saveSchedule() {
+    this.saveSchedule("");
+  }
+
+  /**
+   * Every change to a schedule changes its version, whether an event was added, removed or
+   * changed in place, so a schedule whose version is the one it was saved with is already
+   * on disk and is not written again.
+   */
+  @Override
+  public int saveSchedule(String path) {
+    List<IUser> changed = this.changedSince(path);
+    for (IUser user : changed) {
+      Utils.writeToFile(user, path);
+      this.savedVersions.put(user, user.observeVersion());
+    }
+    return changed.size();
+  }
+
+  /**
+   * Saves each user's schedule that changed since it was last saved to the given repository,
+   * all in one write.
+   *
+   * @param repository the repository
+   * @return the number of schedules that were written
+   * @throws IOException if the repository cannot be written, in which case nothing is
+   *                     counted as saved
+   */
+  public int saveSchedule(PlannerRepository repository) throws IOException {
+    List<IUser> changed = this.changedSince(repository);
+    repository.save(changed);
+    for (IUser user : changed) {
+      this.savedVersions.put(user, user.observeVersion());
+    }
+    return changed.size();
+  }
+
+  /**
+   * Finds the users whose schedules changed since they were last saved to the given place.
+   * Saving somewhere else since then forgets every earlier save.
+   *
+   * @param target the path of a directory or a PlannerRepository
+   * @return the users
+   */
+  private List<IUser> changedSince(Object target) {
+    if (!target.equals(this.savedTo)) {
+      this.savedVersions.clear();
+      this.savedTo = target;
+    }
+    List<IUser> changed = new ArrayList<>();
     for (IUser user : this.database) {
-      Utils.writeToFile(user, "");
+      Long saved = this.savedVersions.get(user);
+      if (saved == null || saved != user.observeVersion()) {
+        changed.add(user);
+      }
+    }
+    return changed;
+  }
+
+  /**
+   * Records that every schedule is as it was just loaded from the given repository, so only
+   * changes made from now on are saved back to it.
+   *
+   * @param repository the repository
+   */
+  void markSaved(PlannerRepository repository) {
+    this.savedVersions.clear();
+    this.savedTo = repository;
+    for (IUser user : this.database) {
+      this.savedVersions.put(user, user.observeVersion());
+    }
+  }
+
+  /**
+   * Determines whether the given user's schedule is as it was last saved to the given
+   * repository.
+   *
+   * @param user       the user
+   * @param repository the repository
+   * @return true if the schedule has not changed since it was saved there
+   */
+  boolean isSaved(IUser user, PlannerRepository repository) {
+    Long saved = this.savedVersions.get(user);
+    return repository.equals(this.savedTo) && saved != null && saved == user.observeVersion();
+  }
+
+  /**
+   * Records that the given users' schedules were just saved to the given repository by
+   * someone else, if it is where the planner is being saved. Otherwise they are saved again
+   * along with the rest the next time.
+   *
+   * @param users      the users
+   * @param repository the repository
+   */
+  void markSaved(List<IUser> users, PlannerRepository repository) {
+    if (repository.equals(this.savedTo)) {
+      for (IUser user : users) {
+        this.savedVersions.put(user, user.observeVersion());
+      }
     }
   }
 
@@ -86,7 +224,7 @@ public final class NuPlanner implements PlannerModel {
       if (e.observeHost().equals(u)) {
         e.removeAll();
       } else {
-        u.observeSchedule().remove(e);
+        u.removeEvent(e);
       }
     }
   }
@@ -142,26 +280,69 @@ public final class NuPlanner implements PlannerModel {
     }
   }
 
+  /**
+   * Each event of the given schedule is resolved to the instance of the same event already in
+   * the planner, if there is one, so an event read from the files of several of its users is
+   * added as one event, and an event the user already has is not added again. The events are
+   * merged into the schedule in one pass, and none are added if any of them conflict. The
+   * events that pass are added to the schedule in place, so a list of it held elsewhere sees
+   * them.
+   */
   @Override
-  public void addUser(IUser user) {
+  public MergeReport addUser(IUser user) {
+    List<IEvent> schedule = new EventCanonicalizer(this.database, user.toString(),
+            user.observeSchedule()).resolveAll(user.observeSchedule());
+    IUser userInDatabase;
     try {
-      Utils.findUser(user.toString(), this.database);
+      userInDatabase = Utils.findUser(user.toString(), this.database);
     } catch (IllegalArgumentException ignored) {
-      this.database.add(new User(user.toString(), user.observeSchedule()));
+      userInDatabase = new User(user.toString(), List.of());
+      this.database.add(userInDatabase);
     }
 
-    try {
-      for (IEvent e : user.observeSchedule()) {
-        IUser userInDatabase = Utils.findUser(user.toString(), this.database);
-
-        // Add event from new schedule if it doesn't conflict with pre-existing user's schedule
-        userInDatabase.addEvent(e);
-      }
-    } catch (IllegalArgumentException ignored) {
+    // Add events from new schedule only if none conflict with pre-existing user's schedule
+    MergeReport merge = MergeReport.merge(userInDatabase.observeSchedule(), schedule);
+    if (!merge.observeConflicts().isEmpty()) {
       throw new IllegalArgumentException("The inputted user conflicted with the pre-existing " +
               "schedule.");
     }
+    if (!merge.observeAdded().isEmpty()) {
+      // Only the events already checked are merged again, which takes one walk of the schedule
+      userInDatabase.addEvents(merge.observeAdded());
+    }
+    return merge;
+  }
 
+  /**
+   * The users are found in one walk of the planner, and every schedule is merged with its
+   * events before any of them change.
+   */
+  @Override
+  public void addEvents(Map<String, List<IEvent>> additions) {
+    Map<String, IUser> users = new HashMap<>();
+    for (IUser user : this.database) {
+      if (additions.containsKey(user.toString())) {
+        users.putIfAbsent(user.toString(), user);
+      }
+    }
+    Map<String, MergeReport> merges = new LinkedHashMap<>();
+    for (Map.Entry<String, List<IEvent>> addition : additions.entrySet()) {
+      IUser user = users.get(addition.getKey());
+      if (user == null) {
+        throw new IllegalArgumentException("User not found");
+      }
+      MergeReport merge = MergeReport.merge(user.observeSchedule(), addition.getValue());
+      if (!merge.observeConflicts().isEmpty()) {
+        throw new IllegalArgumentException("The schedule of " + addition.getKey()
+                + " would have conflicts");
+      }
+      merges.put(addition.getKey(), merge);
+    }
+    for (Map.Entry<String, MergeReport> merge : merges.entrySet()) {
+      if (!merge.getValue().observeAdded().isEmpty()) {
+        users.get(merge.getKey()).addEvents(merge.getValue().observeAdded());
+      }
+    }
   }
 
   @Override
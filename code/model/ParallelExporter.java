@@ -0,0 +1,167 @@
+package model;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+
+/**
+ * The ParallelExporter writes the schedule of every user to a directory at once, rather than
+ * one file after another, so an export takes as long as the disk needs to write the files and
+ * not the sum of the time each file waits on it.
+ *
+ * <p>Users are written by tasks that each run on a virtual thread of their own. Users with
+ * small schedules are grouped into one task until it holds about BATCH_EVENTS events or
+ * BATCH_USERS users, while a user with a larger schedule is split off onto a task of their
+ * own, so a huge schedule never holds up the small ones queued behind it. However many tasks
+ * there are, no more than the given number of files are written at the same time. A file that
+ * cannot be written does not stop the others, and every failure is recorded in the
+ * TransferReport of the export.</p>
+ *
+ * <p>The list of events of each schedule is copied on the thread that started the export
+ * before any file is written, so events added to or removed from a schedule during the export
+ * do not change what is written. The events themselves are still those of the planner, so an
+ * event should not be modified while an export is running.</p>
+ */
+public final class ParallelExporter {
+
+  /**
+   * The number of events above which a schedule is written by a task of its own.
+   */
+  public static final int BATCH_EVENTS = 1000;
+
+  /**
+   * The most users written by one task.
+   */
+  public static final int BATCH_USERS = 64;
+
+  private final int limit;
+
+  /**
+   * Constructs an exporter that writes as many files at once as there are processors, at
+   * least four.
+   */
+  public ParallelExporter() {
+    this(Math.max(4, Runtime.getRuntime().availableProcessors()));
+  }
+
+  /**
+   * Constructs an exporter that writes at most the given number of files at once.
+   *
+   * @param limit the number of files written at the same time
+   * @throws IllegalArgumentException if the limit is not positive
+   */
+  public ParallelExporter(int limit) {
+    if (limit < 1) {
+      throw new IllegalArgumentException("Number of files written at once must be positive");
+    }
+    this.limit = limit;
+  }
+
+  /**
+   * Writes the schedule of each of the given users to a file named after them in the given
+   * directory, creating the directory if it does not exist.
+   *
+   * @param users     the users
+   * @param directory the directory
+   * @return the report of the export, with failures in the order of the users
+   * @throws IllegalArgumentException if the directory cannot be created
+   */
+  public TransferReport export(List<IUser> users, Path directory) {
+    try {
+      Files.createDirectories(directory);
+    } catch (IOException e) {
+      throw new IllegalArgumentException("Cannot create the directory " + directory);
+    }
+    List<IUser> copies = new ArrayList<>();
+    for (IUser user : users) {
+      User copy = new User(user.toString(), List.of());
+      copy.setSchedule(new ArrayList<>(user.observeSchedule()));
+      copies.add(copy);
+    }
+
+    String[] failures = new String[copies.size()];
+    Semaphore writing = new Semaphore(this.limit);
+    try (ExecutorService tasks = Executors.newVirtualThreadPerTaskExecutor()) {
+      for (List<Integer> batch : batches(copies)) {
+        tasks.execute(() -> {
+          for (int i : batch) {
+            failures[i] = write(copies.get(i), directory, writing);
+          }
+        });
+      }
+    }
+
+    TransferReport report = new TransferReport();
+    for (int i = 0; i < copies.size(); i++) {
+      if (failures[i] == null) {
+        report.recordSuccess(copies.get(i).observeSchedule().size());
+      } else {
+        report.recordFailure(directory.resolve(copies.get(i).toString()).toString(),
+                failures[i]);
+      }
+    }
+    return report;
+  }
+
+  /**
+   * Groups the users into the tasks that write them. A task holds users in order until it has
+   * BATCH_EVENTS events or BATCH_USERS users, and a user with more than BATCH_EVENTS events
+   * has a task of their own.
+   *
+   * @param users the users
+   * @return the indices of the users of each task
+   */
+  private static List<List<Integer>> batches(List<IUser> users) {
+    List<List<Integer>> batches = new ArrayList<>();
+    List<Integer> batch = new ArrayList<>();
+    int events = 0;
+    for (int i = 0; i < users.size(); i++) {
+      int size = users.get(i).observeSchedule().size();
+      if (size > BATCH_EVENTS) {
+        batches.add(List.of(i));
+        continue;
+      }
+      batch.add(i);
+      events += size;
+      if (events >= BATCH_EVENTS || batch.size() == BATCH_USERS) {
+        batches.add(batch);
+        batch = new ArrayList<>();
+        events = 0;
+      }
+    }
+    if (!batch.isEmpty()) {
+      batches.add(batch);
+    }
+    return batches;
+  }
+
+  /**
+   * Writes the schedule of a user once fewer than the limit of files are being written.
+   *
+   * @param user      the user
+   * @param directory the directory
+   * @param writing   the permits to write a file
+   * @return why the file could not be written, or null if it was
+   */
+  private static String write(IUser user, Path directory, Semaphore writing) {
+    try {
+      writing.acquire();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      return "Export was interrupted";
+    }
+    try {
+      XmlScheduleWriter.writeAtomically(user, directory.resolve(user.toString()));
+      return null;
+    } catch (IOException | RuntimeException e) {
+      return e.getMessage() == null ? e.toString() : e.getMessage();
+    } finally {
+      writing.release();
+    }
+  }
+}
@@ -1,6 +1,7 @@
 package model;
 
 import java.util.List;
+import java.util.Map;
 
 /**
  * The operations and observations required for a weekly planner system
@@ -13,14 +14,64 @@ public interface PlannerModel extends ReadOnlyPlannerModel {
    * Upload an XML file representing a single user's schedule.
    *
    * @param path a String
+   * @return the report of which events of the file were added or already there
    */
-  void uploadSchedule(String path);
+  MergeReport uploadSchedule(String path);
+
+  /**
+   * Upload every XML file in a directory, each representing a single user's schedule. The
+   * files may be in any order, and a file that cannot be added does not stop the others.
+   *
+   * @param directory a String
+   * @return the report of which files were added and why the others failed
+   * @throws IllegalArgumentException if the directory cannot be read
+   */
+  TransferReport importSchedules(String directory);
+
+  /**
+   * Write every user's schedule to an XML file in the given directory, all at once, whether
+   * or not it changed since it was last saved. A file that cannot be written does not stop the
+   * others.
+   *
+   * @param directory a String
+   * @return the report of which schedules were written and why the others failed
+   * @throws IllegalArgumentException if the directory cannot be created
+   */
+  TransferReport exportSchedules(String directory);
+
+  /**
+   * Write every user's schedule to a single compressed archive file.
+   *
+   * @param file the path of the archive, which is replaced if it exists
+   * @return the report of which schedules were written
+   * @throws IllegalArgumentException if the archive cannot be written
+   */
+  TransferReport exportArchive(String file);
+
+  /**
+   * Upload every schedule in a compressed archive file, as if each were a file in a directory
+   * being imported.
+   *
+   * @param file the path of the archive
+   * @return the report of which schedules were added and why the others failed
+   * @throws IllegalArgumentException if the archive cannot be read
+   */
+  TransferReport importArchive(String file);
 
   /**
    * Save each user’s schedule to an XML file.
    */
   void saveSchedule();
 
+  /**
+   * Save each user’s schedule to an XML file in the given directory. Only the schedules that
+   * changed since they were last saved to the same directory are written again.
+   *
+   * @param path the directory, or an empty String for the project folder
+   * @return the number of schedules that were written
+   */
+  int saveSchedule(String path);
+
   /**
    * Select one of the users to display their schedule.
    *
@@ -101,8 +152,20 @@ public interface PlannerModel extends ReadOnlyPlannerModel {
    * the database.
    *
    * @param user a User
+   * @return the report of which events were added or already there
+   */
+  MergeReport addUser(IUser user);
+
+  /**
+   * Adds the given events to the schedules of the given users at once, changing each
+   * schedule in place. An event a user already has is not added to them again, and nothing
+   * is added if any of the schedules would have conflicts.
+   *
+   * @param additions the events to add to each user, by username
+   * @throws IllegalArgumentException if a user does not exist or a schedule would have
+   *                                  conflicts
    */
-  void addUser(IUser user);
+  void addEvents(Map<String, List<IEvent>> additions);
 
   /**
    * Finds and returns a list of events for a specified user on a given day.
@@ -0,0 +1,74 @@
+package model;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * A PlannerRepository is somewhere the planner can be kept between runs that can also be asked
+ * about part of the planner without loading all of it. A NuPlanner saves to a repository with
+ * saveSchedule, which only writes the schedules that changed since the last save.
+ */
+public interface PlannerRepository extends Closeable {
+
+  /**
+   * Loads every user and their schedule as a planner.
+   *
+   * @return the planner
+   * @throws IOException if the repository cannot be read
+   */
+  NuPlanner load() throws IOException;
+
+  /**
+   * Loads every username as a planner whose schedules are left in the repository until each
+   * is first used, so the memory and time the planner takes grow with the users it works
+   * with rather than with every stored user.
+   *
+   * @return the planner
+   * @throws IOException if the repository cannot be read
+   */
+  NuPlanner loadLazily() throws IOException;
+
+  /**
+   * Stores the schedules of the given users, replacing what was stored for them, in one write
+   * that either happens whole or not at all. Events they share with other users are updated
+   * for those users too.
+   *
+   * @param users the users
+   * @throws IOException if the repository cannot be written
+   */
+  void save(List<IUser> users) throws IOException;
+
+  /**
+   * Loads the usernames of every stored user.
+   *
+   * @return the usernames
+   * @throws IOException if the repository cannot be read
+   */
+  List<String> loadUsernames() throws IOException;
+
+  /**
+   * Loads the stored schedule of a single user.
+   *
+   * @param user the username
+   * @return the schedule, which is empty if the user is not stored
+   * @throws IOException if the repository cannot be read
+   */
+  ScheduleRecord loadSchedule(String user) throws IOException;
+
+  /**
+   * Loads the events on a user's schedule that overlap the given part of the week, including
+   * events that run over from the end of the week before.
+   *
+   * @param user     the username
+   * @param fromDay  the day the part of the week starts
+   * @param fromTime the time the part of the week starts
+   * @param toDay    the day the part of the week ends
+   * @param toTime   the time the part of the week ends
+   * @return the events in the order of the user's schedule
+   * @throws IOException              if the repository cannot be read
+   * @throws IllegalArgumentException if the part of the week ends before it starts
+   */
+  List<EventRecord> eventsBetween(String user, Day fromDay, int fromTime, Day toDay,
+                                  int toTime) throws IOException;
+}
@@ -0,0 +1,506 @@
+package model;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.CRC32;
+
+/**
+ * A PlannerSnapshot is the whole planner saved in one binary file, so a planner can be started
+ * again without parsing a schedule file for every user. XML files remain the way schedules are
+ * shared, and a snapshot is only meant to be read back by the same planner.
+ *
+ * <p>The file is a header followed by fixed sections, every number in it big endian:</p>
+ * <ul>
+ *   <li>the header, holding MAGIC, VERSION, the number of users, events, strings and
+ *   attendees, and a CRC32 of everything after the header;</li>
+ *   <li>the string dictionary, the offset where each string starts and the offset where the
+ *   last one ends, followed by the strings in UTF-8, padded to a multiple of four bytes. Every
+ *   username, event name and location is stored once here and referred to by its index;</li>
+ *   <li>the users, each USER_BYTES long, holding their name and where their schedule starts in
+ *   the schedules and how many events it has;</li>
+ *   <li>the schedules, the index of each event of each user in the order of their schedule;</li>
+ *   <li>the events, each EVENT_BYTES long, holding the fields of the event, where its
+ *   attendees start in the attendees and how many there are, and the index of its host;</li>
+ *   <li>the attendees, the index of each user invited to each event.</li>
+ * </ul>
+ *
+ * <p>An event shared by several users is stored once, so the planner read back shares it the
+ * same way. Because every record has a fixed width, any user or event can be found from its
+ * index without reading the ones before it. The file is mapped into memory when it is opened,
+ * and opening it only checks the header and the sizes of the sections. The planner read back
+ * holds a LazyUser for each user, so only the usernames are decoded up front, and a schedule
+ * is decoded from the mapped file the first time it is used, along with the events on it that
+ * no schedule decoded before holds. The checksum covers the whole body, so it is checked when
+ * the first schedule is decoded, or earlier by verify, rather than when the file is
+ * opened.</p>
+ */
+public final class PlannerSnapshot {
+
+  /**
+   * The first four bytes of every snapshot.
+   */
+  public static final int MAGIC = 0x4E555053;
+
+  /**
+   * The version of the format this class reads and writes.
+   */
+  public static final int VERSION = 1;
+
+  private static final int HEADER_BYTES = 32;
+  private static final int USER_BYTES = 12;
+  private static final int EVENT_BYTES = 28;
+  private static final Day[] DAYS = Day.values();
+
+  private final ByteBuffer buffer;
+  private final int users;
+  private final int events;
+  private final int strings;
+  private final int attendees;
+  // Where each section starts in the file
+  private final int offsets;
+  private final int text;
+  private final int userTable;
+  private final int schedules;
+  private final int eventTable;
+  private final int attendeeTable;
+  private final String[] decoded;
+  private boolean verified;
+
+  /**
+   * Constructs a view of the snapshot in the given buffer, whose header has been checked.
+   *
+   * @param buffer the whole file
+   */
+  private PlannerSnapshot(ByteBuffer buffer) {
+    this.buffer = buffer;
+    this.users = buffer.getInt(8);
+    this.events = buffer.getInt(12);
+    this.strings = buffer.getInt(16);
+    this.attendees = buffer.getInt(20);
+    this.offsets = HEADER_BYTES;
+    this.text = this.offsets + 4 * (this.strings + 1);
+    this.userTable = this.text + pad(buffer.getInt(this.offsets + 4 * this.strings));
+    this.schedules = this.userTable + USER_BYTES * this.users;
+    int scheduled = this.users == 0 ? 0
+            : buffer.getInt(this.userTable + USER_BYTES * (this.users - 1) + 4)
+            + buffer.getInt(this.userTable + USER_BYTES * (this.users - 1) + 8);
+    this.eventTable = this.schedules + 4 * scheduled;
+    this.attendeeTable = this.eventTable + EVENT_BYTES * this.events;
+    this.decoded = new String[this.strings];
+  }
+
+  /**
+   * Writes a snapshot of every user in the given planner to the file at the given path,
+   * replacing the file at once so the old snapshot is never left half written.
+   *
+   * @param model the planner
+   * @param file  the path of the file
+   * @throws IOException if the file cannot be written
+   */
+  public static void write(ReadOnlyPlannerModel model, Path file) throws IOException {
+    write(encode(model), file);
+  }
+
+  /**
+   * Encodes a snapshot of every user in the given planner in memory, so the planner may go on
+   * changing while the snapshot is written.
+   *
+   * @param model the planner
+   * @return the sections of the file, in order
+   */
+  static ByteBuffer[] encode(ReadOnlyPlannerModel model) {
+    List<IUser> database = model.getListOfUser();
+    Map<IUser, Integer> userIndex = new IdentityHashMap<>();
+    for (IUser user : database) {
+      userIndex.put(user, userIndex.size());
+    }
+    Map<String, Integer> stringIndex = new LinkedHashMap<>();
+    Map<IEvent, Integer> eventIndex = new IdentityHashMap<>();
+    List<IEvent> events = new ArrayList<>();
+    int scheduled = 0;
+    int attendees = 0;
+    for (IUser user : database) {
+      stringIndex.putIfAbsent(user.toString(), stringIndex.size());
+      for (IEvent event : user.observeSchedule()) {
+        scheduled++;
+        if (eventIndex.putIfAbsent(event, events.size()) == null) {
+          events.add(event);
+          stringIndex.putIfAbsent(event.observeName(), stringIndex.size());
+          stringIndex.putIfAbsent(event.observeLocation(), stringIndex.size());
+          attendees += event.observeInvitedUsers().size();
+        }
+      }
+    }
+
+    // The dictionary of strings
+    List<byte[]> encoded = new ArrayList<>();
+    int length = 0;
+    for (String string : stringIndex.keySet()) {
+      byte[] bytes = string.getBytes(StandardCharsets.UTF_8);
+      encoded.add(bytes);
+      length += bytes.length;
+    }
+    ByteBuffer dictionary = ByteBuffer.allocate(4 * (encoded.size() + 1) + pad(length));
+    int offset = 0;
+    for (byte[] bytes : encoded) {
+      dictionary.putInt(offset);
+      offset += bytes.length;
+    }
+    dictionary.putInt(offset);
+    for (byte[] bytes : encoded) {
+      dictionary.put(bytes);
+    }
+
+    // The users and their schedules
+    ByteBuffer table = ByteBuffer.allocate(USER_BYTES * database.size() + 4 * scheduled);
+    int first = 0;
+    for (IUser user : database) {
+      table.putInt(stringIndex.get(user.toString()));
+      table.putInt(first);
+      table.putInt(user.observeSchedule().size());
+      first += user.observeSchedule().size();
+    }
+    for (IUser user : database) {
+      for (IEvent event : user.observeSchedule()) {
+        table.putInt(eventIndex.get(event));
+      }
+    }
+
+    // The events and their attendees
+    ByteBuffer records = ByteBuffer.allocate(EVENT_BYTES * events.size() + 4 * attendees);
+    first = 0;
+    for (IEvent event : events) {
+      records.putInt(stringIndex.get(event.observeName()));
+      records.putInt(stringIndex.get(event.observeLocation()));
+      records.put((byte) (event.observeOnline() ? 1 : 0));
+      records.put((byte) event.observeStartDayOfEvent().ordinal());
+      records.put((byte) event.observeEndDayOfEvent().ordinal());
+      records.put((byte) 0);
+      records.putShort((short) event.observeStartTimeOfEvent());
+      records.putShort((short) event.observeEndTimeOfEvent());
+      records.putInt(first);
+      records.putInt(event.observeInvitedUsers().size());
+      records.putInt(indexOf(userIndex, event.observeHost()));
+      first += event.observeInvitedUsers().size();
+    }
+    for (IEvent event : events) {
+      for (IUser attendee : event.observeInvitedUsers()) {
+        int index = indexOf(userIndex, attendee);
+        if (index < 0) {
+          throw new IllegalArgumentException("Invitee " + attendee + " is not in the planner");
+        }
+        records.putInt(index);
+      }
+    }
+
+    // Every section was allocated at its exact size, padding included
+    ByteBuffer[] body = {dictionary.rewind(), table.rewind(), records.rewind()};
+    CRC32 crc = new CRC32();
+    for (ByteBuffer section : body) {
+      crc.update(section.duplicate());
+    }
+    ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES);
+    header.putInt(MAGIC).putInt(VERSION).putInt(database.size()).putInt(events.size())
+            .putInt(encoded.size()).putInt(attendees).putLong(crc.getValue()).flip();
+    return new ByteBuffer[] {header, body[0], body[1], body[2]};
+  }
+
+  /**
+   * Writes an encoded snapshot to the file at the given path, replacing the file at once.
+   *
+   * @param sections the sections of the file, in order
+   * @param file     the path of the file
+   * @throws IOException if the file cannot be written
+   */
+  static void write(ByteBuffer[] sections, Path file) throws IOException {
+    ByteBuffer[] all = new ByteBuffer[sections.length];
+    long remaining = 0;
+    for (int i = 0; i < sections.length; i++) {
+      all[i] = sections[i].duplicate();
+      remaining += all[i].remaining();
+    }
+    Path temporary = XmlScheduleWriter.createTemporary(file);
+    try {
+      try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.WRITE,
+              StandardOpenOption.TRUNCATE_EXISTING)) {
+        while (remaining > 0) {
+          remaining -= channel.write(all);
+        }
+        channel.force(false);
+      }
+      try {
+        Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING,
+                StandardCopyOption.ATOMIC_MOVE);
+      } catch (AtomicMoveNotSupportedException e) {
+        Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING);
+      }
+    } finally {
+      Files.deleteIfExists(temporary);
+    }
+  }
+
+  /**
+   * Opens the snapshot at the given path by mapping it into memory and checking its header
+   * and the sizes of its sections. Nothing else is decoded or checked until it is asked for.
+   *
+   * @param file the path of the file
+   * @return the snapshot
+   * @throws IOException              if the file cannot be read
+   * @throws IllegalArgumentException if the file is not a snapshot of this version or its
+   *                                  sections do not fit it
+   */
+  public static PlannerSnapshot open(Path file) throws IOException {
+    MappedByteBuffer buffer;
+    try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+      if (channel.size() < HEADER_BYTES || channel.size() > Integer.MAX_VALUE) {
+        throw new IllegalArgumentException("Not a planner snapshot");
+      }
+      buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+    }
+    if (buffer.getInt(0) != MAGIC) {
+      throw new IllegalArgumentException("Not a planner snapshot");
+    }
+    if (buffer.getInt(4) != VERSION) {
+      throw new IllegalArgumentException("Unsupported snapshot version " + buffer.getInt(4));
+    }
+    PlannerSnapshot snapshot;
+    try {
+      snapshot = new PlannerSnapshot(buffer);
+    } catch (IndexOutOfBoundsException e) {
+      throw new IllegalArgumentException("Snapshot is damaged");
+    }
+    if (snapshot.attendeeTable + 4L * snapshot.attendees != buffer.capacity()) {
+      throw new IllegalArgumentException("Snapshot is damaged");
+    }
+    return snapshot;
+  }
+
+  /**
+   * Checks the checksum of the snapshot, which is only done once. It is checked before the
+   * first schedule is decoded, so this only needs calling to find a damaged snapshot sooner.
+   *
+   * @throws IllegalArgumentException if the snapshot is damaged
+   */
+  public synchronized void verify() {
+    if (this.verified) {
+      return;
+    }
+    CRC32 crc = new CRC32();
+    crc.update(this.buffer.duplicate().position(HEADER_BYTES));
+    if (crc.getValue() != this.buffer.getLong(24)) {
+      throw new IllegalArgumentException("Snapshot is damaged");
+    }
+    this.verified = true;
+  }
+
+  /**
+   * Observes the number of users in the snapshot.
+   *
+   * @return the number of users
+   */
+  public int observeUserCount() {
+    return this.users;
+  }
+
+  /**
+   * Observes the number of distinct events in the snapshot.
+   *
+   * @return the number of events
+   */
+  public int observeEventCount() {
+    return this.events;
+  }
+
+  /**
+   * Observes the username of the user at the given index, without decoding any schedule.
+   *
+   * @param user the index of the user
+   * @return the username
+   * @throws IllegalArgumentException if there is no user at the index
+   */
+  public synchronized String observeUserName(int user) {
+    if (user < 0 || user >= this.users) {
+      throw new IllegalArgumentException("No user at index " + user);
+    }
+    return this.string(this.buffer.getInt(this.userTable + USER_BYTES * user));
+  }
+
+  /**
+   * Reads the snapshot back as a planner of lazy users, decoding only the usernames. Each
+   * schedule is decoded the first time it is used, and events shared by several users in the
+   * planner that was saved are shared by the same users in the new one. The mapped file is
+   * kept for as long as the planner is.
+   *
+   * @return the planner
+   * @throws IllegalArgumentException if a username cannot be found in the snapshot
+   */
+  public synchronized NuPlanner toPlanner() {
+    List<IUser> database = new ArrayList<>(this.users);
+    Map<String, Integer> indices = new HashMap<>();
+    Loader loader = new Loader(database, indices);
+    try {
+      for (int user = 0; user < this.users; user++) {
+        String name = this.observeUserName(user);
+        indices.putIfAbsent(name, user);
+        database.add(new LazyUser(name, loader));
+      }
+    } catch (IndexOutOfBoundsException e) {
+      throw new IllegalArgumentException("Snapshot is damaged");
+    }
+    return new NuPlanner(database);
+  }
+
+  /**
+   * Decodes the schedule of the user at the given index.
+   *
+   * @param user     the index of the user
+   * @param database the users of the planner read back, in the order of the snapshot
+   * @param built    the events decoded so far, by their index
+   * @param indices  the index of each event decoded so far
+   * @return the events in the order of the schedule
+   */
+  private List<IEvent> decodeSchedule(int user, List<IUser> database, IEvent[] built,
+                                      Map<IEvent, Integer> indices) {
+    int record = this.userTable + USER_BYTES * user;
+    int first = this.buffer.getInt(record + 4);
+    int count = this.buffer.getInt(record + 8);
+    List<IEvent> schedule = new ArrayList<>(count);
+    for (int i = 0; i < count; i++) {
+      int event = this.buffer.getInt(this.schedules + 4 * (first + i));
+      if (built[event] == null) {
+        built[event] = this.decodeEvent(event, database);
+        indices.put(built[event], event);
+      }
+      schedule.add(built[event]);
+    }
+    return schedule;
+  }
+
+  /**
+   * Decodes the event at the given index.
+   *
+   * @param event    the index of the event
+   * @param database the users of the planner being built, in the order of the snapshot
+   * @return the event
+   */
+  private Event decodeEvent(int event, List<IUser> database) {
+    int record = this.eventTable + EVENT_BYTES * event;
+    int first = this.buffer.getInt(record + 16);
+    int count = this.buffer.getInt(record + 20);
+    int host = this.buffer.getInt(record + 24);
+    List<IUser> invitees = new ArrayList<>(count);
+    for (int i = 0; i < count; i++) {
+      invitees.add(database.get(this.buffer.getInt(this.attendeeTable + 4 * (first + i))));
+    }
+    // The invitees are lazy, so the host is given rather than set, which would load them
+    return new Event(this.string(this.buffer.getInt(record)),
+            this.string(this.buffer.getInt(record + 4)), this.buffer.get(record + 8) != 0,
+            DAYS[this.buffer.get(record + 9)], this.buffer.getShort(record + 12),
+            DAYS[this.buffer.get(record + 10)], this.buffer.getShort(record + 14), invitees,
+            host >= 0 ? database.get(host) : null);
+  }
+
+  /**
+   * Decodes the string at the given index of the dictionary, or finds it if it has been
+   * decoded before.
+   *
+   * @param index the index of the string
+   * @return the string
+   */
+  private String string(int index) {
+    String string = this.decoded[index];
+    if (string == null) {
+      int from = this.buffer.getInt(this.offsets + 4 * index);
+      int to = this.buffer.getInt(this.offsets + 4 * (index + 1));
+      byte[] bytes = new byte[to - from];
+      this.buffer.get(this.text + from, bytes);
+      string = new String(bytes, StandardCharsets.UTF_8);
+      this.decoded[index] = string;
+    }
+    return string;
+  }
+
+  /**
+   * The Loader of the lazy users of a planner read back from this snapshot. Loads are made one
+   * at a time, since they share the events decoded so far and the strings of the snapshot.
+   */
+  private final class Loader implements LazyUser.Loader {
+    private final List<IUser> database;
+    private final Map<String, Integer> users;
+    private final IEvent[] built;
+    private final Map<IEvent, Integer> indices;
+
+    private Loader(List<IUser> database, Map<String, Integer> users) {
+      this.database = database;
+      this.users = users;
+      this.built = new IEvent[PlannerSnapshot.this.events];
+      this.indices = new IdentityHashMap<>();
+    }
+
+    /**
+     * The schedule was valid and in order when it was saved, so LazyUser does not check it
+     * again.
+     */
+    @Override
+    public List<IEvent> load(String user) throws IOException {
+      synchronized (PlannerSnapshot.this) {
+        Integer index = this.users.get(user);
+        if (index == null) {
+          return new ArrayList<>();
+        }
+        try {
+          verify();
+          return decodeSchedule(index, this.database, this.built, this.indices);
+        } catch (IllegalArgumentException | IndexOutOfBoundsException e) {
+          throw new IOException("Snapshot is damaged", e);
+        }
+      }
+    }
+
+    @Override
+    public void release(IEvent event) {
+      synchronized (PlannerSnapshot.this) {
+        Integer index = this.indices.remove(event);
+        if (index != null) {
+          this.built[index] = null;
+        }
+      }
+    }
+  }
+
+  /**
+   * Finds the index of the given user in the planner being saved.
+   *
+   * @param userIndex the index of every user
+   * @param user      a User
+   * @return the index, or -1 if the user is not in the planner
+   */
+  private static int indexOf(Map<IUser, Integer> userIndex, IUser user) {
+    Integer index = user == null ? null : userIndex.get(user);
+    return index == null ? -1 : index;
+  }
+
+  /**
+   * Rounds the given length up to a multiple of four bytes.
+   *
+   * @param length a length in bytes
+   * @return the padded length
+   */
+  private static int pad(int length) {
+    return (length + 3) & ~3;
+  }
+}
@@ -0,0 +1,163 @@
+package model;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+import java.util.zip.ZipOutputStream;
+
+/**
+ * A ScheduleArchive holds the schedule of every user in a single zip file, one compressed
+ * schedule file to each entry, so the whole planner can be shared or backed up as one file
+ * that is much smaller than the schedule files it holds.
+ *
+ * <p>Writing an archive streams each schedule straight from the planner into its entry,
+ * without any temporary file. Reading one is a pipeline: the thread that reads the archive
+ * only inflates each entry, handing it to a pool of threads that parse the entries while the
+ * next ones are inflated, with no more than a few entries for each parsing thread waiting at
+ * once. The schedules that were read are then added to the planner as an import of a
+ * directory would add them, and an entry that cannot be parsed or added is recorded in the
+ * TransferReport under its name rather than stopping the others.</p>
+ */
+public final class ScheduleArchive {
+
+  // The entries that may wait to be parsed for each parsing thread
+  private static final int ENTRIES_PER_PARSER = 4;
+
+  private ScheduleArchive() {
+  }
+
+  /**
+   * Writes the schedule of each of the given users to a new archive at the given path,
+   * replacing any file there.
+   *
+   * @param users the users
+   * @param file  the path of the archive
+   * @return the report of the schedules that were written
+   * @throws IOException if the archive cannot be written
+   */
+  public static TransferReport write(List<IUser> users, Path file) throws IOException {
+    try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(file), 1 << 16)) {
+      return write(users, out);
+    }
+  }
+
+  /**
+   * Writes the schedule of each of the given users as an archive to the given stream, which
+   * is left open. Each entry is named after the user, with characters that cannot be in a
+   * file name replaced, and the user is named in full in the schedule itself.
+   *
+   * @param users the users
+   * @param out   the stream
+   * @return the report of the schedules that were written
+   * @throws IOException if the archive cannot be written
+   */
+  public static TransferReport write(List<IUser> users, OutputStream out) throws IOException {
+    TransferReport report = new TransferReport();
+    ZipOutputStream zip = new ZipOutputStream(out);
+    Set<String> names = new HashSet<>();
+    for (IUser user : users) {
+      String name = user.toString().replaceAll("[/\\\\:*?\"<>|]", "_");
+      String entry = name + ".xml";
+      for (int copy = 2; !names.add(entry); copy++) {
+        entry = name + "-" + copy + ".xml";
+      }
+      zip.putNextEntry(new ZipEntry(entry));
+      XmlScheduleWriter.write(user, zip);
+      zip.closeEntry();
+      report.recordSuccess(user.observeSchedule().size());
+    }
+    zip.finish();
+    return report;
+  }
+
+  /**
+   * Adds every schedule in the archive at the given path to the given planner, parsing with
+   * one thread for each processor.
+   *
+   * @param model the planner the schedules are added to
+   * @param file  the path of the archive
+   * @return the report of the import
+   * @throws IOException if the archive cannot be read
+   */
+  public static TransferReport read(PlannerModel model, Path file) throws IOException {
+    try (InputStream in = new BufferedInputStream(Files.newInputStream(file), 1 << 16)) {
+      return read(model, in, Runtime.getRuntime().availableProcessors());
+    }
+  }
+
+  /**
+   * Adds every schedule in the archive read from the given stream, which is left open, to
+   * the given planner, in the order of the entries.
+   *
+   * @param model   the planner the schedules are added to
+   * @param in      the stream
+   * @param parsers the number of threads that parse entries
+   * @return the report of the import
+   * @throws IOException              if the archive cannot be read
+   * @throws IllegalArgumentException if the number of threads is not positive
+   */
+  public static TransferReport read(PlannerModel model, InputStream in, int parsers)
+          throws IOException {
+    if (parsers < 1) {
+      throw new IllegalArgumentException("Number of threads must be positive");
+    }
+    TransferReport report = new TransferReport();
+    Map<String, Future<ScheduleRecord>> reads = new LinkedHashMap<>();
+    Semaphore waiting = new Semaphore(parsers * ENTRIES_PER_PARSER);
+    ExecutorService pool = Executors.newFixedThreadPool(parsers, task -> {
+      Thread thread = new Thread(task, "archive-parse");
+      thread.setDaemon(true);
+      return thread;
+    });
+    try {
+      ZipInputStream zip = new ZipInputStream(in);
+      for (ZipEntry entry = zip.getNextEntry(); entry != null; entry = zip.getNextEntry()) {
+        if (entry.isDirectory()) {
+          continue;
+        }
+        byte[] inflated = zip.readAllBytes();
+        waiting.acquire();
+        reads.put(entry.getName(), pool.submit(() -> {
+          try {
+            return XmlScheduleReader.read(new ByteArrayInputStream(inflated));
+          } finally {
+            waiting.release();
+          }
+        }));
+      }
+
+      Map<String, ScheduleRecord> parsed = new LinkedHashMap<>();
+      for (Map.Entry<String, Future<ScheduleRecord>> read : reads.entrySet()) {
+        try {
+          parsed.put(read.getKey(), read.getValue().get());
+        } catch (ExecutionException e) {
+          report.recordFailure(read.getKey(), BulkImporter.describe(e.getCause()));
+        }
+      }
+      BulkImporter.merge(model, parsed, report);
+      return report;
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IllegalStateException("Import was interrupted");
+    } finally {
+      pool.shutdownNow();
+    }
+  }
+}
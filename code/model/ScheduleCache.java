@@ -0,0 +1,234 @@
+package model;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A ScheduleCache keeps the schedules of a planner loaded lazily from a repository within a
+ * memory budget. Each schedule is loaded the first time it is used, and when the loaded
+ * schedules take more than the budget the ones used least recently are unloaded, after
+ * writing back any changes to them, until they fit again. A schedule that was unloaded is
+ * loaded again the next time it is used.
+ *
+ * <p>The memory a schedule takes is estimated from its events, counting each event once for
+ * every schedule it is on, and is estimated again whenever the schedule changes. The schedule
+ * being used is never unloaded, so it is kept even if it alone is over the budget.</p>
+ *
+ * <p>If writing back fails the schedules are kept loaded, and the error is left for the next
+ * time the planner is saved to the repository.</p>
+ *
+ * <p>Schedules may be used from several threads at once, as the AvailabilityEngine does for a
+ * large meeting, so the cache is kept under its own lock. Only the thread that opened the
+ * cache unloads schedules; a use from any other thread is recorded, and the schedules it
+ * loaded are unloaded the next time the opening thread uses a schedule. That way a schedule
+ * is never unloaded while another thread is in the middle of reading it.</p>
+ */
+public final class ScheduleCache {
+
+  // An estimate of the memory taken by an event apart from its text and its invitees
+  private static final long EVENT_BYTES = 96;
+  private static final long STRING_BYTES = 40;
+  private static final long REFERENCE_BYTES = 8;
+
+  private final PlannerRepository repository;
+  private final long budget;
+  // The loaded schedules by username, the one used least recently first
+  private final Map<String, Entry> entries;
+  private NuPlanner planner;
+  // The thread that opened the cache, the only one that unloads schedules
+  private Thread owner;
+  private long bytes;
+  private long hits;
+  private long misses;
+  private long evictions;
+  private boolean evicting;
+
+  /**
+   * The loaded schedule of a user and the memory it was estimated to take at a version.
+   */
+  private static final class Entry {
+    private final LazyUser user;
+    private long version = -1;
+    private long bytes;
+
+    private Entry(LazyUser user) {
+      this.user = user;
+    }
+  }
+
+  /**
+   * Constructs a cache of the schedules in the given repository.
+   *
+   * @param repository the repository
+   * @param budget     the memory the loaded schedules may take, in bytes
+   * @throws IllegalArgumentException if the budget is not positive
+   */
+  public ScheduleCache(PlannerRepository repository, long budget) {
+    if (budget <= 0) {
+      throw new IllegalArgumentException("Memory budget must be positive");
+    }
+    this.repository = repository;
+    this.budget = budget;
+    this.entries = new LinkedHashMap<>(16, 0.75f, true);
+  }
+
+  /**
+   * Loads every username from the repository as a planner whose schedules are kept in this
+   * cache. Saving the planner to the repository saves the loaded schedules that changed.
+   *
+   * @return the planner
+   * @throws IOException           if the repository cannot be read
+   * @throws IllegalStateException if the cache was already opened
+   */
+  public synchronized NuPlanner open() throws IOException {
+    if (this.planner != null) {
+      throw new IllegalStateException("The cache is already open");
+    }
+    NuPlanner lazy = this.repository.loadLazily();
+    for (IUser user : lazy.getListOfUser()) {
+      if (user instanceof LazyUser) {
+        ((LazyUser) user).cacheIn(this);
+      }
+    }
+    this.planner = lazy;
+    this.owner = Thread.currentThread();
+    return lazy;
+  }
+
+  /**
+   * Records that the schedule of the given user was used, and unloads the schedules used
+   * least recently if the loaded schedules no longer fit in the budget and this is the thread
+   * that opened the cache.
+   *
+   * @param user   the user
+   * @param loaded whether the schedule had to be loaded to be used
+   */
+  synchronized void used(LazyUser user, boolean loaded) {
+    if (this.evicting) {
+      // Writing back looks at the schedules it writes, which is not a use
+      return;
+    }
+    if (loaded) {
+      this.misses++;
+    } else {
+      this.hits++;
+    }
+    Entry entry = this.entries.get(user.toString());
+    if (entry == null) {
+      entry = new Entry(user);
+      this.entries.put(user.toString(), entry);
+    }
+    if (entry.version != user.observeVersion()) {
+      this.bytes -= entry.bytes;
+      entry.bytes = estimate(user.observeLoaded());
+      entry.version = user.observeVersion();
+      this.bytes += entry.bytes;
+    }
+    if (this.bytes > this.budget && Thread.currentThread() == this.owner) {
+      this.evictFor(user);
+    }
+  }
+
+  /**
+   * Unloads the schedules used least recently, apart from the given user's, until the rest
+   * fit in the budget, writing back the ones that changed first in one save. It is only
+   * called with the lock of the cache held, by the thread that opened it.
+   *
+   * @param keep the user whose schedule is being used
+   */
+  private void evictFor(LazyUser keep) {
+    List<Entry> victims = new ArrayList<>();
+    List<IUser> changed = new ArrayList<>();
+    long freed = 0;
+    for (Entry entry : this.entries.values()) {
+      if (this.bytes - freed <= this.budget) {
+        break;
+      }
+      if (entry.user != keep) {
+        victims.add(entry);
+        freed += entry.bytes;
+        if (!this.planner.isSaved(entry.user, this.repository)) {
+          changed.add(entry.user);
+        }
+      }
+    }
+    this.evicting = true;
+    try {
+      if (!changed.isEmpty()) {
+        this.repository.save(changed);
+        this.planner.markSaved(changed, this.repository);
+      }
+      for (Entry victim : victims) {
+        victim.user.unload();
+        this.entries.remove(victim.user.toString());
+        this.bytes -= victim.bytes;
+        this.evictions++;
+      }
+    } catch (IOException e) {
+      // The changes are kept loaded until they can be saved
+    } finally {
+      this.evicting = false;
+    }
+  }
+
+  /**
+   * Estimates the memory taken by the events of a schedule.
+   *
+   * @param schedule the schedule
+   * @return the estimate in bytes
+   */
+  private static long estimate(List<IEvent> schedule) {
+    long total = 0;
+    for (IEvent event : schedule) {
+      total += EVENT_BYTES + REFERENCE_BYTES + 2 * STRING_BYTES
+              + 2L * (event.observeName().length() + event.observeLocation().length())
+              + REFERENCE_BYTES * event.observeInvitedUsers().size();
+    }
+    return total;
+  }
+
+  /**
+   * Observes the number of times a loaded schedule was used.
+   *
+   * @return the number of hits
+   */
+  public synchronized long observeHits() {
+    return this.hits;
+  }
+
+  /**
+   * Observes the number of times a schedule had to be loaded to be used.
+   *
+   * @return the number of misses
+   */
+  public synchronized long observeMisses() {
+    return this.misses;
+  }
+
+  /**
+   * Observes the number of times a schedule was unloaded to stay within the budget.
+   *
+   * @return the number of evictions
+   */
+  public synchronized long observeEvictions() {
+    return this.evictions;
+  }
+
+  /**
+   * Observes the estimated memory taken by the loaded schedules.
+   *
+   * @return the estimate in bytes
+   */
+  public synchronized long observeBytes() {
+    return this.bytes;
+  }
+
+  @Override
+  public synchronized String toString() {
+    return String.format("%d hit(s), %d miss(es), %d eviction(s), %d of %d bytes used",
+            this.hits, this.misses, this.evictions, this.bytes, this.budget);
+  }
+}
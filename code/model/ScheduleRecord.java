@@ -0,0 +1,59 @@
+package model;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * A ScheduleRecord is a schedule exactly as it was read from a schedule file, the username
+ * of its owner and a record of each of its events.
+ */
+public final class ScheduleRecord {
+  private final String owner;
+  private final List<EventRecord> events;
+
+  /**
+   * Constructs a record of a schedule.
+   *
+   * @param owner  the username of the owner of the schedule
+   * @param events the events of the schedule
+   */
+  public ScheduleRecord(String owner, List<EventRecord> events) {
+    this.owner = Objects.requireNonNull(owner);
+    this.events = List.copyOf(events);
+  }
+
+  /**
+   * Observes the username of the owner of the schedule.
+   *
+   * @return the username
+   */
+  public String observeOwner() {
+    return this.owner;
+  }
+
+  /**
+   * Observes the events of the schedule in the order they were read.
+   *
+   * @return the events
+   */
+  public List<EventRecord> observeEvents() {
+    return this.events;
+  }
+
+  /**
+   * Builds the user this record describes with invitees from the given database.
+   *
+   * @param database a List of User
+   * @return a User
+   * @throws IllegalArgumentException if an invitee other than a host does not exist or the
+   *                                  schedule has conflicts
+   */
+  public User toUser(List<IUser> database) {
+    List<IEvent> schedule = new ArrayList<>();
+    for (EventRecord event : this.events) {
+      schedule.add(event.toEvent(database));
+    }
+    return new User(this.owner, schedule);
+  }
+}
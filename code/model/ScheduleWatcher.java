@@ -0,0 +1,389 @@
+package model;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeSet;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import javax.xml.stream.XMLStreamException;
+
+/**
+ * A ScheduleWatcher keeps a planner up to date with a directory of schedule files that are
+ * edited outside the planner, reloading each file that changes.
+ *
+ * <p>Changes are gathered until DEBOUNCE_MILLIS pass without another, so a tool that writes a
+ * file in several steps, or many files at once, causes one reload. The files that changed are
+ * then parsed on the thread of the watcher, and the reload is handed to the executor given to
+ * the watcher, such as the event queue of the view, which has to be the thread that changes
+ * the planner. Only the difference between each file and the schedule of its owner is applied:
+ * events missing from the file are removed, events the file holds with the same host and name
+ * but at another time or place are changed in place, and events only the file holds are added
+ * as an import would add them. Listeners are told once about each reload that changed
+ * anything, so the view is refreshed once for a batch of files.</p>
+ *
+ * <p>A file that cannot be read is recorded in the TransferReport of the reload, leaving the
+ * schedule as it was, as is a file whose changes conflict with a schedule, leaving its changes
+ * out, or only its additions if only those conflict. Files that are deleted are ignored, as
+ * are hidden files, such as those the planner writes while saving. Saving the planner to the
+ * directory it watches reloads the files it writes, which changes nothing.</p>
+ */
+public final class ScheduleWatcher implements Closeable {
+
+  /**
+   * The time in milliseconds without changes after which the changed files are reloaded.
+   */
+  public static final long DEBOUNCE_MILLIS = 300;
+
+  /**
+   * A Listener is told about each reload that changed the planner.
+   */
+  public interface Listener {
+
+    /**
+     * Reports that files were reloaded, on the thread that changes the planner.
+     *
+     * @param report the number of events added, removed or changed, and the files that could
+     *               not be reloaded
+     */
+    void reloaded(TransferReport report);
+  }
+
+  /**
+   * The schedule read from a changed file, or why it could not be read.
+   */
+  private static final class Parsed {
+    private final ScheduleRecord schedule;
+    private final String failure;
+
+    private Parsed(ScheduleRecord schedule, String failure) {
+      this.schedule = schedule;
+      this.failure = failure;
+    }
+  }
+
+  private final PlannerModel model;
+  private final Path directory;
+  private final long debounce;
+  private final Executor apply;
+  private final Listener listener;
+  private final WatchService service;
+  private final Thread thread;
+
+  /**
+   * Constructs a watcher of the given directory that reloads files DEBOUNCE_MILLIS after the
+   * last change, and starts watching.
+   *
+   * @param model     the planner
+   * @param directory the directory of schedule files
+   * @param apply     runs the reloads, on the thread that changes the planner
+   * @param listener  told about each reload that changed the planner
+   * @throws IOException if the directory cannot be watched
+   */
+  public ScheduleWatcher(PlannerModel model, Path directory, Executor apply, Listener listener)
+          throws IOException {
+    this(model, directory, DEBOUNCE_MILLIS, apply, listener);
+  }
+
+  /**
+   * Constructs a watcher of the given directory and starts watching.
+   *
+   * @param model          the planner
+   * @param directory      the directory of schedule files
+   * @param debounceMillis the time in milliseconds without changes after which files are
+   *                       reloaded
+   * @param apply          runs the reloads, on the thread that changes the planner
+   * @param listener       told about each reload that changed the planner
+   * @throws IOException              if the directory cannot be watched
+   * @throws IllegalArgumentException if the time is negative
+   */
+  public ScheduleWatcher(PlannerModel model, Path directory, long debounceMillis,
+                         Executor apply, Listener listener) throws IOException {
+    if (debounceMillis < 0) {
+      throw new IllegalArgumentException("Delay cannot be negative");
+    }
+    this.model = Objects.requireNonNull(model);
+    this.directory = directory;
+    this.debounce = debounceMillis;
+    this.apply = Objects.requireNonNull(apply);
+    this.listener = Objects.requireNonNull(listener);
+    this.service = FileSystems.getDefault().newWatchService();
+    try {
+      directory.register(this.service, StandardWatchEventKinds.ENTRY_CREATE,
+              StandardWatchEventKinds.ENTRY_MODIFY);
+    } catch (IOException e) {
+      this.service.close();
+      throw e;
+    }
+    this.thread = new Thread(this::watch, "schedule-watch");
+    this.thread.setDaemon(true);
+    this.thread.start();
+  }
+
+  /**
+   * Waits for changes, gathering them until none come for the debounce time, and reloads
+   * the files that changed, until the watcher is closed.
+   */
+  private void watch() {
+    try {
+      while (true) {
+        TreeSet<String> changed = new TreeSet<>();
+        WatchKey key = this.service.take();
+        while (key != null) {
+          if (this.gather(key, changed)) {
+            // Some changes were lost, so every file is reloaded
+            try (Stream<Path> listing = Files.list(this.directory)) {
+              listing.forEach(file -> changed.add(file.getFileName().toString()));
+            } catch (IOException ignored) {
+              // The directory is gone, so there is nothing to reload
+            }
+          }
+          key = this.service.poll(this.debounce, TimeUnit.MILLISECONDS);
+        }
+        Map<String, Parsed> parsed = this.parse(changed);
+        if (!parsed.isEmpty()) {
+          this.apply.execute(() -> this.reload(parsed));
+        }
+      }
+    } catch (InterruptedException | ClosedWatchServiceException e) {
+      // The watcher was closed
+    }
+  }
+
+  /**
+   * Adds the names of the files changed by the events of a key, and makes the key ready for
+   * more events.
+   *
+   * @param key     the key
+   * @param changed the names of the files changed so far
+   * @return true if some changes were lost
+   */
+  private boolean gather(WatchKey key, TreeSet<String> changed) {
+    boolean overflow = false;
+    for (WatchEvent<?> event : key.pollEvents()) {
+      if (event.kind() == StandardWatchEventKinds.OVERFLOW) {
+        overflow = true;
+      } else {
+        changed.add(event.context().toString());
+      }
+    }
+    key.reset();
+    return overflow;
+  }
+
+  /**
+   * Parses the changed files that are schedules, skipping hidden files and files that are
+   * gone.
+   *
+   * @param changed the names of the changed files
+   * @return the schedule read from each file, or why it could not be read, by path
+   */
+  private Map<String, Parsed> parse(TreeSet<String> changed) {
+    Map<String, Parsed> parsed = new LinkedHashMap<>();
+    for (String name : changed) {
+      Path file = this.directory.resolve(name);
+      if (name.startsWith(".") || !Files.isRegularFile(file)) {
+        continue;
+      }
+      try {
+        parsed.put(file.toString(), new Parsed(XmlScheduleReader.read(file), null));
+      } catch (IOException | XMLStreamException | IllegalArgumentException e) {
+        parsed.put(file.toString(), new Parsed(null, BulkImporter.describe(e)));
+      }
+    }
+    return parsed;
+  }
+
+  /**
+   * Applies the difference between each reloaded file and the planner, telling the listener
+   * if anything changed.
+   *
+   * @param parsed the schedule read from each file, or why it could not be read, by path
+   */
+  private void reload(Map<String, Parsed> parsed) {
+    TransferReport report = new TransferReport();
+    for (Map.Entry<String, Parsed> file : parsed.entrySet()) {
+      if (file.getValue().schedule != null) {
+        apply(this.model, file.getKey(), file.getValue().schedule, report);
+      } else {
+        report.recordFailure(file.getKey(), file.getValue().failure);
+      }
+    }
+    if (report.observeEvents() > 0 || !report.isComplete()) {
+      this.listener.reloaded(report);
+    }
+  }
+
+  /**
+   * Applies the difference between a schedule file and the schedule of its owner, registering
+   * the owner if they do not exist once the file is known to fit. Events are removed first,
+   * then changed and then added, so an event that moved does not conflict with where it was.
+   *
+   * @param model  the planner
+   * @param source the path of the file
+   * @param record the schedule read from the file
+   * @param report the report the number of events added, removed or changed is recorded in
+   */
+  static void apply(PlannerModel model, String source, ScheduleRecord record,
+                    TransferReport report) {
+    String owner = record.observeOwner();
+    IUser user = null;
+    try {
+      user = Utils.findUser(owner, model.getListOfUser());
+    } catch (IllegalArgumentException notFound) {
+      // A new owner is registered by the merge of the additions, and only if they fit
+    }
+
+    // The events the file no longer holds, and the ones only it holds
+    Map<EventRecord, IEvent> removed = new LinkedHashMap<>();
+    if (user != null) {
+      for (IEvent event : user.observeSchedule()) {
+        removed.put(EventRecord.of(event), event);
+      }
+    }
+    List<EventRecord> added = new ArrayList<>();
+    for (EventRecord event : record.observeEvents()) {
+      if (removed.remove(event) == null && !added.contains(event)) {
+        added.add(event);
+      }
+    }
+    if (user != null && removed.isEmpty() && added.isEmpty()) {
+      return;
+    }
+
+    // An event with the host and name of one that was removed is that event, changed
+    Map<IEvent, EventRecord> changed = new IdentityHashMap<>();
+    Map<String, List<IEvent>> byName = new HashMap<>();
+    for (Map.Entry<EventRecord, IEvent> event : removed.entrySet()) {
+      byName.computeIfAbsent(key(event.getKey()), name -> new ArrayList<>())
+              .add(event.getValue());
+    }
+    for (Iterator<EventRecord> events = added.iterator(); events.hasNext(); ) {
+      EventRecord event = events.next();
+      List<IEvent> candidates = byName.get(key(event));
+      if (candidates != null && !candidates.isEmpty()) {
+        changed.put(candidates.remove(0), event);
+        events.remove();
+      }
+    }
+
+    Map<IEvent, Boolean> gone = new IdentityHashMap<>();
+    for (IEvent event : removed.values()) {
+      if (!changed.containsKey(event)) {
+        gone.put(event, event.observeHost().toString().equals(owner));
+      }
+    }
+    try {
+      // Every change is checked before any is applied, so a failure leaves the planner as it was
+      check(model, owner, changed, gone);
+      for (IEvent event : removed.values()) {
+        if (!changed.containsKey(event)) {
+          model.removeEvent(owner, event);
+        }
+      }
+      for (Map.Entry<IEvent, EventRecord> event : changed.entrySet()) {
+        EventRecord to = event.getValue();
+        List<String> users = to.observeUsers();
+        model.modifyEvent(event.getKey(), to.observeName(), to.observePlace(),
+                to.observeOnline(), to.observeStartDay(), to.observeStart(), to.observeEndDay(),
+                to.observeEnd(), users.subList(1, users.size()), users.get(0));
+      }
+    } catch (IllegalArgumentException | IllegalStateException e) {
+      report.recordFailure(source, e.getMessage());
+      return;
+    }
+
+    int events = removed.size();
+    if (user == null || !added.isEmpty()) {
+      TransferReport additions = new TransferReport();
+      BulkImporter.merge(model, Map.of(source, new ScheduleRecord(owner, added)), additions);
+      if (!additions.isComplete()) {
+        report.recordFailure(source, additions.observeFailures().get(source));
+        return;
+      }
+      events += added.size();
+    }
+    report.recordSuccess(events);
+  }
+
+  /**
+   * Finds the key an event is matched with when it changes, which is its host and name.
+   *
+   * @param event the event
+   * @return the key
+   */
+  private static String key(EventRecord event) {
+    return event.observeUsers().get(0) + '\n' + event.observeName();
+  }
+
+  /**
+   * Checks that events can be changed as a file says without leaving any of their new
+   * invitees with conflicts, once the events the file no longer holds are removed. The
+   * changed events are checked together, so two of them moved onto each other conflict.
+   *
+   * @param model   the planner
+   * @param owner   the owner of the file
+   * @param changed the events being changed, with each as the file holds it
+   * @param gone    the events being removed, and whether each is removed from every invitee
+   *                or only from the owner
+   * @throws IllegalArgumentException if a time is not valid, or an invitee does not exist or
+   *                                  would have conflicts
+   */
+  private static void check(PlannerModel model, String owner, Map<IEvent, EventRecord> changed,
+                            Map<IEvent, Boolean> gone) {
+    Map<String, List<IEvent>> moving = new LinkedHashMap<>();
+    for (EventRecord to : changed.values()) {
+      IEvent moved = new Event(to.observeName(), to.observePlace(), to.observeOnline(),
+              to.observeStartDay(), to.observeStart(), to.observeEndDay(), to.observeEnd(),
+              List.of());
+      for (String name : to.observeUsers()) {
+        moving.computeIfAbsent(name, user -> new ArrayList<>()).add(moved);
+      }
+    }
+    for (Map.Entry<String, List<IEvent>> user : moving.entrySet()) {
+      String name = user.getKey();
+      List<IEvent> others = new ArrayList<>();
+      for (IEvent held : Utils.findUser(name, model.getListOfUser()).observeSchedule()) {
+        Boolean everyone = gone.get(held);
+        if (!changed.containsKey(held)
+                && (everyone == null || !everyone && !name.equals(owner))) {
+          others.add(held);
+        }
+      }
+      MergeReport merge = MergeReport.merge(others, user.getValue());
+      if (!merge.observeConflicts().isEmpty() || !merge.observeDuplicates().isEmpty()) {
+        throw new IllegalArgumentException("The schedule of " + name
+                + " would have conflicts");
+      }
+    }
+  }
+
+  /**
+   * Stops watching the directory. A reload that was already handed to the executor still
+   * runs.
+   *
+   * @throws IOException if the watch service cannot be closed
+   */
+  @Override
+  public void close() throws IOException {
+    this.thread.interrupt();
+    this.service.close();
+  }
+}
@@ -1,5 +1,8 @@
 package model;
 
+import java.util.HashMap;
+import java.util.Map;
+
 /**
  * An enum to represent tags in an XML file.
  */
@@ -8,6 +11,14 @@ public enum Tag {
   name("name"), time("time"), startDay("start-day"), start("start"), endDay("end-day"),
   end("end"), location("location"), online("online"), place("place"), users("users"), uid("uid");
 
+  private static final Map<String, Tag> BY_TAG = new HashMap<>();
+
+  static {
+    for (Tag t : values()) {
+      BY_TAG.put(t.tag, t);
+    }
+  }
+
   protected final String tag;
 
   /**
@@ -19,6 +30,16 @@ public enum Tag {
     this.tag = tag;
   }
 
+  /**
+   * Finds the tag written in an XML file as the given element name.
+   *
+   * @param tag the name of an element
+   * @return the Tag, or null if the name is not one of the tags
+   */
+  public static Tag fromTag(String tag) {
+    return BY_TAG.get(tag);
+  }
+
   @Override
   public String toString() {
     return tag;
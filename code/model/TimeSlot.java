@@ -0,0 +1,184 @@
+package model;
+
+import java.util.Objects;
+
+/**
+ * A TimeSlot is a span of time on the weekly calendar that an event could occupy. Unlike an
+ * Event, a slot has no name, location or invitees, which allows strategies to reason about
+ * when an event could take place without creating it and sending out invites.
+ *
+ * <p>Times follow the same conventions as an Event, a start day and time and an end day and
+ * time where the times are between 0 and 2359.</p>
+ */
+public final class TimeSlot {
+
+  /**
+   * The number of minutes in a week.
+   */
+  public static final int MINUTES_IN_WEEK = 7 * 24 * 60;
+
+  private final Day startDay;
+  private final int startTime;
+  private final Day endDay;
+  private final int endTime;
+
+  /**
+   * Constructs a TimeSlot with the given start and end.
+   *
+   * @param startDay  the start day of the slot
+   * @param startTime the start time of the slot
+   * @param endDay    the end day of the slot
+   * @param endTime   the end time of the slot
+   * @throws IllegalArgumentException if the times are not valid times for an Event
+   */
+  public TimeSlot(Day startDay, int startTime, Day endDay, int endTime) {
+    this.startDay = Objects.requireNonNull(startDay);
+    this.endDay = Objects.requireNonNull(endDay);
+    if (startTime < 0 || startTime >= 2400) {
+      throw new IllegalArgumentException("Invalid Start Time");
+    }
+    if (endTime < 0 || endTime >= 2400) {
+      throw new IllegalArgumentException("Invalid End Time");
+    }
+    if (startDay.equals(endDay) && startTime == endTime) {
+      throw new IllegalArgumentException("Invalid Times for a Time Slot");
+    }
+    this.startTime = startTime;
+    this.endTime = endTime;
+  }
+
+  /**
+   * The following methods are observe methods for the fields of this slot.
+   *
+   * @return the given field found in its name.
+   */
+  public Day observeStartDay() {
+    return this.startDay;
+  }
+
+  public int observeStartTime() {
+    return this.startTime;
+  }
+
+  public Day observeEndDay() {
+    return this.endDay;
+  }
+
+  public int observeEndTime() {
+    return this.endTime;
+  }
+
+  /**
+   * Determines whether an event placed in this slot would conflict with the given event. This
+   * follows the same rule a User applies when an event is added to its schedule, so a slot
+   * that is free for every attendee is a slot that the model will accept.
+   *
+   * @param event the event already on a schedule
+   * @return true if the two overlap
+   */
+  public boolean conflictsWith(IEvent event) {
+    int startOfSlot = extendedTime(this.startDay, this.startTime);
+    int endOfSlot = extendedTime(this.endDay, this.endTime);
+    int startOfEvent = extendedTime(event.observeStartDayOfEvent(),
+            event.observeStartTimeOfEvent());
+    int endOfEvent = extendedTime(event.observeEndDayOfEvent(), event.observeEndTimeOfEvent());
+    if (startOfSlot > endOfSlot) {
+      endOfSlot = endOfSlot + 10080;
+    }
+    if (startOfEvent > endOfEvent) {
+      endOfEvent = endOfEvent + 10080;
+    }
+    return (startOfSlot <= startOfEvent && endOfSlot > startOfEvent)
+            || (startOfEvent <= startOfSlot && endOfEvent > startOfSlot)
+            || (startOfSlot == startOfEvent && endOfSlot == endOfEvent);
+  }
+
+  /**
+   * Determines whether the given user has an event on their schedule that conflicts with
+   * this slot.
+   *
+   * @param user the user whose schedule is checked
+   * @return true if the user is busy during this slot
+   */
+  public boolean conflictsWith(IUser user) {
+    for (IEvent e : user.observeSchedule()) {
+      if (this.conflictsWith(e)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /**
+   * Constructs the slot that spans the given minutes of the week, counted from Sunday at 0000.
+   *
+   * @param startMinute the minute of the week the slot starts at
+   * @param endMinute   the minute of the week the slot ends at
+   * @return a TimeSlot
+   * @throws IllegalArgumentException if either minute is not within the week
+   */
+  public static TimeSlot ofMinutes(int startMinute, int endMinute) {
+    if (startMinute < 0 || startMinute >= MINUTES_IN_WEEK
+            || endMinute < 0 || endMinute >= MINUTES_IN_WEEK) {
+      throw new IllegalArgumentException("Minute is not within the week");
+    }
+    return new TimeSlot(Day.values()[startMinute / 1440], timeOfDay(startMinute % 1440),
+            Day.values()[endMinute / 1440], timeOfDay(endMinute % 1440));
+  }
+
+  /**
+   * Converts the given day and time into the number of minutes since Sunday at 0000.
+   *
+   * @param day  a Day
+   * @param time an int
+   * @return the minute of the week
+   */
+  public static int minuteOfWeek(Day day, int time) {
+    return day.ordinal() * 1440 + (time / 100) * 60 + time % 100;
+  }
+
+  /**
+   * Converts a number of minutes since midnight into a time such as 1330.
+   *
+   * @param minutes the minutes since midnight
+   * @return the time
+   */
+  private static int timeOfDay(int minutes) {
+    return (minutes / 60) * 100 + minutes % 60;
+  }
+
+  /**
+   * Converts the day and time into a time from Sunday at 0000, the same extended time
+   * a User uses to order and compare events.
+   *
+   * @param day  a Day
+   * @param time an int
+   * @return the extended time
+   */
+  private static int extendedTime(Day day, int time) {
+    return day.ordinal() * 2400 + time;
+  }
+
+  @Override
+  public String toString() {
+    return this.startDay.toString() + String.format(": %d -> ", this.startTime)
+            + this.endDay.toString() + String.format(": %d", this.endTime);
+  }
+
+  @Override
+  public boolean equals(Object o) {
+    if (!(o instanceof TimeSlot)) {
+      return false;
+    }
+    TimeSlot other = (TimeSlot) o;
+    return this.startDay.equals(other.startDay)
+            && this.startTime == other.startTime
+            && this.endDay.equals(other.endDay)
+            && this.endTime == other.endTime;
+  }
+
+  @Override
+  public int hashCode() {
+    return Objects.hash(this.startDay, this.startTime, this.endDay, this.endTime);
+  }
+}
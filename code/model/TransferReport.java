@@ -0,0 +1,97 @@
+package model;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * A TransferReport is the outcome of moving many schedule files into or out of the planner at
+ * once. It counts the schedules and events that were transferred and keeps the reason each
+ * file that could not be transferred failed, so one bad file is reported instead of stopping
+ * the rest.
+ *
+ * <p>Files may be recorded from several threads at once.</p>
+ */
+public final class TransferReport {
+  private int schedules;
+  private int events;
+  private final Map<String, String> failures;
+
+  /**
+   * Constructs an empty report.
+   */
+  TransferReport() {
+    this.failures = new LinkedHashMap<>();
+  }
+
+  /**
+   * Records a schedule that was transferred.
+   *
+   * @param events the number of events in the schedule
+   */
+  synchronized void recordSuccess(int events) {
+    this.schedules++;
+    this.events += events;
+  }
+
+  /**
+   * Records a file that could not be transferred. Only the first reason given for a file is
+   * kept.
+   *
+   * @param file   the name of the file
+   * @param reason why the file failed
+   */
+  synchronized void recordFailure(String file, String reason) {
+    this.failures.putIfAbsent(file, reason == null ? "Unknown error" : reason);
+  }
+
+  /**
+   * Observes the number of schedules that were transferred.
+   *
+   * @return the number of schedules
+   */
+  public synchronized int observeSchedules() {
+    return this.schedules;
+  }
+
+  /**
+   * Observes the number of events in the schedules that were transferred.
+   *
+   * @return the number of events
+   */
+  public synchronized int observeEvents() {
+    return this.events;
+  }
+
+  /**
+   * Observes the files that could not be transferred and why, in the order they failed.
+   *
+   * @return the reason each file failed by the name of the file
+   */
+  public synchronized Map<String, String> observeFailures() {
+    return Collections.unmodifiableMap(new LinkedHashMap<>(this.failures));
+  }
+
+  /**
+   * Determines whether every file was transferred.
+   *
+   * @return true if no file failed
+   */
+  public synchronized boolean isComplete() {
+    return this.failures.isEmpty();
+  }
+
+  @Override
+  public synchronized String toString() {
+    StringBuilder output = new StringBuilder();
+    output.append(String.format("%d schedule(s) with %d event(s) transferred",
+            this.schedules, this.events));
+    if (!this.failures.isEmpty()) {
+      output.append(String.format(", %d file(s) failed:", this.failures.size()));
+      for (Map.Entry<String, String> failure : this.failures.entrySet()) {
+        output.append("\n  ").append(failure.getKey()).append(": ").append(failure.getValue());
+      }
+    }
+    return output.toString();
+  }
+}
@@ -13,6 +13,7 @@ import java.util.Objects;
 public class User implements IUser {
   private String uid;
   private List<IEvent> schedule;
+  private long version;
 
   /**
    * This is the constructor for a user which takes in a uid and a list of events
@@ -126,11 +127,24 @@ public class User implements IUser {
     if (!conflict(copy)) {
       this.schedule.add(e);
       this.sortEvents();
+      this.version++;
     } else {
       throw new IllegalArgumentException("Event conflicts with schedule");
     }
   }
 
+  @Override
+  public MergeReport addEvents(List<IEvent> events) {
+    MergeReport report = MergeReport.merge(this.schedule, events);
+    if (!report.observeAdded().isEmpty()) {
+      // Changed in place, since callers may hold the list observeSchedule returned
+      this.schedule.clear();
+      this.schedule.addAll(report.observeMerged());
+      this.version++;
+    }
+    return report;
+  }
+
   /**
    * This finds and returns a list of events on a given day.
    *
@@ -159,10 +173,31 @@ public class User implements IUser {
 
   public void setSchedule(List<IEvent> schedule) {
     this.schedule = schedule;
+    this.version++;
+  }
+
+  @Override
+  public void removeEvent(IEvent e) {
+    if (this.schedule.remove(e)) {
+      this.version++;
+    }
+  }
+
+  @Override
+  public void markChanged() {
+    this.version++;
+  }
+
+  @Override
+  public long observeVersion() {
+    return this.version;
   }
 
   @Override
   public boolean equals(Object o) {
+    if (!(o instanceof User)) {
+      return false;
+    }
     User u = (User) o;
     boolean sameSchedule = true;
     if (this.schedule.size() == u.schedule.size()) {
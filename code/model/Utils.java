@@ -8,16 +8,14 @@ import org.xml.sax.SAXException;
 
 import java.io.File;
 import java.io.IOException;
+import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.List;
 
 import javax.xml.parsers.DocumentBuilder;
 import javax.xml.parsers.DocumentBuilderFactory;
 import javax.xml.parsers.ParserConfigurationException;
-import javax.xml.transform.Transformer;
-import javax.xml.transform.TransformerFactory;
-import javax.xml.transform.dom.DOMSource;
-import javax.xml.transform.stream.StreamResult;
+import javax.xml.stream.XMLStreamException;
 
 /**
  * A utilities class that allows writing to a XML file and reading from an XML file.
@@ -26,111 +24,89 @@ public final class Utils {
 
   /**
    * Writes the schedule of the given user to an XML file and saves it within the project folder.
+   * The file is streamed out by the XmlScheduleWriter and replaces any old file at once, so
+   * the old file is never left half written.
    *
    * @param user a User
    */
   public static void writeToFile(IUser user, String path) {
     try {
-      DocumentBuilder builder = DocumentBuilderFactory.newInstance().newDocumentBuilder();
-      Document schedule = builder.newDocument();
-      Element scheduleID = schedule.createElement("schedule");
-      scheduleID.setAttribute("id", user.toString());
-
-      // Traverses events in the user's schedule.
-      for (IEvent e : user.observeSchedule()) {
-        writeEvent(schedule, scheduleID, e);
+      File directory = new File(path);
+      if (!directory.exists()) {
+        directory.mkdirs(); // create directories if they don't exist
       }
-      schedule.appendChild(scheduleID);
-      saveDomToFile(schedule, path, user.toString());
-    } catch (Exception e) {
+      File file = path.equals("") ? new File(user.toString()) : new File(path, user.toString());
+      XmlScheduleWriter.writeAtomically(user, file.toPath());
+    } catch (IOException e) {
       throw new RuntimeException(e);
     }
   }
 
   /**
-   * Structures the events of the XML file.
+   * Writes the schedules of the given users to an iCalendar file at the given path, which
+   * calendar programs can open. Events are streamed out by the IcsScheduleWriter, each one
+   * once however many of the users have it.
    *
-   * @param schedule   a Document
-   * @param scheduleID an Element
-   * @param e          an Event
+   * @param users a List of User
+   * @param path  the path of the calendar file
+   * @return the number of events written
    */
-  private static void writeEvent(Document schedule, Element scheduleID, IEvent e) {
-    Element event = schedule.createElement("event");
-    Element name = schedule.createElement("name");
-    name.appendChild(schedule.createTextNode(e.observeName()));
-    event.appendChild(name);
-
-    // Structures time section of event
-    Element time = schedule.createElement("time");
-    Element startDay = schedule.createElement("start-day");
-    startDay.appendChild(schedule.createTextNode(e.observeStartDayOfEvent().toString()));
-    Element start = schedule.createElement("start");
-    start.appendChild(schedule.createTextNode(String.format("%d", e.observeStartTimeOfEvent())));
-    Element endDay = schedule.createElement("end-day");
-    endDay.appendChild(schedule.createTextNode(e.observeEndDayOfEvent().toString()));
-    Element end = schedule.createElement("end");
-    end.appendChild(schedule.createTextNode(String.format("%d", e.observeEndTimeOfEvent())));
-    time.appendChild(startDay);
-    time.appendChild(start);
-    time.appendChild(endDay);
-    time.appendChild(end);
-    event.appendChild(time);
-
-    // Structures location section of event
-    Element location = schedule.createElement("location");
-    Element online = schedule.createElement("online");
-    online.appendChild(schedule.createTextNode(String.format("%b", e.observeOnline())));
-    Element place = schedule.createElement("place");
-    place.appendChild(schedule.createTextNode(e.observeLocation()));
-    location.appendChild(online);
-    location.appendChild(place);
-    event.appendChild(location);
-
-    // Structures users section of event
-    Element users = schedule.createElement("users");
-    for (IUser u : e.observeInvitedUsers()) {
-      Element uid = schedule.createElement("uid");
-      uid.appendChild(schedule.createTextNode(u.toString()));
-      users.appendChild(uid);
+  public static int writeToCalendar(List<IUser> users, String path) {
+    try {
+      return IcsScheduleWriter.write(users, Path.of(path));
+    } catch (IOException e) {
+      throw new RuntimeException(e);
     }
-    event.appendChild(users);
-    scheduleID.appendChild(event);
   }
 
   /**
-   * Saves the given document to a file with the given file name and path.
+   * Reads the iCalendar file at the given path into the given planner, adding any user it
+   * names that the planner does not have. The events are parsed in parallel by the
+   * IcsScheduleReader.
    *
-   * @param document a Document
-   * @param path     a String representing the directory path
-   * @param fileName a String representing the file name
-   * @throws Exception a TransformerConfiguration Exception or TransformerException
+   * @param path  the path of the calendar file
+   * @param model the planner the events are added to
+   * @return the report of the events that were added and the ones that could not be
+   * @throws IllegalArgumentException if the file cannot be read or is not a calendar
    */
-  private static void saveDomToFile(Document document, String path, String fileName)
-          throws Exception {
-    File directory = new File(path);
-    if (!directory.exists()) {
-      directory.mkdirs(); // create directories if they don't exist
-    }
-    DOMSource dom = new DOMSource(document);
-    Transformer transformer = TransformerFactory.newInstance().newTransformer();
-    if (path.equals("")) {
-      StreamResult result = new StreamResult(new File(fileName));
-      transformer.transform(dom, result);
-    } else {
-      StreamResult result = new StreamResult(new File(path, fileName));
-      transformer.transform(dom, result);
+  public static TransferReport readCalendar(String path, PlannerModel model) {
+    try {
+      return IcsScheduleReader.read(model, Path.of(path));
+    } catch (IOException e) {
+      throw new IllegalArgumentException("Cannot read the calendar " + path + ": "
+              + e.getMessage());
     }
   }
 
   /**
    * Reads a XML file from the project folder with the given path and uses the given
-   * database to retrieve the list of invitees.
+   * database to retrieve the list of invitees. The file is read with the streaming
+   * XmlScheduleReader, and only if that cannot parse it is it read into a DOM instead.
    *
    * @param path     a String
    * @param database a List of User
    * @return a User
    */
   public static User readXML(String path, List<IUser> database) {
+    try {
+      return XmlScheduleReader.read(Path.of(path)).toUser(database);
+    } catch (XMLStreamException e) {
+      return readXMLWithDom(path, database);
+    } catch (IOException e) {
+      e.printStackTrace();
+      return null;
+    }
+  }
+
+  /**
+   * Reads a XML file from the project folder with the given path into a DOM and uses the
+   * given database to retrieve the list of invitees.
+   *
+   * @param path     a String
+   * @param database a List of User
+   * @return a User
+   */
+  static User readXMLWithDom(String path, List<IUser> database) {
     try {
       DocumentBuilder builder = DocumentBuilderFactory.newInstance().newDocumentBuilder();
       Document xmlDoc = builder.parse(new File(path));
@@ -183,23 +159,12 @@ public final class Utils {
 
     // Gets the list of invitees from the users section of the Event element
     NodeList usersNodeList = eventElement.getElementsByTagName("uid");
-    List<IUser> invitees = new ArrayList<>();
+    List<String> users = new ArrayList<>();
     for (int i = 0; i < usersNodeList.getLength(); i++) {
-      String userName = usersNodeList.item(i).getTextContent();
-      try {
-        IUser user = findUser(userName, database);
-        invitees.add(user);
-      } catch (IllegalArgumentException ignored) {
-        // The uploaded XML file belongs to a user that does not yet exist in the database
-        if (i > 0) {
-          throw new IllegalArgumentException("A user in the list of " +
-                  "invitees that is not the host " +
-                  "does not exist in the database.");
-        }
-      }
+      users.add(usersNodeList.item(i).getTextContent());
     }
-    return new Event(eventName, place, online, Day.valueOf(startDay),
-            startTime, Day.valueOf(endDay), endTime, invitees);
+    return new EventRecord(eventName, place, online, Day.valueOf(startDay),
+            startTime, Day.valueOf(endDay), endTime, users).toEvent(database);
   }
 
 
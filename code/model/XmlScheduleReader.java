@@ -0,0 +1,177 @@
+package model;
+
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+
+/**
+ * The XmlScheduleReader reads schedule files in a single forward pass with a streaming
+ * parser, so only the event being read is ever held in memory rather than a tree of the
+ * whole file. Elements are recognised with the Tag enum. The file is read the same way
+ * Utils reads it with a DOM, where every element directly inside the schedule is an event
+ * and each field of an event is the text of the first element with its tag inside it.
+ *
+ * <p>Factories are expensive to look up, so one is kept for each thread.</p>
+ */
+public final class XmlScheduleReader {
+
+  private static final ThreadLocal<XMLInputFactory> FACTORY = ThreadLocal.withInitial(() -> {
+    XMLInputFactory factory = XMLInputFactory.newInstance();
+    factory.setProperty(XMLInputFactory.IS_COALESCING, true);
+    factory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+    return factory;
+  });
+
+  private XmlScheduleReader() {
+  }
+
+  /**
+   * Reads the schedule file at the given path.
+   *
+   * @param path the path of the file
+   * @return the schedule as it is written in the file
+   * @throws IOException              if the file cannot be read
+   * @throws XMLStreamException       if the file is not well formed XML
+   * @throws IllegalArgumentException if the file is not a valid schedule
+   */
+  public static ScheduleRecord read(Path path) throws IOException, XMLStreamException {
+    try (InputStream in = new BufferedInputStream(Files.newInputStream(path))) {
+      return read(in);
+    }
+  }
+
+  /**
+   * Reads a schedule file from the given stream, which is left open.
+   *
+   * @param in the contents of the file
+   * @return the schedule as it is written in the file
+   * @throws XMLStreamException       if the file is not well formed XML
+   * @throws IllegalArgumentException if the file is not a valid schedule
+   */
+  public static ScheduleRecord read(InputStream in) throws XMLStreamException {
+    XMLStreamReader reader = FACTORY.get().createXMLStreamReader(in);
+    try {
+      while (reader.hasNext()) {
+        if (reader.next() == XMLStreamConstants.START_ELEMENT
+                && reader.getLocalName().equals("schedule")) {
+          String owner = reader.getAttributeValue(null, "id");
+          if (owner == null) {
+            throw new IllegalArgumentException("Schedule has no id");
+          }
+          return new ScheduleRecord(owner, readEvents(reader));
+        }
+      }
+      throw new IllegalArgumentException("File has no schedule");
+    } finally {
+      reader.close();
+    }
+  }
+
+  /**
+   * Reads every event of a schedule, leaving the reader at the end of the schedule.
+   *
+   * @param reader a reader at the start of the schedule
+   * @return the events in the order they were read
+   * @throws XMLStreamException if the file is not well formed XML
+   */
+  private static List<EventRecord> readEvents(XMLStreamReader reader)
+          throws XMLStreamException {
+    List<EventRecord> events = new ArrayList<>();
+    while (reader.hasNext()) {
+      int next = reader.next();
+      if (next == XMLStreamConstants.START_ELEMENT) {
+        events.add(readEvent(reader));
+      } else if (next == XMLStreamConstants.END_ELEMENT) {
+        return events;
+      }
+    }
+    return events;
+  }
+
+  /**
+   * Reads a single event, leaving the reader at the end of the event.
+   *
+   * @param reader a reader at the start of the event
+   * @return the event
+   * @throws XMLStreamException       if the file is not well formed XML
+   * @throws IllegalArgumentException if a field of the event is missing or invalid
+   */
+  private static EventRecord readEvent(XMLStreamReader reader) throws XMLStreamException {
+    String[] fields = new String[Tag.values().length];
+    List<String> users = new ArrayList<>();
+    int depth = 1;
+    while (depth > 0) {
+      int next = reader.next();
+      if (next == XMLStreamConstants.END_ELEMENT) {
+        depth--;
+      } else if (next == XMLStreamConstants.START_ELEMENT) {
+        Tag tag = Tag.fromTag(reader.getLocalName());
+        if (tag == Tag.uid) {
+          users.add(readText(reader));
+        } else if (tag != null && tag != Tag.time && tag != Tag.location && tag != Tag.users) {
+          String text = readText(reader);
+          // Only the first element with a tag counts, as it does with the DOM
+          if (fields[tag.ordinal()] == null) {
+            fields[tag.ordinal()] = text;
+          }
+        } else {
+          depth++;
+        }
+      }
+    }
+    return new EventRecord(field(fields, Tag.name), field(fields, Tag.place),
+            Boolean.parseBoolean(field(fields, Tag.online)),
+            Day.valueOf(field(fields, Tag.startDay)), Integer.parseInt(field(fields, Tag.start)),
+            Day.valueOf(field(fields, Tag.endDay)), Integer.parseInt(field(fields, Tag.end)),
+            users);
+  }
+
+  /**
+   * Reads all of the text inside the current element, leaving the reader at its end.
+   *
+   * @param reader a reader at the start of an element
+   * @return the text
+   * @throws XMLStreamException if the file is not well formed XML
+   */
+  private static String readText(XMLStreamReader reader) throws XMLStreamException {
+    StringBuilder text = new StringBuilder();
+    int depth = 1;
+    while (depth > 0) {
+      int next = reader.next();
+      if (next == XMLStreamConstants.CHARACTERS || next == XMLStreamConstants.CDATA
+              || next == XMLStreamConstants.SPACE) {
+        text.append(reader.getText());
+      } else if (next == XMLStreamConstants.START_ELEMENT) {
+        depth++;
+      } else if (next == XMLStreamConstants.END_ELEMENT) {
+        depth--;
+      }
+    }
+    return text.toString();
+  }
+
+  /**
+   * Gets a field of an event that has been read.
+   *
+   * @param fields the fields read so far
+   * @param tag    the tag of the field
+   * @return the text of the field
+   * @throws IllegalArgumentException if the field is missing
+   */
+  private static String field(String[] fields, Tag tag) {
+    String text = fields[tag.ordinal()];
+    if (text == null) {
+      throw new IllegalArgumentException("Event is missing " + tag);
+    }
+    return text;
+  }
+}
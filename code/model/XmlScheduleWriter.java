@@ -0,0 +1,311 @@
+package model;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.ThreadLocalRandom;
+
+import javax.xml.stream.XMLOutputFactory;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamWriter;
+
+/**
+ * The XmlScheduleWriter writes schedule files by streaming each event straight to the file,
+ * without building a tree of the whole schedule first. For any schedule XML 1.0 can hold, the
+ * output is the same, byte for byte, as the file a DOM transformer writes for the schedule,
+ * so it can be read by either of the readers in Utils. Characters the transformer writes as
+ * character references are written as the same references here.
+ *
+ * <p>XML 1.0 cannot hold most control characters, even as character references, so a schedule
+ * with one in a name, place or username fails with an IOException before anything is
+ * written, as it does with the transformer, rather than leaving a file that cannot be read
+ * back.</p>
+ *
+ * <p>Factories are expensive to look up, so one is kept for each thread.</p>
+ */
+public final class XmlScheduleWriter {
+
+  // The declaration the DOM transformer writes, which the stream writer cannot reproduce
+  private static final byte[] DECLARATION =
+          "<?xml version=\"1.0\" encoding=\"UTF-8\" standalone=\"no\"?>"
+                  .getBytes(StandardCharsets.UTF_8);
+
+  private static final byte[] END = "</schedule>".getBytes(StandardCharsets.UTF_8);
+
+  private static final int BUFFER_SIZE = 1 << 16;
+
+  private static final ThreadLocal<XMLOutputFactory> FACTORY =
+          ThreadLocal.withInitial(XMLOutputFactory::newInstance);
+
+  private XmlScheduleWriter() {
+  }
+
+  /**
+   * Writes the schedule of the given user to the file at the given path, replacing the file
+   * if it exists.
+   *
+   * @param user a User
+   * @param file the path of the file
+   * @throws IOException if the file cannot be written or the schedule cannot be written as XML
+   */
+  public static void write(IUser user, Path file) throws IOException {
+    // Checked before the file is truncated, so a schedule that cannot be written leaves it be
+    checkWritable(user);
+    try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE,
+            StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE);
+         OutputStream out = new BufferedOutputStream(Channels.newOutputStream(channel),
+                 BUFFER_SIZE)) {
+      writeChecked(user, out);
+    }
+  }
+
+  /**
+   * Writes the schedule of the given user to the file at the given path by writing a
+   * temporary file beside it and renaming it over the file. A reader of the file sees
+   * either the old schedule or the new one, and a failed write leaves the old file as it was.
+   * The file keeps the permissions it had, or is given the default ones if it is new.
+   *
+   * @param user a User
+   * @param file the path of the file
+   * @throws IOException if the file cannot be written or the schedule cannot be written as XML
+   */
+  public static void writeAtomically(IUser user, Path file) throws IOException {
+    Path temporary = createTemporary(file);
+    try {
+      write(user, temporary);
+      try {
+        Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING,
+                StandardCopyOption.ATOMIC_MOVE);
+      } catch (AtomicMoveNotSupportedException e) {
+        Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING);
+      }
+    } finally {
+      Files.deleteIfExists(temporary);
+    }
+  }
+
+  /**
+   * Creates an empty temporary file beside the given file to be renamed over it. The temporary
+   * file is hidden, so a directory being imported does not pick it up. It is made with the
+   * default permissions rather than the owner-only ones of Files.createTempFile, and given the
+   * permissions of the file if there is one, since a rename keeps those of the temporary file.
+   *
+   * @param file the path of the file
+   * @return the path of the temporary file
+   * @throws IOException if the temporary file cannot be created
+   */
+  static Path createTemporary(Path file) throws IOException {
+    Path directory = file.toAbsolutePath().getParent();
+    while (true) {
+      Path temporary = directory.resolve("." + file.getFileName()
+              + Long.toUnsignedString(ThreadLocalRandom.current().nextLong()) + ".tmp");
+      try {
+        Files.createFile(temporary);
+      } catch (FileAlreadyExistsException taken) {
+        continue;
+      }
+      try {
+        Files.setPosixFilePermissions(temporary, Files.getPosixFilePermissions(file));
+      } catch (NoSuchFileException | UnsupportedOperationException e) {
+        // There is no file yet, or no permissions to keep, so the default ones stay
+      } catch (IOException e) {
+        Files.deleteIfExists(temporary);
+        throw e;
+      }
+      return temporary;
+    }
+  }
+
+  /**
+   * Writes the schedule of the given user to the given stream, which is flushed but left
+   * open.
+   *
+   * @param user a User
+   * @param out  the stream the file is written to
+   * @throws IOException if the stream cannot be written to or the schedule cannot be written
+   *                     as XML
+   */
+  public static void write(IUser user, OutputStream out) throws IOException {
+    checkWritable(user);
+    writeChecked(user, out);
+  }
+
+  /**
+   * Checks that every text of a schedule can be written as XML 1.0.
+   *
+   * @param user a User
+   * @throws IOException if some text holds a character XML 1.0 does not allow
+   */
+  private static void checkWritable(IUser user) throws IOException {
+    checkWritable(user.toString());
+    for (IEvent e : user.observeSchedule()) {
+      checkWritable(e.observeName());
+      checkWritable(e.observeLocation());
+      for (IUser u : e.observeInvitedUsers()) {
+        checkWritable(u.toString());
+      }
+    }
+  }
+
+  /**
+   * Checks that the given text only holds characters XML 1.0 allows, which leaves out control
+   * characters other than tab, line feed and carriage return, unpaired surrogates, U+FFFE
+   * and U+FFFF.
+   *
+   * @param text the text
+   * @throws IOException if the text holds a character XML 1.0 does not allow
+   */
+  private static void checkWritable(String text) throws IOException {
+    for (int index = 0; index < text.length(); ) {
+      int c = text.codePointAt(index);
+      if ((c < 0x20 && c != '\t' && c != '\n' && c != '\r')
+              || (c >= 0xD800 && c <= 0xDFFF) || c == 0xFFFE || c == 0xFFFF) {
+        throw new IOException(String.format("Character U+%04X cannot be written as XML", c));
+      }
+      index += Character.charCount(c);
+    }
+  }
+
+  /**
+   * Writes a schedule that has been checked to the given stream.
+   *
+   * @param user a User
+   * @param out  the stream the file is written to
+   * @throws IOException if the stream cannot be written to
+   */
+  private static void writeChecked(IUser user, OutputStream out) throws IOException {
+    out.write(DECLARATION);
+    // The stream writer cannot write character references in attributes, so the schedule
+    // element is written directly
+    out.write(("<schedule id=\"" + escapeAttribute(user.toString()) + "\"")
+            .getBytes(StandardCharsets.UTF_8));
+    if (user.observeSchedule().isEmpty()) {
+      out.write('/');
+      out.write('>');
+      out.flush();
+      return;
+    }
+    out.write('>');
+    try {
+      XMLStreamWriter writer = FACTORY.get().createXMLStreamWriter(out, "UTF-8");
+      // Traverses events in the user's schedule.
+      for (IEvent e : user.observeSchedule()) {
+        writeEvent(writer, e);
+      }
+      writer.flush();
+      writer.close();
+    } catch (XMLStreamException e) {
+      throw new IOException(e);
+    }
+    out.write(END);
+    out.flush();
+  }
+
+  /**
+   * Writes a single event.
+   *
+   * @param writer the writer of the schedule
+   * @param e      an Event
+   * @throws XMLStreamException if the event cannot be written
+   */
+  private static void writeEvent(XMLStreamWriter writer, IEvent e) throws XMLStreamException {
+    writer.writeStartElement("event");
+    writeField(writer, Tag.name, e.observeName());
+
+    // Structures time section of event
+    writer.writeStartElement(Tag.time.toString());
+    writeField(writer, Tag.startDay, e.observeStartDayOfEvent().toString());
+    writeField(writer, Tag.start, Integer.toString(e.observeStartTimeOfEvent()));
+    writeField(writer, Tag.endDay, e.observeEndDayOfEvent().toString());
+    writeField(writer, Tag.end, Integer.toString(e.observeEndTimeOfEvent()));
+    writer.writeEndElement();
+
+    // Structures location section of event
+    writer.writeStartElement(Tag.location.toString());
+    writeField(writer, Tag.online, Boolean.toString(e.observeOnline()));
+    writeField(writer, Tag.place, e.observeLocation());
+    writer.writeEndElement();
+
+    // Structures users section of event
+    if (e.observeInvitedUsers().isEmpty()) {
+      writer.writeEmptyElement(Tag.users.toString());
+    } else {
+      writer.writeStartElement(Tag.users.toString());
+      for (IUser u : e.observeInvitedUsers()) {
+        writeField(writer, Tag.uid, u.toString());
+      }
+      writer.writeEndElement();
+    }
+    writer.writeEndElement();
+  }
+
+  /**
+   * Writes an element holding only text. Empty text is written as an empty element, the way
+   * the DOM transformer writes it.
+   *
+   * @param writer the writer of the schedule
+   * @param tag    the tag of the element
+   * @param text   the text of the element
+   * @throws XMLStreamException if the element cannot be written
+   */
+  private static void writeField(XMLStreamWriter writer, Tag tag, String text)
+          throws XMLStreamException {
+    if (text.isEmpty()) {
+      writer.writeEmptyElement(tag.toString());
+    } else {
+      writer.writeStartElement(tag.toString());
+      int from = 0;
+      for (int index = 0; index < text.length(); ) {
+        int c = text.codePointAt(index);
+        int next = index + Character.charCount(c);
+        // Only characters XML 1.0 allows are left, so every reference is well-formed
+        if (c == '\r' || (c >= 0x7F && c <= 0x9F) || c > 0xFFFF) {
+          writer.writeCharacters(text.substring(from, index));
+          writer.writeEntityRef("#" + c);
+          from = next;
+        }
+        index = next;
+      }
+      writer.writeCharacters(text.substring(from));
+      writer.writeEndElement();
+    }
+  }
+
+  /**
+   * Escapes the given text to be the value of an attribute.
+   *
+   * @param text the value
+   * @return the escaped value
+   */
+  private static String escapeAttribute(String text) {
+    StringBuilder escaped = new StringBuilder();
+    for (int index = 0; index < text.length(); ) {
+      int c = text.codePointAt(index);
+      if (c == '&') {
+        escaped.append("&amp;");
+      } else if (c == '<') {
+        escaped.append("&lt;");
+      } else if (c == '>') {
+        escaped.append("&gt;");
+      } else if (c == '"') {
+        escaped.append("&quot;");
+      } else if (c < 0x20 || c > 0xFFFF) {
+        escaped.append("&#").append(c).append(';');
+      } else {
+        escaped.appendCodePoint(c);
+      }
+      index += Character.charCount(c);
+    }
+    return escaped.toString();
+  }
+}
@@ -3,12 +3,10 @@ package view;
 import java.awt.*;
 import java.awt.event.MouseEvent;
 import java.awt.event.MouseListener;
-import java.awt.geom.AffineTransform;
 import java.util.Objects;
 
 import javax.swing.*;
 
-import controller.IFeatures;
 import model.IEvent;
 
 /**
@@ -28,46 +26,56 @@ abstract class EventPanel extends JPanel implements MouseListener{
 
   private final IEvent event;
 
-  private final int y;
+  private final WeekViewPanel week;
 
-  private final int width;
+  private final int day;
 
-  private final int height;
+  private final int from;
 
-  private final int horiz;
+  private final int to;
 
-  private final String[] availUsers;
+  private int y;
 
-  private String selectedUsername;
+  private int width;
 
-  private IFeatures features;
+  private int height;
+
+  private int horiz;
 
 
   /**
-   * Constructs an EventRedPanel with the given event, coordinates, and size specifications.
+   * Constructs an EventPanel for the part of the given event on one day of the week. The
+   * panel is placed on the week view by {@link #place(int, int, int)}.
    *
    * @param e        an Event
-   * @param x        the x coordinate as int
-   * @param y        the y coordinate as int
-   * @param width    the width as int
-   * @param height   the height as int
-   * @param horiz    the horizontal offset as int
-   * @param horiz    the available users
+   * @param day      the column of the day in the week view
+   * @param from     the time the part starts as hhmm
+   * @param to       the time the part ends as hhmm, or 2400 if it lasts the rest of the day
+   * @param week     the week view the panel is shown on
    */
-
-  EventPanel(IEvent e, int x, int y, int width, int height, int horiz, String[] availUsers,
-             String selected, IFeatures features) {
+  EventPanel(IEvent e, int day, int from, int to, WeekViewPanel week) {
     this.event = Objects.requireNonNull(e);
-    this.setBounds(x, y, width, height);
+    this.week = Objects.requireNonNull(week);
     this.addMouseListener(this);
-    this.y = y;
-    this.width = width;
-    this.height = height;
-    this.horiz = horiz;
-    this.availUsers = availUsers;
-    this.selectedUsername = selected;
-    this.features = features;
+    this.day = day;
+    this.from = from;
+    this.to = to;
+  }
 
+  /**
+   * Places this panel on a week view with the given column width, row height and height.
+   *
+   * @param vertical   the width of a day as int
+   * @param horizontal the height of an hour as int
+   * @param bottom     the height of the week view as int
+   */
+  void place(int vertical, int horizontal, int bottom) {
+    this.y = (this.from / 100) * horizontal;
+    int end = this.to == 2400 ? bottom : (this.to / 100) * horizontal;
+    this.width = vertical;
+    this.height = end - this.y;
+    this.horiz = horizontal;
+    this.setBounds(this.day * vertical, this.y, this.width, this.height);
   }
 
 
@@ -80,10 +88,7 @@ abstract class EventPanel extends JPanel implements MouseListener{
   @Override
   public void mouseClicked(MouseEvent e) {
     System.out.println("CLICKED");
-    EventView viewed = new EventFrameView(this.event,
-            this.availUsers, this.selectedUsername);
-    viewed.display();
-    viewed.addFeatures(features);
+    this.week.openEvent(this.event);
   }
 
   /**
@@ -119,9 +124,8 @@ abstract class EventPanel extends JPanel implements MouseListener{
    */
   @Override
   public void paintComponent(Graphics g) {
-    Graphics2D g2d = (Graphics2D) g.create();
-    super.paintComponent(g2d);
-    drawLines(g2d);
+    super.paintComponent(g);
+    drawLines((Graphics2D) g);
   }
 
   /**
@@ -130,23 +134,31 @@ abstract class EventPanel extends JPanel implements MouseListener{
    * that these event are starting and ending. These line allows for the user
    * to conceptualize the times of these events.
    *
+   * <p>Painting makes no objects, as it happens whenever the week view is repainted, so the
+   * strokes are shared and the state of the graphics is put back by hand.</p>
+   *
    * @param g2d the graphics library to draw with.
    */
   private void drawLines(Graphics2D g2d) {
-    AffineTransform old = g2d.getTransform();
+    if (this.horiz <= 0) {
+      return;
+    }
+    Stroke oldStroke = g2d.getStroke();
+    Color oldColor = g2d.getColor();
     int horizontalLineOffset = this.horiz;
     int offset = (this.horiz * 4) - (this.y % (this.horiz * 4));
     for (int line = -offset; line < this.height;
          line += horizontalLineOffset) {
       if ((line % (horizontalLineOffset * 4)) == 0) {
-        g2d.setStroke(new BasicStroke(4));
+        g2d.setStroke(WeekViewPanel.THICK);
       } else {
-        g2d.setStroke(new BasicStroke(2));
+        g2d.setStroke(WeekViewPanel.THIN);
       }
       g2d.setColor(Color.BLACK);
       g2d.drawLine(0, line + offset, this.width, line + offset);
     }
-    g2d.setTransform(old);
+    g2d.setStroke(oldStroke);
+    g2d.setColor(oldColor);
   }
 
 
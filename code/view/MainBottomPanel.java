@@ -4,6 +4,7 @@ import java.awt.*;
 import java.awt.event.ActionEvent;
 import java.awt.event.ActionListener;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Objects;
 
@@ -32,7 +33,9 @@ class MainBottomPanel extends JPanel {
 
   private final ReadOnlyPlannerModel model;
 
-  private final String selectedUsername;
+  private String selectedUsername;
+
+  private String[] usernames;
 
   private JComboBox<String> selectedUserBox;
 
@@ -44,6 +47,9 @@ class MainBottomPanel extends JPanel {
 
   private IFeatures features;
 
+  // Set while the select box is changed to match the model, which is not the user selecting
+  private boolean syncing;
+
 
 
 
@@ -72,10 +78,41 @@ class MainBottomPanel extends JPanel {
    * the selected user.
    */
   private void makeSelectUserBox() {
-    this.selectedUserBox = new JComboBox<>(convertToStringArray(model.getListOfUser()));
+    this.usernames = convertToStringArray(model.getListOfUser());
+    this.selectedUserBox = new JComboBox<>(this.usernames);
     this.selectedUserBox.setSelectedItem(this.selectedUsername);
     this.add(selectedUserBox);
     this.selectedUserBox.setActionCommand("Select User Box");
+    this.selectedUserBox.addActionListener(evt -> {
+      if (!this.syncing && this.features != null) {
+        this.features.switchUser(observeUserSelectionBox());
+      }
+    });
+  }
+
+  /**
+   * Updates this panel for the given selected user after a model change. The users in the
+   * select box are only replaced when the users of the model have changed.
+   *
+   * @param selectedUsername is the user that is currently selected
+   * @param hostView whether the host color is toggled
+   */
+  void update(String selectedUsername, boolean hostView) {
+    this.selectedUsername = selectedUsername;
+    this.isColorToggled = hostView;
+    String[] usernames = convertToStringArray(model.getListOfUser());
+    this.syncing = true;
+    try {
+      if (!Arrays.equals(usernames, this.usernames)) {
+        this.usernames = usernames;
+        this.selectedUserBox.setModel(new DefaultComboBoxModel<>(usernames));
+      }
+      if (!selectedUsername.equals(this.selectedUserBox.getSelectedItem())) {
+        this.selectedUserBox.setSelectedItem(selectedUsername);
+      }
+    } finally {
+      this.syncing = false;
+    }
   }
 
   /**
@@ -108,6 +145,11 @@ class MainBottomPanel extends JPanel {
     scheduleEvent = new JButton("Schedule Event");
     scheduleEvent.setActionCommand("Schedule Event Button");
     toggleColor = new JButton("Toggle host color");
+    toggleColor.addActionListener(evt -> {
+      if (features != null) {
+        features.switchHostView();
+      }
+    });
     createEvent.addActionListener(new ActionListener() {
       @Override
       public void actionPerformed(ActionEvent e) {
@@ -186,16 +228,12 @@ class MainBottomPanel extends JPanel {
 
 
   /**
-   * Sets the listeners for the JButtons.
+   * Sets the feature the listeners of the JButtons and select box send commands to.
    *
    * @param features the feature performing commands.
    */
   void addFeature(IFeatures features) {
     this.features = features;
-    selectedUserBox.addActionListener(evt ->
-            features.switchUser(observeUserSelectionBox()));
-    toggleColor.addActionListener(evt ->
-            features.switchHostView());
   }
 
 }
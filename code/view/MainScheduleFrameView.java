@@ -22,22 +22,31 @@ import model.Utils;
  * and does not have an attached controller. Actions made in the view now will not
  * affect users at all.
  *
- * @implNote The mainPanel member variable is modified in reMakeView, thus it cannot be final. The
- *           selected User also changes depending on the JComboBox selection in MainBottomPanel.
+ * @implNote The panels of the frame are made once and updated in reMakeView with only what
+ *           changed in the model. The selected User changes depending on the JComboBox selection
+ *           in MainBottomPanel.
  */
 public class MainScheduleFrameView extends JFrame implements PlannerView {
   private final ReadOnlyPlannerModel model;
-  private JPanel mainPanel;
-  private WeekViewPanel planner;
+  private final JPanel mainPanel;
+  private final WeekViewPanel planner;
 
-  private MainBottomPanel bottom;
+  private final MainBottomPanel bottom;
 
   private String selected;
 
   private JMenuItem add;
 
+  private JMenuItem importAll;
+
+  private JMenuItem importArchive;
+
+  private JMenuItem exportArchive;
+
   private JMenuItem save;
 
+  private JMenuItem watch;
+
   private IFeatures feature;
 
   private boolean hostView;
@@ -82,9 +91,17 @@ public class MainScheduleFrameView extends JFrame implements PlannerView {
     JMenuBar mb = new JMenuBar();
     JMenu menu = new JMenu("File");
     add = new JMenuItem("Add Calendar");
+    importAll = new JMenuItem("Import Folder");
+    importArchive = new JMenuItem("Import Archive");
     save = new JMenuItem("Save Calendar");
+    exportArchive = new JMenuItem("Export Archive");
+    watch = new JMenuItem("Watch Folder");
     menu.add(add);
+    menu.add(importAll);
+    menu.add(importArchive);
     menu.add(save);
+    menu.add(exportArchive);
+    menu.add(watch);
     mb.add(menu);
     this.setJMenuBar(mb);
     this.add.addActionListener(new ActionListener() {
@@ -95,6 +112,34 @@ public class MainScheduleFrameView extends JFrame implements PlannerView {
         feature.uploadSchedule(file.getSelectedFile().getPath());
       }
     });
+    this.importAll.addActionListener(new ActionListener() {
+      @Override
+      public void actionPerformed(ActionEvent e) {
+        JFileChooser file = new JFileChooser();
+        file.setFileSelectionMode(JFileChooser.DIRECTORIES_ONLY);
+        if (file.showOpenDialog(null) == JFileChooser.APPROVE_OPTION) {
+          feature.importSchedules(file.getSelectedFile().getPath());
+        }
+      }
+    });
+    this.importArchive.addActionListener(new ActionListener() {
+      @Override
+      public void actionPerformed(ActionEvent e) {
+        JFileChooser file = new JFileChooser();
+        if (file.showOpenDialog(null) == JFileChooser.APPROVE_OPTION) {
+          feature.importArchive(file.getSelectedFile().getPath());
+        }
+      }
+    });
+    this.exportArchive.addActionListener(new ActionListener() {
+      @Override
+      public void actionPerformed(ActionEvent e) {
+        JFileChooser file = new JFileChooser();
+        if (file.showSaveDialog(null) == JFileChooser.APPROVE_OPTION) {
+          feature.exportArchive(file.getSelectedFile().getPath());
+        }
+      }
+    });
     this.save.addActionListener(new ActionListener() {
       @Override
       public void actionPerformed(ActionEvent e) {
@@ -103,6 +148,16 @@ public class MainScheduleFrameView extends JFrame implements PlannerView {
         feature.saveSchedule(file.getSelectedFile().getPath());
       }
     });
+    this.watch.addActionListener(new ActionListener() {
+      @Override
+      public void actionPerformed(ActionEvent e) {
+        JFileChooser file = new JFileChooser();
+        file.setFileSelectionMode(JFileChooser.DIRECTORIES_ONLY);
+        if (file.showOpenDialog(null) == JFileChooser.APPROVE_OPTION) {
+          feature.watchDirectory(file.getSelectedFile().getPath());
+        }
+      }
+    });
   }
 
 
@@ -115,22 +170,20 @@ public class MainScheduleFrameView extends JFrame implements PlannerView {
    * update the entire frame but a client shouldn't be able to remake the
    * view outside the view.</p>
    *
+   * <p>The frame keeps its panels, so only the events that were added, moved or removed are
+   * changed on the week view and the users in the select box are only replaced when the users
+   * have changed.</p>
+   *
    * @param selectedUsername is the user that is currently selected for the view.
    * @param feature the controller needed to be reconnected to the view.
    */
   public void reMakeView(String selectedUsername, IFeatures feature) {
-    this.getContentPane().removeAll();
-    this.mainPanel = new JPanel();
-    this.mainPanel.setLayout(new BoxLayout(mainPanel, BoxLayout.PAGE_AXIS));
-    this.planner = new WeekViewPanel(this.model, selectedUsername, this.hostView);
-    this.bottom = new MainBottomPanel(this.model, selectedUsername, this.hostView);
     this.selected = selectedUsername;
-    this.mainPanel.add(this.planner);
-    this.mainPanel.add(this.bottom);
-    this.add(mainPanel);
-    this.setDefaultCloseOperation(JFrame.DISPOSE_ON_CLOSE);
-    this.setVisible(true);
-    this.addFeatures(feature);
+    this.planner.update(selectedUsername, this.hostView);
+    this.bottom.update(selectedUsername, this.hostView);
+    if (feature != this.feature) {
+      this.addFeatures(feature);
+    }
   }
 
   /**
@@ -159,6 +212,15 @@ public class MainScheduleFrameView extends JFrame implements PlannerView {
     JOptionPane.showMessageDialog(this, msg);
   }
 
+  /**
+   * Displays the status message in the title of the frame.
+   * @param msg the status message
+   */
+  @Override
+  public void showStatus(String msg) {
+    setTitle("Main System View - " + msg);
+  }
+
   /**
    * This method switches the hostview call from the controller.
    */
@@ -103,6 +103,11 @@ public class NUPlannerTextView implements PlannerView {
     // Unimplemented
   }
 
+  @Override
+  public void showStatus(String msg) {
+    // Unimplemented
+  }
+
   @Override
   public void HostView() {
 
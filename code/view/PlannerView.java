@@ -31,7 +31,8 @@ public interface PlannerView {
 
   /**
    * This is a method that reloads the view after a model change which
-   * reflects the changes in the model or a change in host.
+   * reflects the changes in the model or a change in host. A view need only
+   * change what differs from when it was last reloaded.
    *
    * @param selectedUsername the new user being viewed or same user with new view
    * @param feature the controller needed to be reconnected to the view.
@@ -44,6 +45,13 @@ public interface PlannerView {
    */
   void showError(String msg);
 
+  /**
+   * Displays the given message about work going on in the background, such as a save, without
+   * interrupting the user.
+   * @param msg the message
+   */
+  void showStatus(String msg);
+
 
   void HostView();
 }
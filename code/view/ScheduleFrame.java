@@ -7,8 +7,13 @@ import javax.swing.*;
 
 import java.awt.BorderLayout;
 
+import javax.swing.event.DocumentEvent;
+import javax.swing.event.DocumentListener;
+
 import controller.IFeatures;
+import controller.SlotProposal;
 import model.Day;
+import model.TimeSlot;
 
 import java.awt.FlowLayout;
 
@@ -16,9 +21,16 @@ import java.awt.FlowLayout;
  * A ScheduleFrame is an EventView that allows the user to use a strategy
  * to schedule an event. The user only needs to insert the name of the event,
  * whether it is available online, the location, duration, and available users.
+ * The best times for the event are suggested as the attendees and duration are edited,
+ * and the user may either pick one of them or let the strategy choose.
  */
 public class ScheduleFrame extends JFrame implements EventView {
 
+  /**
+   * The number of times suggested to the user.
+   */
+  public static final int SUGGESTION_COUNT = 5;
+
   private final String host;
   private final JPanel eventPanel;
   private JTextArea name;
@@ -27,6 +39,9 @@ public class ScheduleFrame extends JFrame implements EventView {
   private JTextArea duration;
   private JList<String> availUser;
   private JButton scheduleButton;
+  private DefaultListModel<SlotProposal> suggestionModel;
+  private JList<SlotProposal> suggestions;
+  private JButton pickButton;
 
   /**
    * Constructs a default EventFrameView that contains default components of an event and
@@ -60,6 +75,7 @@ public class ScheduleFrame extends JFrame implements EventView {
     makeLocationPanel(isOnline, location);
     makeDurationPanel(duration);
     makeAvailUserPanel(availUsers);
+    makeSuggestionPanel();
     makeButtonPanel();
 
     this.add(this.eventPanel);
@@ -137,6 +153,26 @@ public class ScheduleFrame extends JFrame implements EventView {
     this.eventPanel.add(availUserPanel);
   }
 
+  /**
+   * Creates the suggested times panel which lists the best times for the event given the
+   * current attendees and duration. Rests on top of the main event panel.
+   */
+  private void makeSuggestionPanel() {
+    JPanel suggestionLabelPanel = new JPanel();
+    suggestionLabelPanel.setLayout(new FlowLayout(FlowLayout.LEFT));
+    JLabel suggestionLabel = new JLabel("Suggested times");
+    JPanel suggestionPanel = new JPanel();
+    suggestionPanel.setLayout(new BoxLayout(suggestionPanel, BoxLayout.Y_AXIS));
+    this.suggestionModel = new DefaultListModel<>();
+    this.suggestions = new JList<>(this.suggestionModel);
+    this.suggestions.setSelectionMode(ListSelectionModel.SINGLE_SELECTION);
+    this.suggestions.setVisibleRowCount(SUGGESTION_COUNT);
+    suggestionPanel.add(new JScrollPane(this.suggestions));
+    suggestionLabelPanel.add(suggestionLabel);
+    this.eventPanel.add(suggestionLabelPanel);
+    this.eventPanel.add(suggestionPanel);
+  }
+
   /**
    * Creates the create event, modify event, and remove event buttons, which rest on top
    * of the main event panel.
@@ -145,10 +181,36 @@ public class ScheduleFrame extends JFrame implements EventView {
     JPanel buttonPanel = new JPanel();
     scheduleButton = new JButton("Schedule event");
     scheduleButton.setActionCommand("Schedule Event Finish");
+    pickButton = new JButton("Schedule at selected time");
+    pickButton.setActionCommand("Schedule Event Selected");
     buttonPanel.add(scheduleButton);
+    buttonPanel.add(pickButton);
     this.eventPanel.add(buttonPanel);
   }
 
+  /**
+   * Replaces the suggested times with the ones the features give for the current attendees
+   * and duration. The list is emptied while the duration is not a positive number.
+   *
+   * @param features the features asked for the suggestions
+   */
+  private void refreshSuggestions(IFeatures features) {
+    this.suggestionModel.clear();
+    int length;
+    try {
+      length = this.observeDurationFromSF();
+    } catch (NumberFormatException e) {
+      return;
+    }
+    if (length <= 0) {
+      return;
+    }
+    for (SlotProposal option : features.suggestTimes(host, observeSelectedUsersFromEF(),
+            length, SUGGESTION_COUNT)) {
+      this.suggestionModel.addElement(option);
+    }
+  }
+
 
   /**
    * Makes the jText area where the user can input the possible duration of the event.
@@ -238,6 +300,44 @@ public class ScheduleFrame extends JFrame implements EventView {
                 "Enter all of the information first.\n");
       }
     });
+    pickButton.addActionListener(evt -> {
+      SlotProposal picked = this.suggestions.getSelectedValue();
+      if (picked == null) {
+        JOptionPane.showMessageDialog(this,
+                "Pick one of the suggested times first.\n");
+      } else if (this.validInput()) {
+        TimeSlot slot = picked.observeSlot();
+        features.createNewEvent(host, observeEventNameFromEF(), observeLocationFromEF(),
+                observeIsOnlineFromEF(), slot.observeStartDay(), slot.observeStartTime(),
+                slot.observeEndDay(), slot.observeEndTime(), picked.observeAttendees());
+        this.close();
+      } else {
+        JOptionPane.showMessageDialog(this,
+                "Enter all of the information first.\n");
+      }
+    });
+    this.availUser.addListSelectionListener(evt -> {
+      if (!evt.getValueIsAdjusting()) {
+        this.refreshSuggestions(features);
+      }
+    });
+    this.duration.getDocument().addDocumentListener(new DocumentListener() {
+      @Override
+      public void insertUpdate(DocumentEvent e) {
+        refreshSuggestions(features);
+      }
+
+      @Override
+      public void removeUpdate(DocumentEvent e) {
+        refreshSuggestions(features);
+      }
+
+      @Override
+      public void changedUpdate(DocumentEvent e) {
+        refreshSuggestions(features);
+      }
+    });
+    this.refreshSuggestions(features);
   }
 
   @Override
@@ -5,7 +5,10 @@ import java.awt.Color;
 import java.awt.Graphics;
 import java.awt.Graphics2D;
 import java.awt.Rectangle;
-import java.awt.geom.AffineTransform;
+import java.awt.Stroke;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.Map;
 import java.util.Objects;
 import java.util.List;
 
@@ -13,7 +16,6 @@ import javax.swing.JPanel;
 
 import controller.IFeatures;
 import model.Day;
-import model.Event;
 import model.IEvent;
 import model.IUser;
 import model.ReadOnlyPlannerModel;
@@ -26,19 +28,46 @@ import model.ReadOnlyPlannerModel;
  * gridlines. These are EventRedPanel and see the javadoc in that class for more information.
  * This panel is updated when a new user is selected from the main bottom panel.
  *
+ * <p>The panels of the events are kept between updates. An update compares the schedule
+ * being viewed with the events shown and only adds, moves or removes the panels of the
+ * events that changed, so an edit costs as much as the events it touches rather than the
+ * whole schedule.</p>
+ *
+ * <p>Where the panels and gridlines go is worked out when the panel is laid out at a new size
+ * and kept, so painting only draws: it makes no objects and draws only the gridlines in the
+ * area being repainted, leaving Swing to paint only the event panels in that area.</p>
+ *
  * @implNote This is package protected because there should not be
  *           any leakage of the WeekViewPanel information and this should be contained in the view.
  */
 class WeekViewPanel extends JPanel {
+  private static final List<Day> DAYS_ORDER = List.of(Day.Sunday,
+          Day.Monday, Day.Tuesday, Day.Wednesday, Day.Thursday,
+          Day.Friday, Day.Saturday);
+
+  static final Stroke THICK = new BasicStroke(4);
+  static final Stroke THIN = new BasicStroke(2);
+
   private final ReadOnlyPlannerModel model;
-  private final String selectedUsername;
+  private String selectedUsername;
 
-  private Rectangle bounds;
+  // The size the panel was last laid out at, with the width of a day and height of an hour
+  private int laidOutWidth = -1;
+  private int laidOutHeight = -1;
+  private int verticalLineOffset;
+  private int horizontalLineOffset;
+
+  // Reused for the area being repainted
+  private final Rectangle clip = new Rectangle();
 
   private IFeatures feature;
 
   private boolean hostView;
 
+  private String[] usernames;
+
+  // The panels of each event shown, by the instance of the event since events change in place
+  private final Map<IEvent, Shown> shown;
 
 
   /**
@@ -50,78 +79,135 @@ class WeekViewPanel extends JPanel {
    */
   WeekViewPanel(ReadOnlyPlannerModel model, String selectedUsername, boolean hostView) {
     this.model = Objects.requireNonNull(model);
+    this.shown = new IdentityHashMap<>();
+    this.setLayout(null);
+    this.update(selectedUsername, hostView);
+  }
+
+  /**
+   * Shows the schedule of the given user as it is in the model, changing only the panels of
+   * the events that were added, moved or removed since the last update.
+   *
+   * @param selectedUsername the selected user for the view.
+   * @param hostView whether the events the selected user hosts are told apart
+   */
+  void update(String selectedUsername, boolean hostView) {
     this.selectedUsername = selectedUsername;
     this.hostView = hostView;
+    this.usernames = convertToStringArray(model.getListOfUser());
+    Map<IEvent, Shown> stale = new IdentityHashMap<>(this.shown);
+    for (IEvent e : model.selectSchedule(selectedUsername)) {
+      Shown before = stale.remove(e);
+      Shown now = new Shown(e, this.hostView
+              && this.selectedUsername.equals(e.observeHost().toString()));
+      if (before != null && before.sameAs(now)) {
+        continue;
+      }
+      if (before != null) {
+        hide(before);
+      }
+      show(now);
+    }
+    for (Shown gone : stale.values()) {
+      hide(gone);
+    }
   }
 
+  /**
+   * Adds the panels of an event to this panel where the event is.
+   *
+   * @param event the event and its panels
+   */
+  private void show(Shown event) {
+    this.shown.put(event.event, event);
+    event.makePanels();
+    for (EventPanel panel : event.panels) {
+      this.add(panel);
+      panel.place(this.verticalLineOffset, this.horizontalLineOffset, this.laidOutHeight);
+      repaint(panel.getBounds());
+    }
+  }
 
+  /**
+   * Removes the panels of an event from this panel.
+   *
+   * @param event the event and its panels
+   */
+  private void hide(Shown event) {
+    this.shown.remove(event.event);
+    for (EventPanel panel : event.panels) {
+      this.remove(panel);
+      repaint(panel.getBounds());
+    }
+  }
+
+  /**
+   * Places the panels of the events shown for the size of this panel, which is only
+   * needed when it has been resized.
+   */
   @Override
-  protected void paintComponent(Graphics g) {
-    Graphics2D g2d = (Graphics2D) g.create();
-    super.paintComponent(g2d);
-    this.bounds = getBounds();
-    this.removeAll();
-    setSize(this.bounds.width, this.bounds.height);
-    for (IEvent e : model.selectSchedule(this.selectedUsername)) {
-      drawEvent(e);
+  public void doLayout() {
+    if (getWidth() == this.laidOutWidth && getHeight() == this.laidOutHeight) {
+      return;
     }
-    drawLines(g2d);
+    this.laidOutWidth = getWidth();
+    this.laidOutHeight = getHeight();
+    this.verticalLineOffset = this.laidOutWidth / 7;
+    this.horizontalLineOffset = this.laidOutHeight / 23;
+    for (Shown event : this.shown.values()) {
+      for (EventPanel panel : event.panels) {
+        panel.place(this.verticalLineOffset, this.horizontalLineOffset, this.laidOutHeight);
+      }
+    }
+  }
+
+  @Override
+  protected void paintComponent(Graphics g) {
+    super.paintComponent(g);
+    drawLines((Graphics2D) g);
   }
 
   /**
    * This method draws the gridlines to give the user a better visualization
-   * of the time at when events are taking place. They utilize bounds so that
-   * they stay proportional even after window resizing.
+   * of the time at when events are taking place. They utilize the size the panel was laid
+   * out at so that they stay proportional even after window resizing, and only the lines
+   * in the area being repainted are drawn.
    *
    * @param g2d the graphics object which the lines are being drawn.
    */
   private void drawLines(Graphics2D g2d) {
-    AffineTransform old = g2d.getTransform();
-    int horizontalLineOffset = this.bounds.height / 23;
-    for (int line = horizontalLineOffset; line < this.bounds.height;
-         line += horizontalLineOffset) {
-      if ((line % (horizontalLineOffset * 4)) == 0) {
-        g2d.setStroke(new BasicStroke(4));
+    if (this.horizontalLineOffset <= 0 || this.verticalLineOffset <= 0) {
+      return;
+    }
+    Stroke oldStroke = g2d.getStroke();
+    Color oldColor = g2d.getColor();
+    // The whole panel is repainted when there is no clip
+    this.clip.setBounds(0, 0, this.laidOutWidth, this.laidOutHeight);
+    g2d.getClipBounds(this.clip);
+    g2d.setColor(Color.BLACK);
+    // Thick lines are as wide as 4, so a line just outside the area can still reach it
+    int top = Math.max(this.clip.y - 2, 0);
+    int bottom = Math.min(this.clip.y + this.clip.height + 2, this.laidOutHeight);
+    int line = (top / this.horizontalLineOffset) * this.horizontalLineOffset;
+    for (line = Math.max(line, this.horizontalLineOffset); line < bottom;
+         line += this.horizontalLineOffset) {
+      if ((line % (this.horizontalLineOffset * 4)) == 0) {
+        g2d.setStroke(THICK);
       } else {
-        g2d.setStroke(new BasicStroke(2));
+        g2d.setStroke(THIN);
       }
-      g2d.setColor(Color.BLACK);
-      g2d.drawLine(0, line, this.bounds.width, line);
+      g2d.drawLine(this.clip.x, line, this.clip.x + this.clip.width, line);
     }
-    int verticalLineOffset = this.bounds.width / 7;
-    for (int line = verticalLineOffset; line < this.bounds.width; line += verticalLineOffset) {
-      g2d.setColor(Color.BLACK);
-      g2d.drawLine(line, 0, line, this.bounds.height);
+    g2d.setStroke(THIN);
+    int left = Math.max(this.clip.x - 1, 0);
+    int right = Math.min(this.clip.x + this.clip.width + 1, this.laidOutWidth);
+    line = (left / this.verticalLineOffset) * this.verticalLineOffset;
+    for (line = Math.max(line, this.verticalLineOffset); line < right;
+         line += this.verticalLineOffset) {
+      g2d.drawLine(line, this.clip.y, line, this.clip.y + this.clip.height);
     }
-    g2d.setTransform(old);
-  }
-
-  /**
-   * This is the method that takes a given event and creates an EventRedPanel for the
-   * user to view on this panel in its respective place on the WeekViewPanel. This
-   * method takes in the event it is trying to display and the graphic through which it can draw
-   *
-   * @param e the given event trying to be displayed.
-   */
-  private void drawEvent(IEvent e) {
-    java.util.List<Day> daysOrder = java.util.List.of(Day.Sunday,
-            Day.Monday, Day.Tuesday, Day.Wednesday, Day.Thursday,
-            Day.Friday, Day.Saturday);
-    int verticalLineOffset = this.bounds.width / 7;
-    int horizontalLineOffset = this.bounds.height / 23;
-    int start = (e.observeStartTimeOfEvent() / 100) * horizontalLineOffset;
-    int end = this.bounds.height;
-    if (e.observeStartDayOfEvent().equals(e.observeEndDayOfEvent())) {
-      end = (e.observeEndTimeOfEvent() / 100) * horizontalLineOffset;
-    } else {
-      drawEndOfEvent(e, e.observeStartDayOfEvent());
-    }
-    this.add(colorDecorator(e,
-            daysOrder.indexOf(e.observeStartDayOfEvent()) * verticalLineOffset, start,
-            verticalLineOffset, end - start,
-            horizontalLineOffset, convertToStringArray(model.getListOfUser()),
-            this.selectedUsername, this.feature));
-
+    g2d.setStroke(oldStroke);
+    g2d.setColor(oldColor);
   }
 
   /**
@@ -142,35 +228,14 @@ class WeekViewPanel extends JPanel {
   }
 
   /**
-   * This method is an extension of the drawEvent method and continues to draw
-   * the event if the event spans several days. This is a different but similar
-   * method because it draws the event but due to how event spanning more than one day
-   * are it draws the event from the top till end time or fills the entire day.
+   * Opens the details of an event that was clicked on for the selected user.
    *
-   * @param e            the event being continued to be drawn.
-   * @param lastDayDrawn the previous day of the event drawn.
+   * @param e the event clicked on
    */
-  private void drawEndOfEvent(IEvent e, Day lastDayDrawn) {
-    java.util.List<Day> daysOrder = List.of(Day.Sunday,
-            Day.Monday, Day.Tuesday, Day.Wednesday, Day.Thursday,
-            Day.Friday, Day.Saturday);
-    int verticalLineOffset = this.bounds.width / 7;
-    int horizontalLineOffset = this.bounds.height / 23;
-    if (daysOrder.get(daysOrder.indexOf(lastDayDrawn) + 1).equals(e.observeEndDayOfEvent())) {
-      int end = (e.observeEndTimeOfEvent() / 100) * horizontalLineOffset;
-      this.add(colorDecorator(e,
-              daysOrder.indexOf(e.observeEndDayOfEvent()) * verticalLineOffset, 0,
-              verticalLineOffset, end,
-              horizontalLineOffset, convertToStringArray(model.getListOfUser()),
-              this.selectedUsername, this.feature));
-    } else {
-      this.add(colorDecorator(e,
-              (daysOrder.indexOf(lastDayDrawn) + 1) * verticalLineOffset, 0,
-              verticalLineOffset, this.bounds.height,
-              horizontalLineOffset, convertToStringArray(model.getListOfUser()),
-              this.selectedUsername, this.feature));
-      drawEndOfEvent(e, daysOrder.get(daysOrder.indexOf(lastDayDrawn) + 1));
-    }
+  void openEvent(IEvent e) {
+    EventView viewed = new EventFrameView(e, this.usernames, this.selectedUsername);
+    viewed.display();
+    viewed.addFeatures(this.feature);
   }
 
   void addFeature(IFeatures features){
@@ -178,15 +243,71 @@ class WeekViewPanel extends JPanel {
   }
 
 
-  EventPanel colorDecorator(IEvent e, int x, int y, int width, int height, int horiz,
-                            String[] availUsers, String selected, IFeatures features){
-    if(this.hostView && this.selectedUsername.equals(e.observeHost().toString())){
-      return new EventBluePanel(e, x, y, width, height, horiz, availUsers,
-              selected,features);
-    }else{
-      return new EventRedPanel(e, x, y, width, height, horiz, availUsers,
-              selected,features);
+  EventPanel colorDecorator(IEvent e, boolean host, int day, int from, int to) {
+    if (host) {
+      return new EventBluePanel(e, day, from, to, this);
+    } else {
+      return new EventRedPanel(e, day, from, to, this);
+    }
+  }
+
+  /**
+   * An event shown on this panel, with where it was and how it was colored when its
+   * panels were made, so that a later update can tell whether it has moved.
+   */
+  private final class Shown {
+    private final IEvent event;
+    private final Day startDay;
+    private final int startTime;
+    private final Day endDay;
+    private final int endTime;
+    private final boolean host;
+    private final List<EventPanel> panels;
+
+    private Shown(IEvent e, boolean host) {
+      this.event = e;
+      this.startDay = e.observeStartDayOfEvent();
+      this.startTime = e.observeStartTimeOfEvent();
+      this.endDay = e.observeEndDayOfEvent();
+      this.endTime = e.observeEndTimeOfEvent();
+      this.host = host;
+      this.panels = new ArrayList<>();
+    }
+
+    /**
+     * Makes the panels of the event, one for each day it is on.
+     */
+    private void makePanels() {
+      IEvent e = this.event;
+      int first = DAYS_ORDER.indexOf(this.startDay);
+      int last = DAYS_ORDER.indexOf(this.endDay);
+      if (first == last) {
+        this.panels.add(colorDecorator(e, host, first, this.startTime, this.endTime));
+        return;
+      }
+      // An event spanning several days fills the rest of its first day and every day up to
+      // its last, where it ends at its end time, without going past the end of the week
+      this.panels.add(colorDecorator(e, host, first, this.startTime, 2400));
+      int day = first + 1;
+      for (; day < DAYS_ORDER.size() && day != last; day++) {
+        this.panels.add(colorDecorator(e, host, day, 0, 2400));
+      }
+      if (day == last) {
+        this.panels.add(colorDecorator(e, host, last, 0, this.endTime));
+      }
+    }
+
+    /**
+     * Determines whether this shows an event where and how another does.
+     *
+     * @param other the other
+     * @return true if the panels of this can be kept for the other
+     */
+    private boolean sameAs(Shown other) {
+      return this.startDay == other.startDay && this.startTime == other.startTime
+              && this.endDay == other.endDay && this.endTime == other.endTime
+              && this.host == other.host;
     }
   }
 
-}
\ No newline at end of file
+}
@@ -0,0 +1,82 @@
+package controller;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+import model.Day;
+import model.IEvent;
+import model.IUser;
+import model.NuPlanner;
+import model.PlannerModel;
+import model.TimeSlot;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * This is the testing suite for the AvailabilityEngine. Every check is run on an engine that
+ * stays on the calling thread, on one that splits every check across a pool and on one that
+ * checks on virtual threads, which should always agree.
+ */
+public class AvailabilityEngineTest {
+
+  private PlannerModel model;
+  private List<IUser> participants;
+  private final AvailabilityEngine sequential = new AvailabilityEngine();
+  private final AvailabilityEngine parallel = new AvailabilityEngine(1, new ForkJoinPool(4));
+  private final AvailabilityEngine virtual = AvailabilityEngine.onVirtualThreads(1);
+
+  /**
+   * Sets up a model with 200 users where only the last user is busy on Monday morning.
+   */
+  private void exampleLargeMeeting() {
+    this.model = new NuPlanner(new ArrayList<>());
+    this.participants = new ArrayList<>();
+    for (int user = 0; user < 200; user++) {
+      this.participants.add(this.model.addUser("User" + user));
+    }
+    this.model.createEvent("User199", "Standup", "Snell", false,
+            Day.Monday, 900, Day.Monday, 1000, List.of());
+  }
+
+  @Test
+  public void testIsFree() {
+    exampleLargeMeeting();
+    TimeSlot busy = new TimeSlot(Day.Monday, 930, Day.Monday, 1030);
+    TimeSlot free = new TimeSlot(Day.Monday, 1000, Day.Monday, 1100);
+    assertFalse(this.sequential.isFree(this.participants, busy));
+    assertFalse(this.parallel.isFree(this.participants, busy));
+    assertFalse(this.virtual.isFree(this.participants, busy));
+    assertTrue(this.sequential.isFree(this.participants, free));
+    assertTrue(this.parallel.isFree(this.participants, free));
+    assertTrue(this.virtual.isFree(this.participants, free));
+  }
+
+  @Test
+  public void testFirstFree() {
+    exampleLargeMeeting();
+    List<TimeSlot> candidates = SchedulingWindow.WORK_HOURS.candidates(100);
+    TimeSlot expected = new TimeSlot(Day.Monday, 1000, Day.Monday, 1100);
+    assertEquals(expected, this.sequential.firstFree(this.participants, candidates));
+    assertEquals(expected, this.parallel.firstFree(this.participants, candidates));
+    assertEquals(expected, this.virtual.firstFree(this.participants, candidates));
+  }
+
+  @Test
+  public void testStrategyUsesParallelEngine() {
+    exampleLargeMeeting();
+    List<String> attendees = new ArrayList<>();
+    for (int user = 1; user < 200; user++) {
+      attendees.add("User" + user);
+    }
+    IEvent e = new WorkHoursStrat(this.parallel).chooseTime(this.model,
+            this.participants.get(0), "All hands", false, "Snell", attendees, 100);
+    assertEquals(Day.Monday, e.observeStartDayOfEvent());
+    assertEquals(1000, e.observeStartTimeOfEvent());
+    assertEquals(200, e.observeInvitedUsers().size());
+  }
+}
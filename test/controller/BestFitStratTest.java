@@ -0,0 +1,88 @@
+package controller;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import model.Day;
+import model.IEvent;
+import model.IUser;
+import model.NuPlanner;
+import model.PlannerModel;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * This is the testing suite for the best fit strategy and the FreeGapTree it is built on.
+ */
+public class BestFitStratTest {
+
+  private PlannerModel model;
+  private IUser ben;
+  private IUser nico;
+
+  /**
+   * Sets up Ben with a one hour gap on Tuesday between two meetings and Nico with an empty week.
+   */
+  private void exampleBestFit() {
+    this.model = new NuPlanner(new ArrayList<>());
+    ben = this.model.addUser("Ben");
+    nico = this.model.addUser("Nico");
+    this.model.createEvent("Ben", "Sleep", "Home", false,
+            Day.Sunday, 0, Day.Tuesday, 900, List.of());
+    this.model.createEvent("Ben", "Lecture", "Snell", false,
+            Day.Tuesday, 1000, Day.Saturday, 2359, List.of());
+  }
+
+  @Test
+  public void testFreeGapTree() {
+    exampleBestFit();
+    FreeGapTree tree = new FreeGapTree(ben);
+    // Tuesday 0900 is minute 3420 and Tuesday 1000 is minute 3480
+    assertTrue(tree.isFree(3420 / 5, 3480 / 5));
+    assertFalse(tree.isFree(3420 / 5, 3485 / 5));
+    assertEquals(12, tree.freeAfter(3420 / 5));
+    assertEquals(12, tree.freeBefore(3480 / 5));
+    assertEquals(12, tree.longestGap(0, FreeGapTree.WEEK));
+    assertEquals(FreeGapTree.WEEK, new FreeGapTree(nico).longestGap(0, FreeGapTree.WEEK));
+    assertEquals(3420 / 5, tree.nextGap(0, 12));
+    assertEquals(3450 / 5, tree.nextGap(3450 / 5, 1));
+    assertEquals(-1, tree.nextGap(0, 13));
+    assertEquals(-1, tree.nextGap(3450 / 5, 12));
+    assertEquals(5, new FreeGapTree(nico).nextGap(5, 100));
+  }
+
+  @Test
+  public void testChoosesTightestFit() {
+    exampleBestFit();
+    this.model.createEvent("Nico", "Gym", "Marino", false,
+            Day.Monday, 0, Day.Monday, 1200, List.of());
+    this.model.createEvent("Nico", "Co-op", "Boston", false,
+            Day.Monday, 1400, Day.Saturday, 2359, List.of());
+    // Nico's two hour gap on Monday is a tighter fit than the whole of Sunday
+    IEvent e = new BestFitStrat().chooseTime(this.model, nico, "Lunch", false, "Stetson",
+            List.of(), 100);
+    assertEquals(Day.Monday, e.observeStartDayOfEvent());
+    assertEquals(1200, e.observeStartTimeOfEvent());
+  }
+
+  @Test
+  public void testFillsOnlyGap() {
+    exampleBestFit();
+    IEvent e = new BestFitStrat().chooseTime(this.model, ben, "Office Hours", false, "Snell",
+            List.of("Nico"), 100);
+    assertEquals(Day.Tuesday, e.observeStartDayOfEvent());
+    assertEquals(900, e.observeStartTimeOfEvent());
+    assertEquals(1000, e.observeEndTimeOfEvent());
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testNoGapLongEnough() {
+    exampleBestFit();
+    new BestFitStrat().chooseTime(this.model, ben, "Long meeting", false, "Snell",
+            List.of("Nico"), 200);
+  }
+}
@@ -0,0 +1,163 @@
+package controller;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+import model.Day;
+import model.IEvent;
+import model.IUser;
+import model.NuPlanner;
+import model.PlannerModel;
+import model.TimeSlot;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * This is the testing suite for the caching strategy. A counting strategy sits behind the cache
+ * so that the tests can see when the search is actually run.
+ */
+public class CachingStratTest {
+
+  private PlannerModel model;
+  private IUser ben;
+  private CountingStrat counting;
+  private SchedulingStrategy cached;
+
+  /**
+   * A strategy that counts how many times it is asked to search.
+   */
+  private static final class CountingStrat implements SchedulingStrategy {
+    private final SchedulingStrategy strategy = new WorkHoursStrat();
+    private int searches = 0;
+
+    @Override
+    public SlotProposal propose(PlannerModel model, IUser host, List<String> attendees,
+                                int duration, SearchBudget budget) {
+      this.searches++;
+      return this.strategy.propose(model, host, attendees, duration, budget);
+    }
+
+    @Override
+    public List<SlotProposal> candidates(PlannerModel model, IUser host, List<String> attendees,
+                                         int duration, int k, SearchBudget budget) {
+      this.searches++;
+      return this.strategy.candidates(model, host, attendees, duration, k, budget);
+    }
+
+    @Override
+    public SchedulingWindow observeWindow() {
+      return this.strategy.observeWindow();
+    }
+  }
+
+  private void exampleCache() {
+    this.model = new NuPlanner(new ArrayList<>());
+    ben = this.model.addUser("Ben");
+    this.model.addUser("Nico");
+    this.model.addUser("Lucia");
+    this.counting = new CountingStrat();
+    this.cached = new CachingStrat(this.counting);
+  }
+
+  @Test
+  public void testRepeatQueryIsCached() {
+    exampleCache();
+    SlotProposal first = this.cached.propose(this.model, ben, List.of("Nico", "Lucia"), 100);
+    SlotProposal second = this.cached.propose(this.model, ben, List.of("Lucia", "Nico"), 100);
+    assertEquals(1, this.counting.searches);
+    assertEquals(first.observeSlot(), second.observeSlot());
+    assertEquals(List.of("Lucia", "Nico"), second.observeAttendees());
+  }
+
+  @Test
+  public void testScheduleChangeInvalidates() {
+    exampleCache();
+    this.cached.propose(this.model, ben, List.of("Nico"), 100);
+    IEvent e = this.model.createEvent("Nico", "Gym", "Marino", false,
+            Day.Monday, 900, Day.Monday, 1000, List.of());
+    SlotProposal afterCreate = this.cached.propose(this.model, ben, List.of("Nico"), 100);
+    assertEquals(2, this.counting.searches);
+    assertEquals(new TimeSlot(Day.Monday, 1000, Day.Monday, 1100), afterCreate.observeSlot());
+
+    // Moving an event in place changes the schedule too
+    this.model.modifyEvent(e, "Gym", "Marino", false, Day.Monday, 1000, Day.Monday, 1100,
+            List.of(), "Nico");
+    SlotProposal afterModify = this.cached.propose(this.model, ben, List.of("Nico"), 100);
+    assertEquals(3, this.counting.searches);
+    assertEquals(new TimeSlot(Day.Monday, 900, Day.Monday, 1000), afterModify.observeSlot());
+
+    // A change to somebody who is not attending does not
+    this.model.createEvent("Lucia", "Lecture", "Snell", false,
+            Day.Monday, 900, Day.Monday, 1000, List.of());
+    this.cached.propose(this.model, ben, List.of("Nico"), 100);
+    assertEquals(3, this.counting.searches);
+  }
+
+  @Test
+  public void testOtherPlannerIsNotMistaken() {
+    exampleCache();
+    this.model.createEvent("Nico", "Brunch", "Home", false,
+            Day.Sunday, 1000, Day.Sunday, 1100, List.of());
+    this.cached.propose(this.model, ben, List.of("Nico"), 100);
+    // A planner with users of the same names, whose schedules have changed as often
+    PlannerModel other = new NuPlanner(new ArrayList<>());
+    IUser otherBen = other.addUser("Ben");
+    other.addUser("Nico");
+    other.createEvent("Nico", "Gym", "Marino", false,
+            Day.Monday, 900, Day.Monday, 1000, List.of());
+    SlotProposal proposal = this.cached.propose(other, otherBen, List.of("Nico"), 100);
+    assertEquals(2, this.counting.searches);
+    assertEquals(new TimeSlot(Day.Monday, 1000, Day.Monday, 1100), proposal.observeSlot());
+  }
+
+  @Test
+  public void testRepeatQueryDoesNotWalkTheUsers() {
+    int[] walks = new int[1];
+    List<IUser> users = new ArrayList<>() {
+      @Override
+      public Iterator<IUser> iterator() {
+        walks[0]++;
+        return super.iterator();
+      }
+    };
+    this.model = new NuPlanner(users);
+    ben = this.model.addUser("Ben");
+    this.model.addUser("Nico");
+    this.cached = new CachingStrat(new CountingStrat());
+    this.cached.propose(this.model, ben, List.of("Nico"), 100);
+    walks[0] = 0;
+    this.cached.propose(this.model, ben, List.of("Nico"), 100);
+    assertEquals(0, walks[0]);
+
+    // A user added after the index was built is still found
+    this.model.addUser("Lucia");
+    SlotProposal proposal = this.cached.propose(this.model, ben, List.of("Lucia"), 100);
+    assertEquals(List.of("Lucia"), proposal.observeAttendees());
+  }
+
+  @Test
+  public void testFailureIsCached() {
+    exampleCache();
+    for (int attempt = 0; attempt < 3; attempt++) {
+      try {
+        this.cached.propose(this.model, ben, List.of("Nico"), 900);
+      } catch (IllegalArgumentException e) {
+        assertEquals("Given Duration cannot fit in schedule", e.getMessage());
+      }
+    }
+    assertEquals(1, this.counting.searches);
+  }
+
+  @Test
+  public void testChooseTimeCommits() {
+    exampleCache();
+    IEvent e = this.cached.chooseTime(this.model, ben, "OOD", false, "Snell",
+            List.of("Nico"), 100);
+    assertTrue(this.model.selectSchedule("Nico").contains(e));
+    assertEquals(900, e.observeStartTimeOfEvent());
+  }
+}
@@ -0,0 +1,117 @@
+package controller;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import model.Day;
+import model.IUser;
+import model.NuPlanner;
+import model.PlannerModel;
+import model.TimeSlot;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * This is the testing suite for the options strategies suggest for the user to pick from,
+ * and the BusyTimeline and TopSlots they are found with.
+ */
+public class CandidatesTest {
+
+  private PlannerModel model;
+  private IUser ben;
+  private IUser nico;
+
+  /**
+   * Sets up Ben busy on Monday morning, Nico busy over Monday lunch and over the weekend,
+   * and Lucia busy for the whole working week.
+   */
+  private void exampleCandidates() {
+    this.model = new NuPlanner(new ArrayList<>());
+    ben = this.model.addUser("Ben");
+    nico = this.model.addUser("Nico");
+    this.model.addUser("Lucia");
+    this.model.createEvent("Ben", "Lecture", "Snell", false,
+            Day.Monday, 900, Day.Monday, 1100, List.of());
+    this.model.createEvent("Nico", "Lunch", "Stetson", false,
+            Day.Monday, 1200, Day.Monday, 1300, List.of());
+    this.model.createEvent("Nico", "Trip", "Maine", false,
+            Day.Saturday, 2200, Day.Sunday, 200, List.of());
+    this.model.createEvent("Lucia", "Co-op", "Boston", false,
+            Day.Monday, 0, Day.Friday, 2359, List.of());
+  }
+
+  @Test
+  public void testWorkHoursOptionsInOrder() {
+    exampleCandidates();
+    List<SlotProposal> options = new WorkHoursStrat().candidates(this.model, ben,
+            List.of("Nico"), 100, 3);
+    assertEquals(3, options.size());
+    assertEquals(new TimeSlot(Day.Monday, 1100, Day.Monday, 1200), options.get(0).observeSlot());
+    assertEquals(new TimeSlot(Day.Monday, 1300, Day.Monday, 1400), options.get(1).observeSlot());
+    assertEquals(new TimeSlot(Day.Monday, 1400, Day.Monday, 1500), options.get(2).observeSlot());
+    assertEquals(List.of("Nico"), options.get(0).observeAttendees());
+  }
+
+  @Test
+  public void testFirstOptionIsProposal() {
+    exampleCandidates();
+    List<SchedulingStrategy> strategies = List.of(new AnyTimeStrat(), new WorkHoursStrat(),
+            new LenientStrat(), new BestFitStrat(), new CachingStrat(new WorkHoursStrat()));
+    for (SchedulingStrategy strategy : strategies) {
+      SlotProposal proposal = strategy.propose(this.model, ben, List.of("Nico"), 130);
+      List<SlotProposal> options = strategy.candidates(this.model, ben, List.of("Nico"), 130, 5);
+      assertEquals(5, options.size());
+      assertEquals(proposal, options.get(0));
+    }
+  }
+
+  @Test
+  public void testLenientOptionsLeaveOutBusyInvitee() {
+    exampleCandidates();
+    List<SlotProposal> options = new LenientStrat().candidates(this.model, ben,
+            List.of("Nico", "Lucia"), 100, 2);
+    assertEquals(2, options.size());
+    assertEquals(List.of("Nico"), options.get(0).observeAttendees());
+  }
+
+  @Test
+  public void testNoOptions() {
+    exampleCandidates();
+    assertTrue(new WorkHoursStrat().candidates(this.model, ben, List.of("Lucia"), 100, 5)
+            .isEmpty());
+    assertTrue(new BestFitStrat().candidates(this.model, ben, List.of("Nico", "Lucia"),
+            2300, 5).isEmpty());
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testNonPositiveCount() {
+    exampleCandidates();
+    new AnyTimeStrat().candidates(this.model, ben, List.of(), 100, 0);
+  }
+
+  @Test
+  public void testTimelineAgreesWithModel() {
+    exampleCandidates();
+    BusyTimeline busy = new BusyTimeline(List.of(ben, nico));
+    for (TimeSlot slot : SchedulingWindow.ANY_TIME.candidates(130)) {
+      assertEquals(slot.toString(), !slot.conflictsWith(ben) && !slot.conflictsWith(nico),
+              busy.isFree(slot));
+    }
+  }
+
+  @Test
+  public void testTopSlotsKeepsBest() {
+    TopSlots best = new TopSlots(2);
+    TimeSlot first = new TimeSlot(Day.Monday, 900, Day.Monday, 1000);
+    TimeSlot second = new TimeSlot(Day.Monday, 1000, Day.Monday, 1100);
+    TimeSlot third = new TimeSlot(Day.Monday, 1100, Day.Monday, 1200);
+    best.offer(first, 5);
+    best.offer(second, 3);
+    best.offer(third, 3);
+    assertTrue(best.isFull());
+    assertEquals(List.of(second, third), best.observeSlots());
+  }
+}
@@ -0,0 +1,132 @@
+package controller;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import model.Day;
+import model.IUser;
+import model.NuPlanner;
+import model.PlannerModel;
+import model.TimeSlot;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * This is the testing suite for racing several strategies against each other.
+ */
+public class RacingStratTest {
+
+  private PlannerModel model;
+  private IUser ben;
+  private IUser nico;
+
+  /**
+   * A strategy that never finds anything and searches until it is told to stop.
+   */
+  private static final class StallingStrat implements SchedulingStrategy {
+    private final CountDownLatch stopped = new CountDownLatch(1);
+
+    @Override
+    public SlotProposal propose(PlannerModel model, IUser host, List<String> attendees,
+                                int duration, SearchBudget budget) {
+      while (!budget.shouldStop()) {
+        Thread.onSpinWait();
+      }
+      this.stopped.countDown();
+      throw budget.timedOut();
+    }
+
+    @Override
+    public List<SlotProposal> candidates(PlannerModel model, IUser host,
+                                         List<String> attendees, int duration, int k,
+                                         SearchBudget budget) {
+      this.propose(model, host, attendees, duration, budget);
+      return List.of();
+    }
+
+    @Override
+    public SchedulingWindow observeWindow() {
+      return SchedulingWindow.ANY_TIME;
+    }
+  }
+
+  /**
+   * Sets up Nico with a two hour gap on Monday and Lucia busy for the whole working week.
+   */
+  private void exampleRace() {
+    this.model = new NuPlanner(new ArrayList<>());
+    ben = this.model.addUser("Ben");
+    nico = this.model.addUser("Nico");
+    this.model.addUser("Lucia");
+    this.model.createEvent("Nico", "Gym", "Marino", false,
+            Day.Monday, 0, Day.Monday, 1200, List.of());
+    this.model.createEvent("Nico", "Co-op", "Boston", false,
+            Day.Monday, 1400, Day.Saturday, 2359, List.of());
+    this.model.createEvent("Lucia", "Co-op", "Boston", false,
+            Day.Monday, 0, Day.Friday, 2359, List.of());
+  }
+
+  @Test
+  public void testFirstFeasibleCancelsLosers() throws InterruptedException {
+    exampleRace();
+    StallingStrat stalling = new StallingStrat();
+    SchedulingStrategy race = new RacingStrat(RacingStrat.Mode.FIRST_FEASIBLE,
+            List.of(stalling, new AnyTimeStrat()));
+    SchedulingMetrics metrics = new SchedulingMetrics();
+    SlotProposal proposal = race.propose(this.model, ben, List.of(), 100,
+            new SearchBudget(60000, metrics));
+    assertEquals(new TimeSlot(Day.Sunday, 0, Day.Sunday, 100), proposal.observeSlot());
+    // The loser has already stopped reading the model, and losing is not an early exit
+    assertEquals(0, stalling.stopped.getCount());
+    assertTrue(stalling.stopped.await(5, TimeUnit.SECONDS));
+    assertEquals(0, metrics.observeEarlyExits());
+  }
+
+  @Test
+  public void testBestScoredPrefersTightFit() {
+    exampleRace();
+    SchedulingStrategy race = new RacingStrat(RacingStrat.Mode.BEST_SCORED,
+            List.of(new AnyTimeStrat(), new BestFitStrat()));
+    SlotProposal proposal = race.propose(this.model, nico, List.of(), 100);
+    assertEquals(new TimeSlot(Day.Monday, 1200, Day.Monday, 1300), proposal.observeSlot());
+  }
+
+  @Test
+  public void testBestScoredPrefersMoreAttendees() {
+    exampleRace();
+    SchedulingStrategy race = new RacingStrat(RacingStrat.Mode.BEST_SCORED,
+            List.of(new LenientStrat(), new AnyTimeStrat()));
+    SlotProposal proposal = race.propose(this.model, ben, List.of("Lucia"), 100);
+    assertEquals(List.of("Lucia"), proposal.observeAttendees());
+    assertEquals(Day.Sunday, proposal.observeSlot().observeStartDay());
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testNobodyFits() {
+    exampleRace();
+    new RacingStrat(RacingStrat.Mode.BEST_SCORED, List.of(new WorkHoursStrat(),
+            new BestFitStrat(SchedulingWindow.WORK_HOURS)))
+            .propose(this.model, nico, List.of("Lucia"), 300);
+  }
+
+  @Test
+  public void testCandidatesMerged() {
+    exampleRace();
+    SchedulingStrategy race = new RacingStrat(RacingStrat.Mode.BEST_SCORED,
+            List.of(new AnyTimeStrat(), new BestFitStrat()));
+    List<SlotProposal> options = race.candidates(this.model, nico, List.of(), 100, 3);
+    assertEquals(3, options.size());
+    assertEquals(new TimeSlot(Day.Monday, 1200, Day.Monday, 1300),
+            options.get(0).observeSlot());
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testNoStrategies() {
+    new RacingStrat(RacingStrat.Mode.FIRST_FEASIBLE, List.of());
+  }
+}
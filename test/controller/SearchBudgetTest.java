@@ -0,0 +1,120 @@
+package controller;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import model.Day;
+import model.IUser;
+import model.NuPlanner;
+import model.PlannerModel;
+import model.TimeSlot;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * This is the testing suite for strategies searching within a SearchBudget.
+ */
+public class SearchBudgetTest {
+
+  private PlannerModel model;
+  private IUser ben;
+  private SchedulingMetrics metrics;
+
+  private void exampleBudget() {
+    this.model = new NuPlanner(new ArrayList<>());
+    ben = this.model.addUser("Ben");
+    this.model.addUser("Nico");
+    this.metrics = new SchedulingMetrics();
+  }
+
+  private SearchBudget expired() {
+    return new SearchBudget(0, this.metrics);
+  }
+
+  @Test
+  public void testBudgetStates() {
+    exampleBudget();
+    SearchBudget unbounded = SearchBudget.unbounded();
+    assertFalse(unbounded.shouldStop());
+    unbounded.cancel();
+    assertTrue(unbounded.isCancelled());
+    assertTrue(unbounded.shouldStop());
+    assertTrue(expired().isExpired());
+    assertFalse(new SearchBudget(60000, this.metrics).shouldStop());
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testNegativeBudget() {
+    new SearchBudget(-1, new SchedulingMetrics());
+  }
+
+  @Test
+  public void testOutOfTimeIsReported() {
+    exampleBudget();
+    List<SchedulingStrategy> strategies = List.of(new AnyTimeStrat(), new WorkHoursStrat(),
+            new LenientStrat(), new BestFitStrat());
+    for (SchedulingStrategy strategy : strategies) {
+      try {
+        strategy.propose(this.model, ben, List.of("Nico"), 100, expired());
+        fail("Expected the search to run out of time");
+      } catch (SearchTimeoutException e) {
+        assertTrue(e.getMessage().contains("ms"));
+      }
+    }
+    assertEquals(4, this.metrics.observeTimedOut());
+    assertEquals(0, this.metrics.observePartial());
+  }
+
+  @Test
+  public void testCancelledIsReported() {
+    exampleBudget();
+    SearchBudget budget = new SearchBudget(60000, this.metrics);
+    budget.cancel();
+    try {
+      new WorkHoursStrat().propose(this.model, ben, List.of(), 100, budget);
+      fail("Expected the search to be cancelled");
+    } catch (SearchTimeoutException e) {
+      assertEquals("Scheduling was cancelled", e.getMessage());
+    }
+    assertEquals(1, this.metrics.observeCancelled());
+    assertEquals(1, this.metrics.observeEarlyExits());
+  }
+
+  @Test
+  public void testOptionsStopEarly() {
+    exampleBudget();
+    assertTrue(new BestFitStrat().candidates(this.model, ben, List.of(), 100, 5, expired())
+            .isEmpty());
+    assertTrue(new AnyTimeStrat().candidates(this.model, ben, List.of(), 100, 5, expired())
+            .isEmpty());
+    assertEquals(2, this.metrics.observeTimedOut());
+  }
+
+  @Test
+  public void testTimeoutIsNotCached() {
+    exampleBudget();
+    SchedulingStrategy cached = new CachingStrat(new WorkHoursStrat());
+    try {
+      cached.propose(this.model, ben, List.of("Nico"), 100, expired());
+      fail("Expected the search to run out of time");
+    } catch (SearchTimeoutException e) {
+      // The real answer is found once there is time
+    }
+    assertEquals(new TimeSlot(Day.Monday, 900, Day.Monday, 1000),
+            cached.propose(this.model, ben, List.of("Nico"), 100).observeSlot());
+  }
+
+  @Test
+  public void testEnoughTimeFindsSlot() {
+    exampleBudget();
+    SlotProposal proposal = new BestFitStrat().propose(this.model, ben, List.of("Nico"), 100,
+            new SearchBudget(60000, this.metrics));
+    assertEquals(new TimeSlot(Day.Sunday, 0, Day.Sunday, 100), proposal.observeSlot());
+    assertEquals(0, this.metrics.observeEarlyExits());
+  }
+}
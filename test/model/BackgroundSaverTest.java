@@ -0,0 +1,115 @@
+package model;
+
+import org.junit.Test;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * This is the testing suite for saving schedules in the background.
+ */
+public class BackgroundSaverTest {
+
+  private NuPlanner planner;
+  private IEvent ood;
+
+  private void examplePlanner() {
+    this.planner = ExamplePlanners.benNicoLucia();
+    this.ood = this.planner.selectSchedule("Nico").get(0);
+  }
+
+  /**
+   * A listener that keeps every report it is given.
+   */
+  private static final class Reports implements BackgroundSaver.Listener {
+    private final List<String> progress = Collections.synchronizedList(new ArrayList<>());
+    private final List<TransferReport> finished =
+        Collections.synchronizedList(new ArrayList<>());
+
+    @Override
+    public void progress(int saved, int total) {
+      this.progress.add(saved + "/" + total);
+    }
+
+    @Override
+    public void finished(TransferReport report) {
+      this.finished.add(report);
+    }
+  }
+
+  @Test
+  public void testSavesTheScheduleAsItWasAskedFor() throws Exception {
+    examplePlanner();
+    Path directory = Files.createTempDirectory("save");
+    BackgroundSaver saver = new BackgroundSaver(this.planner, 50, Runnable::run);
+    Reports reports = new Reports();
+    saver.save(directory.toString(), reports);
+    // Changes made while the save is waiting are not part of it
+    this.planner.modifyEvent(this.ood, "Working on OOD", "Library", false, Day.Monday, 2000,
+            Day.Thursday, 2059, List.of("Nico"), "Ben");
+    assertTrue(saver.awaitIdle(5000));
+
+    assertEquals(List.of("1/3", "2/3", "3/3"), reports.progress);
+    assertEquals(1, reports.finished.size());
+    assertTrue(reports.finished.get(0).isComplete());
+    assertEquals(4, reports.finished.get(0).observeEvents());
+    assertTrue(Files.readString(directory.resolve("Nico")).contains("Snell"));
+    assertFalse(Files.readString(directory.resolve("Nico")).contains("Library"));
+  }
+
+  @Test
+  public void testQuickSavesAreWrittenTogether() throws Exception {
+    examplePlanner();
+    Path directory = Files.createTempDirectory("save");
+    BackgroundSaver saver = new BackgroundSaver(this.planner, 500, Runnable::run);
+    Reports first = new Reports();
+    Reports second = new Reports();
+    saver.save(directory.toString(), first);
+    this.planner.modifyEvent(this.ood, "Working on OOD", "Library", false, Day.Monday, 2000,
+            Day.Thursday, 2059, List.of("Nico"), "Ben");
+    saver.save(directory.toString(), second);
+    assertTrue(saver.awaitIdle(5000));
+
+    // One write of the latest copy of each schedule, reported to both saves
+    assertEquals(1, first.finished.size());
+    assertTrue(first.finished.get(0) == second.finished.get(0));
+    assertEquals(3, first.finished.get(0).observeSchedules());
+    assertTrue(Files.readString(directory.resolve("Nico")).contains("Library"));
+
+    Reports third = new Reports();
+    this.planner.removeEvent("Nico", this.ood);
+    saver.save(directory.toString(), third);
+    assertTrue(saver.awaitIdle(5000));
+    assertEquals(1, third.finished.get(0).observeSchedules());
+  }
+
+  @Test
+  public void testFailedSchedulesAreSavedAgain() throws Exception {
+    examplePlanner();
+    Path file = Files.createTempFile("save", ".xml");
+    BackgroundSaver saver = new BackgroundSaver(this.planner, 0, Runnable::run);
+    Reports reports = new Reports();
+    saver.save(file.toString(), reports);
+    assertTrue(saver.awaitIdle(5000));
+    TransferReport report = reports.finished.get(0);
+    assertFalse(report.isComplete());
+    assertEquals(List.of("Ben", "Nico", "Lucia"),
+            new ArrayList<>(report.observeFailures().keySet()));
+
+    saver.save(file.toString(), reports);
+    assertTrue(saver.awaitIdle(5000));
+    assertEquals(3, reports.finished.get(1).observeFailures().size());
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testNegativeDelay() {
+    new BackgroundSaver(new NuPlanner(), -1, Runnable::run);
+  }
+}
@@ -0,0 +1,151 @@
+package model;
+
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * This is the testing suite for importing a directory of schedule files.
+ */
+public class BulkImporterTest {
+
+  private PlannerModel source;
+
+  private void exampleSource() {
+    this.source = new NuPlanner(new ArrayList<>());
+    this.source.addUser("Ben");
+    this.source.addUser("Nico");
+    this.source.addUser("Chat");
+    this.source.createEvent("Ben", "Working on OOD", "Snell", false,
+            Day.Monday, 2000, Day.Thursday, 2059, List.of("Nico"));
+    this.source.createEvent("Chat", "Weekend", "Home", true,
+            Day.Saturday, 2200, Day.Sunday, 100, List.of("Ben"));
+  }
+
+  private Path writeSource() throws IOException {
+    Path directory = Files.createTempDirectory("import");
+    for (IUser user : this.source.getListOfUser()) {
+      XmlScheduleWriter.write(user, directory.resolve(user.toString()));
+    }
+    return directory;
+  }
+
+  @Test
+  public void testImportsInAnyOrder() throws IOException {
+    exampleSource();
+    Path directory = writeSource();
+    PlannerModel model = new NuPlanner(new ArrayList<>());
+    TransferReport report = new BulkImporter(2).importDirectory(model, directory);
+    assertTrue(report.isComplete());
+    assertEquals(3, report.observeSchedules());
+    assertEquals(4, report.observeEvents());
+    assertEquals(3, model.getListOfUser().size());
+    assertEquals(2, model.selectSchedule("Ben").size());
+    assertEquals(1, model.selectSchedule("Nico").size());
+    assertEquals(1, model.selectSchedule("Chat").size());
+    // Ben's file is read before Nico's, yet Nico is still an invitee
+    IEvent ood = model.selectSchedule("Ben").get(0);
+    assertEquals("Working on OOD", ood.observeName());
+    assertEquals("Nico", ood.observeInvitedUsers().get(1).toString());
+  }
+
+  @Test
+  public void testSharedEventsAreMerged() throws IOException {
+    exampleSource();
+    Path directory = writeSource();
+    PlannerModel model = new NuPlanner(new ArrayList<>());
+    new BulkImporter().importDirectory(model, directory);
+    assertSame(model.selectSchedule("Ben").get(0), model.selectSchedule("Nico").get(0));
+    assertSame(model.selectSchedule("Ben").get(1), model.selectSchedule("Chat").get(0));
+  }
+
+  @Test
+  public void testImportingTwiceAddsNothing() throws IOException {
+    exampleSource();
+    Path directory = writeSource();
+    PlannerModel model = new NuPlanner(new ArrayList<>());
+    new BulkImporter().importDirectory(model, directory);
+    TransferReport again = new BulkImporter().importDirectory(model, directory);
+    assertTrue(again.isComplete());
+    assertEquals(3, model.getListOfUser().size());
+    assertEquals(2, model.selectSchedule("Ben").size());
+  }
+
+  @Test
+  public void testBadFilesAreReported() throws IOException {
+    exampleSource();
+    Path directory = writeSource();
+    Files.write(directory.resolve("Broken"), "<schedule id=\"Broken\">"
+            .getBytes(StandardCharsets.UTF_8));
+    Files.write(directory.resolve("Stranger"), ("<schedule id=\"Stranger\"><event>"
+            + "<name>Lunch</name><time><start-day>Friday</start-day><start>1200</start>"
+            + "<end-day>Friday</end-day><end>1300</end></time><location><online>true</online>"
+            + "<place>Zoom</place></location><users><uid>Stranger</uid><uid>Nobody</uid>"
+            + "</users></event></schedule>").getBytes(StandardCharsets.UTF_8));
+    PlannerModel model = new NuPlanner(new ArrayList<>());
+    TransferReport report = new BulkImporter().importDirectory(model, directory);
+    assertFalse(report.isComplete());
+    assertEquals(3, report.observeSchedules());
+    assertEquals(List.of(directory.resolve("Broken").toString(),
+                    directory.resolve("Stranger").toString()),
+            new ArrayList<>(report.observeFailures().keySet()));
+    // The owner of a file that is left out is not registered
+    assertEquals(3, model.getListOfUser().size());
+    assertEquals(List.of("Ben", "Chat", "Nico"), usernames(model));
+  }
+
+  @Test
+  public void testLeftOutEventsRegisterNoOne() {
+    PlannerModel model = new NuPlanner(new ArrayList<>());
+    model.addUser("Ben");
+    model.createEvent("Ben", "Gym", "Marino", false,
+            Day.Tuesday, 900, Day.Tuesday, 1000, List.of());
+    EventRecord clash = new EventRecord("Class", "Snell", false, Day.Tuesday, 930,
+            Day.Tuesday, 1030, List.of("Ben", "Nico"));
+    EventRecord lunch = new EventRecord("Lunch", "Home", true, Day.Friday, 1200,
+            Day.Friday, 1300, List.of("Chat"));
+    TransferReport report = new TransferReport();
+    BulkImporter.merge(model, "feed", List.of(clash, lunch), report);
+    assertEquals(List.of("feed (Ben)"), new ArrayList<>(report.observeFailures().keySet()));
+    // Nico is only named by the event that was left out
+    assertEquals(List.of("Ben", "Chat"), usernames(model));
+    assertEquals(1, model.selectSchedule("Ben").size());
+    assertEquals(1, model.selectSchedule("Chat").size());
+  }
+
+  private static List<String> usernames(PlannerModel model) {
+    List<String> names = new ArrayList<>();
+    for (IUser user : model.getListOfUser()) {
+      names.add(user.toString());
+    }
+    return names;
+  }
+
+  @Test
+  public void testConflictingFileIsLeftOutWhole() throws IOException {
+    exampleSource();
+    Path directory = writeSource();
+    PlannerModel model = new NuPlanner(new ArrayList<>());
+    model.addUser("Nico");
+    model.createEvent("Nico", "Gym", "Marino", false,
+            Day.Tuesday, 900, Day.Tuesday, 1000, List.of());
+    TransferReport report = new BulkImporter().importDirectory(model, directory);
+    // Nico's own file brings the same event as Ben's, which conflicts with the gym
+    assertEquals(List.of(directory.resolve("Ben").toString(),
+                    directory.resolve("Nico").toString()),
+            new ArrayList<>(report.observeFailures().keySet()));
+    assertEquals(1, model.selectSchedule("Nico").size());
+    assertEquals(1, model.selectSchedule("Ben").size());
+    assertEquals(1, model.selectSchedule("Chat").size());
+  }
+}
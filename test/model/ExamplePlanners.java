@@ -0,0 +1,43 @@
+package model;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The planner the tests of saving, exporting and importing schedules start from, so that
+ * each of them writes and reads back the same schedules.
+ */
+final class ExamplePlanners {
+
+  private ExamplePlanners() {
+  }
+
+  /**
+   * Builds a planner of Ben, Nico and Lucia, where Ben works on OOD with Nico from Monday
+   * night to Thursday night and Lucia spends a weekend with Ben that wraps from Saturday into
+   * Sunday.
+   *
+   * @return the planner
+   */
+  static NuPlanner benNicoLucia() {
+    return benNicoLucia("Working on OOD");
+  }
+
+  /**
+   * Builds the planner of benNicoLucia with Ben's meeting under the given name.
+   *
+   * @param meeting the name of the meeting of Ben and Nico
+   * @return the planner
+   */
+  static NuPlanner benNicoLucia(String meeting) {
+    NuPlanner planner = new NuPlanner(new ArrayList<>());
+    planner.addUser("Ben");
+    planner.addUser("Nico");
+    planner.addUser("Lucia");
+    planner.createEvent("Ben", meeting, "Snell", false,
+            Day.Monday, 2000, Day.Thursday, 2059, List.of("Nico"));
+    planner.createEvent("Lucia", "Weekend", "Home", true,
+            Day.Saturday, 2200, Day.Sunday, 100, List.of("Ben"));
+    return planner;
+  }
+}
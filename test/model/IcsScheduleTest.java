@@ -0,0 +1,134 @@
+package model;
+
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * This is the testing suite for writing schedules as an iCalendar file and reading them back.
+ */
+public class IcsScheduleTest {
+
+  private PlannerModel example;
+
+  private void examplePlanner() {
+    // A name long enough to be folded across lines of the file
+    this.example = ExamplePlanners.benNicoLucia(
+            "Working on OOD, again; and again with a name long enough to be folded");
+  }
+
+  @Test
+  public void testWriteEachEventOnce() throws IOException {
+    examplePlanner();
+    StringWriter out = new StringWriter();
+    assertEquals(2, IcsScheduleWriter.write(this.example.getListOfUser(), out));
+
+    String calendar = out.toString();
+    assertTrue(calendar.startsWith("BEGIN:VCALENDAR\r\n"));
+    assertEquals(2, calendar.split("BEGIN:VEVENT", -1).length - 1);
+    assertTrue(calendar.contains("DTSTART:20240108T200000\r\n"));
+    // The weekend ends on the Sunday of the week after
+    assertTrue(calendar.contains("DTEND:20240114T010000\r\n"));
+    assertTrue(calendar.contains("ORGANIZER;CN=\"Lucia\":urn:nuplanner:Lucia\r\n"));
+    for (String line : calendar.split("\r\n")) {
+      assertTrue(line.getBytes(StandardCharsets.UTF_8).length <= 75);
+    }
+
+    StringWriter ben = new StringWriter();
+    // Written alone, Ben writes the weekend Lucia hosts too
+    assertEquals(2, IcsScheduleWriter.write(
+            Utils.findUser("Ben", this.example.getListOfUser()), ben));
+  }
+
+  @Test
+  public void testRoundTrip() throws IOException {
+    examplePlanner();
+    StringWriter out = new StringWriter();
+    IcsScheduleWriter.write(this.example.getListOfUser(), out);
+
+    PlannerModel copy = new NuPlanner(new ArrayList<>());
+    TransferReport report = IcsScheduleReader.read(copy, new StringReader(out.toString()),
+            "planner.ics", 2);
+    assertTrue(report.isComplete());
+    assertEquals(2, report.observeEvents());
+    assertEquals(3, copy.getListOfUser().size());
+
+    List<IEvent> ben = copy.selectSchedule("Ben");
+    assertEquals(2, ben.size());
+    IEvent work = copy.selectSchedule("Nico").get(0);
+    assertEquals(this.example.selectSchedule("Nico").get(0).observeName(), work.observeName());
+    assertEquals(Day.Thursday, work.observeEndDayOfEvent());
+    assertEquals(2059, work.observeEndTimeOfEvent());
+    IEvent weekend = copy.selectSchedule("Lucia").get(0);
+    assertSame(weekend, ben.get(0) == work ? ben.get(1) : ben.get(0));
+    assertEquals("Lucia", weekend.observeHost().toString());
+    assertTrue(weekend.observeOnline());
+    assertEquals(Day.Sunday, weekend.observeEndDayOfEvent());
+
+    // Reading the calendar again adds nothing new
+    report = IcsScheduleReader.read(copy, new StringReader(out.toString()), "planner.ics", 1);
+    assertTrue(report.isComplete());
+    assertEquals(2, copy.selectSchedule("Ben").size());
+  }
+
+  @Test
+  public void testCalendarFromAnotherProgram() throws IOException {
+    examplePlanner();
+    String calendar = String.join("\r\n",
+            "BEGIN:VCALENDAR",
+            "VERSION:2.0",
+            "BEGIN:VEVENT",
+            "DTSTART;TZID=America/New_York:20240308T090000",
+            "DURATION:PT1H30M",
+            "SUMMARY:Stand\\, up",
+            "ORGANIZER;CN=Ana:mailto:ana@example.com",
+            "ATTENDEE:mailto:Nico",
+            "BEGIN:VALARM",
+            "TRIGGER:-PT15M",
+            "END:VALARM",
+            "END:VEVENT",
+            "BEGIN:VEVENT",
+            "SUMMARY:No start",
+            "ORGANIZER:mailto:ana@example.com",
+            "END:VEVENT",
+            "BEGIN:VEVENT",
+            "DTSTART:20240102T203000Z",
+            "DTEND:20240102T2",
+            " 10000Z",
+            "SUMMARY:Clashes with Ben",
+            "ORGANIZER;CN=Bo:mailto:bo@example.com",
+            "ATTENDEE;CN=\"Ben\":urn:nuplanner:Ben",
+            "END:VEVENT",
+            "END:VCALENDAR", "");
+
+    TransferReport report = IcsScheduleReader.read(this.example,
+            new StringReader(calendar), "other.ics", 2);
+    assertFalse(report.isComplete());
+    assertEquals(1, report.observeEvents());
+    assertEquals("Event has no start", report.observeFailures().get("other.ics event 2"));
+    assertTrue(report.observeFailures().containsKey("other.ics (Bo)"));
+
+    IEvent standUp = this.example.selectSchedule("Ana").get(0);
+    assertEquals("Stand, up", standUp.observeName());
+    assertEquals(Day.Friday, standUp.observeStartDayOfEvent());
+    assertEquals(1030, standUp.observeEndTimeOfEvent());
+    assertSame(standUp, this.example.selectSchedule("Nico").get(1));
+    assertEquals(2, this.example.selectSchedule("Ben").size());
+  }
+
+  @Test(expected = IOException.class)
+  public void testNotACalendar() throws IOException {
+    examplePlanner();
+    IcsScheduleReader.read(this.example, new StringReader("<schedule/>"), "x.ics", 1);
+  }
+}
@@ -0,0 +1,163 @@
+package model;
+
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.sql.Driver;
+import java.sql.DriverManager;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assume.assumeTrue;
+
+/**
+ * This is the testing suite for keeping the planner in an SQL database. It needs the H2
+ * driver on the class path, or a JDBC URL prefix such as jdbc:sqlite: in the system property
+ * planner.jdbc, and is skipped otherwise.
+ */
+public class JdbcPlannerRepositoryTest {
+
+  private PlannerModel example;
+
+  private void examplePlanner() {
+    this.example = ExamplePlanners.benNicoLucia();
+    // An event with no other invitee, which is on one schedule only
+    this.example.createEvent("Nico", "Lunch", "Stetson", false,
+            Day.Friday, 1200, Day.Friday, 1300, List.of());
+  }
+
+  static String url() throws IOException {
+    String prefix = System.getProperty("planner.jdbc", "jdbc:h2:file:");
+    boolean driver = false;
+    for (Driver loaded : Collections.list(DriverManager.getDrivers())) {
+      try {
+        driver |= loaded.acceptsURL(prefix + "planner");
+      } catch (java.sql.SQLException ignored) {
+        // The driver is for another database
+      }
+    }
+    assumeTrue("No JDBC driver for " + prefix, driver);
+    return prefix + Files.createTempDirectory("repository").resolve("planner");
+  }
+
+  @Test
+  public void testSaveAndLoad() throws IOException {
+    examplePlanner();
+    String url = url();
+    try (JdbcPlannerRepository repository = new JdbcPlannerRepository(url)) {
+      assertEquals(3, ((NuPlanner) this.example).saveSchedule(repository));
+    }
+    try (JdbcPlannerRepository repository = new JdbcPlannerRepository(url)) {
+      NuPlanner loaded = repository.load();
+      assertEquals(3, loaded.getListOfUser().size());
+      for (IUser user : this.example.getListOfUser()) {
+        List<IEvent> schedule = loaded.selectSchedule(user.toString());
+        assertEquals(user.observeSchedule().size(), schedule.size());
+        for (int i = 0; i < schedule.size(); i++) {
+          assertEquals(user.observeSchedule().get(i).toString(), schedule.get(i).toString());
+        }
+      }
+      assertSame(loaded.selectSchedule("Ben").get(0), loaded.selectSchedule("Nico").get(0));
+      assertEquals("Lucia", loaded.selectSchedule("Ben").get(1).observeHost().toString());
+    }
+  }
+
+  @Test
+  public void testSaveOnlyChanges() throws IOException {
+    examplePlanner();
+    String url = url();
+    try (JdbcPlannerRepository repository = new JdbcPlannerRepository(url)) {
+      NuPlanner planner = (NuPlanner) this.example;
+      planner.saveSchedule(repository);
+      assertEquals(0, planner.saveSchedule(repository));
+
+      // Moving a shared event changes it for everyone who has it
+      IEvent ood = planner.selectSchedule("Ben").get(0);
+      planner.modifyEvent(ood, "Working on OOD", "Library", false, Day.Monday, 2000,
+              Day.Thursday, 2059, List.of("Nico"), "Ben");
+      assertEquals(2, planner.saveSchedule(repository));
+      planner.removeEvent("Nico", planner.selectSchedule("Nico").get(1));
+      assertEquals(1, planner.saveSchedule(repository));
+    }
+    try (JdbcPlannerRepository repository = new JdbcPlannerRepository(url)) {
+      NuPlanner loaded = repository.load();
+      assertEquals("Library", loaded.selectSchedule("Nico").get(0).observeLocation());
+      assertEquals(1, loaded.selectSchedule("Nico").size());
+      assertEquals(0, loaded.saveSchedule(repository));
+      loaded.addUser("Chat");
+      assertEquals(1, loaded.saveSchedule(repository));
+      assertEquals(List.of("Ben", "Nico", "Lucia", "Chat"), repository.loadUsernames());
+    }
+  }
+
+  @Test
+  public void testPartialLoads() throws IOException {
+    examplePlanner();
+    try (JdbcPlannerRepository repository = new JdbcPlannerRepository(url())) {
+      ((NuPlanner) this.example).saveSchedule(repository);
+      ScheduleRecord ben = repository.loadSchedule("Ben");
+      assertEquals(2, ben.observeEvents().size());
+      assertEquals(List.of("Ben", "Nico"), ben.observeEvents().get(0).observeUsers());
+      assertTrue(repository.loadSchedule("Nobody").observeEvents().isEmpty());
+
+      List<EventRecord> tuesday = repository.eventsBetween("Ben", Day.Tuesday, 0,
+              Day.Tuesday, 2359);
+      assertEquals(1, tuesday.size());
+      assertEquals("Working on OOD", tuesday.get(0).observeName());
+      // The weekend runs over into Sunday morning
+      List<EventRecord> sunday = repository.eventsBetween("Ben", Day.Sunday, 0,
+              Day.Sunday, 200);
+      assertEquals(1, sunday.size());
+      assertEquals("Weekend", sunday.get(0).observeName());
+      assertTrue(repository.eventsBetween("Ben", Day.Friday, 0, Day.Saturday, 2100)
+              .isEmpty());
+    }
+  }
+
+  @Test
+  public void testLoadLazily() throws IOException {
+    examplePlanner();
+    String url = url();
+    try (JdbcPlannerRepository repository = new JdbcPlannerRepository(url)) {
+      ((NuPlanner) this.example).saveSchedule(repository);
+    }
+    try (JdbcPlannerRepository repository = new JdbcPlannerRepository(url)) {
+      NuPlanner lazy = repository.loadLazily();
+      List<IUser> users = lazy.getListOfUser();
+      assertEquals("[Ben, Nico, Lucia]", users.toString());
+      assertEquals(0, lazy.saveSchedule(repository));
+      for (IUser user : users) {
+        assertFalse(((LazyUser) user).isLoaded());
+      }
+
+      IEvent ood = lazy.selectSchedule("Ben").get(0);
+      assertTrue(((LazyUser) users.get(0)).isLoaded());
+      assertFalse(((LazyUser) users.get(1)).isLoaded());
+      assertSame(users.get(2), lazy.selectSchedule("Ben").get(1).observeHost());
+      assertSame(ood, lazy.selectSchedule("Nico").get(0));
+
+      lazy.modifyEvent(ood, "Working on OOD", "Library", false, Day.Monday, 2000,
+              Day.Thursday, 2059, List.of("Nico"), "Ben");
+      assertFalse(((LazyUser) users.get(2)).isLoaded());
+      assertEquals(2, lazy.saveSchedule(repository));
+    }
+    try (JdbcPlannerRepository repository = new JdbcPlannerRepository(url)) {
+      NuPlanner loaded = repository.load();
+      assertEquals("Library", loaded.selectSchedule("Nico").get(0).observeLocation());
+      assertEquals(2, loaded.selectSchedule("Ben").size());
+      assertEquals(1, loaded.selectSchedule("Lucia").size());
+    }
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testBackwardsRange() throws IOException {
+    try (JdbcPlannerRepository repository = new JdbcPlannerRepository(url())) {
+      repository.eventsBetween("Ben", Day.Friday, 0, Day.Monday, 0);
+    }
+  }
+}
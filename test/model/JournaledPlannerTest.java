@@ -0,0 +1,165 @@
+package model;
+
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * This is the testing suite for the planner kept in a journal.
+ */
+public class JournaledPlannerTest {
+
+  private static void exampleChanges(PlannerModel planner) {
+    planner.addUser("Ben");
+    planner.addUser("Nico");
+    planner.addUser("Lucia");
+    IEvent ood = planner.createEvent("Ben", "Working on OOD", "Snell", false,
+            Day.Monday, 2000, Day.Thursday, 2059, List.of("Nico"));
+    IEvent lecture = planner.createEvent("Lucia", "Lecture", "Churchill", false,
+            Day.Saturday, 950, Day.Saturday, 1130, List.of("Ben"));
+    planner.modifyEvent(ood, "Working on OOD", "Library", true, Day.Friday, 900,
+            Day.Friday, 1200, List.of("Nico", "Lucia"), "Ben");
+    planner.removeEvent("Ben", lecture);
+  }
+
+  private static List<String> files(Path directory) throws IOException {
+    try (Stream<Path> listing = Files.list(directory)) {
+      return listing.map(file -> file.getFileName().toString()).sorted()
+              .collect(Collectors.toList());
+    }
+  }
+
+  @Test
+  public void testReplay() throws IOException {
+    Path directory = Files.createTempDirectory("journal");
+    try (JournaledPlanner planner = JournaledPlanner.open(directory, FsyncPolicy.always())) {
+      exampleChanges(planner);
+    }
+    try (JournaledPlanner planner = JournaledPlanner.open(directory, FsyncPolicy.never())) {
+      assertEquals(3, planner.getListOfUser().size());
+      assertEquals(1, planner.selectSchedule("Ben").size());
+      IEvent ood = planner.selectSchedule("Ben").get(0);
+      assertEquals("Library", ood.observeLocation());
+      assertEquals(Day.Friday, ood.observeStartDayOfEvent());
+      assertEquals(3, ood.observeInvitedUsers().size());
+      assertEquals(2, planner.selectSchedule("Lucia").size());
+      assertTrue(planner.selectSchedule("Lucia").get(0) == planner.selectSchedule("Nico").get(0));
+    }
+  }
+
+  @Test
+  public void testFailedChangesReplayTheSame() throws IOException {
+    Path directory = Files.createTempDirectory("journal");
+    try (JournaledPlanner planner = JournaledPlanner.open(directory, FsyncPolicy.every(5))) {
+      planner.addUser("Ben");
+      try {
+        planner.createEvent("Ben", "Lunch", "Home", true, Day.Monday, 1200, Day.Monday, 1300,
+                List.of("Nobody"));
+      } catch (IllegalArgumentException expected) {
+        // Nobody is not a user
+      }
+    }
+    try (JournaledPlanner planner = JournaledPlanner.open(directory, FsyncPolicy.always())) {
+      assertEquals(1, planner.getListOfUser().size());
+      assertTrue(planner.selectSchedule("Ben").isEmpty());
+    }
+  }
+
+  @Test
+  public void testTornRecordIsCutOff() throws IOException {
+    Path directory = Files.createTempDirectory("journal");
+    try (JournaledPlanner planner = JournaledPlanner.open(directory, FsyncPolicy.always())) {
+      planner.addUser("Ben");
+      planner.addUser("Nico");
+    }
+    // A crash in the middle of writing a record leaves part of it behind
+    Path segment = directory.resolve(files(directory).get(files(directory).size() - 1));
+    Files.write(segment, new byte[] {0, 0, 0, 40, 1, 2}, StandardOpenOption.APPEND);
+    try (JournaledPlanner planner = JournaledPlanner.open(directory, FsyncPolicy.always())) {
+      assertEquals(2, planner.getListOfUser().size());
+      planner.addUser("Lucia");
+    }
+    try (JournaledPlanner planner = JournaledPlanner.open(directory, FsyncPolicy.always())) {
+      assertEquals(3, planner.getListOfUser().size());
+    }
+  }
+
+  @Test
+  public void testCompaction() throws IOException {
+    Path directory = Files.createTempDirectory("journal");
+    try (JournaledPlanner planner = JournaledPlanner.open(directory, FsyncPolicy.never(),
+            64, 2)) {
+      for (int i = 0; i < 40; i++) {
+        planner.addUser("User " + i);
+      }
+      exampleChanges(planner);
+    }
+    List<String> files = files(directory);
+    assertEquals(1, files.stream().filter(file -> file.startsWith("snapshot-")).count());
+    // The segments written first are covered by the snapshot and gone
+    assertFalse(files.contains(String.format("journal-%016d.log", 1)));
+    try (JournaledPlanner planner = JournaledPlanner.open(directory, FsyncPolicy.always())) {
+      assertEquals(43, planner.getListOfUser().size());
+      assertEquals("Library", planner.selectSchedule("Ben").get(0).observeLocation());
+    }
+  }
+
+  @Test
+  public void testAddedEventsAreJournaled() throws IOException {
+    Path directory = Files.createTempDirectory("journal");
+    try (JournaledPlanner planner = JournaledPlanner.open(directory, FsyncPolicy.always())) {
+      planner.addUser("Ben");
+      planner.addUser("Nico");
+      planner.addUser("Lucia");
+      IEvent ood = planner.createEvent("Ben", "Working on OOD", "Snell", false,
+              Day.Monday, 2000, Day.Thursday, 2059, List.of("Nico"));
+      TransferReport report = new NdjsonFeed(planner).ingest(new ByteArrayInputStream(
+              ("{\"name\":\"Lunch\",\"startDay\":\"Friday\",\"startTime\":1200,"
+                      + "\"endDay\":\"Friday\",\"endTime\":1300,\"users\":[\"Ben\",\"Lucia\"]}\n")
+                      .getBytes(StandardCharsets.UTF_8)), 0);
+      assertTrue(report.isComplete());
+      planner.addEvents(Map.of("Lucia", List.of(ood)));
+    }
+    for (String file : files(directory)) {
+      assertFalse(file.startsWith("snapshot-"));
+    }
+    try (JournaledPlanner planner = JournaledPlanner.open(directory, FsyncPolicy.never())) {
+      List<IEvent> lucia = planner.selectSchedule("Lucia");
+      assertEquals(2, lucia.size());
+      assertSame(planner.selectSchedule("Ben").get(0), lucia.get(0));
+      assertSame(planner.selectSchedule("Nico").get(0), lucia.get(0));
+      assertSame(planner.selectSchedule("Ben").get(1), lucia.get(1));
+      assertEquals("Lunch", lucia.get(1).observeName());
+    }
+  }
+
+  @Test
+  public void testCheckpointAfterUpload() throws IOException {
+    Path directory = Files.createTempDirectory("journal");
+    Path schedules = Files.createTempDirectory("schedules");
+    User jon = new User("Jon", List.of());
+    Utils.writeToFile(jon, schedules.toString());
+    try (JournaledPlanner planner = JournaledPlanner.open(directory, FsyncPolicy.always())) {
+      planner.addUser("Ben");
+      planner.uploadSchedule(schedules.resolve("Jon").toString());
+    }
+    assertTrue(files(directory).contains(String.format("snapshot-%016d.snap", 2)));
+    try (JournaledPlanner planner = JournaledPlanner.open(directory, FsyncPolicy.always())) {
+      assertEquals(2, planner.getListOfUser().size());
+    }
+  }
+}
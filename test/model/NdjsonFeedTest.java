@@ -0,0 +1,142 @@
+package model;
+
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * This is the testing suite for writing a planner as a feed of lines and ingesting feeds.
+ */
+public class NdjsonFeedTest {
+
+  private PlannerModel example;
+
+  private void examplePlanner() {
+    this.example = new NuPlanner(new ArrayList<>());
+    this.example.addUser("Ben");
+    this.example.addUser("Nico");
+    this.example.addUser("Lucia");
+    this.example.createEvent("Ben", "Working on \"OOD\"\n", "Snell\\Room", false,
+            Day.Monday, 2000, Day.Thursday, 2059, List.of("Nico"));
+    this.example.createEvent("Lucia", "Wéekend", "Home", true,
+            Day.Saturday, 2200, Day.Sunday, 100, List.of("Ben"));
+  }
+
+  private static ByteArrayInputStream feed(String... lines) {
+    return new ByteArrayInputStream((String.join("\n", lines) + "\n")
+            .getBytes(StandardCharsets.UTF_8));
+  }
+
+  @Test
+  public void testRoundTrip() throws IOException {
+    examplePlanner();
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    assertEquals(2, NdjsonFeed.write(this.example, out));
+    assertEquals(2, out.toString(StandardCharsets.UTF_8).split("\n").length);
+
+    PlannerModel copy = new NuPlanner(new ArrayList<>());
+    NdjsonFeed feed = new NdjsonFeed(copy);
+    TransferReport report = feed.ingest(new ByteArrayInputStream(out.toByteArray()), 0);
+    assertTrue(report.isComplete());
+    assertEquals(2, report.observeEvents());
+    assertEquals(out.size(), feed.observeOffset());
+
+    IEvent work = copy.selectSchedule("Nico").get(0);
+    assertEquals("Working on \"OOD\"\n", work.observeName());
+    assertEquals("Snell\\Room", work.observeLocation());
+    assertEquals(2, copy.selectSchedule("Ben").size());
+    IEvent weekend = copy.selectSchedule("Lucia").get(0);
+    assertEquals("Wéekend", weekend.observeName());
+    assertSame(weekend, copy.selectSchedule("Ben").get(1));
+  }
+
+  @Test
+  public void testRemoveAndFailures() throws IOException {
+    examplePlanner();
+    NdjsonFeed feed = new NdjsonFeed(this.example);
+    TransferReport report = feed.ingest(feed(
+            "{\"op\":\"remove\",\"user\":\"Lucia\",\"name\":\"Wéekend\","
+                    + "\"startDay\":\"Saturday\",\"startTime\":2200,\"extra\":{\"a\":[1,null]}}",
+            "{\"name\":\"Lunch\",\"startDay\":\"Funday\",\"startTime\":1200}",
+            "not json",
+            "",
+            "{\"op\":\"remove\",\"user\":\"Ben\",\"name\":\"Lunch\",\"startDay\":\"Monday\","
+                    + "\"startTime\":1200}",
+            "{\"name\":\"Lunch\",\"startDay\":\"Friday\",\"startTime\":1200,"
+                    + "\"endDay\":\"Friday\",\"endTime\":1300,\"users\":[\"Ana\",\"Ben\"]}"),
+            100);
+
+    assertFalse(report.isComplete());
+    assertEquals(3, report.observeFailures().size());
+    assertEquals("Unknown day Funday", report.observeFailures().get("offset 211"));
+    // Columns are counted within the line, not the feed
+    assertEquals("Expected { at column 1", report.observeFailures().get("offset 265"));
+    assertEquals("Event not found", report.observeFailures().get("offset 275"));
+    assertTrue(this.example.selectSchedule("Lucia").isEmpty());
+    assertEquals(2, this.example.selectSchedule("Ben").size());
+    assertEquals("Lunch", this.example.selectSchedule("Ana").get(0).observeName());
+  }
+
+  @Test
+  public void testRemovedEventIsAddedAgain() throws IOException {
+    examplePlanner();
+    String lunch = "{\"name\":\"Lunch\",\"startDay\":\"Friday\",\"startTime\":1200,"
+            + "\"endDay\":\"Friday\",\"endTime\":1300,\"users\":[\"Ben\",\"Nico\"]}";
+    TransferReport report = new NdjsonFeed(this.example).ingest(feed(lunch,
+            "{\"op\":\"remove\",\"user\":\"Ben\",\"name\":\"Lunch\",\"startDay\":\"Friday\","
+                    + "\"startTime\":1200}",
+            lunch), 0);
+
+    // The schedules the removal changed are looked at again before the next run of additions
+    assertTrue(report.isComplete());
+    assertEquals(2, report.observeEvents());
+    assertEquals(3, this.example.selectSchedule("Ben").size());
+    assertSame(this.example.selectSchedule("Ben").get(1),
+            this.example.selectSchedule("Nico").get(1));
+  }
+
+  @Test
+  public void testResumeFromOffset() throws IOException {
+    PlannerModel model = new NuPlanner(new ArrayList<>());
+    Path file = Files.createTempDirectory("feed").resolve("changes.ndjson");
+    StringBuilder lines = new StringBuilder();
+    int count = NdjsonFeed.BATCH_LINES * (NdjsonFeed.QUEUE_BATCHES + 2);
+    for (int i = 0; i < count; i++) {
+      lines.append(String.format("{\"name\":\"E%d\",\"startDay\":\"%s\",\"startTime\":%d,"
+                      + "\"endDay\":\"%s\",\"endTime\":%d,\"users\":[\"U%d\"]}\n",
+              i, Day.values()[i % 7], 100, Day.values()[i % 7], 200, i / 7));
+    }
+    // The last line is still being written
+    lines.append("{\"name\":\"Late\",\"startDay\":\"Monday\"");
+    Files.writeString(file, lines.toString());
+
+    NdjsonFeed feed = new NdjsonFeed(model);
+    TransferReport report = feed.ingest(file, 0);
+    assertTrue(report.isComplete());
+    assertEquals(count, report.observeEvents());
+    long offset = feed.observeOffset();
+    assertEquals(Files.size(file) - "{\"name\":\"Late\",\"startDay\":\"Monday\"".length(),
+            offset);
+
+    Files.writeString(file, ",\"startTime\":300,\"endDay\":\"Monday\",\"endTime\":400,"
+            + "\"users\":[\"U0\"]}\n", StandardOpenOption.APPEND);
+    report = feed.ingest(file, offset);
+    assertTrue(report.isComplete());
+    assertEquals(1, report.observeEvents());
+    assertEquals(Files.size(file), feed.observeOffset());
+    assertEquals(8, model.selectSchedule("U0").size());
+  }
+}
@@ -2,11 +2,15 @@ package model;
 
 import org.junit.Test;
 
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.List;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
 
 /**
@@ -86,6 +90,53 @@ public class NuPlannerTest {
     assertEquals(Utils.readXML("Squidward", example2.getListOfUser()), squidward);
   }
 
+  @Test
+  public void testSaveOnlyChangedSchedules() throws IOException {
+    exampleNuPlanner();
+    String directory = Files.createTempDirectory("save").toString();
+    assertEquals(2, example.saveSchedule(directory));
+    assertEquals(0, example.saveSchedule(directory));
+
+    // Moving an event changes every invitee's file, but only theirs
+    IUser lucia = example.addUser("Lucia");
+    assertEquals(1, example.saveSchedule(directory));
+    example.modifyEvent(e1, "Working on OOD", "Snell", false, Day.Monday, 2100,
+            Day.Thursday, 2059, List.of("Nico"), "Ben");
+    assertEquals(2, example.saveSchedule(directory));
+    assertEquals(Utils.readXML(Path.of(directory, "Ben").toString(),
+            example.getListOfUser()), ben);
+
+    example.removeEvent("Nico", e1);
+    assertEquals(1, example.saveSchedule(directory));
+    assertEquals(Utils.readXML(Path.of(directory, "Nico").toString(),
+            example.getListOfUser()), nico);
+
+    // Saving somewhere else writes every schedule there
+    String other = Files.createTempDirectory("save").toString();
+    assertEquals(3, example.saveSchedule(other));
+    assertEquals(Utils.readXML(Path.of(other, "Lucia").toString(),
+            example.getListOfUser()), lucia);
+  }
+
+  @Test
+  public void testUploadSharesEvents() throws IOException {
+    exampleNuPlanner();
+    String directory = Files.createTempDirectory("upload").toString();
+    example.saveSchedule(directory);
+
+    // Both files hold the same meeting, which is added once and shared
+    PlannerModel copy = new NuPlanner(new ArrayList<>());
+    copy.addUser("Ben");
+    copy.addUser("Nico");
+    copy.uploadSchedule(Path.of(directory, "Ben").toString());
+    copy.uploadSchedule(Path.of(directory, "Nico").toString());
+    assertSame(copy.selectSchedule("Ben").get(0), copy.selectSchedule("Nico").get(0));
+
+    // Uploading a file again adds nothing
+    copy.uploadSchedule(Path.of(directory, "Nico").toString());
+    assertEquals(1, copy.selectSchedule("Nico").size());
+  }
+
   @Test
   public void testSelectSchedule() {
     exampleNuPlanner();
@@ -208,6 +259,24 @@ public class NuPlannerTest {
             new User("Hunter", List.of()));
   }
 
+  @Test
+  public void testAddUserReportsTheMerge() {
+    exampleNuPlanner();
+    List<IEvent> held = this.example.selectSchedule("Ben");
+    Event golf = new Event("Golf", "course", false,
+            Day.Friday, 2000, Day.Friday, 2059, List.of());
+    MergeReport report = this.example.addUser(new User("Ben", List.of(golf)));
+    assertEquals(List.of(golf), report.observeAdded());
+    // The schedule is changed in place, so a list held before sees the new event
+    assertTrue(held.contains(golf));
+
+    Event copyOfGolf = new Event("Golf", "course", false,
+            Day.Friday, 2000, Day.Friday, 2059, List.of());
+    report = this.example.addUser(new User("Ben", List.of(copyOfGolf)));
+    assertEquals(List.of(), report.observeAdded());
+    assertEquals(List.of(copyOfGolf), report.observeDuplicates());
+  }
+
   @Test
   public void testScheduleOnDay() {
     exampleNuPlanner();
@@ -0,0 +1,76 @@
+package model;
+
+import org.junit.Test;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * This is the testing suite for writing every schedule at once.
+ */
+public class ParallelExporterTest {
+
+  private PlannerModel example;
+
+  /**
+   * Builds a user with a schedule too large to share a task with anyone.
+   */
+  private static IUser busyUser() {
+    List<IEvent> schedule = new ArrayList<>();
+    List<IUser> attendees = new ArrayList<>();
+    for (int i = 0; i <= ParallelExporter.BATCH_EVENTS; i++) {
+      Day day = Day.values()[i % 7];
+      int start = 2 * (i / 7);
+      schedule.add(new Event("Meeting " + i, "Room", false, day, start, day, start + 1,
+              attendees));
+    }
+    IUser busy = new User("Busy", schedule);
+    attendees.add(busy);
+    return busy;
+  }
+
+  @Test
+  public void testExportsEverySchedule() throws Exception {
+    this.example = ExamplePlanners.benNicoLucia();
+    Path directory = Files.createTempDirectory("export").resolve("planner");
+    TransferReport report = this.example.exportSchedules(directory.toString());
+    assertTrue(report.isComplete());
+    assertEquals(3, report.observeSchedules());
+    assertEquals(4, report.observeEvents());
+    ScheduleRecord ben = XmlScheduleReader.read(directory.resolve("Ben"));
+    assertEquals(2, ben.observeEvents().size());
+    assertEquals(List.of("Lucia", "Ben"), ben.observeEvents().get(1).observeUsers());
+
+    // Every schedule is written again, changed or not
+    assertEquals(3, this.example.exportSchedules(directory.toString()).observeSchedules());
+  }
+
+  @Test
+  public void testLargeScheduleAndFailures() throws Exception {
+    this.example = ExamplePlanners.benNicoLucia();
+    List<IUser> users = new ArrayList<>(this.example.getListOfUser());
+    users.add(1, busyUser());
+    Path directory = Files.createTempDirectory("export");
+    // A directory in the way of Nico's file
+    Files.createDirectories(directory.resolve("Nico").resolve("taken"));
+
+    TransferReport report = new ParallelExporter(2).export(users, directory);
+    assertFalse(report.isComplete());
+    assertEquals(3, report.observeSchedules());
+    assertEquals(List.of(directory.resolve("Nico").toString()),
+            new ArrayList<>(report.observeFailures().keySet()));
+    assertEquals(ParallelExporter.BATCH_EVENTS + 1,
+            XmlScheduleReader.read(directory.resolve("Busy")).observeEvents().size());
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testLimitMustBePositive() {
+    new ParallelExporter(0);
+  }
+}
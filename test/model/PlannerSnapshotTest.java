@@ -0,0 +1,177 @@
+package model;
+
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * This is the testing suite for binary snapshots of the planner.
+ */
+public class PlannerSnapshotTest {
+
+  private PlannerModel example;
+
+  private void exampleSnapshot() {
+    this.example = new NuPlanner(new ArrayList<>());
+    this.example.addUser("Ben");
+    this.example.addUser("Nico");
+    this.example.addUser("Chät");
+    this.example.createEvent("Ben", "Working on OOD", "Snell", false,
+            Day.Monday, 2000, Day.Thursday, 2059, List.of("Nico"));
+    this.example.createEvent("Chät", "Weekend", "Home", true,
+            Day.Saturday, 2200, Day.Sunday, 100, List.of("Ben"));
+    this.example.createEvent("Nico", "", "Snell", true,
+            Day.Friday, 0, Day.Friday, 5, List.of());
+  }
+
+  private Path writeSnapshot() throws IOException {
+    Path file = Files.createTempDirectory("snapshot").resolve("planner.snapshot");
+    PlannerSnapshot.write(this.example, file);
+    return file;
+  }
+
+  @Test
+  public void testRoundTrip() throws IOException {
+    exampleSnapshot();
+    NuPlanner read = PlannerSnapshot.open(writeSnapshot()).toPlanner();
+    assertEquals(3, read.getListOfUser().size());
+    for (IUser user : this.example.getListOfUser()) {
+      IUser copy = Utils.findUser(user.toString(), read.getListOfUser());
+      assertEquals(user.observeSchedule().size(), copy.observeSchedule().size());
+      for (int i = 0; i < user.observeSchedule().size(); i++) {
+        IEvent event = user.observeSchedule().get(i);
+        IEvent copied = copy.observeSchedule().get(i);
+        assertEquals(event.toString(), copied.toString());
+        assertEquals(event.observeHost().toString(), copied.observeHost().toString());
+      }
+    }
+  }
+
+  @Test
+  public void testSharedEventsStayShared() throws IOException {
+    exampleSnapshot();
+    NuPlanner read = PlannerSnapshot.open(writeSnapshot()).toPlanner();
+    assertSame(read.selectSchedule("Ben").get(0), read.selectSchedule("Nico").get(0));
+    assertSame(read.selectSchedule("Ben").get(1), read.selectSchedule("Chät").get(0));
+    assertSame(Utils.findUser("Nico", read.getListOfUser()),
+            read.selectSchedule("Ben").get(0).observeInvitedUsers().get(1));
+  }
+
+  @Test
+  public void testUsersWithoutDecodingEvents() throws IOException {
+    exampleSnapshot();
+    PlannerSnapshot snapshot = PlannerSnapshot.open(writeSnapshot());
+    assertEquals(3, snapshot.observeUserCount());
+    assertEquals(3, snapshot.observeEventCount());
+    assertEquals("Chät", snapshot.observeUserName(2));
+  }
+
+  @Test
+  public void testEmptyPlanner() throws IOException {
+    this.example = new NuPlanner(new ArrayList<>());
+    assertTrue(PlannerSnapshot.open(writeSnapshot()).toPlanner().getListOfUser().isEmpty());
+  }
+
+  @Test
+  public void testSchedulesAreDecodedWhenUsed() throws IOException {
+    exampleSnapshot();
+    NuPlanner read = PlannerSnapshot.open(writeSnapshot()).toPlanner();
+    for (IUser user : read.getListOfUser()) {
+      assertFalse(((LazyUser) user).isLoaded());
+    }
+    IEvent work = read.selectSchedule("Nico").get(0);
+    assertTrue(((LazyUser) read.getListOfUser().get(1)).isLoaded());
+    assertFalse(((LazyUser) read.getListOfUser().get(0)).isLoaded());
+    // Ben is loaded later and still shares the event Nico decoded
+    assertSame(work, read.selectSchedule("Ben").get(0));
+    assertEquals("Ben", work.observeHost().toString());
+  }
+
+  @Test
+  public void testAddingAScheduleLoadsOnlyItsInvitees() throws IOException {
+    exampleSnapshot();
+    NuPlanner read = PlannerSnapshot.open(writeSnapshot()).toPlanner();
+    Event work = new Event("Working on OOD", "Snell", false, Day.Monday, 2000,
+            Day.Thursday, 2059, List.of(new User("Ben", List.of()), new User("Nico", List.of())));
+    MergeReport report = read.addUser(new User("Nico", List.of(work)));
+    // The event is the one Ben and Nico already share, found without reading Chät's schedule
+    assertEquals(1, report.observeDuplicates().size());
+    assertSame(read.selectSchedule("Ben").get(0), read.selectSchedule("Nico").get(0));
+    assertFalse(((LazyUser) read.getListOfUser().get(2)).isLoaded());
+  }
+
+  @Test
+  public void testScheduleIsLoadedOnceAcrossThreads() throws Exception {
+    exampleSnapshot();
+    NuPlanner read = PlannerSnapshot.open(writeSnapshot()).toPlanner();
+    IUser ben = read.getListOfUser().get(0);
+    ExecutorService pool = Executors.newFixedThreadPool(8);
+    try {
+      CountDownLatch start = new CountDownLatch(1);
+      List<Future<IEvent>> firsts = new ArrayList<>();
+      for (int i = 0; i < 8; i++) {
+        firsts.add(pool.submit(() -> {
+          start.await();
+          return ben.observeSchedule().get(0);
+        }));
+      }
+      start.countDown();
+      IEvent first = firsts.get(0).get();
+      for (Future<IEvent> other : firsts) {
+        assertSame(first, other.get());
+      }
+      assertSame(first, read.selectSchedule("Nico").get(0));
+    } finally {
+      pool.shutdownNow();
+    }
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testDamagedSnapshot() throws IOException {
+    exampleSnapshot();
+    Path file = writeSnapshot();
+    byte[] bytes = Files.readAllBytes(file);
+    bytes[bytes.length - 1] ^= 1;
+    Files.write(file, bytes);
+    PlannerSnapshot.open(file).verify();
+  }
+
+  @Test
+  public void testDamagedSnapshotFailsToLoad() throws IOException {
+    exampleSnapshot();
+    Path file = writeSnapshot();
+    byte[] bytes = Files.readAllBytes(file);
+    bytes[bytes.length - 1] ^= 1;
+    Files.write(file, bytes);
+    NuPlanner read = PlannerSnapshot.open(file).toPlanner();
+    try {
+      read.selectSchedule("Ben");
+      fail("Expected the damaged snapshot not to be decoded");
+    } catch (UncheckedIOException e) {
+      assertEquals("Snapshot is damaged", e.getCause().getMessage());
+    }
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testNotASnapshot() throws IOException {
+    exampleSnapshot();
+    Path file = Files.createTempFile("planner", ".xml");
+    XmlScheduleWriter.write(this.example.getListOfUser().get(0), file);
+    PlannerSnapshot.open(file);
+  }
+}
@@ -0,0 +1,81 @@
+package model;
+
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * This is the testing suite for keeping every schedule in a single archive.
+ */
+public class ScheduleArchiveTest {
+
+  private PlannerModel example;
+
+  @Test
+  public void testRoundTrip() throws IOException {
+    this.example = ExamplePlanners.benNicoLucia();
+    Path file = Files.createTempDirectory("archive").resolve("planner.zip");
+    assertEquals(3, this.example.exportArchive(file.toString()).observeSchedules());
+
+    long plain = 0;
+    for (IUser user : this.example.getListOfUser()) {
+      ByteArrayOutputStream out = new ByteArrayOutputStream();
+      XmlScheduleWriter.write(user, out);
+      plain += out.size();
+    }
+    assertTrue(Files.size(file) < plain);
+
+    PlannerModel copy = new NuPlanner(new ArrayList<>());
+    TransferReport report = copy.importArchive(file.toString());
+    assertTrue(report.isComplete());
+    assertEquals(4, report.observeEvents());
+    assertEquals(2, copy.selectSchedule("Ben").size());
+    assertSame(copy.selectSchedule("Ben").get(0), copy.selectSchedule("Nico").get(0));
+    assertEquals("Lucia", copy.selectSchedule("Ben").get(1).observeHost().toString());
+  }
+
+  @Test
+  public void testBrokenEntryDoesNotStopTheOthers() throws IOException {
+    this.example = ExamplePlanners.benNicoLucia();
+    // An archive whose first entry is cut off in the middle of an event
+    ByteArrayOutputStream broken = new ByteArrayOutputStream();
+    try (ZipOutputStream zip = new ZipOutputStream(broken)) {
+      zip.putNextEntry(new ZipEntry("Broken.xml"));
+      zip.write("<schedule id=\"Broken\"><event>".getBytes(StandardCharsets.UTF_8));
+      zip.closeEntry();
+      for (IUser user : this.example.getListOfUser()) {
+        zip.putNextEntry(new ZipEntry(user + ".xml"));
+        XmlScheduleWriter.write(user, zip);
+        zip.closeEntry();
+      }
+    }
+
+    PlannerModel copy = new NuPlanner(new ArrayList<>());
+    TransferReport report = ScheduleArchive.read(copy,
+            new ByteArrayInputStream(broken.toByteArray()), 2);
+    assertFalse(report.isComplete());
+    assertEquals(List.of("Broken.xml"), new ArrayList<>(report.observeFailures().keySet()));
+    assertEquals(3, report.observeSchedules());
+    assertEquals(3, copy.getListOfUser().size());
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testMissingArchive() throws IOException {
+    new NuPlanner(new ArrayList<>()).importArchive(
+            Files.createTempDirectory("archive").resolve("none.zip").toString());
+  }
+}
@@ -0,0 +1,109 @@
+package model;
+
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * This is the testing suite for keeping schedules in memory within a budget. Like the tests of
+ * the repository it needs a JDBC driver, and is skipped otherwise.
+ */
+public class ScheduleCacheTest {
+
+  private static String examplePlanner() throws IOException {
+    NuPlanner planner = ExamplePlanners.benNicoLucia();
+    String url = JdbcPlannerRepositoryTest.url();
+    try (JdbcPlannerRepository repository = new JdbcPlannerRepository(url)) {
+      planner.saveSchedule(repository);
+    }
+    return url;
+  }
+
+  @Test
+  public void testLeastRecentlyUsedIsEvicted() throws IOException {
+    String url = examplePlanner();
+    try (JdbcPlannerRepository repository = new JdbcPlannerRepository(url)) {
+      ScheduleCache cache = new ScheduleCache(repository, 800);
+      NuPlanner planner = cache.open();
+      List<IUser> users = planner.getListOfUser();
+
+      assertEquals(2, planner.selectSchedule("Ben").size());
+      assertEquals(Day.Saturday, planner.scheduleOnDay("Ben", Day.Sunday).get(0)
+              .observeStartDayOfEvent());
+      assertEquals(1, planner.selectSchedule("Nico").size());
+      assertEquals(2, cache.observeMisses());
+      assertEquals(1, cache.observeHits());
+      assertEquals(0, cache.observeEvictions());
+
+      // A third schedule does not fit alongside the other two
+      assertEquals(1, planner.selectSchedule("Lucia").size());
+      assertEquals(1, cache.observeEvictions());
+      assertFalse(((LazyUser) users.get(0)).isLoaded());
+      assertTrue(((LazyUser) users.get(1)).isLoaded());
+      assertTrue(cache.observeBytes() <= 800);
+
+      // Ben is loaded again, sharing the event Lucia still holds
+      IEvent weekend = planner.selectSchedule("Lucia").get(0);
+      assertTrue(weekend == planner.selectSchedule("Ben").get(1));
+      assertEquals(4, cache.observeMisses());
+    }
+  }
+
+  @Test
+  public void testChangesAreWrittenBack() throws IOException {
+    String url = examplePlanner();
+    try (JdbcPlannerRepository repository = new JdbcPlannerRepository(url)) {
+      ScheduleCache cache = new ScheduleCache(repository, 1);
+      NuPlanner planner = cache.open();
+      planner.createEvent("Lucia", "Run", "Park", false, Day.Tuesday, 700,
+              Day.Tuesday, 800, List.of());
+      assertEquals(2, planner.selectSchedule("Lucia").size());
+
+      // Every other schedule is over the budget, so using Ben writes Lucia back
+      planner.selectSchedule("Ben");
+      assertFalse(((LazyUser) planner.getListOfUser().get(2)).isLoaded());
+      assertEquals(0, planner.saveSchedule(repository));
+      assertEquals(2, planner.selectSchedule("Lucia").size());
+    }
+    try (JdbcPlannerRepository repository = new JdbcPlannerRepository(url)) {
+      assertEquals("Run", repository.load().selectSchedule("Lucia").get(0).observeName());
+    }
+  }
+
+  @Test
+  public void testOnlyTheOpeningThreadEvicts() throws Exception {
+    String url = examplePlanner();
+    try (JdbcPlannerRepository repository = new JdbcPlannerRepository(url)) {
+      ScheduleCache cache = new ScheduleCache(repository, 800);
+      NuPlanner planner = cache.open();
+      List<IUser> users = planner.getListOfUser();
+      Thread reader = new Thread(() -> {
+        for (IUser user : users) {
+          user.observeSchedule();
+        }
+      });
+      reader.start();
+      reader.join();
+
+      // All three are over the budget, but none is unloaded while another thread may read it
+      assertEquals(3, cache.observeMisses());
+      assertEquals(0, cache.observeEvictions());
+      assertTrue(cache.observeBytes() > 800);
+
+      planner.selectSchedule("Lucia");
+      assertEquals(1, cache.observeEvictions());
+      assertFalse(((LazyUser) users.get(0)).isLoaded());
+      assertTrue(cache.observeBytes() <= 800);
+    }
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testBudgetMustBePositive() {
+    new ScheduleCache(null, 0);
+  }
+}
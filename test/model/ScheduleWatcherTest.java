@@ -0,0 +1,154 @@
+package model;
+
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * This is the testing suite for reloading schedule files that are edited outside the planner.
+ */
+public class ScheduleWatcherTest {
+
+  private PlannerModel example;
+  private IEvent work;
+
+  private void examplePlanner() {
+    this.example = new NuPlanner(new ArrayList<>());
+    this.example.addUser("Ben");
+    this.example.addUser("Nico");
+    this.work = this.example.createEvent("Ben", "Working on OOD", "Snell", false,
+            Day.Monday, 2000, Day.Thursday, 2059, List.of("Nico"));
+    this.example.createEvent("Ben", "Lunch", "Snell", false,
+            Day.Friday, 1200, Day.Friday, 1300, List.of());
+  }
+
+  private static EventRecord work(int start) {
+    return new EventRecord("Working on OOD", "Snell", false, Day.Monday, start,
+            Day.Thursday, 2059, List.of("Ben", "Nico"));
+  }
+
+  @Test
+  public void testApplyOnlyTheDifference() {
+    examplePlanner();
+    EventRecord gym = new EventRecord("Gym", "Marino", false, Day.Saturday, 900,
+            Day.Saturday, 1000, List.of("Ben"));
+    TransferReport report = new TransferReport();
+    ScheduleWatcher.apply(this.example, "Ben",
+            new ScheduleRecord("Ben", List.of(work(2100), gym)), report);
+
+    assertTrue(report.isComplete());
+    assertEquals(3, report.observeEvents());
+    List<IEvent> ben = this.example.selectSchedule("Ben");
+    assertEquals(2, ben.size());
+    // The meeting moved in place, so Nico sees the same event at its new time
+    assertSame(this.work, ben.get(0));
+    assertEquals(2100, this.work.observeStartTimeOfEvent());
+    assertSame(this.work, this.example.selectSchedule("Nico").get(0));
+    assertEquals("Gym", ben.get(1).observeName());
+
+    // Applying the same file again changes nothing
+    report = new TransferReport();
+    ScheduleWatcher.apply(this.example, "Ben",
+            new ScheduleRecord("Ben", List.of(work(2100), gym)), report);
+    assertEquals(0, report.observeEvents());
+  }
+
+  @Test
+  public void testNewOwnerIsOnlyRegisteredIfTheFileFits() {
+    examplePlanner();
+    EventRecord call = new EventRecord("Call", "Zoom", true, Day.Tuesday, 900,
+            Day.Tuesday, 1000, List.of("Ana", "Ben"));
+    TransferReport report = new TransferReport();
+    ScheduleWatcher.apply(this.example, "Ana", new ScheduleRecord("Ana", List.of(call)), report);
+
+    // The call is during Ben's work, so Ana's file is left out and Ana is not registered
+    assertFalse(report.isComplete());
+    assertEquals(2, this.example.getListOfUser().size());
+
+    EventRecord later = new EventRecord("Call", "Zoom", true, Day.Friday, 900,
+            Day.Friday, 1000, List.of("Ana", "Ben"));
+    report = new TransferReport();
+    ScheduleWatcher.apply(this.example, "Ana", new ScheduleRecord("Ana", List.of(later)),
+            report);
+    assertTrue(report.isComplete());
+    assertEquals(1, this.example.selectSchedule("Ana").size());
+    assertSame(this.example.selectSchedule("Ana").get(0),
+            this.example.selectSchedule("Ben").get(1));
+  }
+
+  @Test
+  public void testConflictingChangeIsLeftOut() {
+    examplePlanner();
+    this.example.createEvent("Nico", "Dinner", "Home", false,
+            Day.Monday, 1800, Day.Monday, 1900, List.of());
+    TransferReport report = new TransferReport();
+    ScheduleWatcher.apply(this.example, "Ben",
+            new ScheduleRecord("Ben", List.of(work(1830))), report);
+
+    assertFalse(report.isComplete());
+    assertEquals("The schedule of Nico would have conflicts",
+            report.observeFailures().get("Ben"));
+    assertEquals(2000, this.work.observeStartTimeOfEvent());
+    assertEquals(2, this.example.selectSchedule("Ben").size());
+  }
+
+  @Test
+  public void testChangesMovedOntoEachOtherLeaveEverything() {
+    examplePlanner();
+    IEvent gym = this.example.createEvent("Ben", "Gym", "Marino", false,
+            Day.Saturday, 900, Day.Saturday, 1000, List.of());
+    // Each change is fine on its own, but both move to Sunday morning and take Nico along
+    EventRecord movedWork = new EventRecord("Working on OOD", "Snell", false, Day.Sunday, 900,
+            Day.Sunday, 1000, List.of("Ben", "Nico"));
+    EventRecord movedGym = new EventRecord("Gym", "Marino", false, Day.Sunday, 930,
+            Day.Sunday, 1030, List.of("Ben", "Nico"));
+    TransferReport report = new TransferReport();
+    ScheduleWatcher.apply(this.example, "Ben",
+            new ScheduleRecord("Ben", List.of(movedWork, movedGym)), report);
+
+    assertFalse(report.isComplete());
+    assertEquals("The schedule of Ben would have conflicts",
+            report.observeFailures().get("Ben"));
+    // Lunch, which the file no longer holds, is not removed either
+    assertEquals(3, this.example.selectSchedule("Ben").size());
+    assertEquals(Day.Monday, this.work.observeStartDayOfEvent());
+    assertEquals(Day.Saturday, gym.observeStartDayOfEvent());
+    assertEquals(List.of(this.work), this.example.selectSchedule("Nico"));
+  }
+
+  @Test
+  public void testReloadChangedFile() throws IOException, InterruptedException {
+    examplePlanner();
+    Path directory = Files.createTempDirectory("watch");
+    this.example.saveSchedule(directory.toString());
+    BlockingQueue<TransferReport> reloads = new LinkedBlockingQueue<>();
+    ScheduleWatcher watcher = new ScheduleWatcher(this.example, directory, 50,
+            Runnable::run, reloads::add);
+    try {
+      User edited = new User("Ben", List.of());
+      edited.setSchedule(List.of(this.work));
+      XmlScheduleWriter.writeAtomically(edited, directory.resolve("Ben"));
+
+      TransferReport report = reloads.poll(10, TimeUnit.SECONDS);
+      assertNotNull(report);
+      assertTrue(report.isComplete());
+      assertEquals(1, report.observeEvents());
+    } finally {
+      watcher.close();
+    }
+    assertEquals(List.of(this.work), this.example.selectSchedule("Ben"));
+  }
+}
@@ -2,7 +2,9 @@ package model;
 
 import org.junit.Test;
 
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Random;
 
 import static org.junit.Assert.assertEquals;
 
@@ -98,4 +100,76 @@ public class UserTest {
     exampleSchedule();
     assertEquals(this.example.eventsOnDay(Day.Monday), List.of(two, one));
   }
+
+  @Test
+  public void testAddEvents() {
+    exampleSchedule();
+    Event copyOfOne = new Event("Host Event", "Snell", false,
+            Day.Monday, 1000, Day.Tuesday, 1800, List.of());
+    Event lunch = new Event("Lunch", "Snell", false,
+            Day.Wednesday, 1200, Day.Wednesday, 1300, List.of());
+    Event overlapsOne = new Event("Meeting", "Snell", false,
+            Day.Tuesday, 900, Day.Tuesday, 1000, List.of());
+    Event overlapsLunch = new Event("Call", "Online", true,
+            Day.Wednesday, 1230, Day.Wednesday, 1400, List.of());
+    Event coversOne = new Event("Trip", "Boston", false,
+            Day.Sunday, 2000, Day.Monday, 1100, List.of());
+
+    List<IEvent> held = this.example.observeSchedule();
+    MergeReport report = this.example.addEvents(
+            List.of(overlapsLunch, lunch, one, copyOfOne, overlapsOne, coversOne));
+    assertEquals(List.of(lunch), report.observeAdded());
+    assertEquals(List.of(one, copyOfOne), report.observeDuplicates());
+    assertEquals(List.of(coversOne, overlapsOne, overlapsLunch), report.observeConflicts());
+    assertEquals(List.of(two, one, lunch), this.example.observeSchedule());
+    // The schedule is changed in place, so a list held before sees the new event
+    assertEquals(List.of(two, one, lunch), held);
+  }
+
+  @Test
+  public void testAddEventsAgreesWithAddEvent() {
+    Random random = new Random(7);
+    for (int round = 0; round < 50; round++) {
+      List<IEvent> events = new ArrayList<>();
+      for (int i = 0; i < 40; i++) {
+        Day startDay = Day.values()[random.nextInt(7)];
+        Day endDay = random.nextInt(4) == 0 ? Day.values()[random.nextInt(7)] : startDay;
+        int start = random.nextInt(24) * 100;
+        int end = random.nextInt(24) * 100;
+        if (startDay == endDay && start == end) {
+          continue;
+        }
+        events.add(new Event("Event " + i, "Snell", false, startDay, start, endDay, end,
+                List.of()));
+      }
+      List<IEvent> incoming = events.subList(events.size() / 2, events.size());
+
+      // Adding the events one at a time in order of when they start adds the same ones
+      User oneAtATime = new User("One", List.of());
+      for (IEvent event : events.subList(0, events.size() / 2)) {
+        try {
+          oneAtATime.addEvent(event);
+        } catch (IllegalArgumentException ignored) {
+          // Left out of both schedules
+        }
+      }
+      User merged = new User("Merged", oneAtATime.observeSchedule());
+      List<IEvent> sorted = new ArrayList<>(incoming);
+      sorted.sort((a, b) -> (a.observeStartDayOfEvent().ordinal() * 2400
+              + a.observeStartTimeOfEvent()) - (b.observeStartDayOfEvent().ordinal() * 2400
+              + b.observeStartTimeOfEvent()));
+      for (IEvent event : sorted) {
+        try {
+          oneAtATime.addEvent(event);
+        } catch (IllegalArgumentException ignored) {
+          // Left out of both schedules
+        }
+      }
+
+      MergeReport report = merged.addEvents(incoming);
+      assertEquals(oneAtATime.observeSchedule(), merged.observeSchedule());
+      assertEquals(incoming.size(), report.observeAdded().size()
+              + report.observeConflicts().size());
+    }
+  }
 }
\ No newline at end of file
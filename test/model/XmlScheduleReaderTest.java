@@ -0,0 +1,125 @@
+package model;
+
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.xml.stream.XMLStreamException;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+
+/**
+ * This is the testing suite for the streaming schedule reader.
+ */
+public class XmlScheduleReaderTest {
+
+  private static final String LECTURE = "<?xml version=\"1.0\"?>\n"
+          + "<schedule id=\"Prof. Lucia\">\n"
+          + "\t<event>\n"
+          + "\t\t<name>\"CS3500 Morning Lecture\"</name>\n"
+          + "\t\t<time>\n"
+          + "\t\t\t<start-day>Tuesday</start-day>\n"
+          + "\t\t\t<start>0950</start>\n"
+          + "\t\t\t<end-day>Tuesday</end-day>\n"
+          + "\t\t\t<end>1130</end>\n"
+          + "\t\t</time>\n"
+          + "\t\t<location>\n"
+          + "\t\t\t<online>false</online>\n"
+          + "\t\t\t<place><![CDATA[Churchill & Hall]]></place>\n"
+          + "\t\t</location>\n"
+          + "\t\t<users>\n"
+          + "\t\t\t<uid>Prof. Lucia</uid>\n"
+          + "\t\t\t<uid>Chat</uid>\n"
+          + "\t\t</users>\n"
+          + "\t</event>\n"
+          + "</schedule>\n";
+
+  private PlannerModel example;
+
+  private void exampleReader() {
+    this.example = new NuPlanner(new ArrayList<>());
+    this.example.addUser("Ben");
+    this.example.addUser("Nico");
+    this.example.addUser("Chat");
+    this.example.createEvent("Ben", "Working on OOD", "Snell", false,
+            Day.Monday, 2000, Day.Thursday, 2059, List.of("Nico"));
+    this.example.createEvent("Ben", "Weekend", "Home", true,
+            Day.Saturday, 2200, Day.Sunday, 100, List.of());
+  }
+
+  private static ScheduleRecord read(String xml) throws XMLStreamException {
+    return XmlScheduleReader.read(new ByteArrayInputStream(
+            xml.getBytes(StandardCharsets.UTF_8)));
+  }
+
+  @Test
+  public void testReadsFields() throws XMLStreamException {
+    ScheduleRecord schedule = read(LECTURE);
+    assertEquals("Prof. Lucia", schedule.observeOwner());
+    assertEquals(1, schedule.observeEvents().size());
+    EventRecord lecture = schedule.observeEvents().get(0);
+    assertEquals("\"CS3500 Morning Lecture\"", lecture.observeName());
+    assertEquals("Churchill & Hall", lecture.observePlace());
+    assertFalse(lecture.observeOnline());
+    assertEquals(Day.Tuesday, lecture.observeStartDay());
+    assertEquals(950, lecture.observeStart());
+    assertEquals(Day.Tuesday, lecture.observeEndDay());
+    assertEquals(1130, lecture.observeEnd());
+    assertEquals(List.of("Prof. Lucia", "Chat"), lecture.observeUsers());
+  }
+
+  @Test
+  public void testMissingHostIsLeftOut() throws XMLStreamException {
+    exampleReader();
+    User lucia = read(LECTURE).toUser(this.example.getListOfUser());
+    assertEquals("Prof. Lucia", lucia.toString());
+    IEvent lecture = lucia.observeSchedule().get(0);
+    assertEquals(1, lecture.observeInvitedUsers().size());
+    assertEquals("Chat", lecture.observeInvitedUsers().get(0).toString());
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testMissingInvitee() throws XMLStreamException {
+    read(LECTURE.replace("<uid>Chat</uid>", "<uid>Nobody</uid>"))
+            .toUser(new ArrayList<>());
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testMissingField() throws XMLStreamException {
+    read(LECTURE.replace("<end>1130</end>", ""));
+  }
+
+  @Test
+  public void testMatchesDom() throws IOException {
+    exampleReader();
+    Path directory = Files.createTempDirectory("schedules");
+    IUser ben = Utils.findUser("Ben", this.example.getListOfUser());
+    Utils.writeToFile(ben, directory.toString());
+    String path = directory.resolve("Ben").toString();
+    User streamed = Utils.readXML(path, this.example.getListOfUser());
+    User parsed = Utils.readXMLWithDom(path, this.example.getListOfUser());
+    assertEquals(parsed, streamed);
+    assertEquals(ben, streamed);
+  }
+
+  @Test
+  public void testMalformedFallsBackToDom() throws IOException {
+    Path file = Files.createTempFile("broken", ".xml");
+    Files.writeString(file, "<schedule id=\"Ben\"><event>");
+    assertNull(Utils.readXML(file.toString(), new ArrayList<>()));
+  }
+
+  @Test
+  public void testTagLookup() {
+    assertEquals(Tag.startDay, Tag.fromTag("start-day"));
+    assertNull(Tag.fromTag("schedule"));
+  }
+}
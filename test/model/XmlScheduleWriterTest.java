@@ -0,0 +1,182 @@
+package model;
+
+import org.junit.Test;
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.PosixFilePermission;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Stream;
+
+import javax.xml.parsers.DocumentBuilderFactory;
+import javax.xml.transform.TransformerFactory;
+import javax.xml.transform.dom.DOMSource;
+import javax.xml.transform.stream.StreamResult;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import static org.junit.Assume.assumeTrue;
+
+/**
+ * This is the testing suite for the streaming schedule writer, which is checked against the
+ * file a DOM transformer writes for the same schedule.
+ */
+public class XmlScheduleWriterTest {
+
+  private PlannerModel example;
+
+  private void exampleWriter() {
+    this.example = new NuPlanner(new ArrayList<>());
+    this.example.addUser("Ben");
+    this.example.addUser("Nico & <Co> \"q\" 'a'\t\u0085😀");
+    this.example.addUser("Lucia");
+    this.example.createEvent("Ben", "Lunch > \"all\" & <x>\r\n\u007fé ",
+            "Café ]]> \n\t end", true, Day.Monday, 900, Day.Monday, 1000,
+            List.of("Nico & <Co> \"q\" 'a'\t\u0085😀", "Lucia"));
+    this.example.createEvent("Ben", "Empty", "", false,
+            Day.Saturday, 2200, Day.Sunday, 100, List.of());
+  }
+
+  /**
+   * Writes the schedule the way Utils used to, by building a DOM and transforming it.
+   */
+  private static byte[] writeWithDom(IUser user) throws Exception {
+    Document schedule = DocumentBuilderFactory.newInstance().newDocumentBuilder().newDocument();
+    Element scheduleID = schedule.createElement("schedule");
+    scheduleID.setAttribute("id", user.toString());
+    for (IEvent e : user.observeSchedule()) {
+      Element event = schedule.createElement("event");
+      event.appendChild(field(schedule, "name", e.observeName()));
+      Element time = schedule.createElement("time");
+      time.appendChild(field(schedule, "start-day", e.observeStartDayOfEvent().toString()));
+      time.appendChild(field(schedule, "start",
+              String.format("%d", e.observeStartTimeOfEvent())));
+      time.appendChild(field(schedule, "end-day", e.observeEndDayOfEvent().toString()));
+      time.appendChild(field(schedule, "end", String.format("%d", e.observeEndTimeOfEvent())));
+      event.appendChild(time);
+      Element location = schedule.createElement("location");
+      location.appendChild(field(schedule, "online", String.format("%b", e.observeOnline())));
+      location.appendChild(field(schedule, "place", e.observeLocation()));
+      event.appendChild(location);
+      Element users = schedule.createElement("users");
+      for (IUser u : e.observeInvitedUsers()) {
+        users.appendChild(field(schedule, "uid", u.toString()));
+      }
+      event.appendChild(users);
+      scheduleID.appendChild(event);
+    }
+    schedule.appendChild(scheduleID);
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    TransformerFactory.newInstance().newTransformer().transform(new DOMSource(schedule),
+            new StreamResult(out));
+    return out.toByteArray();
+  }
+
+  private static Element field(Document schedule, String tag, String text) {
+    Element element = schedule.createElement(tag);
+    element.appendChild(schedule.createTextNode(text));
+    return element;
+  }
+
+  private static byte[] writeStreaming(IUser user) throws IOException {
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    XmlScheduleWriter.write(user, out);
+    return out.toByteArray();
+  }
+
+  @Test
+  public void testSameBytesAsDom() throws Exception {
+    exampleWriter();
+    for (IUser user : this.example.getListOfUser()) {
+      assertArrayEquals(user.toString(), writeWithDom(user), writeStreaming(user));
+    }
+  }
+
+  @Test
+  public void testEmptySchedule() throws Exception {
+    IUser nobody = new User("Nobody", List.of());
+    assertArrayEquals(writeWithDom(nobody), writeStreaming(nobody));
+  }
+
+  @Test
+  public void testRoundTrip() throws IOException {
+    this.example = new NuPlanner(new ArrayList<>());
+    this.example.addUser("Ben");
+    this.example.addUser("Nico & <Co> \"q\" 'a'");
+    this.example.createEvent("Ben", "Lunch > \"all\" & <x>\r\n\u007fé ", "", true,
+            Day.Monday, 900, Day.Monday, 1000, List.of("Nico & <Co> \"q\" 'a'"));
+    this.example.createEvent("Ben", "Weekend", "Home", false,
+            Day.Saturday, 2200, Day.Sunday, 100, List.of());
+    Path directory = Files.createTempDirectory("schedules");
+    IUser ben = Utils.findUser("Ben", this.example.getListOfUser());
+    Utils.writeToFile(ben, directory.toString());
+    String path = directory.resolve("Ben").toString();
+    assertEquals(ben, Utils.readXML(path, this.example.getListOfUser()));
+    assertEquals(ben, Utils.readXMLWithDom(path, this.example.getListOfUser()));
+  }
+
+  @Test
+  public void testPermissionsAreKept() throws IOException {
+    assumeTrue(FileSystems.getDefault().supportedFileAttributeViews().contains("posix"));
+    IUser nobody = new User("Nobody", List.of());
+    Path directory = Files.createTempDirectory("schedules");
+    // A new file has the permissions any new file in the directory gets
+    Path plain = Files.createFile(directory.resolve("plain"));
+    Path file = directory.resolve("Nobody");
+    XmlScheduleWriter.writeAtomically(nobody, file);
+    assertEquals(Files.getPosixFilePermissions(plain), Files.getPosixFilePermissions(file));
+
+    Set<PosixFilePermission> shared = PosixFilePermissions.fromString("rw-rw-r--");
+    Files.setPosixFilePermissions(file, shared);
+    XmlScheduleWriter.writeAtomically(nobody, file);
+    assertEquals(shared, Files.getPosixFilePermissions(file));
+  }
+
+  @Test
+  public void testForbiddenCharacterKeepsFile() throws IOException {
+    this.example = new NuPlanner(new ArrayList<>());
+    this.example.addUser("Ben");
+    this.example.createEvent("Ben", "Lunch", "Snell", false,
+            Day.Monday, 900, Day.Monday, 1000, List.of());
+    IUser ben = Utils.findUser("Ben", this.example.getListOfUser());
+    Path file = Files.createTempDirectory("schedules").resolve("Ben");
+    XmlScheduleWriter.writeAtomically(ben, file);
+    byte[] before = Files.readAllBytes(file);
+
+    // XML 1.0 cannot hold U+0001, even as a character reference
+    this.example.createEvent("Ben", "Bell\u0001", "Snell", false,
+            Day.Tuesday, 900, Day.Tuesday, 1000, List.of());
+    try {
+      writeStreaming(ben);
+      fail("Expected the schedule not to be written");
+    } catch (IOException e) {
+      assertTrue(e.getMessage().contains("U+0001"));
+    }
+    try {
+      XmlScheduleWriter.writeAtomically(ben, file);
+      fail("Expected the schedule not to be written");
+    } catch (IOException expected) {
+      // The file written before is left as it was
+    }
+    try {
+      XmlScheduleWriter.write(ben, file);
+      fail("Expected the schedule not to be written");
+    } catch (IOException expected) {
+      // Checked before the file is truncated
+    }
+    assertArrayEquals(before, Files.readAllBytes(file));
+    try (Stream<Path> files = Files.list(file.getParent())) {
+      assertEquals(1, files.count());
+    }
+  }
+}
@@ -0,0 +1,110 @@
+package view;
+
+import org.junit.Test;
+
+import java.awt.Color;
+import java.awt.Component;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.util.ArrayList;
+import java.util.List;
+
+import model.Day;
+import model.IEvent;
+import model.NuPlanner;
+import model.PlannerModel;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+
+/**
+ * This is the testing class for updating the week view with only what changed in the model.
+ */
+public class WeekViewPanelTest {
+
+  private PlannerModel model;
+  private IEvent work;
+  private WeekViewPanel week;
+
+  private void exampleWeek() {
+    this.model = new NuPlanner(new ArrayList<>());
+    this.model.addUser("Ben");
+    this.model.addUser("Nico");
+    this.work = this.model.createEvent("Ben", "OOD", "Snell", false,
+            Day.Monday, 2000, Day.Thursday, 2059, List.of("Nico"));
+    this.model.createEvent("Ben", "Lunch", "Snell", false,
+            Day.Friday, 1200, Day.Friday, 1300, List.of());
+    this.week = new WeekViewPanel(this.model, "Ben", false);
+    this.week.setSize(700, 690);
+    this.week.doLayout();
+  }
+
+  @Test
+  public void testPanelsOfEachDay() {
+    exampleWeek();
+    // Monday to Thursday for the meeting and Friday for lunch
+    assertEquals(5, this.week.getComponentCount());
+    Component monday = this.week.getComponent(0);
+    assertEquals(100, monday.getX());
+    assertEquals(20 * 30, monday.getY());
+    assertEquals(690 - 20 * 30, monday.getHeight());
+  }
+
+  @Test
+  public void testOnlyChangedEventsAreRedone() {
+    exampleWeek();
+    Component lunch = this.week.getComponent(4);
+    this.model.createEvent("Ben", "Gym", "Marino", false,
+            Day.Saturday, 900, Day.Saturday, 1000, List.of());
+    this.week.update("Ben", false);
+    assertEquals(6, this.week.getComponentCount());
+    assertSame(lunch, this.week.getComponent(4));
+
+    this.model.modifyEvent(this.work, "OOD", "Snell", false, Day.Monday, 2100,
+            Day.Monday, 2200, List.of("Nico"), "Ben");
+    this.week.update("Ben", false);
+    assertEquals(3, this.week.getComponentCount());
+    assertSame(lunch, this.week.getComponent(0));
+    assertEquals(21 * 30, this.week.getComponent(2).getY());
+
+    // Nico shares the meeting, so switching to Nico keeps its panel
+    Component meeting = this.week.getComponent(2);
+    this.week.update("Nico", false);
+    assertEquals(1, this.week.getComponentCount());
+    assertSame(meeting, this.week.getComponent(0));
+
+    // Telling the host's events apart redoes only the events Nico hosts, which is none
+    this.week.update("Nico", true);
+    assertSame(meeting, this.week.getComponent(0));
+    this.week.update("Ben", true);
+    assertNotSame(meeting, this.week.getComponent(0));
+  }
+
+  @Test
+  public void testLaidOutOnlyWhenResized() {
+    exampleWeek();
+    Component monday = this.week.getComponent(0);
+    monday.setLocation(0, 0);
+    this.week.doLayout();
+    assertEquals(0, monday.getX());
+
+    this.week.setSize(1400, 690);
+    this.week.doLayout();
+    assertEquals(200, monday.getX());
+    assertEquals(200, monday.getWidth());
+  }
+
+  @Test
+  public void testPaint() {
+    exampleWeek();
+    BufferedImage image = new BufferedImage(700, 690, BufferedImage.TYPE_INT_RGB);
+    Graphics2D g = image.createGraphics();
+    this.week.paint(g);
+    g.dispose();
+    // Inside lunch on Friday, on a gridline and on the empty Sunday
+    assertEquals(Color.RED.getRGB(), image.getRGB(550, 375));
+    assertEquals(Color.BLACK.getRGB(), image.getRGB(50, 30));
+    assertEquals(this.week.getBackground().getRGB(), image.getRGB(50, 45));
+  }
+}